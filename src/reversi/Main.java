@@ -30,9 +30,9 @@
  */
 package reversi;
 
-import reversi.actor.Actor;
 import reversi.actor.AlphaBetaActor;
 import reversi.actor.HumanActor;
+import reversi.actor.TranspositionTable;
 import reversi.game.Game;
 import reversi.game.ReversiGame;
 import reversi.player.ActorsPair;
@@ -48,8 +48,13 @@ import reversi.ui.GraphicalGameView;
  * @version 1.0 - 21. May 2016
  */
 public class Main {
+    //The size of the transposition table of the computer in megabytes
+    private static final int TRANSPOSITION_TABLE_SIZE = 16;
+
     public static void main(String[] args) {
-        Actor actor = new AlphaBetaActor();
+        AlphaBetaActor actor = new AlphaBetaActor();
+        //The table keeps what the computer searched while the human was thinking
+        actor.setTranspositionTable(new TranspositionTable(TRANSPOSITION_TABLE_SIZE));
         HumanActor humanActor = new HumanActor();
 
         ActorsPair actorsPair = new ActorsPair(actor, humanActor);
@@ -30,6 +30,8 @@
  */
 package reversi.actor;
 
+import reversi.game.GameClock;
+
 /**
  * This is the base class for any Actor needed in the ReversiGame.
  *
@@ -63,6 +65,20 @@ public abstract class Actor {
     public void refreshActor() {
     }
 
+    /**
+     * This method tells the Actor the clock of the game, so it can plan the time of its moves.
+     *
+     * @param gameClock The GameClock of the game, null if the game is played without a clock.
+     */
+    public void setGameClock(GameClock gameClock) {
+    }
+
+    /**
+     * This method stops everything the Actor does while it is not its turn. It returns when the Actor has stopped.
+     */
+    public void stopPondering() {
+    }
+
     /**
      * This method should return the Strategy of the Actor.
      *
@@ -33,13 +33,17 @@ package reversi.actor;
 import reversi.actor.alphabeta.OrderedLegalMoves;
 import reversi.actor.alphabeta.StaticOrderedLegalMoves;
 import reversi.board.Board;
+import reversi.board.CanonicalPosition;
 import reversi.board.GameMove;
 import reversi.board.GamePosition;
+import reversi.board.MoveList;
+import reversi.board.Square;
+import reversi.board.Symmetry;
+import reversi.evaluation.CountDifferenceEvaluation;
 import reversi.evaluation.Evaluation;
+import reversi.evaluation.stability.StabilityAnalyser;
 import reversi.player.Player;
 
-import java.util.List;
-
 /**
  * This is an Actor with an AlphaBeta search Algorithm implemented.
  *
@@ -49,8 +53,21 @@ import java.util.List;
  * @version 1.0 - 12. June 2016
  */
 public class AlphaBetaActor extends ComputerActor {
+    //the stability cutoff is only tried if at least this depth is left, because the analysis costs more than a leaf
+    private static final int STABILITY_CUTOFF_DEPTH = 2;
+    //the distance of the bounds of the aspiration window from the guessed value
+    private static final int ASPIRATION_WINDOW = 4;
+
     //the interface that returns a ordered game move list
     private OrderedLegalMoves legalMoveSearcher;
+    //the table storing already searched positions, null if no table should be used
+    private TranspositionTable transpositionTable;
+    //one MoveList for every remaining depth, so that the search does not need to create any lists
+    private MoveList[] moveLists = new MoveList[0];
+    //the analyser of the stable pieces for the stability cutoff, null if the cutoff should not be used
+    private StabilityAnalyser stabilityAnalyser;
+    //true if the running search uses the stability cutoff
+    private boolean isStabilityCutoffUsed;
 
     public AlphaBetaActor() {
         super("AlphaBeta");
@@ -59,6 +76,43 @@ public class AlphaBetaActor extends ComputerActor {
         legalMoveSearcher = new StaticOrderedLegalMoves();
     }
 
+    /**
+     * Constructor of an AlphaBetaActor that evaluates the positions with the given Evaluation instead of the
+     * MixedEvaluation. With the CountDifferenceEvaluation the values are the differences of pieces, as needed for the
+     * stability cutoff.
+     *
+     * @param evaluation The Evaluation of the positions.
+     */
+    public AlphaBetaActor(Evaluation evaluation) {
+        super("AlphaBeta", evaluation);
+
+        //create the legalMoveSearcher
+        legalMoveSearcher = new StaticOrderedLegalMoves();
+    }
+
+    /**
+     * This method sets the TranspositionTable that should be used by the search. The same table can be shared between
+     * several AlphaBetaActors searching in different threads.
+     *
+     * @param transpositionTable The TranspositionTable that should be used, null if no table should be used.
+     */
+    public void setTranspositionTable(TranspositionTable transpositionTable) {
+        this.transpositionTable = transpositionTable;
+    }
+
+    /**
+     * This method enables or disables the stability cutoff. A node is cut off if the stable pieces of the opponent
+     * leave no difference of pieces that is better than alpha.
+     *
+     * The cutoff compares a difference of pieces with alpha, so it is only used if the search evaluates the positions
+     * with the CountDifferenceEvaluation. With any other Evaluation the setting has no effect.
+     *
+     * @param isEnabled true if the stability cutoff should be used.
+     */
+    public void setStabilityCutoff(boolean isEnabled) {
+        this.stabilityAnalyser = isEnabled ? new StabilityAnalyser() : null;
+    }
+
     /**
      * This method returns the best move that the ComputerActor can do assuming that the human player is also
      * always playing with its best move.
@@ -74,8 +128,80 @@ public class AlphaBetaActor extends ComputerActor {
         Player player = gamePosition.getCurrentPlayer();
         Board board = gamePosition.getBoard();
 
-        //Return the best move found by the AlphaBeta algorithm
-        return searchImpl(player, board, LOOSING_VALUE, WINNING_VALUE, depth, evaluation);
+        //Make sure there is a big enough MoveList for every depth
+        int numberOfSquares = board.getBoardWidth() * board.getBoardHeight();
+        if (moveLists.length <= depth || moveLists[0].getCapacity() < numberOfSquares) {
+            moveLists = new MoveList[depth + 1];
+            for (int i = 0; i < moveLists.length; i++) {
+                moveLists[i] = new MoveList(numberOfSquares);
+            }
+        }
+
+        //The stable pieces only bound the values of an Evaluation that returns the difference of pieces
+        isStabilityCutoffUsed = stabilityAnalyser != null && isCountDifference(evaluation);
+
+        //The values of two iterations with an odd and an even depth differ a lot, because the last move of the player
+        //who moves last is not answered. So the value of the iteration two plies ago is the guess of the value, without
+        //a guess the full window is searched
+        SearchNode guess = getFinishedIteration(depth - 2);
+        if (guess == null) {
+            return searchImpl(player, board, LOOSING_VALUE, WINNING_VALUE, depth, evaluation);
+        }
+
+        //Search with a narrow window around the guessed value. A value outside of the window is only a bound, so the
+        //window is widened in that direction and the root is searched again. The values of the evaluation jump by the
+        //weight of a corner, so widening in small steps would need many searches and the side of the window is opened
+        //completely instead
+        int alpha = toWindowBound((long) guess.getEvaluationValue() - ASPIRATION_WINDOW);
+        int beta = toWindowBound((long) guess.getEvaluationValue() + ASPIRATION_WINDOW);
+        boolean isFirstSearch = true;
+        while (true) {
+            SearchNode node = searchImpl(player, board, alpha, beta, depth, evaluation);
+
+            //The value of a stopped search is not used anyway
+            if (isSearchStopped()) {
+                return node;
+            }
+
+            //The first search has shown on which side of the window the value is, so the other side can be closed.
+            //The following searches only widen the window, so there are three searches at most
+            int value = node.getEvaluationValue();
+            if (value <= alpha && alpha > LOOSING_VALUE) {
+                getStatistics().countAspirationResearch(false);
+                beta = isFirstSearch ? alpha + 1 : beta;
+                alpha = LOOSING_VALUE;
+            } else if (value >= beta && beta < WINNING_VALUE) {
+                getStatistics().countAspirationResearch(true);
+                alpha = isFirstSearch ? beta - 1 : alpha;
+                beta = WINNING_VALUE;
+            } else {
+                return node;
+            }
+            isFirstSearch = false;
+        }
+    }
+
+    /**
+     * This method checks if an Evaluation returns the difference of pieces in the view of the player whose turn it is.
+     * A subclass of the CountDifferenceEvaluation could return other values, so only the class itself is accepted.
+     *
+     * @param evaluation The Evaluation of the search.
+     *
+     * @return true if the Evaluation is a CountDifferenceEvaluation.
+     */
+    private static boolean isCountDifference(Evaluation evaluation) {
+        return evaluation.getClass() == CountDifferenceEvaluation.class;
+    }
+
+    /**
+     * This method limits a bound of the aspiration window to the values between LOOSING_VALUE and WINNING_VALUE.
+     *
+     * @param bound The bound, which can be outside of the range of int.
+     *
+     * @return The bound within LOOSING_VALUE and WINNING_VALUE.
+     */
+    private int toWindowBound(long bound) {
+        return (int) Math.max(LOOSING_VALUE, Math.min(WINNING_VALUE, bound));
     }
 
     /**
@@ -90,35 +216,98 @@ public class AlphaBetaActor extends ComputerActor {
      * @return The best move of the AlphaBetaActor
      */
     private SearchNode searchImpl(Player player, Board board, int alpha, int beta, int depth, Evaluation evaluation) {
-        //If interrupted stop Searching as soon as possible
-        if (isInterrupted()) {
+        //If a limit is reached stop Searching as soon as possible
+        if (shouldStopSearch()) {
             return new SearchNode(null, 0);
         }
 
-        //get the opponent of the current player
-        Player opponent = player.getOpponent();
+        SearchStatistics statistics = getStatistics();
+        statistics.countNode(depth);
 
         //If depth is reached stop searching and just return an evaluation value of the current position
         if (depth == 0 || !board.hasAnyPlayerAnyLegalMoves()) {
+            statistics.countLeafEvaluation();
             return new SearchNode(null, evaluation.evaluateGame(new GamePosition(board, player)));
         }
 
+        //Look up the position in the transposition table, all orientations of a position share one entry and the best
+        //move is stored in canonical orientation. The canonical key is calculated without creating any object
+        int boardWidth = board.getBoardWidth();
+        long canonicalKey = 0L;
+        Symmetry symmetry = null;
+        int hashMoveIndex = TranspositionTable.NO_MOVE;
+        if (transpositionTable != null) {
+            canonicalKey = CanonicalPosition.keyOf(board, player);
+            symmetry = CanonicalPosition.getKeySymmetry(canonicalKey);
+            long entry = transpositionTable.probe(CanonicalPosition.getKeyHash(canonicalKey));
+            statistics.countTranspositionProbe(entry != TranspositionTable.NO_ENTRY);
+
+            if (entry != TranspositionTable.NO_ENTRY) {
+                hashMoveIndex = TranspositionTable.getMoveIndex(entry);
+                if (hashMoveIndex != TranspositionTable.NO_MOVE) {
+                    hashMoveIndex = symmetry.inverse().transformIndex(hashMoveIndex, boardWidth);
+                }
+
+                //The stored value can only be used if the position was searched at least as deep as needed now
+                if (TranspositionTable.getDepth(entry) >= depth) {
+                    int value = TranspositionTable.getValue(entry);
+                    int bound = TranspositionTable.getBound(entry);
+                    GameMove hashMove = getGameMove(board, hashMoveIndex);
+
+                    if (bound == TranspositionTable.BOUND_EXACT && hashMove != null) {
+                        return new SearchNode(hashMove, value);
+                    }
+                    if (bound == TranspositionTable.BOUND_LOWER && value >= beta && hashMove != null) {
+                        return new SearchNode(hashMove, value);
+                    }
+                    if (bound == TranspositionTable.BOUND_UPPER && value <= alpha) {
+                        return new SearchNode(null, alpha);
+                    }
+                }
+            }
+        }
+
+        //The stable pieces of the opponent stay the opponent's pieces, if the best reachable difference of pieces is not
+        //better than alpha, no move has to be searched
+        if (isStabilityCutoffUsed && depth >= STABILITY_CUTOFF_DEPTH) {
+            stabilityAnalyser.analyse(board);
+            if (stabilityAnalyser.getMaximalDifference(player) <= alpha) {
+                statistics.countStabilityCutoff();
+                return new SearchNode(null, alpha);
+            }
+        }
+
         //Get all legal moves of the current player sorted
-        List<GameMove> legalMoves = legalMoveSearcher.getSortedList(board, player);
+        MoveList legalMoves = moveLists[depth];
+        legalMoveSearcher.getSortedMoves(board, player, legalMoves);
+
+        //Search the best move of a previous search first, because it will most likely cause a cut off
+        if (hashMoveIndex != TranspositionTable.NO_MOVE) {
+            legalMoves.moveToFront(hashMoveIndex);
+        }
 
         //The best search node
         //The first node hat the lowest possible evaluation value.
         SearchNode node = new SearchNode(null, alpha);
 
         //Iterate over all possible moves and evaluate them
-        for (GameMove move : legalMoves) {
+        for (int moveNumber = 0; moveNumber < legalMoves.size(); moveNumber++) {
+            GameMove move = getGameMove(board, legalMoves.get(moveNumber));
+
             //The GamePosition and board after making the move
-            GamePosition position = board.makeMove(move, player);
+            GamePosition position = board.makeMove(legalMoves, moveNumber, player);
             Board cBoard = position.getBoard();
 
-            //The evaluation value of the current board.
-            int value = searchImpl(opponent, cBoard, -beta, -node.getEvaluationValue(), depth - 1,
-                    evaluation).negated().getEvaluationValue();
+            //The evaluation value of the current board. If the opponent has to pass the player moves again, so the
+            //value and the window are not negated
+            int value;
+            if (position.getCurrentPlayer() == player) {
+                value = searchImpl(player, cBoard, node.getEvaluationValue(), beta, depth - 1,
+                        evaluation).getEvaluationValue();
+            } else {
+                value = searchImpl(position.getCurrentPlayer(), cBoard, -beta, -node.getEvaluationValue(),
+                        depth - 1, evaluation).negated().getEvaluationValue();
+            }
 
             //Change SearchNode if the new node is a better move for the game.
             if (value > node.getEvaluationValue()) {
@@ -126,10 +315,65 @@ public class AlphaBetaActor extends ComputerActor {
             }
             //If the move can't be done because the opponent would prevent this from happening stop searching.
             if (node.getEvaluationValue() >= beta) {
+                statistics.countBetaCutoff(moveNumber);
                 break;
             }
         }
 
+        //Store the result, but only if the search was not stopped because then the result is incomplete
+        if (transpositionTable != null && !isSearchStopped()) {
+            int bound;
+            if (node.getEvaluationValue() >= beta) {
+                bound = TranspositionTable.BOUND_LOWER;
+            } else if (node.getGameMove() == null) {
+                bound = TranspositionTable.BOUND_UPPER;
+            } else {
+                bound = TranspositionTable.BOUND_EXACT;
+            }
+
+            int moveIndex = getSquareIndex(board, node.getGameMove());
+            if (moveIndex != TranspositionTable.NO_MOVE) {
+                moveIndex = symmetry.transformIndex(moveIndex, boardWidth);
+            }
+
+            transpositionTable.store(CanonicalPosition.getKeyHash(canonicalKey), depth, node.getEvaluationValue(),
+                    bound, moveIndex);
+        }
+
         return node;
     }
+
+    /**
+     * This method returns the index of the square of a GameMove. The squares are numbered row by row.
+     *
+     * @param board    The board the GameMove belongs to.
+     * @param gameMove The GameMove whose square index should be returned.
+     *
+     * @return The square index of the GameMove or TranspositionTable.NO_MOVE if there is no GameMove.
+     */
+    private int getSquareIndex(Board board, GameMove gameMove) {
+        if (gameMove == null) {
+            return TranspositionTable.NO_MOVE;
+        }
+
+        Square square = gameMove.getSquare();
+        return square.getYPosition() * board.getBoardWidth() + square.getXPosition();
+    }
+
+    /**
+     * This method returns the GameMove to the square with the given square index.
+     *
+     * @param board     The board the GameMove belongs to.
+     * @param moveIndex The square index of the GameMove.
+     *
+     * @return The GameMove or null if the square index is TranspositionTable.NO_MOVE.
+     */
+    private GameMove getGameMove(Board board, int moveIndex) {
+        if (moveIndex == TranspositionTable.NO_MOVE) {
+            return null;
+        }
+
+        int boardWidth = board.getBoardWidth();
+        return GameMove.valueOf(board.getSquare(moveIndex % boardWidth, moveIndex / boardWidth));
+    }
 }
@@ -30,48 +30,246 @@
  */
 package reversi.actor;
 
+import reversi.board.Board;
 import reversi.board.GameMove;
 import reversi.board.GamePosition;
+import reversi.book.BookMove;
+import reversi.book.OpeningBook;
 import reversi.evaluation.Evaluation;
 import reversi.evaluation.MixedEvaluation;
+import reversi.game.ConfigurationSnapshot;
+import reversi.game.GameClock;
 import reversi.game.ReversiGameConfiguration;
+import reversi.monitoring.EngineEvents;
+import reversi.player.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * This is the base class for any ComputerActor needed in the ReversiGame.
  *
  * A ComputerActor is responsible for making a move in the game without needing any feedback.
  *
+ * A search is limited by SearchLimits. The limits are not checked at every node, the search counts down the nodes until
+ * the next check, so checking the clock and the stop flags costs almost nothing.
+ *
+ * While the opponent is thinking the ComputerActor can search the replies to its move in another thread (pondering).
+ * If the reply that is played was searched completely the move is made instantly, otherwise the search starts with the
+ * tables the pondering has filled. The pondering is always stopped before the ComputerActor searches itself, so the
+ * search algorithms never run in two threads at the same time.
+ *
  * @author Sascha Lutzenberger
  * @version 1.0 - 12. June 2016
  */
 public abstract class ComputerActor extends Actor {
-    //Constants declaring the MAXIMAL and MINIMAL VALUE for WINNING OR LOOSING the ReversiGame.
+    //Constants declaring the MAXIMAL and MINIMAL VALUE for WINNING OR LOOSING the ReversiGame. The values are
+    //symmetric, because -Integer.MIN_VALUE does not exist and the search negates the values.
     final int WINNING_VALUE = Integer.MAX_VALUE;
-    final int LOOSING_VALUE = Integer.MIN_VALUE;
+    final int LOOSING_VALUE = -WINNING_VALUE;
+    //The number of nodes between two checks of the limits of a search.
+    private static final int LIMIT_CHECK_INTERVAL = 256;
     //How any GamePosition will be evaluated.
     private final Evaluation evaluation;
     //The depth of how many GamePositions will be evaluated.
     private int DEPTH;
+    //The listeners that are notified when a search is finished.
+    private final List<SearchListener> searchListeners = new CopyOnWriteArrayList<>();
+    //The SearchMonitor the searches are reported to, null if they are not reported.
+    private SearchMonitor searchMonitor;
+    //The statistics of the search that is currently running, only used by the searching thread.
+    private SearchStatistics statistics;
+    //The limits of the search that is currently running, only used by the searching thread.
+    private SearchLimits searchLimits;
+    //The time in nanoseconds when the running search has to stop, only used if the search has a time limit.
+    private long searchDeadline;
+    //The number of nodes until the limits of the running search are checked again.
+    private long nodesUntilLimitCheck;
+    //true if the running search has reached one of its limits.
+    private boolean isSearchStopped;
+    //The results of the finished iterations of the running search, the index is the depth of the iteration.
+    private final List<SearchNode> finishedIterations = new ArrayList<>();
+    //The maximal number of nodes and the maximal time in milliseconds of the searches of the Strategy.
+    private volatile long moveNodeLimit = SearchLimits.UNLIMITED;
+    private volatile long moveTimeLimit = SearchLimits.UNLIMITED;
+    //The limits of the search the Strategy is running at the moment, null if the Strategy is not searching.
+    private volatile SearchLimits moveSearchLimits;
+    //The result of the last search that was done by the Strategy.
+    private volatile SearchResult lastSearchResult;
+    //The clock of the game, null if the game is played without a clock.
+    private volatile GameClock gameClock;
+    //The opening book that is consulted before searching, null if no book is used.
+    private volatile OpeningBook openingBook;
+    //The configured book file the opening book was loaded from.
+    private String bookFile = "";
+    //How much worse than the best book move a book move may be to be played.
+    private volatile int bookScoreWindow;
+    //Chooses between the book moves within the score window.
+    private final Random bookRandom = new Random();
+    //true if the replies to a move are searched while the opponent is thinking.
+    private volatile boolean isPonderEnabled;
+    //The thread searching the replies, null if the ComputerActor is not pondering.
+    private Thread ponderThread;
+    //The position the ponder thread is searching at the moment.
+    private volatile GamePosition ponderPosition;
+    //true if the ponder thread should stop as soon as the position it is searching at the moment is finished.
+    private volatile boolean isPonderFinishing;
+    //The results of the replies that were searched completely while pondering.
+    private final Map<GamePosition, SearchResult> ponderResults = new ConcurrentHashMap<>();
 
     ComputerActor(String name) {
+        //Use the mobility evaluation for all computer actors.
+        this(name, new MixedEvaluation());
+    }
+
+    ComputerActor(String name, Evaluation evaluation) {
         super(name);
 
         refreshActor();
 
-        //Use the mobility evaluation for all computer actors.
-        evaluation = new MixedEvaluation();
+        this.evaluation = evaluation;
+
+        //Every search is reported to the monitor of the engine
+        setSearchMonitor(SearchMonitor.getInstance());
+    }
+
+    /**
+     * This method sets the SearchMonitor the searches of this ComputerActor are reported to. The actors of the
+     * analysis tools report to SearchMonitor.getAnalysisInstance(), so that the statistics of the engine only contain
+     * the searches of the game.
+     *
+     * @param searchMonitor The SearchMonitor, null if the searches should not be reported.
+     */
+    public void setSearchMonitor(SearchMonitor searchMonitor) {
+        if (this.searchMonitor != null) {
+            removeSearchListener(this.searchMonitor);
+        }
+
+        this.searchMonitor = searchMonitor;
+        if (searchMonitor != null) {
+            addSearchListener(searchMonitor);
+        }
+    }
+
+    /**
+     * This method registers a listener that is notified whenever a search of this ComputerActor is finished.
+     *
+     * @param listener The listener that should be notified.
+     */
+    public void addSearchListener(SearchListener listener) {
+        searchListeners.add(listener);
+    }
+
+    /**
+     * This method removes a registered listener.
+     *
+     * @param listener The listener that should no longer be notified.
+     */
+    public void removeSearchListener(SearchListener listener) {
+        searchListeners.remove(listener);
+    }
+
+    /**
+     * This method sets the opening book that is consulted before a move is searched. The book is replaced when another
+     * book file is configured.
+     *
+     * @param openingBook The OpeningBook that should be used, null if no book should be used.
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    /**
+     * This method returns the opening book that is consulted before a move is searched.
+     *
+     * @return The OpeningBook or null if no book is used.
+     */
+    public OpeningBook getOpeningBook() {
+        return openingBook;
+    }
+
+    /**
+     * This method sets the limits of the searches the Strategy runs for the moves in a game. The depth of the search is
+     * the configured search depth. With a node limit and without a time limit the moves are deterministic, which is
+     * useful for tests.
+     *
+     * @param maximalNodes The maximal number of nodes of a move, SearchLimits.UNLIMITED if the number is unlimited.
+     * @param maximalTime  The maximal time of a move in milliseconds, SearchLimits.UNLIMITED if the time is unlimited.
+     */
+    public void setMoveLimits(long maximalNodes, long maximalTime) {
+        if (maximalNodes < 0 || maximalTime < 0) {
+            throw new IllegalArgumentException("The node limit and the time limit can not be negative");
+        }
+
+        this.moveNodeLimit = maximalNodes;
+        this.moveTimeLimit = maximalTime;
+    }
+
+    /**
+     * This method stops the search the Strategy is running at the moment, the best move found so far is played. It
+     * can be called by any thread, nothing is done if the Strategy is not searching.
+     */
+    public void stopSearch() {
+        SearchLimits limits = moveSearchLimits;
+        if (limits != null) {
+            limits.stop();
+        }
+    }
+
+    @Override
+    public void setGameClock(GameClock gameClock) {
+        this.gameClock = gameClock;
     }
 
     @Override
     public void refreshActor() {
-        //Get the configuration and load the search depth from the config file.
-        ReversiGameConfiguration config = ReversiGameConfiguration.getInstance();
-        DEPTH = Integer.parseInt(config.getProperty(ReversiGameConfiguration.ALGORITHM_SEARCH_DEPTH, "5"));
+        ConfigurationSnapshot snapshot = ReversiGameConfiguration.getInstance().getSnapshot();
+
+        //Load the search depth from the current configuration.
+        DEPTH = snapshot.getSearchDepth();
+        isPonderEnabled = snapshot.isPonderEnabled();
+
+        //The book file is only mapped again if another file is configured
+        bookScoreWindow = snapshot.getBookScoreWindow();
+        if (!snapshot.getBookFile().equals(bookFile)) {
+            bookFile = snapshot.getBookFile();
+            openingBook = loadOpeningBook(bookFile);
+        }
+    }
+
+    /**
+     * This method maps the configured opening book file.
+     *
+     * @param bookFile The path of the book file.
+     *
+     * @return The OpeningBook or null if no file is configured or the file can not be read.
+     */
+    private OpeningBook loadOpeningBook(String bookFile) {
+        if (bookFile.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return OpeningBook.open(new File(bookFile));
+        } catch (IOException ioe) {
+            //Without a book the computer still plays, it just has to search every move
+            ioe.printStackTrace();
+            return null;
+        }
     }
 
     /**
-     * This is the base Strategy that all ComputerActors will use. They just make the best move that will be returned
-     * by the search(GamePosition, int, Evaluation) method.
+     * This is the base Strategy that all ComputerActors will use. They play the move of the opening book if the
+     * position is in the book, otherwise they just make the best move that will be returned by the
+     * search(GamePosition, int, Evaluation) method within the limits set by setMoveLimits(long, long). If the game is
+     * played with a clock the search is not limited by the configured depth, but by the time a TimeManager allocates
+     * for the move.
      *
      * @return The base Strategy for every computer actor.
      */
@@ -79,24 +277,503 @@ public abstract class ComputerActor extends Actor {
     public Strategy getStrategy() {
         return new Strategy() {
             @Override
-            public GameMove move(GamePosition gamePosition) {
-                SearchNode node = search(gamePosition, DEPTH, evaluation);
-                return node.getGameMove();
+            public GameMove move(GamePosition gamePosition) throws InterruptedException {
+                SearchResult result = lookUpOpeningBook(gamePosition);
+                if (result == null) {
+                    result = takePonderResult(gamePosition);
+                }
+                if (result == null) {
+                    GameClock clock = gameClock;
+                    TimeManager timeManager = null;
+                    SearchLimits limits;
+                    if (clock == null) {
+                        limits = new SearchLimits(DEPTH, moveNodeLimit, moveTimeLimit);
+                    } else {
+                        int emptySquares = countEmptySquares(gamePosition);
+                        timeManager = new TimeManager(clock.getRemainingTime(gamePosition.getCurrentPlayer()),
+                                clock.getIncrement(), emptySquares);
+
+                        //A search that is done in one iteration can not decide when to stop, it uses the soft limit
+                        long time = isDepthLimited() ? timeManager.getHardTime() : timeManager.getSoftTime();
+                        if (moveTimeLimit != SearchLimits.UNLIMITED) {
+                            time = Math.min(time, moveTimeLimit);
+                        }
+                        limits = new SearchLimits(Math.max(1, emptySquares), moveNodeLimit, time);
+                    }
+
+                    moveSearchLimits = limits;
+                    try {
+                        result = runSearch(gamePosition, limits, Math.min(1, limits.getMaximalDepth()), timeManager);
+                        reportSearch(gamePosition, result);
+                    } finally {
+                        moveSearchLimits = null;
+                    }
+                }
+                lastSearchResult = result;
+
+                return result.getGameMove();
             }
         };
     }
 
     /**
-     * This method should be called when any computer search is done, because it should be possible to stop the search
-     * if a game has to be interrupted.
+     * This method searches the best move of a GamePosition with a given depth. It can be used to analyse positions
+     * outside of a running game as well.
+     *
+     * The position is searched with the given depth only, without the iterations of smaller depths. If the thread is
+     * interrupted the search stops and the result has the depth 0.
+     *
+     * @param gamePosition The GamePosition that should be searched.
+     * @param depth        How many moves the computer should evaluate to find its best move.
+     *
+     * @return The SearchResult containing the best move, its evaluation value and the statistics of the search.
+     */
+    public final SearchResult searchPosition(GamePosition gamePosition, int depth) {
+        SearchResult result = runSearch(gamePosition, SearchLimits.ofDepth(depth), depth, null);
+        reportSearch(gamePosition, result);
+
+        return result;
+    }
+
+    /**
+     * This method searches the best move of a GamePosition iteration by iteration with increasing depth until one of
+     * the limits is reached. It can be used to analyse positions outside of a running game as well.
+     *
+     * If the search is stopped by a limit, by SearchLimits.stop() or by interrupting the thread, the result of the
+     * last finished iteration is returned.
+     *
+     * @param gamePosition The GamePosition that should be searched.
+     * @param searchLimits The limits of the search.
+     *
+     * @return The SearchResult containing the best move, its evaluation value, the depth of the last finished
+     * iteration and the statistics of the search.
+     */
+    public final SearchResult searchPosition(GamePosition gamePosition, SearchLimits searchLimits) {
+        SearchResult result = runSearch(gamePosition, searchLimits, Math.min(1, searchLimits.getMaximalDepth()),
+                null);
+        reportSearch(gamePosition, result);
+
+        return result;
+    }
+
+    /**
+     * This method searches the best move of a GamePosition without reporting the search.
+     *
+     * @param gamePosition The GamePosition that should be searched.
+     * @param limits       The limits of the search.
+     * @param firstDepth   The depth of the first iteration.
+     * @param timeManager  The TimeManager that decides if the next iteration is started, null if every iteration up
+     *                     to the limits is searched.
+     *
+     * @return The SearchResult of the search.
+     */
+    private SearchResult runSearch(GamePosition gamePosition, SearchLimits limits, int firstDepth,
+                                   TimeManager timeManager) {
+        statistics = new SearchStatistics(firstDepth);
+        finishedIterations.clear();
+        startSearchLimits(limits);
+
+        //A search that is not limited by its depth is done in one iteration
+        int depth = isDepthLimited() ? firstDepth : limits.getMaximalDepth();
+        SearchNode bestNode = null;
+        int finishedDepth = 0;
+
+        for (; depth <= limits.getMaximalDepth(); depth++) {
+            Object iterationEvent = EngineEvents.searchIterationStarted();
+            statistics.startIteration(depth);
+            SearchNode node = search(gamePosition, depth, evaluation);
+
+            //The values of a stopped iteration are incomplete, so the result of the previous iteration is kept and
+            //the iteration is not reported
+            if (isSearchStopped && isDepthLimited()) {
+                break;
+            }
+
+            //A search that is not limited by its depth reports the deepest ply it has reached
+            int reachedDepth = isDepthLimited() ? depth : statistics.getMaxDepth();
+            EngineEvents.searchIterationCompleted(iterationEvent, getName(), reachedDepth, node.getGameMove(),
+                    node.getEvaluationValue(), statistics.getIterationNodes(), getIterationNodesPerSecond(),
+                    statistics.getIterationFirstMoveCutoffRatio());
+
+            bestNode = node;
+            finishedDepth = reachedDepth;
+            while (finishedIterations.size() <= depth) {
+                finishedIterations.add(null);
+            }
+            finishedIterations.set(depth, node);
+
+            if (isSearchStopped || (timeManager != null && !timeManager.shouldStartNextIteration(node))) {
+                break;
+            }
+        }
+
+        //If not even the first iteration was finished any legal move is better than no move
+        if (bestNode == null) {
+            List<GameMove> legalMoves = gamePosition.getBoard().getAllLegalMoves(gamePosition.getCurrentPlayer());
+            bestNode = new SearchNode(legalMoves.isEmpty() ? null : legalMoves.get(0), 0);
+        }
+
+        statistics.stop();
+
+        SearchResult result = new SearchResult(bestNode.getGameMove(), bestNode.getEvaluationValue(), finishedDepth,
+                statistics);
+        statistics = null;
+        searchLimits = null;
+        finishedIterations.clear();
+
+        return result;
+    }
+
+    /**
+     * This method returns the number of nodes per second of the current iteration of the running search.
+     *
+     * @return The nodes per second, 0 if no time was measured.
+     */
+    private long getIterationNodesPerSecond() {
+        long elapsedTime = statistics.getIterationElapsedTime();
+
+        return (elapsedTime == 0) ? 0 : (long) (statistics.getIterationNodes() * 1000000000.0 / elapsedTime);
+    }
+
+    /**
+     * This method counts the empty squares of a GamePosition, no search has to be deeper than this number.
+     *
+     * @param gamePosition The GamePosition.
+     *
+     * @return The number of empty squares.
+     */
+    private static int countEmptySquares(GamePosition gamePosition) {
+        Board board = gamePosition.getBoard();
+
+        return board.getBoardWidth() * board.getBoardHeight() - board.countPieces(Player.BLACK) -
+                board.countPieces(Player.WHITE);
+    }
+
+    /**
+     * This method prepares the checks of the limits of a search that is started.
+     *
+     * @param limits The limits of the search.
+     */
+    private void startSearchLimits(SearchLimits limits) {
+        searchLimits = limits;
+        searchDeadline = System.nanoTime() + limits.getMaximalTime() * 1000000L;
+        isSearchStopped = false;
+
+        //The limits are checked at the first node
+        nodesUntilLimitCheck = 0;
+    }
+
+    /**
+     * This method reports a finished search to the flight recorder and all listeners.
      *
-     * @return true if the algorithm should be interrupted. false if the algorithm should not be interrupted.
+     * @param gamePosition The GamePosition that was searched.
+     * @param result       The result of the search.
+     */
+    private void reportSearch(GamePosition gamePosition, SearchResult result) {
+        //Every iteration has been reported by runSearch already
+        SearchStatistics resultStatistics = result.getStatistics();
+        if (resultStatistics.getTranspositionProbes() > 0) {
+            EngineEvents.transpositionTableUsed(getName(), resultStatistics.getTranspositionProbes(),
+                    resultStatistics.getTranspositionHits());
+        }
+
+        //Let all listeners know about the finished search
+        for (SearchListener listener : searchListeners) {
+            listener.searchFinished(this, gamePosition, result);
+        }
+    }
+
+    /**
+     * This method starts searching the replies to a move of this ComputerActor while the opponent is thinking. The
+     * expected reply is searched first, then all other replies. Nothing is done if pondering is not enabled.
+     *
+     * The search methods of this ComputerActor must not be called until stopPondering() is called, only the Strategy
+     * stops the pondering itself.
+     *
+     * @param gamePosition The GamePosition after the move of this ComputerActor, the opponent has to move.
+     */
+    public synchronized void startPondering(final GamePosition gamePosition) {
+        stopPondering();
+        ponderResults.clear();
+
+        if (!isPonderEnabled) {
+            return;
+        }
+
+        final int depth = DEPTH;
+        isPonderFinishing = false;
+        ponderThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                ponder(gamePosition, depth);
+            }
+        }, getName() + " ponder");
+        ponderThread.setDaemon(true);
+        ponderThread.start();
+    }
+
+    /**
+     * This method stops the pondering. It returns when the ponder thread has stopped, which is the case as soon as the
+     * search notices the interruption.
+     */
+    @Override
+    public synchronized void stopPondering() {
+        if (ponderThread == null) {
+            return;
+        }
+
+        ponderThread.interrupt();
+
+        //The caller has to wait anyway, an interruption is restored after waiting
+        boolean isInterrupted = false;
+        while (true) {
+            try {
+                ponderThread.join();
+                break;
+            } catch (InterruptedException ie) {
+                isInterrupted = true;
+            }
+        }
+
+        ponderThread = null;
+        ponderPosition = null;
+
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * This method searches the replies of the opponent, it runs in the ponder thread until all replies are searched or
+     * the thread is interrupted.
+     *
+     * @param gamePosition The GamePosition after the move of this ComputerActor.
+     * @param depth        The depth every reply is searched with.
+     */
+    private void ponder(GamePosition gamePosition, int depth) {
+        Board board = gamePosition.getBoard();
+        Player opponent = gamePosition.getCurrentPlayer();
+        List<GameMove> replies = new ArrayList<>(board.getAllLegalMoves(opponent));
+
+        //The reply the opponent is expected to play is searched first
+        if (replies.size() > 1) {
+            int expectedReplyDepth = Math.max(1, depth - 1);
+            GameMove expectedReply = runSearch(gamePosition, SearchLimits.ofDepth(expectedReplyDepth),
+                    expectedReplyDepth, null).getGameMove();
+            if (replies.remove(expectedReply)) {
+                replies.add(0, expectedReply);
+            }
+        }
+
+        for (GameMove reply : replies) {
+            GamePosition position = board.makeMove(reply, opponent);
+
+            //If the opponent moves again or the move is in the book there is nothing to search
+            if (position.getCurrentPlayer() == opponent || !position.getBoard().hasAnyPlayerAnyLegalMoves() ||
+                    lookUpOpeningBook(position) != null) {
+                continue;
+            }
+
+            //The position is published before the flag is checked, so the Strategy either waits for this search or
+            //the search is not started
+            ponderPosition = position;
+            if (isPonderFinishing || isInterrupted()) {
+                return;
+            }
+
+            SearchResult result = runSearch(position, SearchLimits.ofDepth(depth), depth, null);
+            if (isInterrupted()) {
+                return;
+            }
+
+            reportSearch(position, result);
+            ponderResults.put(position, result);
+        }
+    }
+
+    /**
+     * This method stops the pondering and returns the result of a position if it was searched completely. If the
+     * position is searched at the moment the search is finished first.
+     *
+     * @param gamePosition The GamePosition a move is needed for.
+     *
+     * @return The SearchResult or null if the position was not searched while pondering.
+     *
+     * @throws InterruptedException If the game is interrupted while waiting for the search of the position.
+     */
+    private synchronized SearchResult takePonderResult(GamePosition gamePosition) throws InterruptedException {
+        if (ponderThread != null) {
+            //The flag is set before the position is checked, so the ponder thread can not start another search
+            isPonderFinishing = true;
+
+            if (gamePosition.equals(ponderPosition)) {
+                try {
+                    ponderThread.join();
+                } catch (InterruptedException ie) {
+                    stopPondering();
+                    throw ie;
+                }
+
+                ponderThread = null;
+                ponderPosition = null;
+            } else {
+                stopPondering();
+            }
+        }
+
+        SearchResult result = ponderResults.get(gamePosition);
+        ponderResults.clear();
+
+        //The depth could have been changed by the configuration since the search
+        return (result != null && result.getDepth() == DEPTH) ? result : null;
+    }
+
+    /**
+     * This method chooses a move of the opening book.
+     *
+     * @param gamePosition The GamePosition a move is needed for.
+     *
+     * @return The SearchResult of the book move with depth 0 or null if the position is not in the book.
+     */
+    private SearchResult lookUpOpeningBook(GamePosition gamePosition) {
+        OpeningBook book = openingBook;
+        if (book == null) {
+            return null;
+        }
+
+        BookMove bookMove = book.chooseMove(gamePosition, bookScoreWindow, bookRandom);
+        if (bookMove == null) {
+            return null;
+        }
+
+        //Nothing was searched, so the statistics stay empty
+        SearchStatistics bookStatistics = new SearchStatistics(0);
+        bookStatistics.stop();
+
+        return new SearchResult(bookMove.getGameMove(), bookMove.getScore(), 0, bookStatistics);
+    }
+
+    /**
+     * This method returns the result of the last search that was done to make a move in a game.
+     *
+     * @return The last SearchResult or null if the ComputerActor has not made a move yet.
+     */
+    public SearchResult getLastSearchResult() {
+        return lastSearchResult;
+    }
+
+    /**
+     * This method returns the SearchStatistics of the search that is currently running, the search algorithms count
+     * what they do in them.
+     *
+     * @return The SearchStatistics of the current search.
+     */
+    final SearchStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * This method returns the SearchLimits of the search that is currently running.
+     *
+     * @return The SearchLimits of the current search.
+     */
+    final SearchLimits getSearchLimits() {
+        return searchLimits;
+    }
+
+    /**
+     * This method returns the result of a finished iteration of the search that is currently running. The values of
+     * the previous iterations are good guesses of the value of the next iteration.
+     *
+     * @param depth The depth of the iteration.
+     *
+     * @return The SearchNode of the iteration, null if no iteration with this depth was finished.
+     */
+    final SearchNode getFinishedIteration(int depth) {
+        return (depth >= 0 && depth < finishedIterations.size()) ? finishedIterations.get(depth) : null;
+    }
+
+    /**
+     * This method checks if the thread was interrupted, it is used outside of the searches.
+     *
+     * @return true if the thread is interrupted. false if the thread is not interrupted.
      */
     final boolean isInterrupted() {
         //returns if the GameThread is interrupted, this is the only thread calling this
         return Thread.currentThread().isInterrupted();
     }
 
+    /**
+     * This method has to be called by the search at every node before the node is counted. The limits of the search
+     * are only checked every LIMIT_CHECK_INTERVAL nodes, in between only a counter is decreased. The node limit is
+     * still exact, because the counter never runs past it.
+     *
+     * @return true if the search has to stop. false if the search can continue.
+     */
+    final boolean shouldStopSearch() {
+        if (isSearchStopped) {
+            return true;
+        }
+        if (--nodesUntilLimitCheck > 0) {
+            return false;
+        }
+
+        return checkSearchLimits();
+    }
+
+    /**
+     * This method checks all limits of the running search at once. Searches whose nodes take long (like playouts) can
+     * call it at every node instead of shouldStopSearch().
+     *
+     * @return true if the search has to stop. false if the search can continue.
+     */
+    final boolean checkSearchLimits() {
+        if (isSearchStopped) {
+            return true;
+        }
+
+        long nodes = statistics.getNodes();
+        long maximalNodes = searchLimits.getMaximalNodes();
+        boolean isNodeLimitReached = maximalNodes != SearchLimits.UNLIMITED && nodes >= maximalNodes;
+        boolean isTimeLimitReached = searchLimits.getMaximalTime() != SearchLimits.UNLIMITED &&
+                System.nanoTime() - searchDeadline >= 0;
+
+        //The thread is interrupted if the game is interrupted or the pondering is stopped
+        if (isNodeLimitReached || isTimeLimitReached || searchLimits.isStopped() ||
+                Thread.currentThread().isInterrupted()) {
+            isSearchStopped = true;
+            return true;
+        }
+
+        nodesUntilLimitCheck = LIMIT_CHECK_INTERVAL;
+        if (maximalNodes != SearchLimits.UNLIMITED) {
+            nodesUntilLimitCheck = Math.min(nodesUntilLimitCheck, maximalNodes - nodes);
+        }
+
+        return false;
+    }
+
+    /**
+     * This method returns if the running search has reached one of its limits. Unlike shouldStopSearch() it does not
+     * count a node.
+     *
+     * @return true if the search was stopped.
+     */
+    final boolean isSearchStopped() {
+        return isSearchStopped;
+    }
+
+    /**
+     * This method returns if the search of this ComputerActor is limited by its depth. Only then the search is done
+     * iteration by iteration with increasing depth, otherwise the whole search is one iteration that returns the best
+     * move found so far when it is stopped.
+     *
+     * @return true if the search uses the depth.
+     */
+    boolean isDepthLimited() {
+        return true;
+    }
+
     /**
      * This method returns the best move that the ComputerActor can do assuming that the human player is also
      * always playing with its best move.
@@ -109,11 +786,28 @@ public abstract class ComputerActor extends Actor {
      */
     protected abstract SearchNode search(GamePosition gamePosition, int depth, Evaluation evaluation);
 
+    /**
+     * A SearchListener is notified whenever a ComputerActor has finished a search. The listener is called by the
+     * thread that did the search.
+     */
+    public interface SearchListener {
+        /**
+         * This method is called when a search is finished.
+         *
+         * @param computerActor The ComputerActor that did the search.
+         * @param gamePosition  The GamePosition that was searched.
+         * @param searchResult  The result of the search including its statistics.
+         */
+        void searchFinished(ComputerActor computerActor, GamePosition gamePosition, SearchResult searchResult);
+    }
+
     @Override
     public String toString() {
         return "ComputerActor{" +
                 "DEPTH=" + DEPTH +
                 ", evaluation=" + evaluation +
+                ", openingBook=" + openingBook +
+                ", isPonderEnabled=" + isPonderEnabled +
                 ", WINNING_VALUE=" + WINNING_VALUE +
                 ", LOOSING_VALUE=" + LOOSING_VALUE +
                 '}';
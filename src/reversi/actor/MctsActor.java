@@ -0,0 +1,584 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.actor;
+
+import reversi.actor.mcts.MctsTree;
+import reversi.actor.mcts.PlayoutPolicy;
+import reversi.board.Board;
+import reversi.board.GameMove;
+import reversi.board.GamePosition;
+import reversi.evaluation.Evaluation;
+import reversi.player.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is an Actor with a Monte Carlo Tree Search implemented.
+ *
+ * Instead of evaluating positions the search plays many random games (playouts) and prefers the moves that win most of
+ * them. The moves of the tree are selected with UCT, which balances moves that won often and moves that were tried
+ * rarely. The tree is searched by several threads at the same time, a visit is counted as loss until its playout is
+ * finished (virtual loss), so the threads spread over different lines.
+ *
+ * The search does not use the depth and the Evaluation, it stops when the playout budget or the time budget is used or
+ * when a limit or the stop flag of the SearchLimits is reached. Every playout counts as one node, so the node limit of
+ * the SearchLimits limits the number of playouts as well. The reported depth is the deepest ply of the tree that was
+ * reached. With a seed, one thread and a node limit the search is reproducible.
+ * The evaluation value of the best move is its expected result between -SCORE_SCALE (loss) and SCORE_SCALE (win).
+ *
+ * The tree is kept after a search. If the next search starts at a position of the tree, which is the case after the
+ * own move and the move of the opponent were played, the subtree of that position is searched further. The tree never
+ * uses more than the memory limit, the least visited subtrees are removed when the tree is more than half full.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 20. August 2016
+ */
+public class MctsActor extends ComputerActor {
+    //The evaluation value of a move that wins every playout
+    public static final int SCORE_SCALE = 1000;
+    //The exploration constant of UCT, higher values try rarely visited moves more often
+    private static final double DEFAULT_EXPLORATION = 1.0;
+    //The number of playouts of a search if no budget is set
+    private static final long DEFAULT_PLAYOUT_BUDGET = 20000;
+    //A leaf is expanded when it is visited this often, before that the playouts start at the leaf
+    private static final int EXPANSION_VISITS = 2;
+    //The memory the tree may use if no limit is set in bytes
+    private static final long DEFAULT_MEMORY_LIMIT = 64L * 1024 * 1024;
+    //The number of plies after the root of the previous search that are checked for the position of the next search
+    private static final int REUSE_PLIES = 2;
+    //Creates the helper threads. It is not bound to an actor, because idle helpers keep their pool and its factory
+    //alive for a while, and they must not keep the tree of an actor that is no longer used
+    private static final ThreadFactory HELPER_THREAD_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            //The helpers must not keep the application alive
+            Thread thread = new Thread(runnable, "MctsActor helper");
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    //The number of threads searching the tree, including the thread calling search
+    private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+    //The maximal number of playouts of a search, 0 if the number is unlimited
+    private long playoutBudget = DEFAULT_PLAYOUT_BUDGET;
+    //The maximal time of a search in milliseconds, 0 if the time is unlimited
+    private long timeBudget = 0;
+    //The exploration constant of UCT
+    private double exploration = DEFAULT_EXPLORATION;
+    //The memory the tree may use in bytes
+    private long memoryLimit = DEFAULT_MEMORY_LIMIT;
+    //true if the playouts use random numbers with the seed instead of the random numbers of the threads
+    private boolean isSeeded = false;
+    private long seed;
+    //The threads helping the thread calling search, created when they are needed the first time
+    private ExecutorService helpers;
+
+    //The tree of the previous search, created when it is needed the first time
+    private MctsTree tree;
+    //The position at the root of the tree
+    private Board treeBoard;
+    private Player treePlayer;
+
+    public MctsActor() {
+        super("MCTS");
+    }
+
+    /**
+     * This method sets the number of threads searching the tree.
+     *
+     * @param numberOfThreads The number of threads including the thread calling search.
+     */
+    public void setNumberOfThreads(int numberOfThreads) {
+        if (numberOfThreads <= 0) {
+            throw new IllegalArgumentException("At least one thread is needed");
+        }
+
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    /**
+     * This method sets the budget of a search. The search stops as soon as one of the budgets is used. At least one
+     * budget has to be set.
+     *
+     * @param playoutBudget The maximal number of playouts, 0 if the number should be unlimited.
+     * @param timeBudget    The maximal time in milliseconds, 0 if the time should be unlimited.
+     */
+    public void setBudget(long playoutBudget, long timeBudget) {
+        if (playoutBudget <= 0 && timeBudget <= 0) {
+            throw new IllegalArgumentException("The search needs a playout budget or a time budget");
+        }
+
+        this.playoutBudget = playoutBudget;
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * This method sets the exploration constant of UCT.
+     *
+     * @param exploration The exploration constant, higher values try rarely visited moves more often.
+     */
+    public void setExploration(double exploration) {
+        this.exploration = exploration;
+    }
+
+    /**
+     * This method sets the seed of the random numbers of the playouts. Every search starts the random numbers with the
+     * seed again, so a search with one thread and a node limit always finds the same move in the same position.
+     *
+     * @param seed The seed of the random numbers.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.isSeeded = true;
+    }
+
+    /**
+     * This method sets the memory the tree may use. The tree is created again with the next search.
+     *
+     * @param memoryLimit The memory in bytes.
+     */
+    public void setMemoryLimit(long memoryLimit) {
+        if (MctsTree.getCapacity(memoryLimit) < 2) {
+            throw new IllegalArgumentException("The memory limit is too small for a tree");
+        }
+
+        this.memoryLimit = memoryLimit;
+    }
+
+    /**
+     * This method returns the move that won most playouts of the search.
+     *
+     * @param gamePosition The current GamePosition that has to be evaluated
+     * @param depth        Not used, the search is limited by its budget.
+     * @param evaluation   Not used, the positions are evaluated by playouts.
+     * @return The most visited move and its expected result.
+     */
+    @Override
+    protected SearchNode search(GamePosition gamePosition, int depth, Evaluation evaluation) {
+        final Board board = gamePosition.getBoard();
+        final Player player = gamePosition.getCurrentPlayer();
+
+        //Continue the previous search if the position is part of its tree
+        final MctsTree currentTree = prepareTree(board, player);
+
+        PlayoutPolicy playoutPolicy = new PlayoutPolicy();
+        playoutPolicy.setPosition(board, player);
+        if (!playoutPolicy.isGameOver()) {
+            currentTree.expand(MctsTree.ROOT, playoutPolicy);
+        }
+
+        //Without a choice there is nothing to search
+        int firstChild = currentTree.getFirstChild(MctsTree.ROOT);
+        int numberOfChildren = currentTree.isExpanded(MctsTree.ROOT) ?
+                currentTree.getNumberOfChildren(MctsTree.ROOT) : 0;
+        if (numberOfChildren == 0) {
+            return new SearchNode(null, 0);
+        }
+        if (numberOfChildren == 1) {
+            return new SearchNode(getGameMove(board, currentTree.getMoveIndex(firstChild)), 0);
+        }
+
+        final long deadline = (timeBudget > 0) ? System.nanoTime() + timeBudget * 1000000L : Long.MAX_VALUE;
+        final PlayoutCounters counters = new PlayoutCounters();
+
+        //Every playout is a node, so the helpers must not start more playouts than the node limit allows either
+        long budget = (playoutBudget > 0) ? playoutBudget : Long.MAX_VALUE;
+        long maximalNodes = getSearchLimits().getMaximalNodes();
+        if (maximalNodes != SearchLimits.UNLIMITED) {
+            budget = Math.min(budget, maximalNodes);
+        }
+        final long playouts = budget;
+
+        //The helpers search until the budget is used, the calling thread additionally checks the limits of the search
+        List<Future<?>> helperSearches = new ArrayList<>();
+        for (int i = 1; i < numberOfThreads; i++) {
+            final int threadNumber = i;
+            helperSearches.add(getHelpers().submit(new Runnable() {
+                @Override
+                public void run() {
+                    runPlayouts(currentTree, board, player, counters, playouts, deadline, threadNumber);
+                }
+            }));
+        }
+        runPlayouts(currentTree, board, player, counters, playouts, deadline, 0);
+
+        //A stopped search stops the helpers as well
+        counters.isStopped = true;
+        for (Future<?> helperSearch : helperSearches) {
+            waitFor(helperSearch);
+        }
+
+        //Count the playouts the helpers have finished after the last check of the calling thread
+        countFinishedPlayouts(counters);
+
+        //The most visited move is the most reliable one
+        int bestChild = firstChild;
+        for (int child = firstChild; child < firstChild + numberOfChildren; child++) {
+            if (currentTree.getVisits(child) > currentTree.getVisits(bestChild)) {
+                bestChild = child;
+            }
+        }
+
+        return new SearchNode(getGameMove(board, currentTree.getMoveIndex(bestChild)),
+                getExpectedResult(currentTree, bestChild));
+    }
+
+    /**
+     * The search is one iteration, it is limited by its budget and not by the depth.
+     *
+     * @return false, the depth is not used.
+     */
+    @Override
+    boolean isDepthLimited() {
+        return false;
+    }
+
+    /**
+     * This method returns the tree for the search of a position. If the position is the root of the previous search
+     * or one of the next REUSE_PLIES plies, its subtree becomes the new tree, otherwise the tree is cleared.
+     *
+     * @param board  The board of the position.
+     * @param player The player whose turn it is.
+     *
+     * @return The tree whose root is the position.
+     */
+    private MctsTree prepareTree(Board board, Player player) {
+        int capacity = MctsTree.getCapacity(memoryLimit);
+        if (tree == null || tree.getCapacity() != capacity) {
+            tree = new MctsTree(capacity);
+            treeBoard = null;
+        }
+
+        int root = -1;
+        if (treeBoard != null && treeBoard.getBoardWidth() == board.getBoardWidth() &&
+                treeBoard.getBoardHeight() == board.getBoardHeight()) {
+            root = findNode(MctsTree.ROOT, treeBoard, treePlayer, board, player, REUSE_PLIES);
+        }
+
+        if (root < 0) {
+            tree.clear(player);
+        } else {
+            //Keep room for the new nodes of the search
+            tree.retain(root, capacity / 2);
+        }
+
+        treeBoard = board;
+        treePlayer = player;
+
+        return tree;
+    }
+
+    /**
+     * This method searches the node of a position in the subtree of a node.
+     *
+     * @param node         The index of the node.
+     * @param nodeBoard    The board of the node.
+     * @param nodePlayer   The player whose turn it is at the node.
+     * @param board        The board of the position that is searched.
+     * @param player       The player whose turn it is at the position that is searched.
+     * @param maximalPlies The number of plies below the node that are searched.
+     *
+     * @return The index of the node of the position or -1 if it is not found.
+     */
+    private int findNode(int node, Board nodeBoard, Player nodePlayer, Board board, Player player, int maximalPlies) {
+        if (nodePlayer == player && nodeBoard.equals(board)) {
+            return node;
+        }
+        if (maximalPlies == 0 || !tree.isExpanded(node)) {
+            return -1;
+        }
+
+        //The number of pieces only grows, so a position with more pieces can not lead to the position
+        if (nodeBoard.countPieces(Player.BLACK) + nodeBoard.countPieces(Player.WHITE) >=
+                board.countPieces(Player.BLACK) + board.countPieces(Player.WHITE)) {
+            return -1;
+        }
+
+        int firstChild = tree.getFirstChild(node);
+        for (int child = firstChild; child < firstChild + tree.getNumberOfChildren(node); child++) {
+            GamePosition childPosition = nodeBoard.makeMove(getGameMove(nodeBoard, tree.getMoveIndex(child)),
+                    nodePlayer);
+
+            int result = findNode(child, childPosition.getBoard(), childPosition.getCurrentPlayer(), board, player,
+                    maximalPlies - 1);
+            if (result >= 0) {
+                return result;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * This method runs playouts until the budget is used.
+     *
+     * @param tree           The tree that is searched.
+     * @param board          The board of the root.
+     * @param player         The player whose turn it is at the root.
+     * @param counters       The counters shared by all threads of the search.
+     * @param budget         The maximal number of playouts.
+     * @param deadline       The time in nanoseconds when the search has to stop.
+     * @param threadNumber   The number of the thread, 0 is the thread calling search, which counts the finished
+     *                       playouts and stops when a limit of the search is reached.
+     */
+    private void runPlayouts(MctsTree tree, Board board, Player player, PlayoutCounters counters, long budget,
+                             long deadline, int threadNumber) {
+        PlayoutPolicy playoutPolicy = new PlayoutPolicy();
+        if (isSeeded) {
+            playoutPolicy.setSeed(seed + threadNumber);
+        }
+        //Every move of a path puts a piece on an empty square
+        int[] path = new int[board.getBoardWidth() * board.getBoardHeight() + 1];
+        int deepestPly = 0;
+
+        //Every playout takes one from the budget before it starts
+        while (!counters.isStopped && System.nanoTime() < deadline &&
+                counters.startedPlayouts.getAndIncrement() < budget) {
+            //A playout takes much longer than a node of other searches, so the limits are checked every time
+            if (threadNumber == 0) {
+                countFinishedPlayouts(counters);
+                if (checkSearchLimits()) {
+                    break;
+                }
+            }
+
+            playoutPolicy.setPosition(board, player);
+            int ply = runPlayout(tree, playoutPolicy, path);
+            if (ply > deepestPly) {
+                deepestPly = ply;
+                updateMaxPly(counters, ply);
+            }
+            counters.finishedPlayouts.incrementAndGet();
+        }
+    }
+
+    /**
+     * This method adds the playouts that were finished since the last call to the SearchStatistics. It is only called
+     * by the thread calling search, because the SearchStatistics are not thread safe.
+     *
+     * @param counters The counters shared by all threads of the search.
+     */
+    private void countFinishedPlayouts(PlayoutCounters counters) {
+        long finishedPlayouts = counters.finishedPlayouts.get();
+        long newPlayouts = finishedPlayouts - counters.countedPlayouts;
+        counters.countedPlayouts = finishedPlayouts;
+
+        getStatistics().countNodes(newPlayouts, newPlayouts, counters.maxPly.get());
+    }
+
+    /**
+     * This method remembers the deepest ply that was reached by any thread.
+     *
+     * @param counters The counters shared by all threads of the search.
+     * @param ply      The ply reached by a playout.
+     */
+    private static void updateMaxPly(PlayoutCounters counters, int ply) {
+        int maxPly;
+        while ((maxPly = counters.maxPly.get()) < ply && !counters.maxPly.compareAndSet(maxPly, ply)) {
+            //Another thread has changed the value, try again
+        }
+    }
+
+    /**
+     * This method selects a leaf of the tree with UCT, expands it if it was visited often enough, plays a random game
+     * from it and adds the result to all nodes on the path.
+     *
+     * @param tree          The tree that is searched.
+     * @param playoutPolicy The policy that is set to the position of the root, it makes the moves of the path and
+     *                      plays the random game.
+     * @param path          The array the visited nodes are collected in.
+     *
+     * @return The ply of the leaf.
+     */
+    private int runPlayout(MctsTree tree, PlayoutPolicy playoutPolicy, int[] path) {
+        int node = MctsTree.ROOT;
+        int pathLength = 0;
+        tree.addVisit(node);
+        path[pathLength++] = node;
+
+        //Follow the best children until a node without children is reached
+        while (!playoutPolicy.isGameOver() && (tree.isExpanded(node) ||
+                (tree.getVisits(node) >= EXPANSION_VISITS && tree.expand(node, playoutPolicy)))) {
+            node = selectChild(tree, node);
+            playoutPolicy.play(tree.getMoveIndex(node));
+            tree.addVisit(node);
+            path[pathLength++] = node;
+        }
+
+        Player winner = playoutPolicy.playout();
+        for (int i = 0; i < pathLength; i++) {
+            tree.addResult(path[i], winner);
+        }
+
+        return pathLength - 1;
+    }
+
+    /**
+     * This method selects the child with the highest UCT value, children that were not visited yet are selected first.
+     *
+     * @param tree   The tree that is searched.
+     * @param parent The expanded node whose child should be selected.
+     *
+     * @return The selected child.
+     */
+    private int selectChild(MctsTree tree, int parent) {
+        double logVisits = Math.log(Math.max(1, tree.getVisits(parent)));
+        int firstChild = tree.getFirstChild(parent);
+        int numberOfChildren = tree.getNumberOfChildren(parent);
+
+        int bestChild = firstChild;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int child = firstChild; child < firstChild + numberOfChildren; child++) {
+            int visits = tree.getVisits(child);
+            if (visits == 0) {
+                return child;
+            }
+
+            //The average result plus the bonus for rarely visited children
+            double value = tree.getScore(child) / (double) (MctsTree.WIN * visits) +
+                    exploration * Math.sqrt(logVisits / visits);
+            if (value > bestValue) {
+                bestValue = value;
+                bestChild = child;
+            }
+        }
+
+        return bestChild;
+    }
+
+    /**
+     * This method returns the expected result of a node in the view of the player who made the move to it.
+     *
+     * @param tree The tree of the node.
+     * @param node The index of the node.
+     *
+     * @return The expected result between -SCORE_SCALE and SCORE_SCALE.
+     */
+    private static int getExpectedResult(MctsTree tree, int node) {
+        int visits = tree.getVisits(node);
+        if (visits == 0) {
+            return 0;
+        }
+
+        double averageResult = tree.getScore(node) / (double) (MctsTree.WIN * visits);
+        return (int) Math.round((2 * averageResult - 1) * SCORE_SCALE);
+    }
+
+    /**
+     * This method returns the GameMove to the square with the given square index.
+     *
+     * @param board     The board the GameMove belongs to.
+     * @param moveIndex The square index of the GameMove.
+     *
+     * @return The GameMove.
+     */
+    private static GameMove getGameMove(Board board, int moveIndex) {
+        int boardWidth = board.getBoardWidth();
+        return GameMove.valueOf(board.getSquare(moveIndex % boardWidth, moveIndex / boardWidth));
+    }
+
+    /**
+     * This method waits until a helper has finished its search.
+     *
+     * @param helperSearch The search of the helper.
+     */
+    private void waitFor(Future<?> helperSearch) {
+        boolean isInterrupted = false;
+
+        while (true) {
+            try {
+                helperSearch.get();
+                break;
+            } catch (InterruptedException ie) {
+                //The helpers stop soon, the interruption is restored after waiting
+                isInterrupted = true;
+            } catch (ExecutionException ee) {
+                throw new IllegalStateException("A search thread failed", ee.getCause());
+            }
+        }
+
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * This method returns the threads helping the thread calling search.
+     *
+     * @return The helper threads.
+     */
+    private synchronized ExecutorService getHelpers() {
+        if (helpers == null) {
+            helpers = Executors.newCachedThreadPool(HELPER_THREAD_FACTORY);
+        }
+
+        return helpers;
+    }
+
+    /**
+     * The PlayoutCounters are shared by all threads of one search.
+     */
+    private static class PlayoutCounters {
+        //The number of playouts that were started, a playout is only started if it is within the budget
+        final AtomicLong startedPlayouts = new AtomicLong();
+        //The number of playouts whose result was added to the tree
+        final AtomicLong finishedPlayouts = new AtomicLong();
+        //The deepest ply that was reached by any thread
+        final AtomicInteger maxPly = new AtomicInteger();
+        //The number of finished playouts that are counted in the SearchStatistics, only used by the calling thread
+        long countedPlayouts = 0;
+        //true if all threads should stop, because the thread calling search has stopped
+        volatile boolean isStopped = false;
+    }
+
+    @Override
+    public String toString() {
+        return "MctsActor{" +
+                "numberOfThreads=" + numberOfThreads +
+                ", playoutBudget=" + playoutBudget +
+                ", timeBudget=" + timeBudget +
+                ", exploration=" + exploration +
+                ", memoryLimit=" + memoryLimit +
+                ", isSeeded=" + isSeeded +
+                ", seed=" + seed +
+                ", tree=" + tree +
+                '}';
+    }
+}
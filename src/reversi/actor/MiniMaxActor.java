@@ -33,11 +33,10 @@ package reversi.actor;
 import reversi.board.Board;
 import reversi.board.GameMove;
 import reversi.board.GamePosition;
+import reversi.board.MoveList;
 import reversi.evaluation.Evaluation;
 import reversi.player.Player;
 
-import java.util.List;
-
 /**
  * This is an Actor with an MiniMax search Algorithm implemented.
  *
@@ -47,6 +46,9 @@ import java.util.List;
  * @version 1.0 - 17. May 2016
  */
 public class MiniMaxActor extends ComputerActor {
+    //one MoveList for every remaining depth, so that the search does not need to create any lists
+    private MoveList[] moveLists = new MoveList[0];
+
     public MiniMaxActor() {
         super("MiniMaxActor");
     }
@@ -62,6 +64,16 @@ public class MiniMaxActor extends ComputerActor {
      */
     @Override
     protected SearchNode search(GamePosition gamePosition, int depth, Evaluation evaluation) {
+        //Make sure there is a big enough MoveList for every depth
+        Board board = gamePosition.getBoard();
+        int numberOfSquares = board.getBoardWidth() * board.getBoardHeight();
+        if (moveLists.length <= depth || moveLists[0].getCapacity() < numberOfSquares) {
+            moveLists = new MoveList[depth + 1];
+            for (int i = 0; i < moveLists.length; i++) {
+                moveLists[i] = new MoveList(numberOfSquares);
+            }
+        }
+
         return searchImpl(gamePosition.getCurrentPlayer(), gamePosition.getBoard(), depth, evaluation);
     }
 
@@ -75,34 +87,42 @@ public class MiniMaxActor extends ComputerActor {
      * @return The best move of the MiniMaxActor
      */
     private SearchNode searchImpl(Player player, Board board, int depth, Evaluation evaluation) {
-        //If interrupted stop Searching as soon as possible
-        if (isInterrupted()) {
+        //If a limit is reached stop Searching as soon as possible
+        if (shouldStopSearch()) {
             return new SearchNode(null, 0);
         }
 
-        //get the opponent of the current player
-        Player opponent = player.getOpponent();
+        SearchStatistics statistics = getStatistics();
+        statistics.countNode(depth);
 
         //If depth is reached stop searching and just return an evaluation value of the current position
         if (depth == 0 || !board.hasAnyPlayerAnyLegalMoves()) {
+            statistics.countLeafEvaluation();
             return new SearchNode(null, evaluation.evaluateGame(new GamePosition(board, player)));
         }
 
         //Get all legal moves of the current player
-        List<GameMove> legalMoves = board.getAllLegalMoves(player);
+        MoveList legalMoves = moveLists[depth];
+        board.getLegalMoves(player, legalMoves);
+        int boardWidth = board.getBoardWidth();
 
         //The best search node
         //The first node has the lowest possible evaluation value.
-        SearchNode node = new SearchNode(null, Integer.MIN_VALUE);
+        SearchNode node = new SearchNode(null, LOOSING_VALUE);
 
         //Iterate over all possible moves and evaluate them
-        for (GameMove move : legalMoves) {
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int squareIndex = legalMoves.get(i);
+            GameMove move = GameMove.valueOf(board.getSquare(squareIndex % boardWidth, squareIndex / boardWidth));
+
             //The GamePosition and Board after making the move
-            GamePosition position = board.makeMove(move, player);
+            GamePosition position = board.makeMove(legalMoves, i, player);
             Board cBoard = position.getBoard();
 
-            //The evaluation value of the current board
-            int value = searchImpl(opponent, cBoard, depth - 1, evaluation).negated().getEvaluationValue();
+            //The evaluation value of the current board, if the opponent has to pass the player moves again
+            SearchNode childNode = searchImpl(position.getCurrentPlayer(), cBoard, depth - 1, evaluation);
+            int value = (position.getCurrentPlayer() == player) ? childNode.getEvaluationValue()
+                    : childNode.negated().getEvaluationValue();
 
             //Change SearchNode if the new node is a better move for the game.
             if (value > node.getEvaluationValue()) {
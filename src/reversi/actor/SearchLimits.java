@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.actor;
+
+/**
+ * SearchLimits tell a ComputerActor when a search has to stop: at a maximal depth, after a maximal number of nodes,
+ * after a maximal time or when it is stopped from outside by calling stop().
+ *
+ * The search is done iteration by iteration with increasing depth. When a limit is reached the running iteration is
+ * given up and the best move of the last finished iteration is played, so a search can be stopped at any time. A
+ * search limited by nodes only is deterministic, it always plays the same move in the same GamePosition (as long as
+ * the TranspositionTable is empty at the start).
+ *
+ * The limits themselves are immutable, only the stop flag can be set by any thread. A SearchLimits object belongs to
+ * one search, a stopped SearchLimits object can not be used again.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public final class SearchLimits {
+    //The value of the node limit and the time limit if there is no limit
+    public static final long UNLIMITED = 0;
+
+    //The depth of the last iteration
+    private final int maximalDepth;
+    //The maximal number of nodes of the whole search, UNLIMITED if the number is unlimited
+    private final long maximalNodes;
+    //The maximal time of the whole search in milliseconds, UNLIMITED if the time is unlimited
+    private final long maximalTime;
+    //true if the search should stop as soon as possible
+    private volatile boolean isStopped = false;
+
+    /**
+     * Constructor of SearchLimits.
+     *
+     * @param maximalDepth The depth of the last iteration, with depth 0 the position is only evaluated.
+     * @param maximalNodes The maximal number of nodes of the whole search, UNLIMITED if the number is unlimited.
+     * @param maximalTime  The maximal time of the whole search in milliseconds, UNLIMITED if the time is unlimited.
+     */
+    public SearchLimits(int maximalDepth, long maximalNodes, long maximalTime) {
+        if (maximalDepth < 0) {
+            throw new IllegalArgumentException("The depth can not be negative");
+        }
+        if (maximalNodes < 0 || maximalTime < 0) {
+            throw new IllegalArgumentException("The node limit and the time limit can not be negative");
+        }
+
+        this.maximalDepth = maximalDepth;
+        this.maximalNodes = maximalNodes;
+        this.maximalTime = maximalTime;
+    }
+
+    /**
+     * This method creates SearchLimits that only limit the depth.
+     *
+     * @param maximalDepth The depth of the last iteration.
+     *
+     * @return The SearchLimits.
+     */
+    public static SearchLimits ofDepth(int maximalDepth) {
+        return new SearchLimits(maximalDepth, UNLIMITED, UNLIMITED);
+    }
+
+    /**
+     * This method returns the depth of the last iteration.
+     *
+     * @return The maximal depth.
+     */
+    public int getMaximalDepth() {
+        return maximalDepth;
+    }
+
+    /**
+     * This method returns the maximal number of nodes of the whole search.
+     *
+     * @return The maximal number of nodes, UNLIMITED if the number is unlimited.
+     */
+    public long getMaximalNodes() {
+        return maximalNodes;
+    }
+
+    /**
+     * This method returns the maximal time of the whole search.
+     *
+     * @return The maximal time in milliseconds, UNLIMITED if the time is unlimited.
+     */
+    public long getMaximalTime() {
+        return maximalTime;
+    }
+
+    /**
+     * This method stops the search. The search notices it within a few hundred nodes and returns the best move of the
+     * last finished iteration. It can be called by any thread.
+     */
+    public void stop() {
+        isStopped = true;
+    }
+
+    /**
+     * This method returns if the search was stopped by calling stop().
+     *
+     * @return true if the search should stop.
+     */
+    public boolean isStopped() {
+        return isStopped;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchLimits{" +
+                "maximalDepth=" + maximalDepth +
+                ", maximalNodes=" + maximalNodes +
+                ", maximalTime=" + maximalTime +
+                ", isStopped=" + isStopped +
+                '}';
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.actor;
+
+import reversi.board.GamePosition;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The SearchMonitor sums up the SearchStatistics of all ComputerActors and publishes them as a JMX MBean.
+ *
+ * Every ComputerActor reports its searches to the SearchMonitor of the engine, searches running in different threads at
+ * the same time are allowed. The actors of the analysis tools (e.g. the GameAnalyser) report to the SearchMonitor of
+ * the analysis instead, so that their searches do not change the statistics of the engine.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 09. August 2016
+ */
+public final class SearchMonitor implements SearchMonitorMXBean, ComputerActor.SearchListener {
+    //The name the SearchMonitor of the engine is registered with at the MBeanServer
+    public static final String OBJECT_NAME = "reversi:type=SearchMonitor";
+    //The name the SearchMonitor of the analysis is registered with at the MBeanServer
+    public static final String ANALYSIS_OBJECT_NAME = "reversi:type=SearchMonitor,name=Analysis";
+
+    //The summed up numbers of all searches
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong nodes = new AtomicLong();
+    private final AtomicLong leafEvaluations = new AtomicLong();
+    private final AtomicLong betaCutoffs = new AtomicLong();
+    private final AtomicLong firstMoveCutoffs = new AtomicLong();
+    private final AtomicLong transpositionProbes = new AtomicLong();
+    private final AtomicLong transpositionHits = new AtomicLong();
+    private final AtomicLong aspirationResearches = new AtomicLong();
+    private final AtomicLong elapsedTime = new AtomicLong();
+
+    //The statistics of the last finished search, null if there was no search yet
+    private volatile SearchStatistics lastStatistics;
+
+    /**
+     * Constructor of the SearchMonitor, there is one instance for the engine and one for the analysis.
+     */
+    private SearchMonitor() {
+    }
+
+    /**
+     * This method returns the SearchMonitor of the engine. The instance is registered at the platform MBeanServer when
+     * it is used the first time.
+     *
+     * @return The SearchMonitor.
+     */
+    public static SearchMonitor getInstance() {
+        return SingletonHolder.SINGLETON;
+    }
+
+    /**
+     * This method returns the SearchMonitor of the analysis tools. The instance is registered at the platform
+     * MBeanServer with the name ANALYSIS_OBJECT_NAME when it is used the first time.
+     *
+     * @return The SearchMonitor of the analysis.
+     */
+    public static SearchMonitor getAnalysisInstance() {
+        return AnalysisHolder.SINGLETON;
+    }
+
+    @Override
+    public void searchFinished(ComputerActor computerActor, GamePosition gamePosition, SearchResult searchResult) {
+        SearchStatistics statistics = searchResult.getStatistics();
+
+        searches.incrementAndGet();
+        nodes.addAndGet(statistics.getNodes());
+        leafEvaluations.addAndGet(statistics.getLeafEvaluations());
+        betaCutoffs.addAndGet(statistics.getBetaCutoffs());
+        firstMoveCutoffs.addAndGet(statistics.getFirstMoveCutoffs());
+        transpositionProbes.addAndGet(statistics.getTranspositionProbes());
+        transpositionHits.addAndGet(statistics.getTranspositionHits());
+        aspirationResearches.addAndGet(statistics.getAspirationResearches());
+        elapsedTime.addAndGet(statistics.getElapsedTime());
+
+        lastStatistics = statistics;
+    }
+
+    @Override
+    public long getSearches() {
+        return searches.get();
+    }
+
+    @Override
+    public long getTotalNodes() {
+        return nodes.get();
+    }
+
+    @Override
+    public long getTotalLeafEvaluations() {
+        return leafEvaluations.get();
+    }
+
+    @Override
+    public long getAverageNodesPerSecond() {
+        long time = elapsedTime.get();
+        return (time == 0) ? 0 : (long) (nodes.get() * 1000000000.0 / time);
+    }
+
+    @Override
+    public double getFirstMoveCutoffRatio() {
+        long cutoffs = betaCutoffs.get();
+        return (cutoffs == 0) ? 0.0 : (double) firstMoveCutoffs.get() / cutoffs;
+    }
+
+    @Override
+    public double getTranspositionHitRatio() {
+        long probes = transpositionProbes.get();
+        return (probes == 0) ? 0.0 : (double) transpositionHits.get() / probes;
+    }
+
+    @Override
+    public long getTotalAspirationResearches() {
+        return aspirationResearches.get();
+    }
+
+    @Override
+    public long getLastNodesPerSecond() {
+        SearchStatistics statistics = lastStatistics;
+        return (statistics == null) ? 0 : statistics.getNodesPerSecond();
+    }
+
+    @Override
+    public int getLastSearchDepth() {
+        SearchStatistics statistics = lastStatistics;
+        return (statistics == null) ? 0 : statistics.getSearchDepth();
+    }
+
+    @Override
+    public long getLastElapsedMillis() {
+        SearchStatistics statistics = lastStatistics;
+        return (statistics == null) ? 0 : statistics.getElapsedTime() / 1000000;
+    }
+
+    @Override
+    public void reset() {
+        searches.set(0);
+        nodes.set(0);
+        leafEvaluations.set(0);
+        betaCutoffs.set(0);
+        firstMoveCutoffs.set(0);
+        transpositionProbes.set(0);
+        transpositionHits.set(0);
+        aspirationResearches.set(0);
+        elapsedTime.set(0);
+        lastStatistics = null;
+    }
+
+    /**
+     * This method registers a SearchMonitor at the platform MBeanServer.
+     *
+     * @param searchMonitor The SearchMonitor that should be registered.
+     * @param objectName    The name of the SearchMonitor.
+     */
+    private static void register(SearchMonitor searchMonitor, String objectName) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(searchMonitor, new ObjectName(objectName));
+        } catch (JMException jme) {
+            //The game works without monitoring, so just print the error
+            jme.printStackTrace();
+        }
+    }
+
+    /**
+     * The holder of the SearchMonitor of the engine, the class loader creates the instance when it is used first.
+     */
+    private static class SingletonHolder {
+        private static final SearchMonitor SINGLETON = new SearchMonitor();
+
+        static {
+            register(SINGLETON, OBJECT_NAME);
+        }
+    }
+
+    /**
+     * The holder of the SearchMonitor of the analysis, the class loader creates the instance when it is used first.
+     */
+    private static class AnalysisHolder {
+        private static final SearchMonitor SINGLETON = new SearchMonitor();
+
+        static {
+            register(SINGLETON, ANALYSIS_OBJECT_NAME);
+        }
+    }
+}
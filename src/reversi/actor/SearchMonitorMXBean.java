@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.actor;
+
+/**
+ * This is the management interface of the SearchMonitor. It is registered at the platform MBeanServer with the name
+ * "reversi:type=SearchMonitor", so that the searches of all ComputerActors can be watched with any JMX client. The
+ * searches of the analysis tools are published separately with the name "reversi:type=SearchMonitor,name=Analysis".
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 09. August 2016
+ */
+public interface SearchMonitorMXBean {
+    /**
+     * This method returns the number of finished searches.
+     *
+     * @return The number of searches.
+     */
+    long getSearches();
+
+    /**
+     * This method returns the number of nodes of all finished searches.
+     *
+     * @return The number of nodes.
+     */
+    long getTotalNodes();
+
+    /**
+     * This method returns the number of evaluated GamePositions of all finished searches.
+     *
+     * @return The number of leaf evaluations.
+     */
+    long getTotalLeafEvaluations();
+
+    /**
+     * This method returns the nodes per second of all finished searches.
+     *
+     * @return The average nodes per second.
+     */
+    long getAverageNodesPerSecond();
+
+    /**
+     * This method returns how many of the beta cutoffs of all finished searches were caused by the first move.
+     *
+     * @return The ratio between 0 and 1.
+     */
+    double getFirstMoveCutoffRatio();
+
+    /**
+     * This method returns how many lookups in the transposition table of all finished searches found an entry.
+     *
+     * @return The ratio between 0 and 1.
+     */
+    double getTranspositionHitRatio();
+
+    /**
+     * This method returns how often the root of all finished searches was searched again with a wider aspiration
+     * window.
+     *
+     * @return The number of re-searches.
+     */
+    long getTotalAspirationResearches();
+
+    /**
+     * This method returns the nodes per second of the last finished search.
+     *
+     * @return The nodes per second.
+     */
+    long getLastNodesPerSecond();
+
+    /**
+     * This method returns the depth the last finished search was started with.
+     *
+     * @return The search depth.
+     */
+    int getLastSearchDepth();
+
+    /**
+     * This method returns the time the last finished search took.
+     *
+     * @return The time in milliseconds.
+     */
+    long getLastElapsedMillis();
+
+    /**
+     * This method sets all numbers back to 0.
+     */
+    void reset();
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.actor;
+
+import reversi.board.GameMove;
+
+/**
+ * A SearchResult is the outcome of the search of a ComputerActor for a single GamePosition. It contains the best move
+ * that was found, the evaluation value of that move, the depth the position was searched with and the SearchStatistics
+ * of the search.
+ *
+ * Any SearchResult is immutable.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 02. August 2016
+ */
+public final class SearchResult {
+    //The best GameMove found by the search, null if the player has no move.
+    private final GameMove gameMove;
+    //The evaluation value of the best GameMove in the view of the player whose turn it is.
+    private final int evaluationValue;
+    //The depth the GamePosition was searched with.
+    private final int depth;
+    //The numbers of what the search did.
+    private final SearchStatistics statistics;
+
+    /**
+     * Constructor of a SearchResult.
+     *
+     * @param gameMove        The best GameMove found by the search.
+     * @param evaluationValue The evaluation value of the best GameMove.
+     * @param depth           The depth the GamePosition was searched with.
+     * @param statistics      The SearchStatistics of the search.
+     */
+    SearchResult(GameMove gameMove, int evaluationValue, int depth, SearchStatistics statistics) {
+        this.gameMove = gameMove;
+        this.evaluationValue = evaluationValue;
+        this.depth = depth;
+        this.statistics = statistics;
+    }
+
+    /**
+     * This method returns the best GameMove found by the search.
+     *
+     * @return The best GameMove or null if the player has no legal move.
+     */
+    public GameMove getGameMove() {
+        return gameMove;
+    }
+
+    /**
+     * This method returns the evaluation value of the best GameMove in the view of the player whose turn it is.
+     *
+     * @return The evaluation value.
+     */
+    public int getEvaluationValue() {
+        return evaluationValue;
+    }
+
+    /**
+     * This method returns the depth the GamePosition was searched with.
+     *
+     * @return The search depth.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * This method returns the SearchStatistics of the search.
+     *
+     * @return The SearchStatistics.
+     */
+    public SearchStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchResult{" +
+                "gameMove=" + gameMove +
+                ", evaluationValue=" + evaluationValue +
+                ", depth=" + depth +
+                ", statistics=" + statistics +
+                '}';
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.actor;
+
+/**
+ * SearchStatistics contain the numbers of what a ComputerActor did while searching a single GamePosition, for example
+ * how many nodes were searched and how often the transposition table was used.
+ *
+ * The counters are filled by the thread that runs the search. As soon as the SearchStatistics are part of a
+ * SearchResult they are not changed anymore.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 09. August 2016
+ */
+public final class SearchStatistics {
+    //The depth of the iteration that is searched at the moment, or of the last iteration if the search is finished
+    private int searchDepth;
+    //The time when the search was started in nanoseconds
+    private final long startTime;
+
+    //The number of searched nodes, including the root node
+    private long nodes = 0;
+    //The number of GamePositions that were evaluated by the Evaluation
+    private long leafEvaluations = 0;
+    //The number of nodes where the search was stopped because a move was too good for the opponent to allow it
+    private long betaCutoffs = 0;
+    //The number of beta cutoffs that were caused by the first searched move
+    private long firstMoveCutoffs = 0;
+    //The number of lookups in the transposition table
+    private long transpositionProbes = 0;
+    //The number of lookups that found an entry in the transposition table
+    private long transpositionHits = 0;
+    //The number of nodes that were cut off because the stable pieces of the opponent left no better value
+    private long stabilityCutoffs = 0;
+    //The number of searches of the root that were repeated because the value was above the aspiration window
+    private long aspirationFailHighs = 0;
+    //The number of searches of the root that were repeated because the value was below the aspiration window
+    private long aspirationFailLows = 0;
+    //The deepest ply that was reached by the search
+    private int maxDepth = 0;
+    //The time the search took in nanoseconds
+    private long elapsedTime = 0;
+
+    //The time and the counters when the current iteration was started, so the numbers of one iteration are known
+    private long iterationStartTime;
+    private long iterationStartNodes = 0;
+    private long iterationStartBetaCutoffs = 0;
+    private long iterationStartFirstMoveCutoffs = 0;
+
+    /**
+     * Constructor of SearchStatistics, the time measurement starts with the creation.
+     *
+     * @param searchDepth The depth the search is started with.
+     */
+    SearchStatistics(int searchDepth) {
+        this.searchDepth = searchDepth;
+        this.startTime = System.nanoTime();
+        this.iterationStartTime = startTime;
+    }
+
+    /**
+     * This method starts the next iteration of the search, the plies are counted from the new depth.
+     *
+     * @param iterationDepth The depth of the iteration.
+     */
+    void startIteration(int iterationDepth) {
+        searchDepth = iterationDepth;
+
+        iterationStartTime = System.nanoTime();
+        iterationStartNodes = nodes;
+        iterationStartBetaCutoffs = betaCutoffs;
+        iterationStartFirstMoveCutoffs = firstMoveCutoffs;
+    }
+
+    /**
+     * This method returns the number of nodes that were searched by the current iteration.
+     *
+     * @return The number of nodes of the iteration.
+     */
+    long getIterationNodes() {
+        return nodes - iterationStartNodes;
+    }
+
+    /**
+     * This method returns the time the current iteration has taken so far.
+     *
+     * @return The time in nanoseconds.
+     */
+    long getIterationElapsedTime() {
+        return System.nanoTime() - iterationStartTime;
+    }
+
+    /**
+     * This method returns how many of the beta cutoffs of the current iteration were caused by the first searched
+     * move.
+     *
+     * @return The ratio between 0 and 1, 0 if there was no cutoff in the iteration.
+     */
+    double getIterationFirstMoveCutoffRatio() {
+        long iterationCutoffs = betaCutoffs - iterationStartBetaCutoffs;
+
+        return (iterationCutoffs == 0) ? 0.0 :
+                (double) (firstMoveCutoffs - iterationStartFirstMoveCutoffs) / iterationCutoffs;
+    }
+
+    /**
+     * This method counts a searched node.
+     *
+     * @param remainingDepth The depth that is still left to search at this node.
+     */
+    void countNode(int remainingDepth) {
+        nodes++;
+
+        int ply = searchDepth - remainingDepth;
+        if (ply > maxDepth) {
+            maxDepth = ply;
+        }
+    }
+
+    /**
+     * This method counts the nodes of a search that was done by several threads, which can not count every node in
+     * these SearchStatistics on their own.
+     *
+     * @param numberOfNodes           The number of searched nodes.
+     * @param numberOfLeafEvaluations The number of evaluated GamePositions.
+     * @param ply                     The deepest ply that was reached.
+     */
+    void countNodes(long numberOfNodes, long numberOfLeafEvaluations, int ply) {
+        nodes += numberOfNodes;
+        leafEvaluations += numberOfLeafEvaluations;
+
+        if (ply > maxDepth) {
+            maxDepth = ply;
+        }
+    }
+
+    /**
+     * This method counts an evaluated GamePosition.
+     */
+    void countLeafEvaluation() {
+        leafEvaluations++;
+    }
+
+    /**
+     * This method counts a beta cutoff.
+     *
+     * @param moveNumber The number of the move that caused the cutoff, starting with 0 for the first searched move.
+     */
+    void countBetaCutoff(int moveNumber) {
+        betaCutoffs++;
+
+        if (moveNumber == 0) {
+            firstMoveCutoffs++;
+        }
+    }
+
+    /**
+     * This method counts a lookup in the transposition table.
+     *
+     * @param isHit true if the lookup found an entry.
+     */
+    void countTranspositionProbe(boolean isHit) {
+        transpositionProbes++;
+
+        if (isHit) {
+            transpositionHits++;
+        }
+    }
+
+    /**
+     * This method counts a cutoff caused by the stable pieces of the opponent.
+     */
+    void countStabilityCutoff() {
+        stabilityCutoffs++;
+    }
+
+    /**
+     * This method counts a search of the root that has to be repeated with a wider window, because the value was
+     * outside of the aspiration window.
+     *
+     * @param isFailHigh true if the value was above the window - false if it was below.
+     */
+    void countAspirationResearch(boolean isFailHigh) {
+        if (isFailHigh) {
+            aspirationFailHighs++;
+        } else {
+            aspirationFailLows++;
+        }
+    }
+
+    /**
+     * This method stops the time measurement of the search.
+     */
+    void stop() {
+        elapsedTime = System.nanoTime() - startTime;
+    }
+
+    /**
+     * This method returns the depth of the last iteration of the search, the iteration may not be finished.
+     *
+     * @return The search depth.
+     */
+    public int getSearchDepth() {
+        return searchDepth;
+    }
+
+    /**
+     * This method returns the number of searched nodes.
+     *
+     * @return The number of nodes.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * This method returns the number of GamePositions that were evaluated.
+     *
+     * @return The number of leaf evaluations.
+     */
+    public long getLeafEvaluations() {
+        return leafEvaluations;
+    }
+
+    /**
+     * This method returns the number of beta cutoffs.
+     *
+     * @return The number of beta cutoffs.
+     */
+    public long getBetaCutoffs() {
+        return betaCutoffs;
+    }
+
+    /**
+     * This method returns the number of beta cutoffs that were caused by the first searched move.
+     *
+     * @return The number of first move cutoffs.
+     */
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    /**
+     * This method returns how many of the beta cutoffs were caused by the first searched move. The closer this value
+     * is to 1 the better is the move ordering.
+     *
+     * @return The ratio between 0 and 1, 0 if there was no cutoff.
+     */
+    public double getFirstMoveCutoffRatio() {
+        return (betaCutoffs == 0) ? 0.0 : (double) firstMoveCutoffs / betaCutoffs;
+    }
+
+    /**
+     * This method returns the number of lookups in the transposition table.
+     *
+     * @return The number of lookups.
+     */
+    public long getTranspositionProbes() {
+        return transpositionProbes;
+    }
+
+    /**
+     * This method returns the number of lookups that found an entry in the transposition table.
+     *
+     * @return The number of hits.
+     */
+    public long getTranspositionHits() {
+        return transpositionHits;
+    }
+
+    /**
+     * This method returns the number of nodes that were cut off because of the stable pieces of the opponent.
+     *
+     * @return The number of stability cutoffs.
+     */
+    public long getStabilityCutoffs() {
+        return stabilityCutoffs;
+    }
+
+    /**
+     * This method returns how often the root was searched again because the value was above the aspiration window.
+     *
+     * @return The number of fail highs.
+     */
+    public long getAspirationFailHighs() {
+        return aspirationFailHighs;
+    }
+
+    /**
+     * This method returns how often the root was searched again because the value was below the aspiration window.
+     *
+     * @return The number of fail lows.
+     */
+    public long getAspirationFailLows() {
+        return aspirationFailLows;
+    }
+
+    /**
+     * This method returns how often the root was searched again with a wider aspiration window.
+     *
+     * @return The number of re-searches.
+     */
+    public long getAspirationResearches() {
+        return aspirationFailHighs + aspirationFailLows;
+    }
+
+    /**
+     * This method returns the deepest ply that was reached by the search.
+     *
+     * @return The maximal depth.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * This method returns the time the search took.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * This method returns the number of nodes that were searched per second.
+     *
+     * @return The nodes per second, 0 if no time was measured.
+     */
+    public long getNodesPerSecond() {
+        return (elapsedTime == 0) ? 0 : (long) (nodes * 1000000000.0 / elapsedTime);
+    }
+
+    @Override
+    public String toString() {
+        return "SearchStatistics{" +
+                "searchDepth=" + searchDepth +
+                ", nodes=" + nodes +
+                ", leafEvaluations=" + leafEvaluations +
+                ", betaCutoffs=" + betaCutoffs +
+                ", firstMoveCutoffs=" + firstMoveCutoffs +
+                ", transpositionProbes=" + transpositionProbes +
+                ", transpositionHits=" + transpositionHits +
+                ", stabilityCutoffs=" + stabilityCutoffs +
+                ", aspirationFailHighs=" + aspirationFailHighs +
+                ", aspirationFailLows=" + aspirationFailLows +
+                ", maxDepth=" + maxDepth +
+                ", elapsedTime=" + elapsedTime +
+                ", nodesPerSecond=" + getNodesPerSecond() +
+                '}';
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.actor;
+
+import reversi.board.GameMove;
+
+/**
+ * The TimeManager allocates the time of a single move of a game that is played with a clock.
+ *
+ * The time of a move is planned from the remaining time of the player, the increment and the number of moves the
+ * player still has to make, which are estimated from the empty squares. The soft limit is the time the search should
+ * normally use, after every finished iteration the TimeManager decides if the next iteration is started. If the best
+ * move changes or the score drops between the iterations the search is unstable and may use more time, but never
+ * more than the hard limit, which stops the search in any case. The hard limit leaves enough of the remaining time
+ * that the player never loses on time.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+final class TimeManager {
+    //The time in milliseconds that is kept for the overhead of making the move
+    static final long SAFETY_MARGIN = 100;
+    //How many times the soft limit the hard limit may be
+    private static final int HARD_LIMIT_FACTOR = 4;
+    //The part of the remaining time a single move may use at most
+    private static final int MAXIMAL_TIME_DIVISOR = 2;
+    //A drop of the score that is bigger than this value makes the search unstable
+    private static final int SCORE_DROP_MARGIN = 1000;
+
+    //The time when the move was started in nanoseconds
+    private final long startTime;
+    //The time the search should normally use in milliseconds
+    private final long softTime;
+    //The time the search must not exceed in milliseconds
+    private final long hardTime;
+
+    //The result of the last finished iteration, null before the first iteration is finished
+    private SearchNode lastNode;
+    //How unstable the last iterations were, the older iterations count less
+    private double instability = 0.0;
+
+    /**
+     * Constructor of the TimeManager, the time measurement of the move starts with the creation.
+     *
+     * @param remainingTime The remaining time of the player in milliseconds.
+     * @param increment     The time that is added to the clock after the move in milliseconds.
+     * @param emptySquares  The number of empty squares of the board.
+     */
+    TimeManager(long remainingTime, long increment, int emptySquares) {
+        this.startTime = System.nanoTime();
+
+        //Every player makes about every second move until the board is full
+        int movesLeft = Math.max(1, (emptySquares + 1) / 2);
+        long availableTime = Math.max(0, remainingTime - SAFETY_MARGIN);
+
+        //The increment is added after the move, so it must not be spent if the remaining time is low
+        long plannedTime = availableTime / movesLeft + Math.min(increment, availableTime / movesLeft);
+
+        this.hardTime = Math.max(1, Math.min(plannedTime * HARD_LIMIT_FACTOR, availableTime / MAXIMAL_TIME_DIVISOR));
+        this.softTime = Math.max(1, Math.min(plannedTime, hardTime));
+    }
+
+    /**
+     * This method returns the time the search should normally use.
+     *
+     * @return The soft limit in milliseconds.
+     */
+    long getSoftTime() {
+        return softTime;
+    }
+
+    /**
+     * This method returns the time the search must not exceed. It has to be used as time limit of the search.
+     *
+     * @return The hard limit in milliseconds.
+     */
+    long getHardTime() {
+        return hardTime;
+    }
+
+    /**
+     * This method decides after a finished iteration if the next iteration should be started. The next iteration
+     * takes longer than all previous iterations, so it is only started if it can most likely be finished within the
+     * time that is allowed for the move.
+     *
+     * @param node The result of the finished iteration.
+     *
+     * @return true if the next iteration should be started.
+     */
+    boolean shouldStartNextIteration(SearchNode node) {
+        if (lastNode != null) {
+            GameMove bestMove = node.getGameMove();
+            boolean isBestMoveChanged = bestMove != null && !bestMove.equals(lastNode.getGameMove());
+            boolean isScoreDropped = (long) node.getEvaluationValue() <
+                    (long) lastNode.getEvaluationValue() - SCORE_DROP_MARGIN;
+
+            instability = instability / 2 + (isBestMoveChanged ? 1 : 0) + (isScoreDropped ? 1 : 0);
+        }
+        lastNode = node;
+
+        //A stable search uses the soft limit, an unstable search may use more time up to the hard limit
+        long allowedTime = Math.min((long) (softTime * (1.0 + instability / 2)), hardTime);
+        long elapsedTime = (System.nanoTime() - startTime) / 1000000L;
+
+        return elapsedTime < allowedTime / 2;
+    }
+
+    @Override
+    public String toString() {
+        return "TimeManager{" +
+                "softTime=" + softTime +
+                ", hardTime=" + hardTime +
+                ", instability=" + instability +
+                '}';
+    }
+}
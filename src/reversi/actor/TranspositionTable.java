@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.actor;
+
+/**
+ * A TranspositionTable stores the results of already searched positions, so that a position that is reached again by
+ * a different order of moves does not have to be searched again.
+ *
+ * The table can be shared between several threads without any locking. Every entry is stored as two longs, the hash
+ * value of the position xor the data of the entry and the data itself. If a thread reads an entry while another thread
+ * is writing it the check of the hash value fails and the entry is just treated as not found.
+ *
+ * The data of an entry is packed into a single long:
+ * bits 0-31 value, bits 32-39 depth, bits 40-41 bound, bits 42-57 square index of the best move + 1.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 02. August 2016
+ */
+public class TranspositionTable {
+    //The value returned by probe(long) if the position is not stored in the table
+    public static final long NO_ENTRY = 0L;
+    //The move index returned if no best move is stored in an entry
+    public static final int NO_MOVE = -1;
+    //The stored value is the exact value of the position
+    public static final int BOUND_EXACT = 1;
+    //The stored value is a lower bound of the value of the position (the search failed high)
+    public static final int BOUND_LOWER = 2;
+    //The stored value is an upper bound of the value of the position (the search failed low)
+    public static final int BOUND_UPPER = 3;
+
+    //The number of bytes that are needed to store one entry
+    private static final int BYTES_PER_ENTRY = 16;
+
+    //The hash values of the positions xor the data of the entries
+    private final long[] keys;
+    //The data of the entries
+    private final long[] data;
+    //The mask used to calculate the index of an entry from a hash value
+    private final int indexMask;
+
+    /**
+     * Constructor of the TranspositionTable.
+     *
+     * @param sizeInMegabytes The maximum memory that should be used by the table. The number of entries will be
+     *                        rounded down to a power of two.
+     */
+    public TranspositionTable(int sizeInMegabytes) {
+        if (sizeInMegabytes <= 0) {
+            throw new IllegalArgumentException("The size of the transposition table must be positive");
+        }
+
+        //Calculate the number of entries that fit into the given memory
+        long maximumEntries = (long) sizeInMegabytes * 1024 * 1024 / BYTES_PER_ENTRY;
+        int numberOfEntries = (int) Long.highestOneBit(Math.min(maximumEntries, 1 << 30));
+
+        keys = new long[numberOfEntries];
+        data = new long[numberOfEntries];
+        indexMask = numberOfEntries - 1;
+    }
+
+    /**
+     * This method looks up a position in the table.
+     *
+     * @param hash The hash value of the position.
+     *
+     * @return The packed data of the entry or NO_ENTRY if the position is not stored in the table.
+     */
+    public long probe(long hash) {
+        int index = (int) hash & indexMask;
+
+        //Read the data first and then check if the entry belongs to the position
+        long entry = data[index];
+        if ((keys[index] ^ entry) != hash) {
+            return NO_ENTRY;
+        }
+
+        return entry;
+    }
+
+    /**
+     * This method stores the result of a search in the table. An entry of the same position that was searched deeper
+     * will not be replaced.
+     *
+     * @param hash      The hash value of the position.
+     * @param depth     The depth the position was searched with.
+     * @param value     The value of the position.
+     * @param bound     The type of the value, one of BOUND_EXACT, BOUND_LOWER or BOUND_UPPER.
+     * @param moveIndex The square index of the best move or NO_MOVE if there is no best move.
+     */
+    public void store(long hash, int depth, int value, int bound, int moveIndex) {
+        int index = (int) hash & indexMask;
+
+        //Keep the deeper entry of the same position
+        long oldEntry = data[index];
+        if ((keys[index] ^ oldEntry) == hash && getDepth(oldEntry) > depth) {
+            return;
+        }
+
+        long entry = (value & 0xFFFFFFFFL) |
+                ((long) Math.min(depth, 0xFF) << 32) |
+                ((long) bound << 40) |
+                ((long) ((moveIndex + 1) & 0xFFFF) << 42);
+
+        data[index] = entry;
+        keys[index] = hash ^ entry;
+    }
+
+    /**
+     * This method removes all entries from the table.
+     */
+    public void clear() {
+        for (int i = 0; i < data.length; i++) {
+            keys[i] = 0L;
+            data[i] = 0L;
+        }
+    }
+
+    /**
+     * This method returns the number of entries the table can hold.
+     *
+     * @return The number of entries of the table.
+     */
+    public int getNumberOfEntries() {
+        return data.length;
+    }
+
+    /**
+     * This method returns the value of an entry.
+     *
+     * @param entry The packed data of the entry.
+     *
+     * @return The stored value.
+     */
+    public static int getValue(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * This method returns the depth of an entry.
+     *
+     * @param entry The packed data of the entry.
+     *
+     * @return The depth the position was searched with.
+     */
+    public static int getDepth(long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    /**
+     * This method returns the bound of an entry.
+     *
+     * @param entry The packed data of the entry.
+     *
+     * @return One of BOUND_EXACT, BOUND_LOWER or BOUND_UPPER.
+     */
+    public static int getBound(long entry) {
+        return (int) (entry >>> 40) & 0x3;
+    }
+
+    /**
+     * This method returns the square index of the best move of an entry.
+     *
+     * @param entry The packed data of the entry.
+     *
+     * @return The square index of the best move or NO_MOVE if no move is stored.
+     */
+    public static int getMoveIndex(long entry) {
+        return ((int) (entry >>> 42) & 0xFFFF) - 1;
+    }
+}
@@ -33,6 +33,7 @@ package reversi.actor.alphabeta;
 
 import reversi.board.Board;
 import reversi.board.GameMove;
+import reversi.board.MoveList;
 import reversi.player.Player;
 
 import java.util.List;
@@ -45,4 +46,15 @@ import java.util.List;
  */
 public interface OrderedLegalMoves {
     List<GameMove> getSortedList(Board board, Player player);
+
+    /**
+     * This method fills a MoveList with the sorted legal moves of a player without creating any objects.
+     *
+     * @param board    The board.
+     * @param player   The player whose legal moves should be sorted.
+     * @param moveList The MoveList that should be filled.
+     *
+     * @return The number of legal moves.
+     */
+    int getSortedMoves(Board board, Player player, MoveList moveList);
 }
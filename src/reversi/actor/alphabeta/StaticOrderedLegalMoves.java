@@ -33,12 +33,11 @@ package reversi.actor.alphabeta;
 
 import reversi.board.Board;
 import reversi.board.GameMove;
+import reversi.board.MoveList;
 import reversi.board.Square;
 import reversi.player.Player;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -57,45 +56,41 @@ public class StaticOrderedLegalMoves implements OrderedLegalMoves {
     private static final int WEIGHT_BOARD_BAD = -5;
     private static final int WEIGHT_BOARD_GOOD = 15;
     private static final int WEIGHT_BOARD_DEFAULT = 3;
-    //an int array representing the weights of the squares
-    private int[][] SQUARE_WEIGHTS;
-    /**
-     * This comparator is used to compare two game moves with each other.
-     */
-    private final Comparator<GameMove> GAME_MOVE_COMPARATOR = new Comparator<GameMove>() {
-        @Override
-        public int compare(GameMove gameMove1, GameMove gameMove2) {
-            //get the squares
-            Square square1 = gameMove1.getSquare();
-            Square square2 = gameMove2.getSquare();
-
-            //get the square weights
-            int weigh1 = weighSquare(square1);
-            int weigh2 = weighSquare(square2);
-
-            return Integer.compare(weigh2, weigh1);
-        }
-    };
-    //boolean flag to indicate if weights is already initialized
-    private boolean weightsInitialized = false;
+    //an int array representing the weights of the squares indexed by the square index (y * boardWidth + x)
+    private int[] SQUARE_WEIGHTS;
+    //the width of the board the weights were initialized for, 0 if weights is not initialized yet
+    private int weightsBoardWidth = 0;
 
     @Override
     public List<GameMove> getSortedList(Board board, Player player) {
-        //if weights is not initialized initialize weight
-        if (!weightsInitialized) {
-            initializeSquareWeights(board);
+        int boardWidth = board.getBoardWidth();
+
+        //Get all legal moves sorted
+        MoveList moveList = new MoveList(boardWidth * board.getBoardHeight());
+        getSortedMoves(board, player, moveList);
+
+        //Create a GameMove for every sorted move
+        List<GameMove> sorted = new ArrayList<>(moveList.size());
+        for (int i = 0; i < moveList.size(); i++) {
+            int squareIndex = moveList.get(i);
+            sorted.add(GameMove.valueOf(board.getSquare(squareIndex % boardWidth, squareIndex / boardWidth)));
         }
 
-        //Get all legal moves
-        List<GameMove> legalMoveList = board.getAllLegalMoves(player);
+        return sorted;
+    }
+
+    @Override
+    public int getSortedMoves(Board board, Player player, MoveList moveList) {
+        //if weights is not initialized for this board size initialize weight
+        if (weightsBoardWidth != board.getBoardWidth()) {
+            initializeSquareWeights(board);
+        }
 
-        //Insert them into a modifiable list
-        List<GameMove> sortable = new ArrayList<>();
-        sortable.addAll(legalMoveList);
+        //Get all legal moves and sort them by the weight of their squares
+        board.getLegalMoves(player, moveList);
+        moveList.sortByWeight(SQUARE_WEIGHTS);
 
-        //Sort them using the game move comparator
-        Collections.sort(sortable, GAME_MOVE_COMPARATOR);
-        return sortable;
+        return moveList.size();
     }
 
     /**
@@ -107,17 +102,17 @@ public class StaticOrderedLegalMoves implements OrderedLegalMoves {
         int boardHeight = board.getBoardHeight();
 
         //create the weights array
-        SQUARE_WEIGHTS = new int[boardWidth][boardHeight];
+        SQUARE_WEIGHTS = new int[boardWidth * boardHeight];
 
         //initialize the array with the right values
         for (int x = 0; x < boardWidth; x++) {
             for (int y = 0; y < boardHeight; y++) {
-                SQUARE_WEIGHTS[x][y] = getSquareWeight(board.getSquare(x, y), boardWidth, boardHeight);
+                SQUARE_WEIGHTS[y * boardWidth + x] = getSquareWeight(board.getSquare(x, y), boardWidth, boardHeight);
             }
         }
 
-        //set weights initialized true
-        weightsInitialized = true;
+        //remember the board size the weights were initialized for
+        weightsBoardWidth = boardWidth;
     }
 
     /**
@@ -230,19 +225,4 @@ public class StaticOrderedLegalMoves implements OrderedLegalMoves {
 
         return result;
     }
-
-    /**
-     * This method is used to get the square weight of a given square
-     *
-     * @param square The square whose weight is needed.
-     * @return The value of the weight of the square.
-     */
-    private int weighSquare(Square square) {
-        //get the x and y position of the square
-        int x = square.getXPosition();
-        int y = square.getYPosition();
-
-        //return the value stored in the array
-        return SQUARE_WEIGHTS[x][y];
-    }
 }
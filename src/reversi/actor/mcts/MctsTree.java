@@ -0,0 +1,401 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.actor.mcts;
+
+import reversi.player.Player;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A MctsTree is the tree of a Monte Carlo Tree Search. Every node counts how often it was visited and the results of
+ * the playouts of all visits in the view of the player who made the move to the node.
+ *
+ * The nodes are not objects, they are indices into arrays that are allocated once with a fixed capacity, so the tree
+ * never uses more memory than it was created with. The children of a node are allocated as one block, the node only
+ * stores the index of the first child and the number of children. A node is always allocated after its parent, so the
+ * index of a child is bigger than the index of its parent. The nodes do not store their positions, the moves are
+ * replayed on a PlayoutPolicy while the tree is descended.
+ *
+ * The tree is searched by several threads at the same time. The counters are changed atomically without locking and
+ * the children are allocated only by the thread that claimed the expansion of the node. If the tree is full no node is
+ * expanded anymore, the playouts start at the leaves until retain(int, int) makes room between two searches.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public final class MctsTree {
+    //The result of a playout in half points, so that a draw is an integer
+    public static final int WIN = 2;
+    public static final int DRAW = 1;
+    public static final int LOSS = 0;
+    //The move index of the root node that is not reached by a move
+    public static final int NO_MOVE = -1;
+    //The index of the root node
+    public static final int ROOT = 0;
+    //The memory one node needs in all arrays in bytes
+    public static final int BYTES_PER_NODE = 4 + 2 + 2 + 1 + 4 + 8 + 4;
+
+    //The values of firstChild of a node that has no children yet and of a node whose children are being allocated
+    private static final int UNEXPANDED = -1;
+    private static final int EXPANDING = -2;
+    //The values of mover
+    private static final byte BLACK = 1;
+    private static final byte WHITE = 2;
+
+    //The maximal number of nodes
+    private final int capacity;
+    //The number of allocated nodes, the nodes from 0 to size - 1 belong to the tree
+    private final AtomicInteger size = new AtomicInteger();
+
+    //The index of the first child of every node, UNEXPANDED or EXPANDING if it has no children yet
+    private final AtomicIntegerArray firstChild;
+    //The number of children of every node
+    private final short[] numberOfChildren;
+    //The square index of the move to every node, NO_MOVE for the root
+    private final short[] moveIndex;
+    //The player who made the move to every node, the score is counted in his view
+    private final byte[] mover;
+    //How often every node was visited, a visit is counted before the result of its playout is known
+    private final AtomicIntegerArray visits;
+    //The sum of the results of all finished playouts of every node in half points
+    private final AtomicLongArray score;
+    //The new indices of the nodes while the tree is compacted
+    private final int[] newIndex;
+
+    /**
+     * Constructor of a MctsTree.
+     *
+     * @param capacity The maximal number of nodes, at least one node more than a position can have legal moves.
+     */
+    public MctsTree(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("The tree needs room for a root and its children");
+        }
+
+        this.capacity = capacity;
+
+        firstChild = new AtomicIntegerArray(capacity);
+        numberOfChildren = new short[capacity];
+        moveIndex = new short[capacity];
+        mover = new byte[capacity];
+        visits = new AtomicIntegerArray(capacity);
+        score = new AtomicLongArray(capacity);
+        newIndex = new int[capacity];
+    }
+
+    /**
+     * This method returns how many nodes fit into the given memory.
+     *
+     * @param memoryLimit The memory in bytes.
+     *
+     * @return The number of nodes.
+     */
+    public static int getCapacity(long memoryLimit) {
+        return (int) Math.min(Integer.MAX_VALUE, memoryLimit / BYTES_PER_NODE);
+    }
+
+    /**
+     * This method returns the maximal number of nodes.
+     *
+     * @return The capacity of the tree.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * This method returns the number of nodes of the tree.
+     *
+     * @return The number of nodes.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * This method removes all nodes and creates a new root.
+     *
+     * @param player The player whose turn it is at the root.
+     */
+    public void clear(Player player) {
+        initializeNode(ROOT, (player == Player.BLACK) ? WHITE : BLACK, NO_MOVE);
+        size.set(1);
+    }
+
+    /**
+     * This method returns how often a node was visited, including the visits whose playout is not finished yet.
+     *
+     * @param node The index of the node.
+     *
+     * @return The number of visits.
+     */
+    public int getVisits(int node) {
+        return visits.get(node);
+    }
+
+    /**
+     * This method returns the sum of the results of all finished playouts of a node in half points (WIN, DRAW, LOSS).
+     *
+     * @param node The index of the node.
+     *
+     * @return The score in the view of the player who made the move to the node.
+     */
+    public long getScore(int node) {
+        return score.get(node);
+    }
+
+    /**
+     * This method returns the square index of the move to a node.
+     *
+     * @param node The index of the node.
+     *
+     * @return The square index or NO_MOVE for the root.
+     */
+    public int getMoveIndex(int node) {
+        return moveIndex[node];
+    }
+
+    /**
+     * This method returns if the children of a node were allocated.
+     *
+     * @param node The index of the node.
+     *
+     * @return true if the node is expanded.
+     */
+    public boolean isExpanded(int node) {
+        return firstChild.get(node) >= 0;
+    }
+
+    /**
+     * This method returns the index of the first child of an expanded node, the other children follow it.
+     *
+     * @param node The index of the node.
+     *
+     * @return The index of the first child.
+     */
+    public int getFirstChild(int node) {
+        return firstChild.get(node);
+    }
+
+    /**
+     * This method returns the number of children of an expanded node.
+     *
+     * @param node The index of the node.
+     *
+     * @return The number of children.
+     */
+    public int getNumberOfChildren(int node) {
+        return numberOfChildren[node];
+    }
+
+    /**
+     * This method counts a visit of a node. Until the result is added the visit counts as loss, so that other threads
+     * prefer other nodes (virtual loss).
+     *
+     * @param node The index of the node.
+     */
+    public void addVisit(int node) {
+        visits.incrementAndGet(node);
+    }
+
+    /**
+     * This method adds the result of a playout to a node.
+     *
+     * @param node   The index of the node.
+     * @param winner The winner of the playout or null if it was a draw.
+     */
+    public void addResult(int node, Player winner) {
+        if (winner == null) {
+            score.addAndGet(node, DRAW);
+        } else if (mover[node] == ((winner == Player.BLACK) ? BLACK : WHITE)) {
+            score.addAndGet(node, WIN);
+        }
+    }
+
+    /**
+     * This method allocates the children of a node for all legal moves of the position of the PlayoutPolicy. Only one
+     * thread can expand a node, the other threads return without waiting.
+     *
+     * @param node          The index of the node.
+     * @param playoutPolicy The PlayoutPolicy that is set to the position of the node, its game must not be over.
+     *
+     * @return true if the node is expanded, false if another thread is expanding it or the tree is full.
+     */
+    public boolean expand(int node, PlayoutPolicy playoutPolicy) {
+        if (!firstChild.compareAndSet(node, UNEXPANDED, EXPANDING)) {
+            return isExpanded(node);
+        }
+
+        int numberOfMoves = playoutPolicy.collectMoves();
+        int first = allocate(numberOfMoves);
+        if (first < 0) {
+            firstChild.set(node, UNEXPANDED);
+            return false;
+        }
+
+        byte player = (playoutPolicy.getPlayer() == Player.BLACK) ? BLACK : WHITE;
+        for (int i = 0; i < numberOfMoves; i++) {
+            initializeNode(first + i, player, playoutPolicy.getMove(i));
+        }
+        numberOfChildren[node] = (short) numberOfMoves;
+
+        //The children are written completely before other threads can see them
+        firstChild.set(node, first);
+        return true;
+    }
+
+    /**
+     * This method keeps only the subtree of a node, which becomes the new root, and makes room for the next search.
+     * The subtrees of the least visited nodes are removed until at most maximalSize nodes are left, their roots stay in
+     * the tree with their results and are expanded again when they are visited often enough.
+     *
+     * The method must not be called while the tree is searched.
+     *
+     * @param node        The index of the node that becomes the new root.
+     * @param maximalSize The maximal number of nodes that should be left, at least one more than the children of the
+     *                    new root.
+     */
+    public void retain(int node, int maximalSize) {
+        //Only nodes with at least this many visits keep their children
+        int minimalVisits = 0;
+        int numberOfRetainedNodes;
+        while ((numberOfRetainedNodes = mark(node, minimalVisits)) > maximalSize) {
+            minimalVisits = Math.max(1, 2 * minimalVisits);
+        }
+
+        //Move all retained nodes to the front, the order is kept so a node is never moved behind an unmoved node
+        int currentSize = size.get();
+        for (int i = node; i < currentSize; i++) {
+            int target = newIndex[i];
+            if (target < 0) {
+                continue;
+            }
+
+            int first = firstChild.get(i);
+            boolean keepsChildren = first >= 0 && newIndex[first] >= 0;
+
+            firstChild.set(target, keepsChildren ? newIndex[first] : UNEXPANDED);
+            numberOfChildren[target] = keepsChildren ? numberOfChildren[i] : 0;
+            moveIndex[target] = moveIndex[i];
+            mover[target] = mover[i];
+            visits.set(target, visits.get(i));
+            score.set(target, score.get(i));
+        }
+
+        moveIndex[ROOT] = NO_MOVE;
+        size.set(numberOfRetainedNodes);
+    }
+
+    /**
+     * This method computes the new indices of the nodes that are retained. The children of a node are only retained
+     * if the node is the new root or was visited at least minimalVisits times.
+     *
+     * @param node          The index of the new root.
+     * @param minimalVisits The minimal number of visits of a node that keeps its children.
+     *
+     * @return The number of retained nodes.
+     */
+    private int mark(int node, int minimalVisits) {
+        int currentSize = size.get();
+        for (int i = 0; i < currentSize; i++) {
+            newIndex[i] = -1;
+        }
+
+        //A child is always behind its parent, so one pass from the new root finds the whole subtree
+        newIndex[node] = 0;
+        for (int i = node; i < currentSize; i++) {
+            int first = firstChild.get(i);
+            if (newIndex[i] < 0 || first < 0 || (i != node && visits.get(i) < minimalVisits)) {
+                continue;
+            }
+
+            for (int child = first; child < first + numberOfChildren[i]; child++) {
+                newIndex[child] = 0;
+            }
+        }
+
+        //The retained nodes are numbered in the order of their old indices, so that they can be moved to the front in
+        //one pass and the children of a node stay one block
+        int numberOfRetainedNodes = 0;
+        for (int i = node; i < currentSize; i++) {
+            if (newIndex[i] >= 0) {
+                newIndex[i] = numberOfRetainedNodes++;
+            }
+        }
+
+        return numberOfRetainedNodes;
+    }
+
+    /**
+     * This method initializes a node without children and results.
+     *
+     * @param node  The index of the node.
+     * @param owner The player who made the move to the node.
+     * @param move  The square index of the move to the node.
+     */
+    private void initializeNode(int node, byte owner, int move) {
+        firstChild.set(node, UNEXPANDED);
+        numberOfChildren[node] = 0;
+        moveIndex[node] = (short) move;
+        mover[node] = owner;
+        visits.set(node, 0);
+        score.set(node, 0);
+    }
+
+    /**
+     * This method allocates a block of nodes.
+     *
+     * @param numberOfNodes The number of nodes.
+     *
+     * @return The index of the first node or -1 if the tree is full.
+     */
+    private int allocate(int numberOfNodes) {
+        while (true) {
+            int first = size.get();
+            if (first + numberOfNodes > capacity) {
+                return -1;
+            }
+            if (size.compareAndSet(first, first + numberOfNodes)) {
+                return first;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MctsTree{" +
+                "capacity=" + capacity +
+                ", size=" + size.get() +
+                '}';
+    }
+}
@@ -0,0 +1,455 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.actor.mcts;
+
+import reversi.board.Board;
+import reversi.board.SquareState;
+import reversi.player.Player;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The PlayoutPolicy plays a game from a position to its end with random moves. The moves are only lightly biased: a
+ * corner is chosen more often than other squares and the squares next to a corner are chosen less often, because these
+ * decide most games of random players.
+ *
+ * The playout is made on a private copy of the board that is changed in place, so a playout does not create any
+ * objects. The copy has a border of sentinel squares around the board (mailbox), so the flips of a direction can be
+ * found without checking the edges of the board. The empty squares are kept in a list, only they have to be checked
+ * for legal moves.
+ *
+ * The moves of the search tree are made on the same copy with play(int) before the playout starts, so the nodes of the
+ * tree do not need to store their boards.
+ *
+ * The random moves are taken from the random numbers of the current thread, unless a seed is set. With a seed the
+ * playouts of a PlayoutPolicy can be repeated exactly.
+ *
+ * A PlayoutPolicy is not thread safe, every thread needs its own.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 20. August 2016
+ */
+public class PlayoutPolicy {
+    //The weights of the squares, the probability of a move is proportional to the weight of its square
+    private static final int WEIGHT_CORNER = 8;
+    private static final int WEIGHT_X_SQUARE = 1;
+    private static final int WEIGHT_C_SQUARE = 2;
+    private static final int WEIGHT_DEFAULT = 4;
+    //The values of the squares of the copy, the opponent of a player is 3 - player
+    private static final byte EMPTY = 0;
+    private static final byte BLACK = 1;
+    private static final byte WHITE = 2;
+    private static final byte BORDER = 3;
+
+    //The size of the board the copy was initialized for, 0 if the copy is not initialized yet
+    private int boardSize = 0;
+    //The width of a row of the copy including the border column
+    private int rowWidth;
+    //The squares of the copy, the square x/y has the index (y + 1) * rowWidth + x + 1
+    private byte[] squares = new byte[0];
+    //The offsets of the indices of the eight neighbours of a square
+    private int[] directions = new int[0];
+    //The weights of the squares indexed like the squares of the copy
+    private int[] squareWeights = new int[0];
+    //The indices of the empty squares, only the first numberOfEmptySquares are used
+    private int[] emptySquares = new int[0];
+    private int numberOfEmptySquares;
+    //The position of every empty square in emptySquares, indexed like the squares of the copy
+    private int[] emptyPositions = new int[0];
+    //The positions in emptySquares of the legal moves of the current player and their summed up weights
+    private int[] moves = new int[0];
+    private int[] weightSums = new int[0];
+    //The conversion of the square indices of the board (y * boardSize + x) into the indices of the copy and back
+    private int[] copyIndices = new int[0];
+    private int[] boardIndices = new int[0];
+    //The value of the pieces of the player whose turn it is
+    private byte current;
+    //true if no player has a legal move anymore
+    private boolean isGameOver;
+    //The random numbers of the playouts if a seed is set, null if the random numbers of the thread are used
+    private Random seededRandom;
+
+    /**
+     * This method sets the seed of the random numbers of the playouts, so the same playouts are played again.
+     *
+     * @param seed The seed of the random numbers.
+     */
+    public void setSeed(long seed) {
+        seededRandom = new Random(seed);
+    }
+
+    /**
+     * This method plays random moves from a position until the game is over.
+     *
+     * @param board  The board the playout starts with, it is not changed.
+     * @param player The player whose turn it is.
+     *
+     * @return The player who has more pieces at the end of the game or null if the game is a draw.
+     */
+    public Player playout(Board board, Player player) {
+        setPosition(board, player);
+
+        return playout();
+    }
+
+    /**
+     * This method sets the position the next moves and the playout start with.
+     *
+     * @param board  The board of the position, it is not changed.
+     * @param player The player whose turn it is.
+     */
+    public void setPosition(Board board, Player player) {
+        copy(board);
+
+        current = (player == Player.BLACK) ? BLACK : WHITE;
+        isGameOver = false;
+        updateCurrentPlayer((byte) (3 - current));
+    }
+
+    /**
+     * This method returns the player whose turn it is in the current position.
+     *
+     * @return The player whose turn it is.
+     */
+    public Player getPlayer() {
+        return (current == BLACK) ? Player.BLACK : Player.WHITE;
+    }
+
+    /**
+     * This method returns if the game of the current position is over.
+     *
+     * @return true if no player has a legal move anymore.
+     */
+    public boolean isGameOver() {
+        return isGameOver;
+    }
+
+    /**
+     * This method collects the legal moves of the player whose turn it is in the current position.
+     *
+     * @return The number of legal moves, they are returned by getMove(int).
+     */
+    public int collectMoves() {
+        return collectMoves(current);
+    }
+
+    /**
+     * This method returns a move that was collected by collectMoves().
+     *
+     * @param moveNumber The number of the move.
+     *
+     * @return The square index of the move (y * boardSize + x).
+     */
+    public int getMove(int moveNumber) {
+        return boardIndices[emptySquares[moves[moveNumber]]];
+    }
+
+    /**
+     * This method makes a legal move of the player whose turn it is. If the opponent has no legal move afterwards it is
+     * the turn of the same player again.
+     *
+     * @param squareIndex The square index of the move (y * boardSize + x).
+     */
+    public void play(int squareIndex) {
+        int square = copyIndices[squareIndex];
+
+        makeMove(square, current);
+        removeEmptySquare(emptyPositions[square]);
+        updateCurrentPlayer(current);
+    }
+
+    /**
+     * This method plays random moves from the current position until the game is over.
+     *
+     * @return The player who has more pieces at the end of the game or null if the game is a draw.
+     */
+    public Player playout() {
+        Random random = (seededRandom != null) ? seededRandom : ThreadLocalRandom.current();
+        byte own = current;
+        int passes = isGameOver ? 2 : 0;
+
+        //The game is over if both players have to pass one after the other
+        while (numberOfEmptySquares > 0 && passes < 2) {
+            int numberOfMoves = collectMoves(own);
+
+            if (numberOfMoves == 0) {
+                passes++;
+            } else {
+                passes = 0;
+
+                //Find the move whose weight contains the random number
+                int choice = random.nextInt(weightSums[numberOfMoves - 1]);
+                int moveNumber = 0;
+                while (weightSums[moveNumber] <= choice) {
+                    moveNumber++;
+                }
+
+                int position = moves[moveNumber];
+                makeMove(emptySquares[position], own);
+                removeEmptySquare(position);
+            }
+
+            own = (byte) (3 - own);
+        }
+
+        isGameOver = true;
+        return getWinner();
+    }
+
+    /**
+     * This method decides whose turn it is after a player has moved.
+     *
+     * @param mover The value of the pieces of the player who has moved.
+     */
+    private void updateCurrentPlayer(byte mover) {
+        byte opponent = (byte) (3 - mover);
+
+        if (hasAnyLegalMove(opponent)) {
+            current = opponent;
+        } else if (hasAnyLegalMove(mover)) {
+            current = mover;
+        } else {
+            isGameOver = true;
+        }
+    }
+
+    /**
+     * This method checks if a player has any legal move.
+     *
+     * @param own The value of the pieces of the player.
+     *
+     * @return true if the player has a legal move.
+     */
+    private boolean hasAnyLegalMove(byte own) {
+        for (int position = 0; position < numberOfEmptySquares; position++) {
+            if (isLegalMove(emptySquares[position], own)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * This method removes a square from the list of empty squares by replacing it with the last empty square.
+     *
+     * @param position The position of the square in emptySquares.
+     */
+    private void removeEmptySquare(int position) {
+        int lastSquare = emptySquares[--numberOfEmptySquares];
+
+        emptySquares[position] = lastSquare;
+        emptyPositions[lastSquare] = position;
+    }
+
+    /**
+     * This method copies the board into the private copy.
+     *
+     * @param board The board that should be copied.
+     */
+    private void copy(Board board) {
+        if (boardSize != board.getBoardWidth()) {
+            initialize(board.getBoardWidth());
+        }
+
+        numberOfEmptySquares = 0;
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                int index = (y + 1) * rowWidth + x + 1;
+                SquareState squareState = board.getSquareState(x, y);
+
+                if (squareState == SquareState.BLACK) {
+                    squares[index] = BLACK;
+                } else if (squareState == SquareState.WHITE) {
+                    squares[index] = WHITE;
+                } else {
+                    squares[index] = EMPTY;
+                    emptyPositions[index] = numberOfEmptySquares;
+                    emptySquares[numberOfEmptySquares++] = index;
+                }
+            }
+        }
+    }
+
+    /**
+     * This method collects the legal moves of a player and sums up their weights.
+     *
+     * @param own The value of the pieces of the player.
+     *
+     * @return The number of legal moves.
+     */
+    private int collectMoves(byte own) {
+        int numberOfMoves = 0;
+        int weightSum = 0;
+
+        for (int position = 0; position < numberOfEmptySquares; position++) {
+            int square = emptySquares[position];
+
+            if (isLegalMove(square, own)) {
+                weightSum += squareWeights[square];
+                moves[numberOfMoves] = position;
+                weightSums[numberOfMoves] = weightSum;
+                numberOfMoves++;
+            }
+        }
+
+        return numberOfMoves;
+    }
+
+    /**
+     * This method checks if a player would flip any piece by placing a piece on a square.
+     *
+     * @param square The index of the empty square.
+     * @param own    The value of the pieces of the player.
+     *
+     * @return true if the move is legal.
+     */
+    private boolean isLegalMove(int square, byte own) {
+        byte opponent = (byte) (3 - own);
+
+        for (int direction : directions) {
+            int index = square + direction;
+            if (squares[index] != opponent) {
+                continue;
+            }
+
+            //Skip all pieces of the opponent, the move is legal if they are closed by an own piece
+            do {
+                index += direction;
+            } while (squares[index] == opponent);
+
+            if (squares[index] == own) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * This method places a piece on a square and flips all pieces of the opponent that are closed by it.
+     *
+     * @param square The index of the empty square.
+     * @param own    The value of the pieces of the player.
+     */
+    private void makeMove(int square, byte own) {
+        byte opponent = (byte) (3 - own);
+
+        for (int direction : directions) {
+            int index = square + direction;
+            while (squares[index] == opponent) {
+                index += direction;
+            }
+
+            //Flip the pieces back to the square if they are closed by an own piece
+            if (squares[index] == own) {
+                for (index -= direction; index != square; index -= direction) {
+                    squares[index] = own;
+                }
+            }
+        }
+
+        squares[square] = own;
+    }
+
+    /**
+     * This method returns the player who has more pieces on the copy.
+     *
+     * @return The winner or null if both players have the same number of pieces.
+     */
+    private Player getWinner() {
+        int difference = 0;
+
+        for (byte square : squares) {
+            if (square == BLACK) {
+                difference++;
+            } else if (square == WHITE) {
+                difference--;
+            }
+        }
+
+        if (difference == 0) {
+            return null;
+        }
+
+        return (difference > 0) ? Player.BLACK : Player.WHITE;
+    }
+
+    /**
+     * This method creates the copy and the square weights for a board size.
+     *
+     * @param newBoardSize The size of the board.
+     */
+    private void initialize(int newBoardSize) {
+        boardSize = newBoardSize;
+        rowWidth = boardSize + 1;
+
+        //One border row above and below the board, the border column is shared by the end and the start of two rows
+        squares = new byte[(boardSize + 2) * rowWidth + 1];
+        Arrays.fill(squares, BORDER);
+        directions = new int[]{-rowWidth - 1, -rowWidth, -rowWidth + 1, -1, 1, rowWidth - 1, rowWidth, rowWidth + 1};
+
+        squareWeights = new int[squares.length];
+        emptyPositions = new int[squares.length];
+        copyIndices = new int[boardSize * boardSize];
+        boardIndices = new int[squares.length];
+        emptySquares = new int[boardSize * boardSize];
+        moves = new int[boardSize * boardSize];
+        weightSums = new int[boardSize * boardSize];
+
+        int last = boardSize - 1;
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                //The distance to the nearest corner in both directions
+                int distanceX = Math.min(x, last - x);
+                int distanceY = Math.min(y, last - y);
+
+                int weight;
+                if (distanceX == 0 && distanceY == 0) {
+                    weight = WEIGHT_CORNER;
+                } else if (distanceX == 1 && distanceY == 1) {
+                    weight = WEIGHT_X_SQUARE;
+                } else if (distanceX + distanceY == 1) {
+                    weight = WEIGHT_C_SQUARE;
+                } else {
+                    weight = WEIGHT_DEFAULT;
+                }
+
+                int index = (y + 1) * rowWidth + x + 1;
+                squareWeights[index] = weight;
+                copyIndices[y * boardSize + x] = index;
+                boardIndices[index] = y * boardSize + x;
+            }
+        }
+    }
+}
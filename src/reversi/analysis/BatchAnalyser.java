@@ -0,0 +1,374 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.analysis;
+
+import reversi.actor.AlphaBetaActor;
+import reversi.actor.SearchMonitor;
+import reversi.actor.SearchResult;
+import reversi.actor.TranspositionTable;
+import reversi.board.GameMove;
+import reversi.board.GamePosition;
+import reversi.game.ReversiGameConfiguration;
+
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The BatchAnalyser analyses large sets of positions, e.g. for post game reviews or for generating puzzles.
+ *
+ * The positions are streamed from a PositionReader and analysed in parallel by a pool of workers. Every worker has its
+ * own AlphaBetaActor, all workers share one TranspositionTable. The results are written in the order of the input,
+ * results that are finished early wait in a reorder buffer until all results before them are written. The number of
+ * positions that are read but not written yet is limited, so files larger than the memory can be analysed.
+ *
+ * Every result is written as one line: number of the position, best move, evaluation value and search depth.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 02. August 2016
+ */
+public class BatchAnalyser {
+    //The number of positions per worker that can be read but not written yet
+    private static final int POSITIONS_IN_FLIGHT_PER_WORKER = 64;
+    //The interval in milliseconds in which the progress is reported
+    private static final long PROGRESS_INTERVAL = 5000;
+    //The move written if the player whose turn it is has no move
+    private static final String NO_MOVE = "-";
+
+    //The number of worker threads
+    private final int numberOfWorkers;
+    //The depth every position is searched with
+    private final int depth;
+    //The table shared by all workers, null if no table should be used
+    private final TranspositionTable transpositionTable;
+    //The stream where the progress is reported
+    private final PrintStream log;
+
+    /**
+     * Constructor of the BatchAnalyser.
+     *
+     * @param numberOfWorkers    The number of threads analysing the positions in parallel.
+     * @param depth              The depth every position should be searched with.
+     * @param transpositionTable The table shared by all workers, null if no table should be used.
+     * @param log                The stream where the progress should be reported.
+     */
+    public BatchAnalyser(int numberOfWorkers, int depth, TranspositionTable transpositionTable, PrintStream log) {
+        if (numberOfWorkers <= 0) {
+            throw new IllegalArgumentException("At least one worker is needed");
+        }
+
+        this.numberOfWorkers = numberOfWorkers;
+        this.depth = depth;
+        this.transpositionTable = transpositionTable;
+        this.log = log;
+    }
+
+    /**
+     * This method analyses all positions of the reader and writes the results in the order of the input.
+     *
+     * @param reader The reader the positions are read from.
+     * @param output The writer the results are written to.
+     *
+     * @return The number of analysed positions.
+     *
+     * @throws IOException          If a position could not be read or a result could not be written.
+     * @throws InterruptedException If the analysis was interrupted.
+     * @throws Error                If a worker failed with an Error, it is thrown after the workers were shut down.
+     */
+    public long analyse(PositionReader reader, Writer output) throws IOException, InterruptedException {
+        //Every worker thread gets its own actor, because the search state of an actor is not thread safe
+        final ThreadLocal<AlphaBetaActor> actors = new ThreadLocal<AlphaBetaActor>() {
+            @Override
+            protected AlphaBetaActor initialValue() {
+                AlphaBetaActor actor = new AlphaBetaActor();
+                actor.setTranspositionTable(transpositionTable);
+                //The searches of the analysis must not change the statistics of the engine
+                actor.setSearchMonitor(SearchMonitor.getAnalysisInstance());
+                return actor;
+            }
+        };
+
+        final Semaphore positionsInFlight = new Semaphore(numberOfWorkers * POSITIONS_IN_FLIGHT_PER_WORKER);
+        final ReorderBuffer reorderBuffer = new ReorderBuffer(output, positionsInFlight);
+        ExecutorService workers = Executors.newFixedThreadPool(numberOfWorkers);
+
+        long startTime = System.nanoTime();
+        long lastReport = System.currentTimeMillis();
+        long numberOfPositions = 0;
+
+        try {
+            GamePosition gamePosition;
+            while ((gamePosition = reader.readPosition()) != null) {
+                //Wait until there is space in the reorder buffer, so the memory usage stays constant
+                positionsInFlight.acquire();
+                reorderBuffer.throwIfFailed();
+
+                final long sequenceNumber = numberOfPositions++;
+                final GamePosition position = gamePosition;
+                workers.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        String line;
+                        try {
+                            SearchResult result = actors.get().searchPosition(position, depth);
+                            line = formatResult(sequenceNumber, result);
+                        } catch (RuntimeException re) {
+                            //A failed position must not block all positions behind it
+                            line = (sequenceNumber + 1) + " error " + re;
+                        } catch (Throwable t) {
+                            //Any other failure stops the analysis, but the slot is still handed over, otherwise
+                            //the results behind it and the reader would wait forever
+                            reorderBuffer.fail(t);
+                            line = (sequenceNumber + 1) + " error " + t;
+                        }
+
+                        reorderBuffer.put(sequenceNumber, line);
+                    }
+                });
+
+                //Report the progress from time to time
+                if (System.currentTimeMillis() - lastReport >= PROGRESS_INTERVAL) {
+                    lastReport = System.currentTimeMillis();
+                    reportProgress(reorderBuffer.getNumberOfWrittenResults(), startTime);
+                }
+            }
+        } catch (InterruptedException ie) {
+            workers.shutdownNow();
+            throw ie;
+        } finally {
+            workers.shutdown();
+        }
+
+        //Wait until all positions are analysed
+        workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        reorderBuffer.throwIfFailed();
+        output.flush();
+
+        reportProgress(numberOfPositions, startTime);
+
+        return numberOfPositions;
+    }
+
+    /**
+     * This method reports the number of analysed positions and the positions per second.
+     *
+     * @param numberOfPositions The number of analysed positions.
+     * @param startTime         The time in nanoseconds when the analysis was started.
+     */
+    private void reportProgress(long numberOfPositions, long startTime) {
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        double positionsPerSecond = (seconds > 0) ? numberOfPositions / seconds : 0;
+
+        log.printf("%d positions analysed in %.1f s (%.1f positions/s)%n", numberOfPositions, seconds,
+                positionsPerSecond);
+    }
+
+    /**
+     * This method converts a SearchResult into a line of the output.
+     *
+     * @param sequenceNumber The number of the position in the input starting at 0.
+     * @param result         The SearchResult of the position.
+     *
+     * @return The line that should be written.
+     */
+    private static String formatResult(long sequenceNumber, SearchResult result) {
+        GameMove gameMove = result.getGameMove();
+        String move = (gameMove == null) ? NO_MOVE : gameMove.getSquare().getSquareName();
+
+        return (sequenceNumber + 1) + " " + move + " " + result.getEvaluationValue() + " " + result.getDepth();
+    }
+
+    /**
+     * Starts a batch analysis from the command line.
+     *
+     * Usage: BatchAnalyser [-binary] [-depth n] [-threads n] [-hash mb] input [output]
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        boolean binary = false;
+        int depth = ReversiGameConfiguration.getInstance().getSnapshot().getSearchDepth();
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hashSize = 64;
+        String inputFile = null;
+        String outputFile = null;
+
+        //Parse the command line arguments
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-binary":
+                    binary = true;
+                    break;
+                case "-depth":
+                    depth = Integer.parseInt(args[++i]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-hash":
+                    hashSize = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    if (inputFile == null) {
+                        inputFile = args[i];
+                    } else {
+                        outputFile = args[i];
+                    }
+            }
+        }
+
+        if (inputFile == null) {
+            System.err.println("Usage: BatchAnalyser [-binary] [-depth n] [-threads n] [-hash mb] input [output]");
+            return;
+        }
+
+        TranspositionTable transpositionTable = (hashSize > 0) ? new TranspositionTable(hashSize) : null;
+        BatchAnalyser analyser = new BatchAnalyser(threads, depth, transpositionTable, System.err);
+
+        //Open the input in the requested format
+        PositionReader reader;
+        if (binary) {
+            reader = new BinaryPositionReader(new FileInputStream(inputFile));
+        } else {
+            reader = new TextPositionReader(new InputStreamReader(new FileInputStream(inputFile),
+                    StandardCharsets.UTF_8));
+        }
+
+        Writer output = new BufferedWriter(new OutputStreamWriter(
+                (outputFile == null) ? System.out : new FileOutputStream(outputFile), StandardCharsets.UTF_8));
+
+        try {
+            analyser.analyse(reader, output);
+        } finally {
+            reader.close();
+            output.close();
+        }
+    }
+
+    /**
+     * The ReorderBuffer collects the results of the workers and writes them in the order of the input.
+     */
+    private static class ReorderBuffer {
+        //The writer the results are written to
+        private final Writer output;
+        //The semaphore that is released whenever a result is written
+        private final Semaphore positionsInFlight;
+        //The results that are finished but can not be written yet, mapped by their sequence number
+        private final Map<Long, String> pendingResults = new HashMap<>();
+        //The sequence number of the next result that should be written
+        private long nextSequenceNumber = 0;
+        //The first exception that occurred while writing or in a worker, null if no exception occurred
+        private Throwable failure;
+
+        /**
+         * Constructor of the ReorderBuffer.
+         *
+         * @param output            The writer the results should be written to.
+         * @param positionsInFlight The semaphore that should be released for every written result.
+         */
+        ReorderBuffer(Writer output, Semaphore positionsInFlight) {
+            this.output = output;
+            this.positionsInFlight = positionsInFlight;
+        }
+
+        /**
+         * This method adds a finished result and writes all results that are now in order.
+         *
+         * @param sequenceNumber The sequence number of the result.
+         * @param line           The line of the result.
+         */
+        synchronized void put(long sequenceNumber, String line) {
+            pendingResults.put(sequenceNumber, line);
+
+            String nextLine;
+            while ((nextLine = pendingResults.remove(nextSequenceNumber)) != null) {
+                try {
+                    if (failure == null) {
+                        output.write(nextLine);
+                        output.write(System.lineSeparator());
+                    }
+                } catch (IOException ioe) {
+                    failure = ioe;
+                }
+
+                nextSequenceNumber++;
+                positionsInFlight.release();
+            }
+        }
+
+        /**
+         * This method records the failure of a worker. No further results are written after a failure.
+         *
+         * @param throwable The failure of the worker.
+         */
+        synchronized void fail(Throwable throwable) {
+            if (failure == null) {
+                failure = throwable;
+            }
+        }
+
+        /**
+         * This method returns the number of results that are already written.
+         *
+         * @return The number of written results.
+         */
+        synchronized long getNumberOfWrittenResults() {
+            return nextSequenceNumber;
+        }
+
+        /**
+         * This method throws the exception that occurred while writing a result or in a worker.
+         *
+         * @throws IOException If a result could not be written.
+         */
+        synchronized void throwIfFailed() throws IOException {
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            } else if (failure != null) {
+                throw new IllegalStateException("A worker failed", failure);
+            }
+        }
+    }
+}
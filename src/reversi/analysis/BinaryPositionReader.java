@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.analysis;
+
+import reversi.board.GamePosition;
+import reversi.board.ReversiBoard;
+import reversi.board.SquareState;
+import reversi.player.Player;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * This PositionReader reads GamePositions from a binary source.
+ *
+ * Every position is stored as one record:
+ * 1 byte board size, 1 byte player whose turn it is (0 black, 1 white) followed by the squares of the board row by row
+ * (A1, B1, C1, ... A2, B2, ...) with 2 bits per square (0 empty, 1 black, 2 white), four squares per byte starting at
+ * the lowest bits.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 02. August 2016
+ */
+public class BinaryPositionReader implements PositionReader {
+    //The stream the positions are read from
+    private final DataInputStream inputStream;
+    //The number of the record that was read last, used for error messages
+    private long recordNumber = 0;
+
+    /**
+     * Constructor of the BinaryPositionReader.
+     *
+     * @param inputStream The stream the positions should be read from.
+     */
+    public BinaryPositionReader(InputStream inputStream) {
+        this.inputStream = new DataInputStream(new BufferedInputStream(inputStream));
+    }
+
+    @Override
+    public GamePosition readPosition() throws IOException {
+        //The end of the stream is only allowed between two records
+        int boardSize = inputStream.read();
+        if (boardSize < 0) {
+            return null;
+        }
+        recordNumber++;
+
+        try {
+            int playerValue = inputStream.readUnsignedByte();
+            if (playerValue > 1) {
+                throw new IOException("Record " + recordNumber + ": invalid player " + playerValue);
+            }
+            Player player = (playerValue == 0) ? Player.BLACK : Player.WHITE;
+
+            //Read the packed squares
+            int numberOfSquares = boardSize * boardSize;
+            byte[] packedSquares = new byte[(numberOfSquares + 3) / 4];
+            inputStream.readFully(packedSquares);
+
+            //Unpack the squares
+            SquareState[][] squareStates = new SquareState[boardSize][boardSize];
+            for (int i = 0; i < numberOfSquares; i++) {
+                int value = (packedSquares[i / 4] >> ((i % 4) * 2)) & 0x3;
+                squareStates[i % boardSize][i / boardSize] = toSquareState(value);
+            }
+
+            return new GamePosition(new ReversiBoard(squareStates), player);
+        } catch (EOFException eofe) {
+            throw new IOException("Record " + recordNumber + " is incomplete", eofe);
+        } catch (IllegalArgumentException iae) {
+            throw new IOException("Record " + recordNumber + ": " + iae.getMessage(), iae);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+
+    /**
+     * This method converts the 2 bit value of a square into a SquareState.
+     *
+     * @param value The value of the square.
+     *
+     * @return The SquareState represented by the value.
+     *
+     * @throws IOException If the value does not represent any SquareState.
+     */
+    private SquareState toSquareState(int value) throws IOException {
+        switch (value) {
+            case 0:
+                return SquareState.EMPTY;
+            case 1:
+                return SquareState.BLACK;
+            case 2:
+                return SquareState.WHITE;
+            default:
+                throw new IOException("Record " + recordNumber + ": invalid square value " + value);
+        }
+    }
+}
@@ -0,0 +1,402 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.analysis;
+
+import reversi.actor.AlphaBetaActor;
+import reversi.actor.SearchMonitor;
+import reversi.actor.SearchResult;
+import reversi.actor.TranspositionTable;
+import reversi.board.Board;
+import reversi.board.GameMove;
+import reversi.board.GamePosition;
+import reversi.board.ReversiBoard;
+import reversi.board.Square;
+import reversi.game.Game;
+import reversi.game.GameRecord;
+import reversi.game.ReversiGameConfiguration;
+import reversi.player.Player;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The GameAnalyser reviews a finished game. For every position of the game all legal moves are scored, the score of
+ * the played move is compared with the score of the best move and moves that lose too much are flagged as blunders.
+ *
+ * The positions are analysed in parallel by a pool of workers, one task per position. Every worker has its own
+ * AlphaBetaActor, all workers share one TranspositionTable, so the positions of the game that follow each other profit
+ * from the searches of their neighbours.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public class GameAnalyser {
+    //The default score loss from which on a move is a blunder. The pieces, the mobility and the edges of the
+    //MixedEvaluation never differ by that much, so with it a blunder is a move that gives away a corner
+    public static final int DEFAULT_BLUNDER_THRESHOLD = 1000;
+
+    //The number of worker threads
+    private final int numberOfWorkers;
+    //The depth every move is searched with, including the move itself
+    private final int depth;
+    //The score loss from which on a move is a blunder
+    private final int blunderThreshold;
+    //The table shared by all workers, null if no table should be used
+    private final TranspositionTable transpositionTable;
+
+    /**
+     * Constructor of the GameAnalyser.
+     *
+     * @param numberOfWorkers    The number of threads analysing the positions in parallel.
+     * @param depth              The depth every move should be searched with, the move itself counts as the first ply.
+     * @param blunderThreshold   The score loss from which on a move is a blunder.
+     * @param transpositionTable The table shared by all workers, null if no table should be used.
+     */
+    public GameAnalyser(int numberOfWorkers, int depth, int blunderThreshold, TranspositionTable transpositionTable) {
+        if (numberOfWorkers <= 0) {
+            throw new IllegalArgumentException("At least one worker is needed");
+        }
+        if (depth <= 0) {
+            throw new IllegalArgumentException("The depth has to be at least 1");
+        }
+
+        this.numberOfWorkers = numberOfWorkers;
+        this.depth = depth;
+        this.blunderThreshold = blunderThreshold;
+        this.transpositionTable = transpositionTable;
+    }
+
+    /**
+     * This method reviews all moves that were made in a game so far. The record of the game is copied under the lock
+     * of its history, so the game may go on while it is reviewed.
+     *
+     * @param game The game that should be reviewed.
+     *
+     * @return The GameReview containing one MoveReview per move.
+     *
+     * @throws InterruptedException If the analysis was interrupted, the running searches are stopped.
+     */
+    public GameReview analyse(Game game) throws InterruptedException {
+        GameRecord gameRecord = game.getGameRecord();
+
+        return analyse(gameRecord.getStartPosition(), gameRecord.getGameMoves());
+    }
+
+    /**
+     * This method reviews the moves of a game that is given as start position and list of moves. Passes are not part
+     * of the list, they are made automatically.
+     *
+     * @param startPosition The position the game started with.
+     * @param gameMoves     The moves of the game.
+     *
+     * @return The GameReview containing one MoveReview per move.
+     *
+     * @throws IllegalArgumentException If a move is not legal.
+     * @throws InterruptedException     If the analysis was interrupted, the running searches are stopped.
+     */
+    public GameReview analyse(GamePosition startPosition, List<GameMove> gameMoves) throws InterruptedException {
+        List<GamePosition> gamePositions = new ArrayList<>();
+        GamePosition gamePosition = startPosition;
+
+        for (GameMove gameMove : gameMoves) {
+            Board board = gamePosition.getBoard();
+            if (!board.isMoveLegal(gameMove, gamePosition.getCurrentPlayer())) {
+                throw new IllegalArgumentException("Move " + (gamePositions.size() + 1) + " ("
+                        + gameMove.getSquare().getSquareName() + ") is not legal");
+            }
+
+            gamePositions.add(gamePosition);
+            gamePosition = board.makeMove(gameMove, gamePosition.getCurrentPlayer());
+        }
+
+        return analyse(gamePositions, gameMoves);
+    }
+
+    /**
+     * This method reviews the moves of a game in parallel.
+     *
+     * @param gamePositions The positions the moves were made in.
+     * @param gameMoves     The moves, move i was made in position i.
+     *
+     * @return The GameReview containing one MoveReview per move.
+     *
+     * @throws InterruptedException If the analysis was interrupted, the running searches are stopped.
+     */
+    private GameReview analyse(List<GamePosition> gamePositions, List<GameMove> gameMoves)
+            throws InterruptedException {
+        //Every worker thread gets its own actor, because the search state of an actor is not thread safe
+        final ThreadLocal<AlphaBetaActor> actors = new ThreadLocal<AlphaBetaActor>() {
+            @Override
+            protected AlphaBetaActor initialValue() {
+                AlphaBetaActor actor = new AlphaBetaActor();
+                actor.setTranspositionTable(transpositionTable);
+                //The searches of the analysis must not change the statistics of the engine
+                actor.setSearchMonitor(SearchMonitor.getAnalysisInstance());
+                return actor;
+            }
+        };
+
+        ExecutorService workers = Executors.newFixedThreadPool(numberOfWorkers);
+        List<Future<MoveReview>> reviews = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < gameMoves.size(); i++) {
+                final int moveNumber = i;
+                final GamePosition gamePosition = gamePositions.get(i);
+                final GameMove playedMove = gameMoves.get(i);
+
+                reviews.add(workers.submit(new Callable<MoveReview>() {
+                    @Override
+                    public MoveReview call() {
+                        return reviewMove(actors.get(), moveNumber, gamePosition, playedMove);
+                    }
+                }));
+            }
+
+            //Collect the reviews in the order of the game
+            List<MoveReview> moveReviews = new ArrayList<>();
+            for (Future<MoveReview> review : reviews) {
+                moveReviews.add(review.get());
+            }
+
+            return new GameReview(moveReviews);
+        } catch (ExecutionException ee) {
+            throw new IllegalStateException("The analysis of a move failed", ee.getCause());
+        } finally {
+            //Stops the searches that are still running if the analysis was interrupted
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * This method scores all legal moves of a position and compares the played move with the best move.
+     *
+     * @param actor        The actor searching the moves.
+     * @param moveNumber   The number of the played move in the game.
+     * @param gamePosition The position the move was played in.
+     * @param playedMove   The played move.
+     *
+     * @return The MoveReview of the played move.
+     */
+    private MoveReview reviewMove(AlphaBetaActor actor, int moveNumber, GamePosition gamePosition,
+                                  GameMove playedMove) {
+        Player player = gamePosition.getCurrentPlayer();
+
+        GameMove bestMove = null;
+        int bestScore = 0;
+        int playedScore = 0;
+
+        for (GameMove move : gamePosition.getBoard().getAllLegalMoves(player)) {
+            int score = scoreMove(actor, gamePosition, move);
+
+            if (move.equals(playedMove)) {
+                playedScore = score;
+            }
+
+            //If the played move is as good as the best move it is shown as best move
+            if (bestMove == null || score > bestScore || (score == bestScore && move.equals(playedMove))) {
+                bestMove = move;
+                bestScore = score;
+            }
+        }
+
+        long scoreLoss = (long) bestScore - playedScore;
+        return new MoveReview(moveNumber, player, playedMove, playedScore, bestMove, bestScore, depth,
+                scoreLoss >= blunderThreshold);
+    }
+
+    /**
+     * This method searches a move and returns its score in the view of the player who makes it.
+     *
+     * @param actor        The actor searching the move.
+     * @param gamePosition The position the move is made in.
+     * @param move         The move.
+     *
+     * @return The score of the move.
+     */
+    private int scoreMove(AlphaBetaActor actor, GamePosition gamePosition, GameMove move) {
+        Player player = gamePosition.getCurrentPlayer();
+        GamePosition nextPosition = gamePosition.getBoard().makeMove(move, player);
+
+        SearchResult searchResult = actor.searchPosition(nextPosition, depth - 1);
+
+        //The value is in the view of the player who moves next, which is the same player after a pass
+        int score = searchResult.getEvaluationValue();
+        return (nextPosition.getCurrentPlayer() != player) ? -score : score;
+    }
+
+    /**
+     * This method reads a game as list of square names separated by whitespaces (e.g. "F5 D6 C3"). Passes are not
+     * written, a word "pass" is skipped. Lines starting with '#' are comments.
+     *
+     * @param inputStream The stream the game is read from.
+     * @param boardSize   The size of the board the game was played on.
+     *
+     * @return The moves of the game.
+     *
+     * @throws IOException If the game could not be read or contains an invalid square name.
+     */
+    static List<GameMove> readGameMoves(InputStream inputStream, int boardSize) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        List<GameMove> gameMoves = new ArrayList<>();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            for (String squareName : line.split("\\s+")) {
+                if (!squareName.equalsIgnoreCase("pass")) {
+                    gameMoves.add(GameMove.valueOf(parseSquare(squareName, boardSize)));
+                }
+            }
+        }
+
+        return gameMoves;
+    }
+
+    /**
+     * This method converts a square name (e.g. "F5") into a Square.
+     *
+     * @param squareName The name of the square.
+     * @param boardSize  The size of the board.
+     *
+     * @return The Square.
+     *
+     * @throws IOException If the name is not a square of the board.
+     */
+    private static Square parseSquare(String squareName, int boardSize) throws IOException {
+        try {
+            int xPosition = Character.toUpperCase(squareName.charAt(0)) - 'A';
+            int yPosition = Integer.parseInt(squareName.substring(1)) - 1;
+
+            if (xPosition >= 0 && xPosition < boardSize && yPosition >= 0 && yPosition < boardSize) {
+                return Square.valueOf(xPosition, yPosition, boardSize);
+            }
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            //The exception below is thrown
+        }
+
+        throw new IOException("Invalid square '" + squareName + "'");
+    }
+
+    /**
+     * Starts the review of a game from the command line. The game is read from the file or from the standard input,
+     * the report is written to the standard output.
+     *
+     * Usage: GameAnalyser [-depth n] [-threads n] [-hash mb] [-blunder n] [game]
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int depth = ReversiGameConfiguration.getInstance().getSnapshot().getSearchDepth();
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hashSize = 64;
+        int blunderThreshold = DEFAULT_BLUNDER_THRESHOLD;
+        String inputFile = null;
+
+        //Parse the command line arguments
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-depth":
+                    depth = Integer.parseInt(args[++i]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-hash":
+                    hashSize = Integer.parseInt(args[++i]);
+                    break;
+                case "-blunder":
+                    blunderThreshold = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    if (inputFile == null && !args[i].startsWith("-")) {
+                        inputFile = args[i];
+                    } else {
+                        System.err.println("Usage: GameAnalyser [-depth n] [-threads n] [-hash mb] [-blunder n] "
+                                + "[game]");
+                        return;
+                    }
+            }
+        }
+
+        //The game starts with the start position of a board of the configured size
+        GamePosition startPosition = new GamePosition(new ReversiBoard(), Player.BLACK);
+        int boardSize = startPosition.getBoard().getBoardWidth();
+
+        List<GameMove> gameMoves;
+        InputStream inputStream = (inputFile == null) ? System.in : new FileInputStream(inputFile);
+        try {
+            gameMoves = readGameMoves(inputStream, boardSize);
+        } finally {
+            inputStream.close();
+        }
+
+        TranspositionTable transpositionTable = (hashSize > 0) ? new TranspositionTable(hashSize) : null;
+        GameAnalyser analyser = new GameAnalyser(threads, depth, blunderThreshold, transpositionTable);
+
+        long startTime = System.nanoTime();
+        GameReview gameReview;
+        try {
+            gameReview = analyser.analyse(startPosition, gameMoves);
+        } catch (IllegalArgumentException iae) {
+            System.err.println(iae.getMessage());
+            return;
+        }
+
+        System.out.print(gameReview.getReport());
+        System.err.printf("%d moves analysed in %.1f s%n", gameMoves.size(), (System.nanoTime() - startTime) / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return "GameAnalyser{" +
+                "numberOfWorkers=" + numberOfWorkers +
+                ", depth=" + depth +
+                ", blunderThreshold=" + blunderThreshold +
+                ", transpositionTable=" + transpositionTable +
+                '}';
+    }
+}
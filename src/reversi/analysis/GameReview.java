@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.analysis;
+
+import reversi.player.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A GameReview contains the MoveReviews of all moves of a game and sums up the score losses and blunders of both
+ * players. It can be written as text report with one line per move.
+ *
+ * Any GameReview is immutable.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public final class GameReview {
+    //The mark of a blunder in the report
+    private static final String BLUNDER_MARK = "??";
+
+    //The reviews of all moves in the order they were played
+    private final List<MoveReview> moveReviews;
+
+    /**
+     * Constructor of a GameReview.
+     *
+     * @param moveReviews The reviews of all moves in the order they were played.
+     */
+    GameReview(List<MoveReview> moveReviews) {
+        this.moveReviews = Collections.unmodifiableList(new ArrayList<>(moveReviews));
+    }
+
+    /**
+     * This method returns the reviews of all moves.
+     *
+     * @return The MoveReviews in the order the moves were played.
+     */
+    public List<MoveReview> getMoveReviews() {
+        return moveReviews;
+    }
+
+    /**
+     * This method returns the sum of the score losses of all moves of a player.
+     *
+     * @param player The player.
+     *
+     * @return The total score loss.
+     */
+    public long getTotalScoreLoss(Player player) {
+        long totalScoreLoss = 0;
+
+        for (MoveReview moveReview : moveReviews) {
+            if (moveReview.getPlayer() == player) {
+                totalScoreLoss += moveReview.getScoreLoss();
+            }
+        }
+
+        return totalScoreLoss;
+    }
+
+    /**
+     * This method returns the number of blunders of a player.
+     *
+     * @param player The player.
+     *
+     * @return The number of blunders.
+     */
+    public int getNumberOfBlunders(Player player) {
+        int numberOfBlunders = 0;
+
+        for (MoveReview moveReview : moveReviews) {
+            if (moveReview.getPlayer() == player && moveReview.isBlunder()) {
+                numberOfBlunders++;
+            }
+        }
+
+        return numberOfBlunders;
+    }
+
+    /**
+     * This method returns the number of moves where a player played the best move.
+     *
+     * @param player The player.
+     *
+     * @return The number of best moves.
+     */
+    public int getNumberOfBestMoves(Player player) {
+        int numberOfBestMoves = 0;
+
+        for (MoveReview moveReview : moveReviews) {
+            if (moveReview.getPlayer() == player && moveReview.getScoreLoss() == 0) {
+                numberOfBestMoves++;
+            }
+        }
+
+        return numberOfBestMoves;
+    }
+
+    /**
+     * This method writes the review as text. Every move gets one line with its number, the player, the played move and
+     * its score, the best move and its score and the score loss. Blunders are marked with "??". The report ends with
+     * a summary of both players.
+     *
+     * @return The report.
+     */
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        String lineSeparator = System.lineSeparator();
+
+        report.append(String.format(Locale.ROOT, "%4s  %-6s %-6s %8s  %-6s %8s %8s%n", "Move", "Player", "Played",
+                "Score", "Best", "Score", "Loss"));
+
+        for (MoveReview moveReview : moveReviews) {
+            report.append(String.format(Locale.ROOT, "%4d  %-6s %-6s %8s  %-6s %8s %8s",
+                    moveReview.getMoveNumber() + 1,
+                    formatPlayer(moveReview.getPlayer()),
+                    moveReview.getPlayedMove().getSquare().getSquareName(),
+                    MoveAnalysis.formatScore(moveReview.getPlayedScore()),
+                    moveReview.getBestMove().getSquare().getSquareName(),
+                    MoveAnalysis.formatScore(moveReview.getBestScore()),
+                    MoveAnalysis.formatScore(moveReview.getScoreLoss()).substring(1)));
+
+            if (moveReview.isBlunder()) {
+                report.append(' ').append(BLUNDER_MARK);
+            }
+            report.append(lineSeparator);
+        }
+
+        report.append(lineSeparator);
+        for (Player player : new Player[]{Player.BLACK, Player.WHITE}) {
+            report.append(String.format(Locale.ROOT, "%-6s best moves: %d, total loss: %s, blunders: %d%n",
+                    formatPlayer(player), getNumberOfBestMoves(player),
+                    MoveAnalysis.formatScore(getTotalScoreLoss(player)).substring(1), getNumberOfBlunders(player)));
+        }
+
+        return report.toString();
+    }
+
+    /**
+     * This method returns the name of a player used in the report.
+     *
+     * @param player The player.
+     *
+     * @return The name of the player.
+     */
+    private static String formatPlayer(Player player) {
+        return (player == Player.BLACK) ? "Black" : "White";
+    }
+
+    @Override
+    public String toString() {
+        return "GameReview{" +
+                "moveReviews=" + moveReviews +
+                '}';
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.analysis;
+
+import reversi.board.GameMove;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A MoveAnalysis is the result of the analysis of one legal move of a GamePosition. It contains the score of the move
+ * and the principal variation, the line both players are expected to play after the move.
+ *
+ * Any MoveAnalysis is immutable.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public final class MoveAnalysis {
+    //The analysed move
+    private final GameMove gameMove;
+    //The evaluation value of the move in the view of the player who makes it
+    private final int score;
+    //The depth the move was searched with, including the move itself
+    private final int depth;
+    //The moves starting with the analysed move that both players are expected to play
+    private final List<GameMove> principalVariation;
+
+    /**
+     * Constructor of a MoveAnalysis.
+     *
+     * @param gameMove           The analysed move.
+     * @param score              The evaluation value of the move in the view of the player who makes it.
+     * @param depth              The depth the move was searched with, including the move itself.
+     * @param principalVariation The expected moves starting with the analysed move.
+     */
+    MoveAnalysis(GameMove gameMove, int score, int depth, List<GameMove> principalVariation) {
+        this.gameMove = gameMove;
+        this.score = score;
+        this.depth = depth;
+        this.principalVariation = Collections.unmodifiableList(new ArrayList<>(principalVariation));
+    }
+
+    /**
+     * This method returns the analysed move.
+     *
+     * @return The GameMove.
+     */
+    public GameMove getGameMove() {
+        return gameMove;
+    }
+
+    /**
+     * This method returns the evaluation value of the move in the view of the player who makes it.
+     *
+     * @return The score of the move.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * This method returns the score as short text with sign, large scores are shortened (e.g. "+4", "-12", "+469k"), so
+     * it fits on a square of the board.
+     *
+     * @return The score as text.
+     */
+    public String getScoreText() {
+        return formatScore(score);
+    }
+
+    /**
+     * This method converts a score into a short text with sign, large scores are shortened (e.g. "+4", "-12", "+469k").
+     *
+     * @param score The score that should be converted.
+     *
+     * @return The score as text.
+     */
+    static String formatScore(long score) {
+        long absoluteScore = Math.abs(score);
+        String sign = (score < 0) ? "-" : "+";
+
+        if (absoluteScore >= 10000000) {
+            return sign + (absoluteScore / 1000000) + "M";
+        } else if (absoluteScore >= 10000) {
+            return sign + (absoluteScore / 1000) + "k";
+        }
+
+        return sign + absoluteScore;
+    }
+
+    /**
+     * This method returns the depth the move was searched with, the move itself counts as the first ply.
+     *
+     * @return The search depth.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * This method returns the moves both players are expected to play, starting with the analysed move. Passes are
+     * not part of the list.
+     *
+     * @return The unmodifiable principal variation.
+     */
+    public List<GameMove> getPrincipalVariation() {
+        return principalVariation;
+    }
+
+    /**
+     * This method returns the principal variation as square names separated by spaces (e.g. "D3 C5 F6").
+     *
+     * @return The principal variation as text.
+     */
+    public String getPrincipalVariationText() {
+        StringBuilder text = new StringBuilder();
+        for (GameMove move : principalVariation) {
+            if (text.length() > 0) {
+                text.append(' ');
+            }
+            text.append(move.getSquare().getSquareName());
+        }
+
+        return text.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "MoveAnalysis{" +
+                "gameMove=" + gameMove +
+                ", score=" + score +
+                ", depth=" + depth +
+                ", principalVariation=" + getPrincipalVariationText() +
+                '}';
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.analysis;
+
+import reversi.board.GameMove;
+import reversi.player.Player;
+
+/**
+ * A MoveReview compares a move that was played in a game with the best move of the same GamePosition. The difference
+ * between the scores of both moves is the score loss of the played move, a move with a large score loss is flagged as
+ * blunder.
+ *
+ * Any MoveReview is immutable.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public final class MoveReview {
+    //The number of the move in the game starting at 0
+    private final int moveNumber;
+    //The player who played the move
+    private final Player player;
+    //The move that was played
+    private final GameMove playedMove;
+    //The score of the played move in the view of the player
+    private final int playedScore;
+    //The best move of the position
+    private final GameMove bestMove;
+    //The score of the best move in the view of the player
+    private final int bestScore;
+    //The depth the moves were searched with, including the move itself
+    private final int depth;
+    //true if the score loss is at least the blunder threshold of the analysis
+    private final boolean isBlunder;
+
+    /**
+     * Constructor of a MoveReview.
+     *
+     * @param moveNumber  The number of the move in the game starting at 0.
+     * @param player      The player who played the move.
+     * @param playedMove  The move that was played.
+     * @param playedScore The score of the played move in the view of the player.
+     * @param bestMove    The best move of the position.
+     * @param bestScore   The score of the best move in the view of the player.
+     * @param depth       The depth the moves were searched with, including the move itself.
+     * @param isBlunder   true if the score loss is at least the blunder threshold of the analysis.
+     */
+    MoveReview(int moveNumber, Player player, GameMove playedMove, int playedScore, GameMove bestMove, int bestScore,
+               int depth, boolean isBlunder) {
+        this.moveNumber = moveNumber;
+        this.player = player;
+        this.playedMove = playedMove;
+        this.playedScore = playedScore;
+        this.bestMove = bestMove;
+        this.bestScore = bestScore;
+        this.depth = depth;
+        this.isBlunder = isBlunder;
+    }
+
+    /**
+     * This method returns the number of the move in the game.
+     *
+     * @return The move number starting at 0.
+     */
+    public int getMoveNumber() {
+        return moveNumber;
+    }
+
+    /**
+     * This method returns the player who played the move.
+     *
+     * @return The Player.
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * This method returns the move that was played.
+     *
+     * @return The played GameMove.
+     */
+    public GameMove getPlayedMove() {
+        return playedMove;
+    }
+
+    /**
+     * This method returns the score of the played move in the view of the player who played it.
+     *
+     * @return The score of the played move.
+     */
+    public int getPlayedScore() {
+        return playedScore;
+    }
+
+    /**
+     * This method returns the best move of the position. If the played move is one of the best moves, the played
+     * move is returned.
+     *
+     * @return The best GameMove.
+     */
+    public GameMove getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * This method returns the score of the best move in the view of the player who played the move.
+     *
+     * @return The score of the best move.
+     */
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * This method returns how much worse the played move is than the best move. The difference is returned as long,
+     * because the difference of two int scores can overflow.
+     *
+     * @return The score loss, 0 if the best move was played.
+     */
+    public long getScoreLoss() {
+        return (long) bestScore - playedScore;
+    }
+
+    /**
+     * This method returns the depth the moves were searched with.
+     *
+     * @return The search depth, the move itself counts as the first ply.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * This method returns if the played move is a blunder.
+     *
+     * @return true if the score loss is at least the blunder threshold of the analysis.
+     */
+    public boolean isBlunder() {
+        return isBlunder;
+    }
+
+    @Override
+    public String toString() {
+        return "MoveReview{" +
+                "moveNumber=" + moveNumber +
+                ", player=" + player +
+                ", playedMove=" + playedMove +
+                ", playedScore=" + playedScore +
+                ", bestMove=" + bestMove +
+                ", bestScore=" + bestScore +
+                ", depth=" + depth +
+                ", isBlunder=" + isBlunder +
+                '}';
+    }
+}
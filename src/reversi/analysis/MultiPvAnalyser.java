@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.analysis;
+
+import reversi.actor.AlphaBetaActor;
+import reversi.actor.SearchMonitor;
+import reversi.actor.SearchResult;
+import reversi.actor.TranspositionTable;
+import reversi.board.Board;
+import reversi.board.CanonicalPosition;
+import reversi.board.GameMove;
+import reversi.board.GamePosition;
+import reversi.player.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The MultiPvAnalyser scores every legal move of a GamePosition and finds the principal variation of every move, so a
+ * user interface can show how good all moves are and not only the best one (multi PV).
+ *
+ * The moves are analysed with iterative deepening. In every iteration each legal move is searched by its own task,
+ * the tasks run in parallel on a pool of workers. Every worker has its own AlphaBetaActor, all workers share one
+ * TranspositionTable, so the deeper iterations profit from the shallower ones. The principal variation is read from
+ * the TranspositionTable after the search.
+ *
+ * The listener is notified every time a move is finished, so the scores are updated while the analysis is running.
+ * The analysis can be run by the calling thread with analyse(...) or in the background with startAnalysis(...).
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public class MultiPvAnalyser {
+    //Sorts the moves by their score, the best move first
+    private static final Comparator<MoveAnalysis> BEST_MOVE_FIRST = new Comparator<MoveAnalysis>() {
+        @Override
+        public int compare(MoveAnalysis first, MoveAnalysis second) {
+            return Integer.compare(second.getScore(), first.getScore());
+        }
+    };
+
+    //The table shared by all workers, null if no table should be used
+    private final TranspositionTable transpositionTable;
+    //The threads searching the moves
+    private final ExecutorService workers;
+    //The thread running the analyses started with startAnalysis
+    private final ExecutorService backgroundAnalysis;
+    //The analysis running in the background, null if no analysis was started
+    private Future<?> runningAnalysis;
+
+    //Every worker thread gets its own actor, because the search state of an actor is not thread safe
+    private final ThreadLocal<AlphaBetaActor> actors = new ThreadLocal<AlphaBetaActor>() {
+        @Override
+        protected AlphaBetaActor initialValue() {
+            AlphaBetaActor actor = new AlphaBetaActor();
+            actor.setTranspositionTable(transpositionTable);
+            //The searches of the analysis must not change the statistics of the engine
+            actor.setSearchMonitor(SearchMonitor.getAnalysisInstance());
+            return actor;
+        }
+    };
+
+    /**
+     * Constructor of the MultiPvAnalyser.
+     *
+     * @param numberOfWorkers    The number of threads searching the moves in parallel.
+     * @param transpositionTable The table shared by all workers, null if no table should be used. Without a table the
+     *                           principal variation only contains the move and the best reply.
+     */
+    public MultiPvAnalyser(int numberOfWorkers, TranspositionTable transpositionTable) {
+        if (numberOfWorkers <= 0) {
+            throw new IllegalArgumentException("At least one worker is needed");
+        }
+
+        this.transpositionTable = transpositionTable;
+        this.workers = Executors.newFixedThreadPool(numberOfWorkers, createThreadFactory("MultiPvAnalyser worker"));
+        this.backgroundAnalysis = Executors.newSingleThreadExecutor(createThreadFactory("MultiPvAnalyser"));
+    }
+
+    /**
+     * This method analyses all legal moves of a GamePosition with the depths 1 to maximalDepth.
+     *
+     * @param gamePosition The GamePosition whose moves should be analysed.
+     * @param maximalDepth The depth of the last iteration, the move itself counts as the first ply.
+     * @param listener     The listener that is notified whenever a move is finished, null if no listener is needed.
+     *
+     * @return The analyses of all legal moves of the last iteration, the best move first.
+     *
+     * @throws InterruptedException If the analysis was interrupted, the running searches are stopped.
+     */
+    public List<MoveAnalysis> analyse(GamePosition gamePosition, int maximalDepth, AnalysisListener listener)
+            throws InterruptedException {
+        Board board = gamePosition.getBoard();
+        Player player = gamePosition.getCurrentPlayer();
+        List<GameMove> legalMoves = board.getAllLegalMoves(player);
+
+        //The analyses of all moves in the order of the legal moves, a move keeps its analysis of the previous
+        //iteration until it is finished in the current iteration
+        Map<GameMove, MoveAnalysis> analyses = new LinkedHashMap<>();
+        List<MoveAnalysis> result = Collections.emptyList();
+
+        for (int depth = 1; depth <= maximalDepth && !legalMoves.isEmpty(); depth++) {
+            CompletionService<MoveAnalysis> completionService = new ExecutorCompletionService<>(workers);
+            List<Future<MoveAnalysis>> searches = new ArrayList<>();
+
+            try {
+                for (GameMove move : legalMoves) {
+                    searches.add(completionService.submit(createSearch(gamePosition, move, depth)));
+                }
+
+                for (int i = 0; i < legalMoves.size(); i++) {
+                    MoveAnalysis analysis = completionService.take().get();
+                    analyses.put(analysis.getGameMove(), analysis);
+
+                    result = sortByScore(analyses.values());
+                    if (listener != null) {
+                        listener.analysisUpdated(gamePosition, result);
+                    }
+                }
+            } catch (ExecutionException ee) {
+                throw new IllegalStateException("The analysis of a move failed", ee.getCause());
+            } finally {
+                //The searches that are still running are not needed anymore if the analysis is stopped
+                for (Future<MoveAnalysis> search : searches) {
+                    search.cancel(true);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * This method starts the analysis of a GamePosition in the background. An analysis that is still running is
+     * stopped. The method returns immediately, so it can be called by the thread of a user interface.
+     *
+     * @param gamePosition The GamePosition whose moves should be analysed.
+     * @param maximalDepth The depth of the last iteration, the move itself counts as the first ply.
+     * @param listener     The listener that is notified whenever a move is finished. It is called by the thread of
+     *                     the analysis.
+     */
+    public synchronized void startAnalysis(final GamePosition gamePosition, final int maximalDepth,
+                                           final AnalysisListener listener) {
+        stopAnalysis();
+
+        runningAnalysis = backgroundAnalysis.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    analyse(gamePosition, maximalDepth, listener);
+                } catch (InterruptedException ie) {
+                    //The analysis was stopped, nothing has to be done
+                }
+            }
+        });
+    }
+
+    /**
+     * This method stops the analysis running in the background. The method does not wait until the searches have
+     * stopped, so the listener can still be called a last time with the results of the stopped analysis.
+     */
+    public synchronized void stopAnalysis() {
+        if (runningAnalysis != null) {
+            runningAnalysis.cancel(true);
+            runningAnalysis = null;
+        }
+    }
+
+    /**
+     * This method stops all analyses and the threads of the MultiPvAnalyser. It can not be used afterwards.
+     */
+    public synchronized void shutdown() {
+        stopAnalysis();
+        backgroundAnalysis.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * This method creates the task searching one move.
+     *
+     * @param gamePosition The GamePosition the move is made in.
+     * @param move         The move that should be searched.
+     * @param depth        The depth the move should be searched with, the move itself counts as the first ply.
+     *
+     * @return The task returning the analysis of the move.
+     */
+    private Callable<MoveAnalysis> createSearch(final GamePosition gamePosition, final GameMove move,
+                                                final int depth) {
+        return new Callable<MoveAnalysis>() {
+            @Override
+            public MoveAnalysis call() {
+                Player player = gamePosition.getCurrentPlayer();
+                GamePosition nextPosition = gamePosition.getBoard().makeMove(move, player);
+
+                SearchResult searchResult = actors.get().searchPosition(nextPosition, depth - 1);
+
+                //The value is in the view of the player who moves next, which is the same player after a pass
+                int score = searchResult.getEvaluationValue();
+                if (nextPosition.getCurrentPlayer() != player) {
+                    score = -score;
+                }
+
+                List<GameMove> principalVariation = new ArrayList<>();
+                principalVariation.add(move);
+                addPrincipalVariation(nextPosition, searchResult.getGameMove(), depth - 1, principalVariation);
+
+                return new MoveAnalysis(move, score, depth, principalVariation);
+            }
+        };
+    }
+
+    /**
+     * This method follows the best moves stored in the TranspositionTable and adds them to the principal variation.
+     *
+     * @param gamePosition       The GamePosition the principal variation continues from.
+     * @param bestMove           The best move of the GamePosition found by the search, null if there is none.
+     * @param maximalLength      The maximal number of moves that should be added.
+     * @param principalVariation The list the moves are added to.
+     */
+    private void addPrincipalVariation(GamePosition gamePosition, GameMove bestMove, int maximalLength,
+                                       List<GameMove> principalVariation) {
+        GamePosition position = gamePosition;
+        GameMove move = bestMove;
+
+        for (int i = 0; i < maximalLength && move != null; i++) {
+            Board board = position.getBoard();
+            if (!board.isMoveLegal(move, position.getCurrentPlayer())) {
+                break;
+            }
+
+            principalVariation.add(move);
+            position = board.makeMove(move, position.getCurrentPlayer());
+            move = probeBestMove(position);
+        }
+    }
+
+    /**
+     * This method returns the best move of a GamePosition stored in the TranspositionTable.
+     *
+     * @param gamePosition The GamePosition.
+     *
+     * @return The stored best move or null if there is none.
+     */
+    private GameMove probeBestMove(GamePosition gamePosition) {
+        Board board = gamePosition.getBoard();
+        if (transpositionTable == null || !board.hasAnyPlayerAnyLegalMoves()) {
+            return null;
+        }
+
+        //The search stores the entries with the canonical key
+        long canonicalKey = CanonicalPosition.keyOf(board, gamePosition.getCurrentPlayer());
+        long entry = transpositionTable.probe(CanonicalPosition.getKeyHash(canonicalKey));
+        if (entry == TranspositionTable.NO_ENTRY) {
+            return null;
+        }
+
+        int moveIndex = TranspositionTable.getMoveIndex(entry);
+        if (moveIndex == TranspositionTable.NO_MOVE) {
+            return null;
+        }
+
+        int boardWidth = board.getBoardWidth();
+        moveIndex = CanonicalPosition.getKeySymmetry(canonicalKey).inverse().transformIndex(moveIndex, boardWidth);
+        return GameMove.valueOf(board.getSquare(moveIndex % boardWidth, moveIndex / boardWidth));
+    }
+
+    /**
+     * This method sorts the analyses by their score.
+     *
+     * @param analyses The analyses that should be sorted.
+     *
+     * @return A new list with the best move first.
+     */
+    private static List<MoveAnalysis> sortByScore(Iterable<MoveAnalysis> analyses) {
+        List<MoveAnalysis> sortedAnalyses = new ArrayList<>();
+        for (MoveAnalysis analysis : analyses) {
+            sortedAnalyses.add(analysis);
+        }
+
+        Collections.sort(sortedAnalyses, BEST_MOVE_FIRST);
+        return Collections.unmodifiableList(sortedAnalyses);
+    }
+
+    /**
+     * This method creates the factory of the threads of the MultiPvAnalyser. The threads must not keep the
+     * application alive.
+     *
+     * @param name The name of the threads.
+     *
+     * @return The ThreadFactory.
+     */
+    private static ThreadFactory createThreadFactory(final String name) {
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    /**
+     * An AnalysisListener is notified whenever the analysis of a move is finished.
+     */
+    public interface AnalysisListener {
+        /**
+         * This method is called when the analysis of a move is finished. Moves that are not finished in the current
+         * iteration keep the analysis of the previous iteration, moves that were never finished are missing.
+         *
+         * @param gamePosition The GamePosition that is analysed.
+         * @param analyses     The current analyses of the moves, the best move first.
+         */
+        void analysisUpdated(GamePosition gamePosition, List<MoveAnalysis> analyses);
+    }
+
+    @Override
+    public String toString() {
+        return "MultiPvAnalyser{" +
+                "transpositionTable=" + transpositionTable +
+                '}';
+    }
+}
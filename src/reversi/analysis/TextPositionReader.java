@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.analysis;
+
+import reversi.board.GamePosition;
+import reversi.board.ReversiBoard;
+import reversi.board.SquareState;
+import reversi.player.Player;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * This PositionReader reads GamePositions from a text source with one position per line.
+ *
+ * Every line contains the squares of the board row by row (A1, B1, C1, ... A2, B2, ...) followed by a whitespace and
+ * the player whose turn it is. A black piece is written as 'X', 'B' or '*', a white piece as 'O', 'W' or '0' and an
+ * empty square as '-' or '.'. Everything after the player is ignored, empty lines and lines starting with '#' are
+ * skipped.
+ *
+ * Example of the start position of a 4x4 board: "-----OX--XO----- X"
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 02. August 2016
+ */
+public class TextPositionReader implements PositionReader {
+    //The reader the positions are read from
+    private final BufferedReader reader;
+    //The number of the line that was read last, used for error messages
+    private long lineNumber = 0;
+
+    /**
+     * Constructor of the TextPositionReader.
+     *
+     * @param reader The reader the positions should be read from.
+     */
+    public TextPositionReader(Reader reader) {
+        this.reader = new BufferedReader(reader);
+    }
+
+    @Override
+    public GamePosition readPosition() throws IOException {
+        String line;
+
+        //Skip all empty lines and comments
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                return parsePosition(line);
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * This method converts a line of text into a GamePosition.
+     *
+     * @param line The line that should be converted.
+     *
+     * @return The GamePosition described by the line.
+     *
+     * @throws IOException If the line is not a valid position.
+     */
+    private GamePosition parsePosition(String line) throws IOException {
+        String[] parts = line.split("\\s+");
+        if (parts.length < 2) {
+            throw new IOException("Line " + lineNumber + ": the player whose turn it is is missing");
+        }
+
+        //The board has to be a square
+        String squares = parts[0];
+        int boardSize = (int) Math.round(Math.sqrt(squares.length()));
+        if (boardSize * boardSize != squares.length()) {
+            throw new IOException("Line " + lineNumber + ": " + squares.length() + " squares are no square board");
+        }
+
+        //Convert every character into the state of the corresponding square
+        SquareState[][] squareStates = new SquareState[boardSize][boardSize];
+        for (int i = 0; i < squares.length(); i++) {
+            squareStates[i % boardSize][i / boardSize] = parseSquareState(squares.charAt(i));
+        }
+
+        SquareState playerState = parseSquareState(parts[1].charAt(0));
+        if (playerState == SquareState.EMPTY) {
+            throw new IOException("Line " + lineNumber + ": invalid player '" + parts[1] + "'");
+        }
+        Player player = (playerState == SquareState.BLACK) ? Player.BLACK : Player.WHITE;
+
+        try {
+            return new GamePosition(new ReversiBoard(squareStates), player);
+        } catch (IllegalArgumentException iae) {
+            throw new IOException("Line " + lineNumber + ": " + iae.getMessage(), iae);
+        }
+    }
+
+    /**
+     * This method converts a character into a SquareState.
+     *
+     * @param character The character that should be converted.
+     *
+     * @return The SquareState represented by the character.
+     *
+     * @throws IOException If the character does not represent any SquareState.
+     */
+    private SquareState parseSquareState(char character) throws IOException {
+        switch (Character.toUpperCase(character)) {
+            case 'X':
+            case 'B':
+            case '*':
+                return SquareState.BLACK;
+            case 'O':
+            case 'W':
+            case '0':
+                return SquareState.WHITE;
+            case '-':
+            case '.':
+                return SquareState.EMPTY;
+            default:
+                throw new IOException("Line " + lineNumber + ": invalid square '" + character + "'");
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.benchmark;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The BenchmarkCompare compares a JSON benchmark report with a stored baseline report and flags every metric that got
+ * worse by more than a threshold.
+ *
+ * For the operations and nodes per second a higher value is better, for times, node counts and allocated bytes a
+ * lower value is better. Other metrics are printed but never flagged.
+ *
+ * Usage: BenchmarkCompare [-threshold percent] baseline.json current.json
+ *
+ * The program exits with status 1 if there is at least one regression.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 13. August 2016
+ */
+public class BenchmarkCompare {
+    //The metrics where a higher value is better
+    private static final Set<String> HIGHER_IS_BETTER = new HashSet<>(Arrays.asList(
+            BenchmarkRunner.OPERATIONS_PER_SECOND, SearchBenchmarks.NODES_PER_SECOND));
+    //The metrics where a lower value is better
+    private static final Set<String> LOWER_IS_BETTER = new HashSet<>(Arrays.asList(
+            BenchmarkRunner.BYTES_PER_OPERATION, SearchBenchmarks.TIME_TO_DEPTH, SearchBenchmarks.NODES_PER_SEARCH,
+            SearchBenchmarks.BYTES_PER_NODE));
+
+    //The threshold if no threshold is given in percent
+    private static final double DEFAULT_THRESHOLD = 5.0;
+
+    //The change in percent that is allowed before a metric is a regression
+    private final double threshold;
+
+    /**
+     * Constructor of the BenchmarkCompare.
+     *
+     * @param threshold The change in percent that is allowed before a metric is a regression.
+     */
+    public BenchmarkCompare(double threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * This method compares the current results with the baseline and prints every metric of both.
+     *
+     * @param baseline The results of the baseline.
+     * @param current  The current results.
+     *
+     * @return The number of regressions.
+     */
+    public int compare(List<BenchmarkResult> baseline, List<BenchmarkResult> current) {
+        //Find the baseline of a benchmark by its key
+        Map<String, BenchmarkResult> baselineResults = new LinkedHashMap<>();
+        for (BenchmarkResult result : baseline) {
+            baselineResults.put(result.getKey(), result);
+        }
+
+        int regressions = 0;
+        for (BenchmarkResult result : current) {
+            BenchmarkResult baselineResult = baselineResults.get(result.getKey());
+            if (baselineResult == null) {
+                System.out.println(result.getKey() + " has no baseline");
+                continue;
+            }
+
+            for (Map.Entry<String, Double> metric : result.getMetrics().entrySet()) {
+                Double baselineValue = baselineResult.getMetrics().get(metric.getKey());
+                if (baselineValue == null) {
+                    continue;
+                }
+
+                double change = getChange(baselineValue, metric.getValue());
+                boolean isRegression = isRegression(metric.getKey(), change);
+                if (isRegression) {
+                    regressions++;
+                }
+
+                System.out.println(String.format(Locale.ROOT, "%s %s: %.3f -> %.3f (%+.1f%%)%s", result.getKey(),
+                        metric.getKey(), baselineValue, metric.getValue(), change, isRegression ? " REGRESSION" : ""));
+            }
+        }
+
+        System.out.println(regressions + " regressions above " + threshold + "%");
+        return regressions;
+    }
+
+    /**
+     * This method calculates the change of a value in percent.
+     *
+     * @param baselineValue The value of the baseline.
+     * @param currentValue  The current value.
+     *
+     * @return The change in percent, 0 if the baseline value is 0.
+     */
+    private static double getChange(double baselineValue, double currentValue) {
+        if (baselineValue == 0) {
+            return 0;
+        }
+
+        return (currentValue - baselineValue) * 100.0 / Math.abs(baselineValue);
+    }
+
+    /**
+     * This method checks if a change of a metric is a regression.
+     *
+     * @param metric The name of the metric.
+     * @param change The change in percent.
+     *
+     * @return true if the metric got worse by more than the threshold.
+     */
+    private boolean isRegression(String metric, double change) {
+        if (HIGHER_IS_BETTER.contains(metric)) {
+            return change < -threshold;
+        }
+        if (LOWER_IS_BETTER.contains(metric)) {
+            return change > threshold;
+        }
+
+        return false;
+    }
+
+    /**
+     * This method reads a JSON benchmark report from a file.
+     *
+     * @param fileName The name of the file.
+     *
+     * @return The results of the report.
+     *
+     * @throws IOException If the report can not be read.
+     */
+    private static List<BenchmarkResult> readReport(String fileName) throws IOException {
+        Reader reader = new FileReader(fileName);
+        try {
+            return BenchmarkReport.readJson(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * This method compares two reports from the command line.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) throws IOException {
+        double threshold = DEFAULT_THRESHOLD;
+        int firstFile = 0;
+        if (args.length == 4 && args[0].equals("-threshold")) {
+            threshold = Double.parseDouble(args[1]);
+            firstFile = 2;
+        } else if (args.length != 2) {
+            System.err.println("Usage: BenchmarkCompare [-threshold percent] baseline.json current.json");
+            return;
+        }
+
+        List<BenchmarkResult> baseline = readReport(args[firstFile]);
+        List<BenchmarkResult> current = readReport(args[firstFile + 1]);
+
+        int regressions = new BenchmarkCompare(threshold).compare(baseline, current);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.benchmark;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * The BenchmarkOptions are the command line options that all benchmark programs have in common.
+ *
+ * Options: [-sizes 4,8,...] [-depths 1,2,...] [-warmup ms] [-time ms] [-iterations n] [-json file]
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 12. August 2016
+ */
+class BenchmarkOptions {
+    //The board sizes that should be measured, null for the default sizes
+    private int[] boardSizes = null;
+    //The search depths that should be measured, null for the default depths
+    private int[] depths = null;
+    //The time of the warm up phase in milliseconds
+    private long warmupMillis = 1000;
+    //The time of one measurement iteration in milliseconds
+    private long iterationMillis = 1000;
+    //The number of measurement iterations
+    private int iterations = 5;
+    //The file the JSON report is written to, null if no report should be written
+    private String jsonFile = null;
+
+    /**
+     * Constructor of the BenchmarkOptions, use parse(String[], String).
+     */
+    private BenchmarkOptions() {
+    }
+
+    /**
+     * This method parses the command line arguments. If they are invalid the usage is printed.
+     *
+     * @param args        The command line arguments.
+     * @param programName The name of the benchmark program for the usage.
+     *
+     * @return The BenchmarkOptions or null if the arguments are invalid.
+     */
+    static BenchmarkOptions parse(String[] args, String programName) {
+        BenchmarkOptions options = new BenchmarkOptions();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-sizes":
+                        options.boardSizes = parseList(args[++i]);
+                        break;
+                    case "-depths":
+                        options.depths = parseList(args[++i]);
+                        break;
+                    case "-warmup":
+                        options.warmupMillis = Long.parseLong(args[++i]);
+                        break;
+                    case "-time":
+                        options.iterationMillis = Long.parseLong(args[++i]);
+                        break;
+                    case "-iterations":
+                        options.iterations = Integer.parseInt(args[++i]);
+                        break;
+                    case "-json":
+                        options.jsonFile = args[++i];
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Usage: " + programName + " [-sizes 4,8,...] [-depths 1,2,...] [-warmup ms] " +
+                    "[-time ms] [-iterations n] [-json file]");
+            return null;
+        }
+
+        return options;
+    }
+
+    /**
+     * This method returns the board sizes that should be measured.
+     *
+     * @param defaultSizes The sizes if no sizes were given.
+     *
+     * @return The board sizes.
+     */
+    int[] getBoardSizes(int[] defaultSizes) {
+        return (boardSizes == null) ? defaultSizes : boardSizes;
+    }
+
+    /**
+     * This method returns the search depths that should be measured.
+     *
+     * @param defaultDepths The depths if no depths were given.
+     *
+     * @return The search depths.
+     */
+    int[] getDepths(int[] defaultDepths) {
+        return (depths == null) ? defaultDepths : depths;
+    }
+
+    /**
+     * This method creates a BenchmarkRunner with the timing options.
+     *
+     * @return The BenchmarkRunner.
+     */
+    BenchmarkRunner createRunner() {
+        return new BenchmarkRunner(warmupMillis, iterationMillis, iterations);
+    }
+
+    /**
+     * This method prints the results and writes the JSON report if a file was given.
+     *
+     * @param results The results of the benchmarks.
+     *
+     * @throws IOException If the JSON report can not be written.
+     */
+    void report(List<BenchmarkResult> results) throws IOException {
+        for (BenchmarkResult result : results) {
+            System.out.println(result);
+        }
+
+        if (jsonFile != null) {
+            Writer writer = new FileWriter(jsonFile);
+            try {
+                BenchmarkReport.writeJson(results, writer);
+            } finally {
+                writer.close();
+            }
+        }
+    }
+
+    /**
+     * This method parses a comma separated list of numbers.
+     *
+     * @param value The list, e.g. "4,8".
+     *
+     * @return The numbers.
+     */
+    private static int[] parseList(String value) {
+        String[] parts = value.split(",");
+        int[] numbers = new int[parts.length];
+
+        for (int i = 0; i < parts.length; i++) {
+            numbers[i] = Integer.parseInt(parts[i].trim());
+        }
+
+        return numbers;
+    }
+}
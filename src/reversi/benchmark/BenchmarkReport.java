@@ -0,0 +1,379 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.benchmark;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The BenchmarkReport writes BenchmarkResults as JSON and reads them again, so that results can be stored and
+ * compared later.
+ *
+ * The format is:
+ * {"benchmarks": [{"name": "...", "parameters": {"size": "8", ...}, "metrics": {"opsPerSecond": 1.0, ...}}, ...]}
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 12. August 2016
+ */
+public final class BenchmarkReport {
+    /**
+     * There should be no instance of this class.
+     */
+    private BenchmarkReport() {
+    }
+
+    /**
+     * This method writes a list of BenchmarkResults as JSON.
+     *
+     * @param results The results that should be written.
+     * @param writer  The writer the JSON is written to.
+     *
+     * @throws IOException If the JSON can not be written.
+     */
+    public static void writeJson(List<BenchmarkResult> results, Writer writer) throws IOException {
+        writer.write("{\n  \"benchmarks\": [");
+
+        for (int i = 0; i < results.size(); i++) {
+            BenchmarkResult result = results.get(i);
+
+            writer.write((i == 0) ? "\n" : ",\n");
+            writer.write("    {\"name\": " + quote(result.getName()));
+
+            //The parameters are written as strings
+            writer.write(", \"parameters\": {");
+            Iterator<Map.Entry<String, String>> parameters = result.getParameters().entrySet().iterator();
+            while (parameters.hasNext()) {
+                Map.Entry<String, String> parameter = parameters.next();
+                writer.write(quote(parameter.getKey()) + ": " + quote(parameter.getValue()));
+                writer.write(parameters.hasNext() ? ", " : "");
+            }
+
+            //The metrics are written as numbers
+            writer.write("}, \"metrics\": {");
+            Iterator<Map.Entry<String, Double>> metrics = result.getMetrics().entrySet().iterator();
+            while (metrics.hasNext()) {
+                Map.Entry<String, Double> metric = metrics.next();
+                writer.write(quote(metric.getKey()) + ": " + String.format(Locale.ROOT, "%.3f", metric.getValue()));
+                writer.write(metrics.hasNext() ? ", " : "");
+            }
+
+            writer.write("}}");
+        }
+
+        writer.write("\n  ]\n}\n");
+        writer.flush();
+    }
+
+    /**
+     * This method reads a list of BenchmarkResults that was written by writeJson(List, Writer).
+     *
+     * @param reader The reader the JSON is read from.
+     *
+     * @return The BenchmarkResults.
+     *
+     * @throws IOException If the JSON can not be read or is not a benchmark report.
+     */
+    public static List<BenchmarkResult> readJson(Reader reader) throws IOException {
+        StringBuilder json = new StringBuilder();
+        char[] buffer = new char[8192];
+        int length;
+        while ((length = reader.read(buffer)) >= 0) {
+            json.append(buffer, 0, length);
+        }
+
+        List<BenchmarkResult> results = new ArrayList<>();
+        try {
+            Map<?, ?> report = (Map<?, ?>) new JsonParser(json.toString()).parse();
+
+            for (Object benchmark : (List<?>) report.get("benchmarks")) {
+                Map<?, ?> values = (Map<?, ?>) benchmark;
+
+                Map<String, String> parameters = new LinkedHashMap<>();
+                for (Map.Entry<?, ?> parameter : ((Map<?, ?>) values.get("parameters")).entrySet()) {
+                    parameters.put((String) parameter.getKey(), (String) parameter.getValue());
+                }
+
+                BenchmarkResult result = new BenchmarkResult((String) values.get("name"), parameters);
+                for (Map.Entry<?, ?> metric : ((Map<?, ?>) values.get("metrics")).entrySet()) {
+                    result.putMetric((String) metric.getKey(), (Double) metric.getValue());
+                }
+
+                results.add(result);
+            }
+        } catch (ClassCastException | NullPointerException e) {
+            throw new IOException("The JSON is not a benchmark report", e);
+        }
+
+        return results;
+    }
+
+    /**
+     * This method writes a string as JSON string.
+     *
+     * @param value The string.
+     *
+     * @return The quoted and escaped string.
+     */
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * The JsonParser reads the JSON written by the BenchmarkReport. Objects are returned as Map, arrays as List,
+     * strings as String and numbers as Double.
+     */
+    private static class JsonParser {
+        //The JSON text
+        private final String json;
+        //The position of the next character
+        private int position = 0;
+
+        /**
+         * Constructor of the JsonParser.
+         *
+         * @param json The JSON text.
+         */
+        JsonParser(String json) {
+            this.json = json;
+        }
+
+        /**
+         * This method parses the complete JSON text.
+         *
+         * @return The parsed value.
+         *
+         * @throws IOException If the text is no valid JSON.
+         */
+        Object parse() throws IOException {
+            Object value = parseValue();
+
+            skipWhitespace();
+            if (position != json.length()) {
+                throw error("end of input");
+            }
+
+            return value;
+        }
+
+        /**
+         * This method parses the value at the current position.
+         *
+         * @return The parsed value.
+         *
+         * @throws IOException If the text is no valid JSON.
+         */
+        private Object parseValue() throws IOException {
+            skipWhitespace();
+            if (position >= json.length()) {
+                throw error("a value");
+            }
+
+            char character = json.charAt(position);
+            if (character == '{') {
+                return parseObject();
+            } else if (character == '[') {
+                return parseArray();
+            } else if (character == '"') {
+                return parseString();
+            } else {
+                return parseNumber();
+            }
+        }
+
+        /**
+         * This method parses a JSON object.
+         *
+         * @return The members of the object in the order of the text.
+         *
+         * @throws IOException If the text is no valid JSON.
+         */
+        private Map<String, Object> parseObject() throws IOException {
+            Map<String, Object> object = new LinkedHashMap<>();
+            expect('{');
+
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return object;
+            }
+
+            do {
+                skipWhitespace();
+                String key = parseString();
+                skipWhitespace();
+                expect(':');
+                object.put(key, parseValue());
+                skipWhitespace();
+            } while (consume(','));
+
+            expect('}');
+            return object;
+        }
+
+        /**
+         * This method parses a JSON array.
+         *
+         * @return The elements of the array.
+         *
+         * @throws IOException If the text is no valid JSON.
+         */
+        private List<Object> parseArray() throws IOException {
+            List<Object> array = new ArrayList<>();
+            expect('[');
+
+            skipWhitespace();
+            if (peek() == ']') {
+                position++;
+                return array;
+            }
+
+            do {
+                array.add(parseValue());
+                skipWhitespace();
+            } while (consume(','));
+
+            expect(']');
+            return array;
+        }
+
+        /**
+         * This method parses a JSON string.
+         *
+         * @return The string without quotes and escapes.
+         *
+         * @throws IOException If the text is no valid JSON.
+         */
+        private String parseString() throws IOException {
+            expect('"');
+
+            StringBuilder builder = new StringBuilder();
+            while (position < json.length()) {
+                char character = json.charAt(position++);
+
+                if (character == '"') {
+                    return builder.toString();
+                } else if (character == '\\' && position < json.length()) {
+                    builder.append(json.charAt(position++));
+                } else {
+                    builder.append(character);
+                }
+            }
+
+            throw error("'\"'");
+        }
+
+        /**
+         * This method parses a JSON number.
+         *
+         * @return The number.
+         *
+         * @throws IOException If the text is no valid JSON.
+         */
+        private Double parseNumber() throws IOException {
+            int start = position;
+            while (position < json.length() && "+-0123456789.eE".indexOf(json.charAt(position)) >= 0) {
+                position++;
+            }
+
+            try {
+                return Double.valueOf(json.substring(start, position));
+            } catch (NumberFormatException nfe) {
+                position = start;
+                throw error("a number");
+            }
+        }
+
+        /**
+         * This method skips all whitespace characters.
+         */
+        private void skipWhitespace() {
+            while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+        }
+
+        /**
+         * This method returns the character at the current position without consuming it.
+         *
+         * @return The character or 0 at the end of the text.
+         */
+        private char peek() {
+            return (position < json.length()) ? json.charAt(position) : 0;
+        }
+
+        /**
+         * This method consumes the character at the current position if it is the given character.
+         *
+         * @param character The character.
+         *
+         * @return true if the character was consumed.
+         */
+        private boolean consume(char character) {
+            if (peek() == character) {
+                position++;
+                return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * This method consumes the given character.
+         *
+         * @param character The character that has to be at the current position.
+         *
+         * @throws IOException If there is another character.
+         */
+        private void expect(char character) throws IOException {
+            if (!consume(character)) {
+                throw error("'" + character + "'");
+            }
+        }
+
+        /**
+         * This method creates the exception for an unexpected character.
+         *
+         * @param expected What was expected instead.
+         *
+         * @return The exception.
+         */
+        private IOException error(String expected) {
+            return new IOException("Expected " + expected + " at position " + position + " of the JSON");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.benchmark;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A BenchmarkResult contains the measured metrics of one benchmark with its parameters.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 12. August 2016
+ */
+public class BenchmarkResult {
+    //The name of the benchmark
+    private final String name;
+    //The parameters of the benchmark in the order they were added
+    private final Map<String, String> parameters;
+    //The measured metrics in the order they were added
+    private final Map<String, Double> metrics = new LinkedHashMap<>();
+
+    /**
+     * Constructor of a BenchmarkResult.
+     *
+     * @param name       The name of the benchmark.
+     * @param parameters The parameters of the benchmark.
+     */
+    public BenchmarkResult(String name, Map<String, String> parameters) {
+        this.name = name;
+        this.parameters = new LinkedHashMap<>(parameters);
+    }
+
+    /**
+     * This method adds or changes a metric.
+     *
+     * @param metric The name of the metric.
+     * @param value  The measured value.
+     */
+    public void putMetric(String metric, double value) {
+        metrics.put(metric, value);
+    }
+
+    /**
+     * This method returns the name of the benchmark.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * This method returns the parameters of the benchmark.
+     *
+     * @return The parameters that can not be changed.
+     */
+    public Map<String, String> getParameters() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    /**
+     * This method returns the measured metrics.
+     *
+     * @return The metrics that can not be changed.
+     */
+    public Map<String, Double> getMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * This method returns a key that identifies the benchmark with its parameters, so that results of different runs
+     * can be matched.
+     *
+     * @return The key of the benchmark, e.g. "getAllLegalMoves[board=ReversiBoard, size=8]".
+     */
+    public String getKey() {
+        return name + parameters.toString().replace('{', '[').replace('}', ']');
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(getKey());
+
+        for (Map.Entry<String, Double> metric : metrics.entrySet()) {
+            builder.append(String.format(" %s=%.1f", metric.getKey(), metric.getValue()));
+        }
+
+        return builder.toString();
+    }
+}
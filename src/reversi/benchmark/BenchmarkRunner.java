@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+
+/**
+ * The BenchmarkRunner measures how often an Operation can be executed per second and how many bytes the Operation
+ * allocates each time it is executed.
+ *
+ * Every benchmark first runs a warm up phase so that the code is compiled by the JIT compiler, then it runs several
+ * measurement iterations of a fixed time. The allocated bytes are read from the ThreadMXBean of the JVM, if the JVM
+ * does not support this the allocation is reported as -1.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 12. August 2016
+ */
+public class BenchmarkRunner {
+    //Metric name of the operations per second
+    public static final String OPERATIONS_PER_SECOND = "opsPerSecond";
+    //Metric name of the allocated bytes per operation
+    public static final String BYTES_PER_OPERATION = "bytesPerOperation";
+
+    //The time of the warm up phase in nanoseconds
+    private final long warmupTime;
+    //The time of one measurement iteration in nanoseconds
+    private final long iterationTime;
+    //The number of measurement iterations
+    private final int iterations;
+
+    //The bean to read the allocated bytes of the current thread, null if not supported by the JVM
+    private final com.sun.management.ThreadMXBean allocationBean;
+
+    //Operations taking longer than this time in nanoseconds are executed without batching
+    private static final long SLOW_OPERATION_TIME = 10000;
+    //The number of fast operations executed between two checks of the clock
+    private static final int BATCH_SIZE = 64;
+
+    //The results of all operations are added up here, so that the JIT compiler can not remove the operations
+    private volatile long sink;
+
+    /**
+     * Constructor of the BenchmarkRunner.
+     *
+     * @param warmupMillis    The time of the warm up phase in milliseconds.
+     * @param iterationMillis The time of one measurement iteration in milliseconds.
+     * @param iterations      The number of measurement iterations.
+     */
+    public BenchmarkRunner(long warmupMillis, long iterationMillis, int iterations) {
+        this.warmupTime = warmupMillis * 1000000L;
+        this.iterationTime = iterationMillis * 1000000L;
+        this.iterations = iterations;
+
+        this.allocationBean = getAllocationBean();
+    }
+
+    /**
+     * This method runs a benchmark of an Operation.
+     *
+     * @param name       The name of the benchmark.
+     * @param parameters The parameters of the benchmark, e.g. the board size.
+     * @param operation  The Operation that should be measured.
+     *
+     * @return The result of the benchmark.
+     */
+    public BenchmarkResult run(String name, Map<String, String> parameters, Operation operation) {
+        //Slow operations are not batched, so that the iterations do not take much longer than wanted
+        long start = System.nanoTime();
+        sink += operation.run();
+        int batchSize = (System.nanoTime() - start >= SLOW_OPERATION_TIME) ? 1 : BATCH_SIZE;
+
+        //Warm up until the time is over
+        runFor(operation, warmupTime, batchSize);
+
+        long operations = 0;
+        long time = 0;
+        long allocatedBytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            long bytesBefore = getAllocatedBytes();
+            long iterationStart = System.nanoTime();
+
+            operations += runFor(operation, iterationTime, batchSize);
+
+            time += System.nanoTime() - iterationStart;
+            allocatedBytes += getAllocatedBytes() - bytesBefore;
+        }
+
+        BenchmarkResult result = new BenchmarkResult(name, parameters);
+        result.putMetric(OPERATIONS_PER_SECOND, operations * 1000000000.0 / time);
+        result.putMetric(BYTES_PER_OPERATION, (allocationBean == null) ? -1 : (double) allocatedBytes / operations);
+
+        return result;
+    }
+
+    /**
+     * This method executes an Operation again and again until the time is over. The time is only checked after every
+     * batch of operations, so that the clock does not dominate very fast operations.
+     *
+     * @param operation The Operation that should be executed.
+     * @param duration  The time in nanoseconds.
+     * @param batchSize The number of operations executed between two checks of the time.
+     *
+     * @return The number of executed operations.
+     */
+    private long runFor(Operation operation, long duration, int batchSize) {
+        long end = System.nanoTime() + duration;
+        long operations = 0;
+        long result = 0;
+
+        do {
+            for (int i = 0; i < batchSize; i++) {
+                result += operation.run();
+            }
+            operations += batchSize;
+        } while (System.nanoTime() < end);
+
+        sink += result;
+        return operations;
+    }
+
+    /**
+     * This method returns the number of bytes allocated by the current thread so far.
+     *
+     * @return The allocated bytes or 0 if this is not supported.
+     */
+    private long getAllocatedBytes() {
+        if (allocationBean == null) {
+            return 0;
+        }
+
+        return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * This method returns the bean to read the allocated bytes of a thread.
+     *
+     * @return The bean or null if the JVM does not support it.
+     */
+    private static com.sun.management.ThreadMXBean getAllocationBean() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+
+            if (allocationBean.isThreadAllocatedMemorySupported()) {
+                allocationBean.setThreadAllocatedMemoryEnabled(true);
+                return allocationBean;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * An Operation is the code that is measured by a benchmark.
+     */
+    public interface Operation {
+        /**
+         * This method executes the Operation once.
+         *
+         * @return Any value calculated by the Operation, it is used so that the operation can not be removed by the
+         * JIT compiler.
+         */
+        long run();
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.benchmark;
+
+import reversi.board.Board;
+import reversi.board.GameMove;
+import reversi.board.GamePosition;
+import reversi.board.MoveList;
+import reversi.board.ReversiBoard;
+import reversi.board.SquareState;
+import reversi.player.Player;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The BoardBenchmarks measure the primitive operations of every Board implementation on the positions of the
+ * PositionCorpus for every board size.
+ *
+ * Usage: BoardBenchmarks [-sizes 4,8,...] [-warmup ms] [-time ms] [-iterations n] [-json file]
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 12. August 2016
+ */
+public class BoardBenchmarks {
+    //All Board implementations that are measured
+    private static final List<BoardFactory> BOARD_FACTORIES = Arrays.<BoardFactory>asList(
+            new BoardFactory() {
+                @Override
+                public String getName() {
+                    return "ReversiBoard";
+                }
+
+                @Override
+                public Board createBoard(SquareState[][] squareStates) {
+                    return new ReversiBoard(squareStates);
+                }
+            });
+
+    //The phases of the game that are measured
+    private static final String[] PHASES = {PositionCorpus.OPENING, PositionCorpus.MIDGAME, PositionCorpus.ENDGAME};
+
+    //The runner executing the benchmarks
+    private final BenchmarkRunner runner;
+
+    /**
+     * Constructor of the BoardBenchmarks.
+     *
+     * @param runner The runner executing the benchmarks.
+     */
+    public BoardBenchmarks(BenchmarkRunner runner) {
+        this.runner = runner;
+    }
+
+    /**
+     * This method runs all benchmarks for the given board sizes.
+     *
+     * @param boardSizes The board sizes that should be measured.
+     *
+     * @return The results of all benchmarks.
+     */
+    public List<BenchmarkResult> runAll(int[] boardSizes) {
+        List<BenchmarkResult> results = new ArrayList<>();
+
+        for (BoardFactory boardFactory : BOARD_FACTORIES) {
+            for (int boardSize : boardSizes) {
+                for (String phase : PHASES) {
+                    results.addAll(runPositions(boardFactory, boardSize, phase));
+                }
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * This method runs all benchmarks of one Board implementation on the positions of one board size and phase.
+     *
+     * @param boardFactory The factory of the Board implementation.
+     * @param boardSize    The size of the board.
+     * @param phase        The phase of the game.
+     *
+     * @return The results of the benchmarks.
+     */
+    private List<BenchmarkResult> runPositions(BoardFactory boardFactory, int boardSize, String phase) {
+        //Copy the positions of the corpus into the Board implementation
+        List<GamePosition> corpus = PositionCorpus.getPositions(boardSize, phase);
+        final Board[] boards = new Board[corpus.size()];
+        final Player[] players = new Player[corpus.size()];
+        for (int i = 0; i < corpus.size(); i++) {
+            boards[i] = boardFactory.createBoard(PositionCorpus.getSquareStates(corpus.get(i)));
+            players[i] = corpus.get(i).getCurrentPlayer();
+        }
+
+        //All moves that are checked by isMoveLegal, one for every square of every board
+        int numberOfSquares = boardSize * boardSize;
+        final GameMove[] allMoves = new GameMove[boards.length * numberOfSquares];
+        for (int i = 0; i < allMoves.length; i++) {
+            int square = i % numberOfSquares;
+            allMoves[i] = GameMove.valueOf(boards[i / numberOfSquares].getSquare(square % boardSize, square / boardSize));
+        }
+
+        //All legal moves that are made by makeMove and the index of the board they belong to
+        List<GameMove> legalMoveList = new ArrayList<>();
+        List<Integer> legalMoveBoardList = new ArrayList<>();
+        for (int i = 0; i < boards.length; i++) {
+            for (GameMove move : boards[i].getAllLegalMoves(players[i])) {
+                legalMoveList.add(move);
+                legalMoveBoardList.add(i);
+            }
+        }
+        final GameMove[] legalMoves = legalMoveList.toArray(new GameMove[legalMoveList.size()]);
+        final int[] legalMoveBoards = new int[legalMoves.length];
+        for (int i = 0; i < legalMoveBoards.length; i++) {
+            legalMoveBoards[i] = legalMoveBoardList.get(i);
+        }
+
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("board", boardFactory.getName());
+        parameters.put("size", Integer.toString(boardSize));
+        parameters.put("phase", phase);
+
+        List<BenchmarkResult> results = new ArrayList<>();
+
+        results.add(runner.run("getAllLegalMoves", parameters, new CyclingOperation(boards.length) {
+            @Override
+            long run(int i) {
+                return boards[i].getAllLegalMoves(players[i]).size();
+            }
+        }));
+        final MoveList moveList = new MoveList(numberOfSquares);
+        results.add(runner.run("getLegalMoves", parameters, new CyclingOperation(boards.length) {
+            @Override
+            long run(int i) {
+                return boards[i].getLegalMoves(players[i], moveList);
+            }
+        }));
+        results.add(runner.run("countLegalMoves", parameters, new CyclingOperation(boards.length) {
+            @Override
+            long run(int i) {
+                return boards[i].countLegalMoves(players[i]);
+            }
+        }));
+        final int squaresPerBoard = numberOfSquares;
+        results.add(runner.run("isMoveLegal", parameters, new CyclingOperation(allMoves.length) {
+            @Override
+            long run(int i) {
+                int board = i / squaresPerBoard;
+                return boards[board].isMoveLegal(allMoves[i], players[board]) ? 1 : 0;
+            }
+        }));
+        results.add(runner.run("makeMove", parameters, new CyclingOperation(legalMoves.length) {
+            @Override
+            long run(int i) {
+                int board = legalMoveBoards[i];
+                return boards[board].makeMove(legalMoves[i], players[board]).getCurrentPlayer().ordinal();
+            }
+        }));
+        results.add(runner.run("countPieces", parameters, new CyclingOperation(boards.length) {
+            @Override
+            long run(int i) {
+                return boards[i].countPieces(players[i]);
+            }
+        }));
+        results.add(runner.run("countDifference", parameters, new CyclingOperation(boards.length) {
+            @Override
+            long run(int i) {
+                return boards[i].countDifference(players[i]);
+            }
+        }));
+        results.add(runner.run("hasAnyPlayerAnyLegalMoves", parameters, new CyclingOperation(boards.length) {
+            @Override
+            long run(int i) {
+                return boards[i].hasAnyPlayerAnyLegalMoves() ? 1 : 0;
+            }
+        }));
+
+        return results;
+    }
+
+    /**
+     * This method returns the factories of all Board implementations.
+     *
+     * @return The factories, that can not be changed.
+     */
+    static List<BoardFactory> getBoardFactories() {
+        return Collections.unmodifiableList(BOARD_FACTORIES);
+    }
+
+    /**
+     * This method runs the board benchmarks from the command line.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) throws IOException {
+        BenchmarkOptions options = BenchmarkOptions.parse(args, "BoardBenchmarks");
+        if (options == null) {
+            return;
+        }
+
+        int[] boardSizes = options.getBoardSizes(PositionCorpus.BOARD_SIZES);
+        List<BenchmarkResult> results = new BoardBenchmarks(options.createRunner()).runAll(boardSizes);
+
+        options.report(results);
+    }
+
+    /**
+     * A BoardFactory creates a Board implementation with a given arrangement of pieces.
+     */
+    public interface BoardFactory {
+        /**
+         * This method returns the name of the Board implementation.
+         *
+         * @return The name.
+         */
+        String getName();
+
+        /**
+         * This method creates a Board.
+         *
+         * @param squareStates The SquareStates of the board indexed by [x][y].
+         *
+         * @return The Board.
+         */
+        Board createBoard(SquareState[][] squareStates);
+    }
+
+    /**
+     * A CyclingOperation executes its operation on one element of a list after the other, starting again at the first
+     * element after the last one.
+     */
+    private static abstract class CyclingOperation implements BenchmarkRunner.Operation {
+        //The number of elements
+        private final int size;
+        //The element of the next execution
+        private int next = 0;
+
+        /**
+         * Constructor of the CyclingOperation.
+         *
+         * @param size The number of elements.
+         */
+        CyclingOperation(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public final long run() {
+            int i = next;
+            next = (i + 1 == size) ? 0 : i + 1;
+
+            return run(i);
+        }
+
+        /**
+         * This method executes the operation on an element.
+         *
+         * @param i The index of the element.
+         *
+         * @return Any value calculated by the operation.
+         */
+        abstract long run(int i);
+    }
+}
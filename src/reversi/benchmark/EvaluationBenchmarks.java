@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.benchmark;
+
+import reversi.board.GamePosition;
+import reversi.evaluation.CountDifferenceEvaluation;
+import reversi.evaluation.Evaluation;
+import reversi.evaluation.FeatureEvaluation;
+import reversi.evaluation.MixedEvaluation;
+import reversi.evaluation.MobilityEvaluation;
+import reversi.evaluation.StabilityEvaluation;
+import reversi.evaluation.features.BoardFeatures;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The EvaluationBenchmarks measure a single call of every Evaluation on the positions of the PositionCorpus. The
+ * computation of the BoardFeatures is measured on its own as well, so that it can be compared with the whole
+ * MixedEvaluation.
+ *
+ * Usage: EvaluationBenchmarks [-sizes 4,8,...] [-warmup ms] [-time ms] [-iterations n] [-json file]
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 13. August 2016
+ */
+public class EvaluationBenchmarks {
+    //All Evaluations that are measured
+    private static final List<Evaluation> EVALUATIONS = Arrays.asList(
+            new MixedEvaluation(),
+            new MobilityEvaluation(),
+            new CountDifferenceEvaluation(),
+            new StabilityEvaluation(),
+            new FeatureEvaluation());
+
+    //The board sizes that are measured if no sizes are given
+    private static final int[] DEFAULT_BOARD_SIZES = {8};
+
+    //The runner executing the benchmarks
+    private final BenchmarkRunner runner;
+
+    /**
+     * Constructor of the EvaluationBenchmarks.
+     *
+     * @param runner The runner executing the benchmarks.
+     */
+    public EvaluationBenchmarks(BenchmarkRunner runner) {
+        this.runner = runner;
+    }
+
+    /**
+     * This method runs the benchmarks of all Evaluations for the given board sizes.
+     *
+     * @param boardSizes The board sizes that should be measured.
+     *
+     * @return The results of all benchmarks.
+     */
+    public List<BenchmarkResult> runAll(int[] boardSizes) {
+        List<BenchmarkResult> results = new ArrayList<>();
+
+        for (Evaluation evaluation : EVALUATIONS) {
+            for (int boardSize : boardSizes) {
+                results.add(runEvaluation(evaluation, boardSize));
+            }
+        }
+        for (int boardSize : boardSizes) {
+            results.add(runFeatures(boardSize));
+        }
+
+        return results;
+    }
+
+    /**
+     * This method measures one Evaluation on all positions of one board size.
+     *
+     * @param evaluation The Evaluation.
+     * @param boardSize  The size of the board.
+     *
+     * @return The result of the benchmark.
+     */
+    private BenchmarkResult runEvaluation(final Evaluation evaluation, int boardSize) {
+        final GamePosition[] positions = getPositions(boardSize);
+
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("evaluation", evaluation.getClass().getSimpleName());
+        parameters.put("size", Integer.toString(boardSize));
+
+        return runner.run("evaluateGame", parameters, new BenchmarkRunner.Operation() {
+            //The position of the next call
+            private int next = 0;
+
+            @Override
+            public long run() {
+                GamePosition position = positions[next];
+                next = (next + 1 == positions.length) ? 0 : next + 1;
+
+                return evaluation.evaluateGame(position);
+            }
+        });
+    }
+
+    /**
+     * This method measures the computation of the BoardFeatures on all positions of one board size.
+     *
+     * @param boardSize The size of the board.
+     *
+     * @return The result of the benchmark.
+     */
+    private BenchmarkResult runFeatures(int boardSize) {
+        final GamePosition[] positions = getPositions(boardSize);
+        final BoardFeatures features = new BoardFeatures();
+
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("size", Integer.toString(boardSize));
+
+        return runner.run("computeFeatures", parameters, new BenchmarkRunner.Operation() {
+            //The position of the next call
+            private int next = 0;
+
+            @Override
+            public long run() {
+                GamePosition position = positions[next];
+                next = (next + 1 == positions.length) ? 0 : next + 1;
+
+                features.compute(position.getBoard());
+                return features.getOddRegions();
+            }
+        });
+    }
+
+    /**
+     * This method returns the positions of all phases of one board size.
+     *
+     * @param boardSize The size of the board.
+     *
+     * @return The positions.
+     */
+    private GamePosition[] getPositions(int boardSize) {
+        List<GamePosition> corpus = new ArrayList<>();
+        corpus.addAll(PositionCorpus.getPositions(boardSize, PositionCorpus.OPENING));
+        corpus.addAll(PositionCorpus.getPositions(boardSize, PositionCorpus.MIDGAME));
+        corpus.addAll(PositionCorpus.getPositions(boardSize, PositionCorpus.ENDGAME));
+
+        return corpus.toArray(new GamePosition[corpus.size()]);
+    }
+
+    /**
+     * This method runs the evaluation benchmarks from the command line.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) throws IOException {
+        BenchmarkOptions options = BenchmarkOptions.parse(args, "EvaluationBenchmarks");
+        if (options == null) {
+            return;
+        }
+
+        int[] boardSizes = options.getBoardSizes(DEFAULT_BOARD_SIZES);
+        List<BenchmarkResult> results = new EvaluationBenchmarks(options.createRunner()).runAll(boardSizes);
+
+        options.report(results);
+    }
+}
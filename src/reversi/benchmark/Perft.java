@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.benchmark;
+
+import reversi.board.Board;
+import reversi.board.CanonicalPosition;
+import reversi.board.GameMove;
+import reversi.board.GamePosition;
+import reversi.board.MoveList;
+import reversi.player.Player;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Perft counts all positions that can be reached from a position with exactly a given number of moves. The numbers
+ * are known for the start position of the 8x8 board, so comparing them validates the move generation, and the time
+ * needed to count them measures its speed.
+ *
+ * Passes are handled like in Board.makeMove(GameMove, Player): if the opponent can not move after a move, the same
+ * player moves again and the pass is not counted as a move. A finished game before the given depth is not counted.
+ *
+ * Usage: Perft [-size n] [-depth n] [-divide] [-threads n] [-hash mb] [-check]
+ *
+ * Without -depth, 6 moves are counted, and -check compares all known numbers of the 8x8 board.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 15. August 2016
+ */
+public class Perft {
+    //The known numbers of positions after 0 to 8 moves from the start position of the 8x8 board. Published numbers
+    //for more moves count a pass as a move of its own, so they can not be compared with the numbers counted here.
+    private static final long[] KNOWN_COUNTS_8X8 = {1, 4, 12, 56, 244, 1396, 8200, 55092, 390216};
+
+    //The number of moves counted if no depth is given and the numbers are not checked
+    private static final int DEFAULT_DEPTH = 6;
+
+    //Subtrees with at least this remaining depth are split into parallel tasks
+    private static final int SPLIT_DEPTH = 4;
+
+    //The table storing already counted subtrees, null if no table should be used
+    private final PerftTable perftTable;
+
+    /**
+     * Constructor of Perft.
+     *
+     * @param hashSizeInMegabytes The size of the table for already counted subtrees, 0 for no table.
+     */
+    public Perft(int hashSizeInMegabytes) {
+        this.perftTable = (hashSizeInMegabytes > 0) ? new PerftTable(hashSizeInMegabytes) : null;
+    }
+
+    /**
+     * This method counts the positions after a number of moves in the current thread.
+     *
+     * @param gamePosition The position to start from.
+     * @param depth        The number of moves.
+     *
+     * @return The number of positions.
+     */
+    public long perft(GamePosition gamePosition, int depth) {
+        return count(gamePosition.getBoard(), gamePosition.getCurrentPlayer(), depth);
+    }
+
+    /**
+     * This method counts the positions after a number of moves in parallel. The subtrees are split into tasks of a
+     * ForkJoinPool.
+     *
+     * @param gamePosition The position to start from.
+     * @param depth        The number of moves.
+     * @param pool         The pool executing the tasks.
+     *
+     * @return The number of positions.
+     */
+    public long perft(GamePosition gamePosition, int depth, ForkJoinPool pool) {
+        return pool.invoke(new PerftTask(this, gamePosition.getBoard(), gamePosition.getCurrentPlayer(), depth));
+    }
+
+    /**
+     * This method counts the positions after a number of moves for every legal move of the position separately.
+     *
+     * @param gamePosition The position to start from.
+     * @param depth        The number of moves including the first move.
+     * @param pool         The pool executing the tasks.
+     *
+     * @return The number of positions for every first move in the order of the legal moves.
+     */
+    public Map<GameMove, Long> divide(GamePosition gamePosition, int depth, ForkJoinPool pool) {
+        Board board = gamePosition.getBoard();
+        Player player = gamePosition.getCurrentPlayer();
+
+        Map<GameMove, Long> counts = new LinkedHashMap<>();
+        for (GameMove move : board.getAllLegalMoves(player)) {
+            GamePosition nextPosition = board.makeMove(move, player);
+            counts.put(move, perft(nextPosition, depth - 1, pool));
+        }
+
+        return counts;
+    }
+
+    /**
+     * This method counts the positions after a number of moves recursively.
+     *
+     * @param board  The board.
+     * @param player The player whose turn it is.
+     * @param depth  The number of moves.
+     *
+     * @return The number of positions.
+     */
+    private long count(Board board, Player player, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        //The last move does not have to be made, the moves just have to be counted
+        if (depth == 1) {
+            return board.countLegalMoves(player);
+        }
+
+        //All orientations of a position have the same number of positions, so they share one entry
+        long hash = 0L;
+        if (perftTable != null) {
+            hash = CanonicalPosition.getKeyHash(CanonicalPosition.keyOf(board, player));
+            long count = perftTable.probe(hash, depth);
+            if (count >= 0) {
+                return count;
+            }
+        }
+
+        //The moves carry their flips, so making them is validated as well
+        MoveList legalMoves = new MoveList(board.getBoardWidth() * board.getBoardHeight());
+        board.getLegalMoves(player, legalMoves);
+
+        long count = 0;
+        for (int i = 0; i < legalMoves.size(); i++) {
+            GamePosition nextPosition = board.makeMove(legalMoves, i, player);
+            count += count(nextPosition.getBoard(), nextPosition.getCurrentPlayer(), depth - 1);
+        }
+
+        if (perftTable != null) {
+            perftTable.store(hash, depth, count);
+        }
+
+        return count;
+    }
+
+    /**
+     * This method checks the move generation of all Board implementations against the known numbers of the 8x8 board
+     * and prints the nodes per second.
+     *
+     * @param maxDepth The maximal depth that should be checked.
+     * @param pool     The pool executing the tasks.
+     *
+     * @return true if all numbers are correct.
+     */
+    private boolean check(int maxDepth, ForkJoinPool pool) {
+        boolean isCorrect = true;
+
+        for (BoardBenchmarks.BoardFactory boardFactory : BoardBenchmarks.getBoardFactories()) {
+            GamePosition start = PositionCorpus.getStartPosition(8);
+            GamePosition position = new GamePosition(
+                    boardFactory.createBoard(PositionCorpus.getSquareStates(start)), start.getCurrentPlayer());
+
+            for (int depth = 1; depth <= Math.min(maxDepth, KNOWN_COUNTS_8X8.length - 1); depth++) {
+                long startTime = System.nanoTime();
+                long count = perft(position, depth, pool);
+                long time = System.nanoTime() - startTime;
+
+                boolean isDepthCorrect = (count == KNOWN_COUNTS_8X8[depth]);
+                isCorrect = isCorrect && isDepthCorrect;
+
+                System.out.println(String.format("%s depth %d: %d %s (%.0f nodes/s)", boardFactory.getName(), depth,
+                        count, isDepthCorrect ? "OK" : "expected " + KNOWN_COUNTS_8X8[depth],
+                        count * 1000000000.0 / time));
+            }
+        }
+
+        return isCorrect;
+    }
+
+    /**
+     * This method runs perft from the command line.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) {
+        int boardSize = 8;
+        //The depth is chosen after parsing, a check covers all known numbers unless a depth is given
+        int depth = -1;
+        boolean divide = false;
+        boolean check = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hashSize = 0;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-size":
+                        boardSize = Integer.parseInt(args[++i]);
+                        break;
+                    case "-depth":
+                        depth = Integer.parseInt(args[++i]);
+                        break;
+                    case "-divide":
+                        divide = true;
+                        break;
+                    case "-threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    case "-hash":
+                        hashSize = Integer.parseInt(args[++i]);
+                        break;
+                    case "-check":
+                        check = true;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Usage: Perft [-size n] [-depth n] [-divide] [-threads n] [-hash mb] [-check]");
+            return;
+        }
+
+        if (depth < 0) {
+            depth = check ? KNOWN_COUNTS_8X8.length - 1 : DEFAULT_DEPTH;
+        }
+
+        Perft perft = new Perft(hashSize);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        if (check) {
+            boolean isCorrect = perft.check(depth, pool);
+            pool.shutdown();
+
+            if (!isCorrect) {
+                System.exit(1);
+            }
+            return;
+        }
+
+        //Count the positions of the start position for every Board implementation
+        for (BoardBenchmarks.BoardFactory boardFactory : BoardBenchmarks.getBoardFactories()) {
+            GamePosition start = PositionCorpus.getStartPosition(boardSize);
+            GamePosition position = new GamePosition(
+                    boardFactory.createBoard(PositionCorpus.getSquareStates(start)), start.getCurrentPlayer());
+
+            long startTime = System.nanoTime();
+            long count = 0;
+            if (divide) {
+                for (Map.Entry<GameMove, Long> entry : perft.divide(position, depth, pool).entrySet()) {
+                    System.out.println(entry.getKey().getSquare().getSquareName() + ": " + entry.getValue());
+                    count += entry.getValue();
+                }
+            } else {
+                count = perft.perft(position, depth, pool);
+            }
+            long time = System.nanoTime() - startTime;
+
+            System.out.println(String.format("%s perft(%d) = %d in %.2f s (%.0f nodes/s)", boardFactory.getName(),
+                    depth, count, time / 1000000000.0, count * 1000000000.0 / time));
+        }
+
+        pool.shutdown();
+    }
+
+    /**
+     * A PerftTask counts the positions of a subtree. Subtrees that are deep enough are split into one task for every
+     * legal move.
+     */
+    private static class PerftTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        //The Perft counting the positions, its table is shared by all tasks
+        private final Perft perft;
+        //The board of the subtree
+        private final Board board;
+        //The player whose turn it is
+        private final Player player;
+        //The number of moves
+        private final int depth;
+
+        /**
+         * Constructor of a PerftTask.
+         *
+         * @param perft  The Perft counting the positions.
+         * @param board  The board.
+         * @param player The player whose turn it is.
+         * @param depth  The number of moves.
+         */
+        PerftTask(Perft perft, Board board, Player player, int depth) {
+            this.perft = perft;
+            this.board = board;
+            this.player = player;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth < SPLIT_DEPTH) {
+                return perft.count(board, player, depth);
+            }
+
+            //Create one task for every legal move and count them in parallel
+            List<PerftTask> tasks = new ArrayList<>();
+            for (GameMove move : board.getAllLegalMoves(player)) {
+                GamePosition nextPosition = board.makeMove(move, player);
+                tasks.add(new PerftTask(perft, nextPosition.getBoard(), nextPosition.getCurrentPlayer(),
+                        depth - 1));
+            }
+            invokeAll(tasks);
+
+            long count = 0;
+            for (PerftTask task : tasks) {
+                count += task.join();
+            }
+
+            return count;
+        }
+    }
+
+    /**
+     * The PerftTable stores the counts of already counted subtrees. It can be used by several threads at the same
+     * time without locking, the key of an entry is stored XORed with its data so that an entry that was partly
+     * overwritten by another thread is never returned.
+     */
+    private static class PerftTable {
+        //The keys of the entries XORed with the data
+        private final AtomicLongArray keys;
+        //The data of the entries, the count in the upper 56 bits and the depth in the lowest 8 bits
+        private final AtomicLongArray data;
+        //The mask to calculate the index of a hash
+        private final int indexMask;
+
+        /**
+         * Constructor of the PerftTable.
+         *
+         * @param sizeInMegabytes The size of the table.
+         */
+        PerftTable(int sizeInMegabytes) {
+            //Every entry needs 16 bytes, the number of entries has to be a power of two
+            long entries = Long.highestOneBit(sizeInMegabytes * 1024L * 1024L / 16);
+            int size = (int) Math.max(1, Math.min(entries, 1 << 30));
+
+            keys = new AtomicLongArray(size);
+            data = new AtomicLongArray(size);
+            indexMask = size - 1;
+        }
+
+        /**
+         * This method returns the stored count of a subtree.
+         *
+         * @param hash  The hash of the position.
+         * @param depth The number of moves.
+         *
+         * @return The count or -1 if it is not stored.
+         */
+        long probe(long hash, int depth) {
+            int index = (int) hash & indexMask;
+            long entry = data.get(index);
+
+            if ((keys.get(index) ^ entry) == hash && (entry & 0xFF) == depth) {
+                return entry >>> 8;
+            }
+
+            return -1;
+        }
+
+        /**
+         * This method stores the count of a subtree, an older entry with the same index is replaced.
+         *
+         * @param hash  The hash of the position.
+         * @param depth The number of moves.
+         * @param count The count of the subtree.
+         */
+        void store(long hash, int depth, long count) {
+            int index = (int) hash & indexMask;
+            long entry = (count << 8) | depth;
+
+            data.set(index, entry);
+            keys.set(index, hash ^ entry);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.benchmark;
+
+import reversi.board.Board;
+import reversi.board.GameMove;
+import reversi.board.GamePosition;
+import reversi.board.ReversiBoard;
+import reversi.board.SquareState;
+import reversi.player.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The PositionCorpus is a fixed set of positions that is used by all benchmarks, so that the results of different
+ * runs can be compared.
+ *
+ * The positions are created by playing random games with fixed seeds, so every run uses exactly the same positions.
+ * For each board size there are positions of the opening, the midgame and the endgame. In every position the player
+ * whose turn it is has at least one legal move.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 12. August 2016
+ */
+public final class PositionCorpus {
+    //The phases of the game the positions are taken from
+    public static final String OPENING = "opening";
+    public static final String MIDGAME = "midgame";
+    public static final String ENDGAME = "endgame";
+
+    //The board sizes that can be selected in the preferences
+    public static final int[] BOARD_SIZES = {4, 6, 8, 10, 12};
+
+    //The number of positions per board size and phase
+    private static final int POSITIONS_PER_PHASE = 8;
+    //The seed of the first random game
+    private static final long SEED = 20160812L;
+
+    /**
+     * There should be no instance of this class.
+     */
+    private PositionCorpus() {
+    }
+
+    /**
+     * This method returns the positions of a board size and a phase of the game.
+     *
+     * @param boardSize The size of the board.
+     * @param phase     The phase of the game, OPENING, MIDGAME or ENDGAME.
+     *
+     * @return The positions, that can not be changed.
+     */
+    public static List<GamePosition> getPositions(int boardSize, String phase) {
+        int numberOfPieces = getNumberOfPieces(boardSize, phase);
+
+        List<GamePosition> positions = new ArrayList<>();
+        long seed = SEED + boardSize * 1000L + numberOfPieces;
+        while (positions.size() < POSITIONS_PER_PHASE) {
+            GamePosition position = playRandomGame(boardSize, numberOfPieces, new Random(seed++));
+
+            //The game may have ended before the number of pieces was reached
+            if (position != null) {
+                positions.add(position);
+            }
+        }
+
+        return Collections.unmodifiableList(positions);
+    }
+
+    /**
+     * This method returns the squares of a position, so that the position can be copied into any Board
+     * implementation.
+     *
+     * @param gamePosition The position.
+     *
+     * @return The SquareStates of the board indexed by [x][y].
+     */
+    public static SquareState[][] getSquareStates(GamePosition gamePosition) {
+        Board board = gamePosition.getBoard();
+        SquareState[][] squareStates = new SquareState[board.getBoardWidth()][board.getBoardHeight()];
+
+        for (int x = 0; x < board.getBoardWidth(); x++) {
+            for (int y = 0; y < board.getBoardHeight(); y++) {
+                squareStates[x][y] = board.getSquareState(x, y);
+            }
+        }
+
+        return squareStates;
+    }
+
+    /**
+     * This method returns the number of pieces on the board in a phase of the game.
+     *
+     * @param boardSize The size of the board.
+     * @param phase     The phase of the game.
+     *
+     * @return The number of pieces.
+     */
+    private static int getNumberOfPieces(int boardSize, String phase) {
+        int numberOfSquares = boardSize * boardSize;
+
+        switch (phase) {
+            case OPENING:
+                return 4 + numberOfSquares / 8;
+            case MIDGAME:
+                return numberOfSquares / 2;
+            case ENDGAME:
+                return numberOfSquares - numberOfSquares / 5;
+            default:
+                throw new IllegalArgumentException("Unknown phase " + phase);
+        }
+    }
+
+    /**
+     * This method plays random moves from the start position until the given number of pieces is on the board.
+     *
+     * @param boardSize      The size of the board.
+     * @param numberOfPieces The number of pieces of the returned position.
+     * @param random         The random generator choosing the moves.
+     *
+     * @return The position or null if the game ended before.
+     */
+    private static GamePosition playRandomGame(int boardSize, int numberOfPieces, Random random) {
+        GamePosition position = getStartPosition(boardSize);
+
+        while (true) {
+            Board board = position.getBoard();
+            Player player = position.getCurrentPlayer();
+
+            List<GameMove> legalMoves = board.getAllLegalMoves(player);
+            if (legalMoves.isEmpty()) {
+                return null;
+            }
+            if (board.countPieces(Player.BLACK) + board.countPieces(Player.WHITE) >= numberOfPieces) {
+                return position;
+            }
+
+            position = board.makeMove(legalMoves.get(random.nextInt(legalMoves.size())), player);
+        }
+    }
+
+    /**
+     * This method returns the start position of a board size.
+     *
+     * @param boardSize The size of the board.
+     *
+     * @return The start position with black to move.
+     */
+    public static GamePosition getStartPosition(int boardSize) {
+        SquareState[][] squareStates = new SquareState[boardSize][boardSize];
+        for (SquareState[] column : squareStates) {
+            Arrays.fill(column, SquareState.EMPTY);
+        }
+
+        int center = boardSize / 2 - 1;
+        squareStates[center][center] = SquareState.WHITE;
+        squareStates[center][center + 1] = SquareState.BLACK;
+        squareStates[center + 1][center] = SquareState.BLACK;
+        squareStates[center + 1][center + 1] = SquareState.WHITE;
+
+        return new GamePosition(new ReversiBoard(squareStates), Player.BLACK);
+    }
+}
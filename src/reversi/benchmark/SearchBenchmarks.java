@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.benchmark;
+
+import reversi.actor.AlphaBetaActor;
+import reversi.actor.ComputerActor;
+import reversi.actor.MiniMaxActor;
+import reversi.board.GamePosition;
+import reversi.evaluation.CountDifferenceEvaluation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The SearchBenchmarks search the 8x8 positions of the PositionCorpus with every ComputerActor to a fixed depth.
+ *
+ * One operation searches all positions once. Because a search to a fixed depth always searches the same nodes, the
+ * nodes are counted once before the measurement, so that the time per search, the nodes per second and the allocated
+ * bytes per node can be calculated from the measured operations.
+ *
+ * The AlphaBetaActor is also measured with the CountDifferenceEvaluation with and without the stability cutoff, so
+ * the nodes saved by the cutoff can be compared.
+ *
+ * Usage: SearchBenchmarks [-depths 2,4,...] [-warmup ms] [-time ms] [-iterations n] [-json file]
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 13. August 2016
+ */
+public class SearchBenchmarks {
+    //Metric name of the time of one search to the given depth in milliseconds
+    public static final String TIME_TO_DEPTH = "timeToDepthMillis";
+    //Metric name of the number of nodes of one search
+    public static final String NODES_PER_SEARCH = "nodesPerSearch";
+    //Metric name of the searched nodes per second
+    public static final String NODES_PER_SECOND = "nodesPerSecond";
+    //Metric name of the allocated bytes per searched node
+    public static final String BYTES_PER_NODE = "bytesPerNode";
+
+    //All ComputerActors that are measured
+    private static final List<ActorFactory> ACTOR_FACTORIES = Arrays.<ActorFactory>asList(
+            new ActorFactory() {
+                @Override
+                public String getName() {
+                    return "AlphaBetaActor";
+                }
+
+                @Override
+                public ComputerActor createActor() {
+                    return new AlphaBetaActor();
+                }
+            },
+            new ActorFactory() {
+                @Override
+                public String getName() {
+                    return "AlphaBetaActor-CountDifference";
+                }
+
+                @Override
+                public ComputerActor createActor() {
+                    return new AlphaBetaActor(new CountDifferenceEvaluation());
+                }
+            },
+            new ActorFactory() {
+                @Override
+                public String getName() {
+                    return "AlphaBetaActor-StabilityCutoff";
+                }
+
+                @Override
+                public ComputerActor createActor() {
+                    //The stability cutoff needs the differences of pieces as values
+                    AlphaBetaActor actor = new AlphaBetaActor(new CountDifferenceEvaluation());
+                    actor.setStabilityCutoff(true);
+                    return actor;
+                }
+            },
+            new ActorFactory() {
+                @Override
+                public String getName() {
+                    return "MiniMaxActor";
+                }
+
+                @Override
+                public ComputerActor createActor() {
+                    return new MiniMaxActor();
+                }
+            });
+
+    //The depths that are searched if no depths are given
+    private static final int[] DEFAULT_DEPTHS = {2, 4};
+    //The size of the board of all searched positions
+    private static final int BOARD_SIZE = 8;
+
+    //The runner executing the benchmarks
+    private final BenchmarkRunner runner;
+    //The positions that are searched
+    private final GamePosition[] positions;
+
+    /**
+     * Constructor of the SearchBenchmarks.
+     *
+     * @param runner The runner executing the benchmarks.
+     */
+    public SearchBenchmarks(BenchmarkRunner runner) {
+        this.runner = runner;
+
+        List<GamePosition> corpus = new ArrayList<>();
+        corpus.addAll(PositionCorpus.getPositions(BOARD_SIZE, PositionCorpus.OPENING));
+        corpus.addAll(PositionCorpus.getPositions(BOARD_SIZE, PositionCorpus.MIDGAME));
+        corpus.addAll(PositionCorpus.getPositions(BOARD_SIZE, PositionCorpus.ENDGAME));
+        positions = corpus.toArray(new GamePosition[corpus.size()]);
+    }
+
+    /**
+     * This method runs the search of all ComputerActors for all depths.
+     *
+     * @param depths The depths that should be searched.
+     *
+     * @return The results of all benchmarks.
+     */
+    public List<BenchmarkResult> runAll(int[] depths) {
+        List<BenchmarkResult> results = new ArrayList<>();
+
+        for (ActorFactory actorFactory : ACTOR_FACTORIES) {
+            for (int depth : depths) {
+                results.add(runSearch(actorFactory, depth));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * This method measures the search of one ComputerActor to one depth.
+     *
+     * @param actorFactory The factory of the ComputerActor.
+     * @param depth        The depth of the search.
+     *
+     * @return The result of the benchmark.
+     */
+    private BenchmarkResult runSearch(ActorFactory actorFactory, final int depth) {
+        final ComputerActor actor = actorFactory.createActor();
+
+        //Count the nodes of all positions once
+        long nodes = 0;
+        for (GamePosition position : positions) {
+            nodes += actor.searchPosition(position, depth).getStatistics().getNodes();
+        }
+
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("actor", actorFactory.getName());
+        parameters.put("depth", Integer.toString(depth));
+
+        BenchmarkResult measured = runner.run("search", parameters, new BenchmarkRunner.Operation() {
+            @Override
+            public long run() {
+                long result = 0;
+                for (GamePosition position : positions) {
+                    result += actor.searchPosition(position, depth).getEvaluationValue();
+                }
+                return result;
+            }
+        });
+
+        //Convert the measured operations into the metrics of a single search
+        double searchesPerSecond = measured.getMetrics().get(BenchmarkRunner.OPERATIONS_PER_SECOND) * positions.length;
+        double nodesPerSearch = (double) nodes / positions.length;
+        double bytesPerOperation = measured.getMetrics().get(BenchmarkRunner.BYTES_PER_OPERATION);
+
+        BenchmarkResult result = new BenchmarkResult("search", parameters);
+        result.putMetric(TIME_TO_DEPTH, 1000.0 / searchesPerSecond);
+        result.putMetric(NODES_PER_SEARCH, nodesPerSearch);
+        result.putMetric(NODES_PER_SECOND, searchesPerSecond * nodesPerSearch);
+        result.putMetric(BYTES_PER_NODE, (bytesPerOperation < 0) ? -1 : bytesPerOperation / nodes);
+
+        return result;
+    }
+
+    /**
+     * This method runs the search benchmarks from the command line.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) throws IOException {
+        BenchmarkOptions options = BenchmarkOptions.parse(args, "SearchBenchmarks");
+        if (options == null) {
+            return;
+        }
+
+        int[] depths = options.getDepths(DEFAULT_DEPTHS);
+        List<BenchmarkResult> results = new SearchBenchmarks(options.createRunner()).runAll(depths);
+
+        options.report(results);
+    }
+
+    /**
+     * An ActorFactory creates a new ComputerActor for the benchmarks.
+     */
+    public interface ActorFactory {
+        /**
+         * This method returns the name of the ComputerActor.
+         *
+         * @return The name.
+         */
+        String getName();
+
+        /**
+         * This method creates a new ComputerActor.
+         *
+         * @return The ComputerActor.
+         */
+        ComputerActor createActor();
+    }
+}
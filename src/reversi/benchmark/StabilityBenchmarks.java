@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.benchmark;
+
+import reversi.board.Board;
+import reversi.board.GamePosition;
+import reversi.evaluation.stability.EdgeStabilityTable;
+import reversi.evaluation.stability.StabilityAnalyser;
+import reversi.player.Player;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The StabilityBenchmarks measure the computation of the EdgeStabilityTable and the analysis of the stable pieces on
+ * the positions of the PositionCorpus for every board size.
+ *
+ * Usage: StabilityBenchmarks [-sizes 4,8,...] [-warmup ms] [-time ms] [-iterations n] [-json file]
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 18. August 2016
+ */
+public class StabilityBenchmarks {
+    //The name of the metric of the time needed to compute an EdgeStabilityTable
+    public static final String BUILD_MILLIS = "buildMillis";
+    //The name of the metric of the number of configurations of an EdgeStabilityTable
+    public static final String CONFIGURATIONS = "configurations";
+    //The name of the metric of the average number of stable pieces of a position
+    public static final String STABLE_DISCS_PER_POSITION = "stableDiscsPerPosition";
+
+    //The phases of the game that are measured
+    private static final String[] PHASES = {PositionCorpus.OPENING, PositionCorpus.MIDGAME, PositionCorpus.ENDGAME};
+
+    //The runner executing the benchmarks
+    private final BenchmarkRunner runner;
+
+    /**
+     * Constructor of the StabilityBenchmarks.
+     *
+     * @param runner The runner executing the benchmarks.
+     */
+    public StabilityBenchmarks(BenchmarkRunner runner) {
+        this.runner = runner;
+    }
+
+    /**
+     * This method runs all benchmarks for the given board sizes.
+     *
+     * @param boardSizes The board sizes that should be measured.
+     *
+     * @return The results of all benchmarks.
+     */
+    public List<BenchmarkResult> runAll(int[] boardSizes) {
+        List<BenchmarkResult> results = new ArrayList<>();
+
+        //The tables are measured first, because every StabilityAnalyser computes the table of the configured size
+        for (int boardSize : boardSizes) {
+            results.add(runEdgeTable(boardSize));
+        }
+
+        for (int boardSize : boardSizes) {
+            for (String phase : PHASES) {
+                results.add(runAnalysis(boardSize, phase));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * This method measures the computation of the EdgeStabilityTable of one board size. A table is only computed once,
+     * so this has to run before anything else used the table of that size.
+     *
+     * @param boardSize The size of the board.
+     *
+     * @return The result of the benchmark.
+     */
+    private BenchmarkResult runEdgeTable(int boardSize) {
+        long startTime = System.nanoTime();
+        EdgeStabilityTable table = EdgeStabilityTable.forLength(boardSize);
+        long elapsedTime = System.nanoTime() - startTime;
+
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("size", Integer.toString(boardSize));
+
+        BenchmarkResult result = new BenchmarkResult("edgeStabilityTable", parameters);
+        result.putMetric(BUILD_MILLIS, elapsedTime / 1000000.0);
+        result.putMetric(CONFIGURATIONS, table.getPowerOfThree(boardSize - 1) * 3.0);
+
+        return result;
+    }
+
+    /**
+     * This method measures the analysis of the stable pieces on the positions of one board size and phase.
+     *
+     * @param boardSize The size of the board.
+     * @param phase     The phase of the game.
+     *
+     * @return The result of the benchmark.
+     */
+    private BenchmarkResult runAnalysis(int boardSize, String phase) {
+        List<GamePosition> corpus = PositionCorpus.getPositions(boardSize, phase);
+        final Board[] boards = new Board[corpus.size()];
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = corpus.get(i).getBoard();
+        }
+
+        final StabilityAnalyser stabilityAnalyser = new StabilityAnalyser();
+
+        //Count the stable pieces of all positions once
+        long stableDiscs = 0;
+        for (Board board : boards) {
+            stabilityAnalyser.analyse(board);
+            stableDiscs += stabilityAnalyser.countStableDiscs(Player.BLACK)
+                    + stabilityAnalyser.countStableDiscs(Player.WHITE);
+        }
+
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("size", Integer.toString(boardSize));
+        parameters.put("phase", phase);
+
+        BenchmarkResult result = runner.run("analyseStability", parameters, new BenchmarkRunner.Operation() {
+            //The position of the next call
+            private int next = 0;
+
+            @Override
+            public long run() {
+                Board board = boards[next];
+                next = (next + 1 == boards.length) ? 0 : next + 1;
+
+                stabilityAnalyser.analyse(board);
+                return stabilityAnalyser.countStableDiscs(Player.BLACK);
+            }
+        });
+        result.putMetric(STABLE_DISCS_PER_POSITION, (double) stableDiscs / boards.length);
+
+        return result;
+    }
+
+    /**
+     * This method runs the stability benchmarks from the command line.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) throws IOException {
+        BenchmarkOptions options = BenchmarkOptions.parse(args, "StabilityBenchmarks");
+        if (options == null) {
+            return;
+        }
+
+        int[] boardSizes = options.getBoardSizes(PositionCorpus.BOARD_SIZES);
+        List<BenchmarkResult> results = new StabilityBenchmarks(options.createRunner()).runAll(boardSizes);
+
+        options.report(results);
+    }
+}
@@ -118,6 +118,26 @@ public interface Board {
      */
     List<GameMove> getAllLegalMoves(Player player);
 
+    /**
+     * This method fills a MoveList with all the legal moves of a player without creating any objects. The moves are in
+     * the same order as the moves returned by getAllLegalMoves(Player).
+     *
+     * @param player   The player whose legal moves should be returned.
+     * @param moveList The MoveList that should be filled, all moves in it before are removed.
+     *
+     * @return The number of legal moves.
+     */
+    int getLegalMoves(Player player, MoveList moveList);
+
+    /**
+     * This method counts the legal moves of a player without creating any objects.
+     *
+     * @param player The player whose legal moves should be counted.
+     *
+     * @return The number of legal moves.
+     */
+    int countLegalMoves(Player player);
+
     /**
      * This method is responsible for making a move in the game.
      * It should return a new GamePosition representing the new state of the game.
@@ -129,6 +149,18 @@ public interface Board {
      */
     GamePosition makeMove(GameMove move, Player player);
 
+    /**
+     * This method makes a move of a MoveList that was filled by getLegalMoves(Player, MoveList) of this board for the
+     * same player. The move is not checked again, so it is faster than makeMove(GameMove, Player).
+     *
+     * @param moveList   The MoveList containing the move.
+     * @param moveNumber The position of the move in the MoveList.
+     * @param player     The player whose turn it is.
+     *
+     * @return A new GamePosition representing the new state of the game.
+     */
+    GamePosition makeMove(MoveList moveList, int moveNumber, Player player);
+
     /**
      * This method returns a square at a given position.
      *
@@ -0,0 +1,386 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.board;
+
+import reversi.player.Player;
+
+/**
+ * A CanonicalPosition identifies a position independent of its orientation. Of the eight orientations of a board (see
+ * Symmetry) the one with the smallest pieces is chosen as canonical orientation: the black pieces are compared first,
+ * the white pieces second, squares with a higher index are more significant. All orientations of a position have the
+ * same canonical orientation and therefore the same hash value.
+ *
+ * Moves that are stored together with the hash value (e.g. in transposition tables or opening books) have to be stored
+ * in canonical orientation, toCanonical() and fromCanonical() transform them between both orientations.
+ *
+ * A search that looks up every node in a transposition table should use keyOf(Board, Player) instead of creating a
+ * CanonicalPosition, the key contains the hash value and the symmetry in a single long.
+ *
+ * Any CanonicalPosition is immutable.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 20. August 2016
+ */
+public final class CanonicalPosition {
+    //The number of squares of a board whose pieces can be stored in the bits of a long
+    private static final int BITBOARD_SQUARES = 64;
+    //All symmetries, values() creates a new array with every call
+    private static final Symmetry[] SYMMETRIES = Symmetry.values();
+    //The highest three bits of a canonical key contain the ordinal of the symmetry instead of bits of the hash value,
+    //tables calculate their index from the lowest bits
+    private static final int SYMMETRY_SHIFT = 61;
+
+    //The 64 bit Zobrist hash value of the position in canonical orientation
+    private final long hash;
+    //The symmetry that transforms the position into its canonical orientation
+    private final Symmetry symmetry;
+    //The size of the board
+    private final int boardSize;
+
+    /**
+     * Constructor of a CanonicalPosition.
+     *
+     * @param hash      The hash value of the position in canonical orientation.
+     * @param symmetry  The symmetry that transforms the position into its canonical orientation.
+     * @param boardSize The size of the board.
+     */
+    private CanonicalPosition(long hash, Symmetry symmetry, int boardSize) {
+        this.hash = hash;
+        this.symmetry = symmetry;
+        this.boardSize = boardSize;
+    }
+
+    /**
+     * This method calculates the canonical orientation of a GamePosition.
+     *
+     * @param gamePosition The GamePosition.
+     *
+     * @return The CanonicalPosition of the GamePosition.
+     */
+    public static CanonicalPosition of(GamePosition gamePosition) {
+        return of(gamePosition.getBoard(), gamePosition.getCurrentPlayer());
+    }
+
+    /**
+     * This method calculates the canonical orientation of a board where it is the turn of the given player.
+     *
+     * @param board  The board.
+     * @param player The player whose turn it is.
+     *
+     * @return The CanonicalPosition of the position.
+     *
+     * @throws IllegalArgumentException If the board is not a square or has more squares than can be hashed.
+     */
+    public static CanonicalPosition of(Board board, Player player) {
+        Symmetry symmetry = getKeySymmetry(keyOf(board, player));
+        int boardSize = board.getBoardWidth();
+
+        //The key misses the highest bits of the hash value, so the hash value is calculated again
+        int[] inverse = symmetry.inverse().getIndexTable(boardSize);
+        long hash = PositionHash.getPlayerKey(player);
+        for (int i = 0; i < boardSize * boardSize; i++) {
+            hash ^= PositionHash.getSquareKey(getSquareState(board, inverse[i]), i);
+        }
+
+        return new CanonicalPosition(hash, symmetry, boardSize);
+    }
+
+    /**
+     * This method calculates the canonical key of a board where it is the turn of the given player. Unlike
+     * of(Board, Player) it does not create any object, so it can be used at every node of a search.
+     *
+     * The key is the hash value in canonical orientation whose highest three bits are replaced by the ordinal of the
+     * symmetry. getKeyHash(long) returns the part of the key that is equal for all orientations of the position,
+     * getKeySymmetry(long) the symmetry that transforms the position into its canonical orientation. The key also
+     * contains the size of the board, so positions of different board sizes sharing a transposition table never have
+     * the same key. Keys are not compatible with getHash(), so they must not be stored in opening books.
+     *
+     * @param board  The board.
+     * @param player The player whose turn it is.
+     *
+     * @return The canonical key of the position.
+     *
+     * @throws IllegalArgumentException If the board is not a square or has more squares than can be hashed.
+     */
+    public static long keyOf(Board board, Player player) {
+        int boardSize = board.getBoardWidth();
+        int numberOfSquares = boardSize * boardSize;
+
+        if (board.getBoardHeight() != boardSize) {
+            throw new IllegalArgumentException("Only square boards have symmetries");
+        }
+        if (numberOfSquares > PositionHash.getMaxSquares()) {
+            throw new IllegalArgumentException("Board with " + numberOfSquares + " squares can not be hashed");
+        }
+
+        if (numberOfSquares == BITBOARD_SQUARES) {
+            return keyOfBitboards(board, player);
+        }
+
+        return keyOfSquares(board, player);
+    }
+
+    /**
+     * This method returns the part of a canonical key that is equal for all orientations of a position.
+     *
+     * @param key The key returned by keyOf(Board, Player).
+     *
+     * @return The hash value in canonical orientation without its highest three bits.
+     */
+    public static long getKeyHash(long key) {
+        return key & ~(-1L << SYMMETRY_SHIFT);
+    }
+
+    /**
+     * This method returns the symmetry that transforms the position of a canonical key into its canonical orientation.
+     *
+     * @param key The key returned by keyOf(Board, Player).
+     *
+     * @return The symmetry.
+     */
+    public static Symmetry getKeySymmetry(long key) {
+        return SYMMETRIES[(int) (key >>> SYMMETRY_SHIFT)];
+    }
+
+    /**
+     * This method calculates the canonical key of an 8x8 board with the bit operations of the symmetries.
+     *
+     * @param board  The board.
+     * @param player The player whose turn it is.
+     *
+     * @return The canonical key of the position.
+     */
+    private static long keyOfBitboards(Board board, Player player) {
+        long black = 0L;
+        long white = 0L;
+
+        for (int i = 0; i < BITBOARD_SQUARES; i++) {
+            SquareState squareState = board.getSquareState(i & 7, i >>> 3);
+            if (squareState == SquareState.BLACK) {
+                black |= 1L << i;
+            } else if (squareState == SquareState.WHITE) {
+                white |= 1L << i;
+            }
+        }
+
+        //Find the orientation with the smallest pieces, adding MIN_VALUE makes the signed comparison unsigned
+        Symmetry bestSymmetry = Symmetry.IDENTITY;
+        long bestBlack = black;
+        long bestWhite = white;
+        for (int s = 1; s < SYMMETRIES.length; s++) {
+            long transformedBlack = SYMMETRIES[s].transform(black);
+            long transformedWhite = SYMMETRIES[s].transform(white);
+
+            if (transformedBlack + Long.MIN_VALUE < bestBlack + Long.MIN_VALUE ||
+                    (transformedBlack == bestBlack && transformedWhite + Long.MIN_VALUE < bestWhite + Long.MIN_VALUE)) {
+                bestSymmetry = SYMMETRIES[s];
+                bestBlack = transformedBlack;
+                bestWhite = transformedWhite;
+            }
+        }
+
+        //Hash the canonical orientation the same way PositionHash hashes a board
+        long hash = PositionHash.getPlayerKey(player) ^ PositionHash.getBoardSizeKey(board.getBoardWidth());
+        for (long pieces = bestBlack; pieces != 0L; pieces &= pieces - 1) {
+            hash ^= PositionHash.getSquareKey(SquareState.BLACK, Long.numberOfTrailingZeros(pieces));
+        }
+        for (long pieces = bestWhite; pieces != 0L; pieces &= pieces - 1) {
+            hash ^= PositionHash.getSquareKey(SquareState.WHITE, Long.numberOfTrailingZeros(pieces));
+        }
+
+        return getKeyHash(hash) | (long) bestSymmetry.ordinal() << SYMMETRY_SHIFT;
+    }
+
+    /**
+     * This method calculates the canonical key of a board of any size with the index tables of the symmetries.
+     *
+     * @param board  The board.
+     * @param player The player whose turn it is.
+     *
+     * @return The canonical key of the position.
+     */
+    private static long keyOfSquares(Board board, Player player) {
+        int boardSize = board.getBoardWidth();
+        int numberOfSquares = boardSize * boardSize;
+
+        //The transformed board contains at index j the square inverse.transformIndex(j) of the board
+        Symmetry bestSymmetry = Symmetry.IDENTITY;
+        int[] bestInverse = Symmetry.IDENTITY.getIndexTable(boardSize);
+        for (int s = 1; s < SYMMETRIES.length; s++) {
+            int[] inverse = SYMMETRIES[s].inverse().getIndexTable(boardSize);
+
+            int comparison = compare(board, inverse, bestInverse, SquareState.BLACK);
+            if (comparison == 0) {
+                comparison = compare(board, inverse, bestInverse, SquareState.WHITE);
+            }
+
+            if (comparison < 0) {
+                bestSymmetry = SYMMETRIES[s];
+                bestInverse = inverse;
+            }
+        }
+
+        long hash = PositionHash.getPlayerKey(player) ^ PositionHash.getBoardSizeKey(boardSize);
+        for (int i = 0; i < numberOfSquares; i++) {
+            hash ^= PositionHash.getSquareKey(getSquareState(board, bestInverse[i]), i);
+        }
+
+        return getKeyHash(hash) | (long) bestSymmetry.ordinal() << SYMMETRY_SHIFT;
+    }
+
+    /**
+     * This method compares the pieces of a player of two orientations of a board. The squares with the highest index
+     * are compared first, the orientation without a piece on the first different square is smaller.
+     *
+     * @param board         The board in original orientation.
+     * @param firstInverse  The inverse index table of the first orientation.
+     * @param secondInverse The inverse index table of the second orientation.
+     * @param squareState   The SquareState of the pieces that should be compared.
+     *
+     * @return A negative value if the first orientation is smaller, a positive value if it is larger, otherwise 0.
+     */
+    private static int compare(Board board, int[] firstInverse, int[] secondInverse, SquareState squareState) {
+        for (int i = firstInverse.length - 1; i >= 0; i--) {
+            boolean first = getSquareState(board, firstInverse[i]) == squareState;
+            boolean second = getSquareState(board, secondInverse[i]) == squareState;
+
+            if (first != second) {
+                return first ? 1 : -1;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * This method returns the SquareState of a square of a square board.
+     *
+     * @param board       The board.
+     * @param squareIndex The index of the square, the squares are numbered row by row.
+     *
+     * @return The SquareState of the square.
+     */
+    private static SquareState getSquareState(Board board, int squareIndex) {
+        int boardSize = board.getBoardWidth();
+
+        return board.getSquareState(squareIndex % boardSize, squareIndex / boardSize);
+    }
+
+    /**
+     * This method returns the 64 bit hash value of the position in canonical orientation. For a position that already
+     * is in canonical orientation it is equal to the hash value of PositionHash.
+     *
+     * @return The hash value.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * This method returns the symmetry that transforms the position into its canonical orientation.
+     *
+     * @return The symmetry.
+     */
+    public Symmetry getSymmetry() {
+        return symmetry;
+    }
+
+    /**
+     * This method transforms the index of a square of the position into the index in canonical orientation.
+     *
+     * @param squareIndex The index of the square, the squares are numbered row by row.
+     *
+     * @return The index of the square in canonical orientation.
+     */
+    public int toCanonicalIndex(int squareIndex) {
+        return symmetry.transformIndex(squareIndex, boardSize);
+    }
+
+    /**
+     * This method transforms the index of a square in canonical orientation into the index of the position.
+     *
+     * @param canonicalIndex The index of the square in canonical orientation.
+     *
+     * @return The index of the square of the position.
+     */
+    public int fromCanonicalIndex(int canonicalIndex) {
+        return symmetry.inverse().transformIndex(canonicalIndex, boardSize);
+    }
+
+    /**
+     * This method transforms a GameMove of the position into canonical orientation.
+     *
+     * @param gameMove The GameMove of the position.
+     *
+     * @return The GameMove in canonical orientation, null if the GameMove is null.
+     */
+    public GameMove toCanonical(GameMove gameMove) {
+        return symmetry.transform(gameMove);
+    }
+
+    /**
+     * This method transforms a GameMove in canonical orientation into a GameMove of the position.
+     *
+     * @param canonicalMove The GameMove in canonical orientation.
+     *
+     * @return The GameMove of the position, null if the GameMove is null.
+     */
+    public GameMove fromCanonical(GameMove canonicalMove) {
+        return symmetry.inverse().transform(canonicalMove);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        CanonicalPosition that = (CanonicalPosition) o;
+
+        return hash == that.hash && boardSize == that.boardSize;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "CanonicalPosition{" +
+                "hash=" + Long.toHexString(hash) +
+                ", symmetry=" + symmetry +
+                '}';
+    }
+}
@@ -33,6 +33,8 @@ package reversi.board;
 /**
  * This class Represents a GameMove made by any player.
  *
+ * There is only one GameMove for every Square, it is obtained by valueOf(Square).
+ *
  * @author Sascha Lutzenberger
  * @version 1.0 - 22. May 2016
  */
@@ -41,14 +43,29 @@ public final class GameMove {
     private final Square square;
 
     /**
-     * Constructor of GameMove.
+     * Constructor of GameMove. It is only called by the Square the GameMove belongs to.
      *
      * @param square The square of the game move.
      */
-    public GameMove(Square square) {
+    GameMove(Square square) {
         this.square = square;
     }
 
+    /**
+     * This method returns the GameMove to a square.
+     *
+     * @param square The square of the game move.
+     *
+     * @return The GameMove to the square, null if the square is null.
+     */
+    public static GameMove valueOf(Square square) {
+        if (square == null) {
+            return null;
+        }
+
+        return square.getGameMove();
+    }
+
     /**
      * This method returns the square where the player wants to move to.
      *
@@ -58,6 +75,25 @@ public final class GameMove {
         return square;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        GameMove gameMove = (GameMove) o;
+
+        return square.equals(gameMove.square);
+    }
+
+    @Override
+    public int hashCode() {
+        return square.hashCode();
+    }
+
     @Override
     public String toString() {
         return "GameMove{" +
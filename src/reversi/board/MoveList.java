@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.board;
+
+import java.util.Arrays;
+
+/**
+ * A MoveList is a reusable buffer of moves. Every move is stored as the index of its square, the squares are numbered
+ * row by row: index = y * boardWidth + x.
+ *
+ * A MoveList is filled by Board.getLegalMoves(Player, MoveList) without creating any objects, so the same MoveList
+ * can be used again and again during a search. The board also stores the squares every move flips, so that
+ * Board.makeMove(MoveList, int, Player) only has to write them.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 16. August 2016
+ */
+public final class MoveList {
+    //The value of the number of flips of a move whose flips are not known
+    public static final int UNKNOWN_FLIPS = -1;
+
+    //The square indices of the moves
+    private final int[] moves;
+    //The position of the first flip of every move in the flips array
+    private final int[] flipOffsets;
+    //The number of flips of every move or UNKNOWN_FLIPS
+    private final int[] flipCounts;
+    //The square indices of the flips of all moves, it grows if it is too small
+    private int[] flips;
+    //The number of moves in the list
+    private int size = 0;
+    //The number of used elements of the flips array
+    private int flipSize = 0;
+
+    /**
+     * Constructor of a MoveList.
+     *
+     * @param capacity The maximal number of moves, the number of squares of the board is always enough.
+     */
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+        flipOffsets = new int[capacity];
+        flipCounts = new int[capacity];
+        flips = new int[capacity * 4];
+    }
+
+    /**
+     * This method returns the maximal number of moves of the list.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return moves.length;
+    }
+
+    /**
+     * This method returns the number of moves in the list.
+     *
+     * @return The number of moves.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This method checks if the list contains no moves.
+     *
+     * @return true if there is no move in the list.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * This method returns the square index of a move.
+     *
+     * @param i The position of the move in the list.
+     *
+     * @return The square index of the move.
+     */
+    public int get(int i) {
+        return moves[i];
+    }
+
+    /**
+     * This method returns the number of pieces a move flips.
+     *
+     * @param i The position of the move in the list.
+     *
+     * @return The number of flips or UNKNOWN_FLIPS if the move was added without its flips.
+     */
+    public int getNumberOfFlips(int i) {
+        return flipCounts[i];
+    }
+
+    /**
+     * This method returns the square index of a piece a move flips.
+     *
+     * @param i          The position of the move in the list.
+     * @param flipNumber The number of the flip, from 0 to getNumberOfFlips(i) - 1.
+     *
+     * @return The square index of the flipped piece.
+     */
+    public int getFlip(int i, int flipNumber) {
+        return flips[flipOffsets[i] + flipNumber];
+    }
+
+    /**
+     * This method adds a move at the end of the list without its flips.
+     *
+     * @param squareIndex The square index of the move.
+     */
+    public void add(int squareIndex) {
+        flipOffsets[size] = flipSize;
+        flipCounts[size] = UNKNOWN_FLIPS;
+        moves[size++] = squareIndex;
+    }
+
+    /**
+     * This method makes sure that there is enough space for the flips of the next move and returns the array the flips
+     * have to be written to, starting at getFlipSize().
+     *
+     * @param maximalNumberOfFlips The maximal number of flips of the next move.
+     *
+     * @return The array the flips have to be written to.
+     */
+    int[] reserveFlips(int maximalNumberOfFlips) {
+        if (flipSize + maximalNumberOfFlips > flips.length) {
+            flips = Arrays.copyOf(flips, Math.max(flips.length * 2, flipSize + maximalNumberOfFlips));
+        }
+
+        return flips;
+    }
+
+    /**
+     * This method returns the position in the flips array where the flips of the next move start.
+     *
+     * @return The number of used elements of the flips array.
+     */
+    int getFlipSize() {
+        return flipSize;
+    }
+
+    /**
+     * This method adds a move at the end of the list whose flips were written to the array returned by
+     * reserveFlips(int) starting at getFlipSize().
+     *
+     * @param squareIndex   The square index of the move.
+     * @param numberOfFlips The number of flips of the move.
+     */
+    void add(int squareIndex, int numberOfFlips) {
+        flipOffsets[size] = flipSize;
+        flipCounts[size] = numberOfFlips;
+        moves[size++] = squareIndex;
+        flipSize += numberOfFlips;
+    }
+
+    /**
+     * This method removes all moves from the list.
+     */
+    public void clear() {
+        size = 0;
+        flipSize = 0;
+    }
+
+    /**
+     * This method moves the move with the given square index to the front of the list. The order of the other moves
+     * does not change.
+     *
+     * @param squareIndex The square index of the move.
+     *
+     * @return true if the move is in the list.
+     */
+    public boolean moveToFront(int squareIndex) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == squareIndex) {
+                int flipOffset = flipOffsets[i];
+                int flipCount = flipCounts[i];
+
+                System.arraycopy(moves, 0, moves, 1, i);
+                System.arraycopy(flipOffsets, 0, flipOffsets, 1, i);
+                System.arraycopy(flipCounts, 0, flipCounts, 1, i);
+                moves[0] = squareIndex;
+                flipOffsets[0] = flipOffset;
+                flipCounts[0] = flipCount;
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * This method sorts the moves by a weight of their squares, the move with the highest weight first. Moves with
+     * the same weight keep their order.
+     *
+     * @param squareWeights The weight of every square indexed by the square index.
+     */
+    public void sortByWeight(int[] squareWeights) {
+        //Insertion sort, there are only a few moves and it does not need any objects
+        for (int i = 1; i < size; i++) {
+            int move = moves[i];
+            int flipOffset = flipOffsets[i];
+            int flipCount = flipCounts[i];
+            int weight = squareWeights[move];
+
+            int j = i - 1;
+            while (j >= 0 && squareWeights[moves[j]] < weight) {
+                moves[j + 1] = moves[j];
+                flipOffsets[j + 1] = flipOffsets[j];
+                flipCounts[j + 1] = flipCounts[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            flipOffsets[j + 1] = flipOffset;
+            flipCounts[j + 1] = flipCount;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("MoveList{");
+
+        for (int i = 0; i < size; i++) {
+            builder.append((i == 0) ? "" : ", ").append(moves[i]);
+        }
+
+        return builder.append('}').toString();
+    }
+}
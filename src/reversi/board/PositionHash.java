@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.board;
+
+import reversi.player.Player;
+
+import java.util.Random;
+
+/**
+ * This class calculates 64 bit Zobrist hash values of positions.
+ *
+ * Every occupied square contributes a random key depending on its position and its SquareState, the player whose turn
+ * it is contributes another key. Two equal positions always have the same hash value, two different positions have the
+ * same hash value only with a negligible probability, so the hash value can be used as key for transposition tables.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 02. August 2016
+ */
+public final class PositionHash {
+    //The largest number of squares a board can have so that it can be hashed
+    private static final int MAX_SQUARES = 16 * 16;
+    //The seed of the random keys, a fixed seed is used so that hash values are the same in every program run
+    private static final long SEED = 0x5EED20160522L;
+    //The random keys of all squares for every square state, indexed by [SquareState.ordinal()][square index]
+    private static final long[][] SQUARE_KEYS = new long[SquareState.values().length][MAX_SQUARES];
+    //The random keys of the player whose turn it is, indexed by Player.ordinal()
+    private static final long[] PLAYER_KEYS = new long[Player.values().length];
+    //The random keys of the board sizes, indexed by the size of a square board
+    private static final long[] BOARD_SIZE_KEYS = new long[(int) Math.sqrt(MAX_SQUARES) + 1];
+
+    static {
+        Random random = new Random(SEED);
+
+        //An empty square does not contribute anything to the hash value, so the keys of EMPTY stay 0
+        for (SquareState squareState : SquareState.values()) {
+            if (squareState == SquareState.EMPTY) {
+                continue;
+            }
+
+            for (int i = 0; i < MAX_SQUARES; i++) {
+                SQUARE_KEYS[squareState.ordinal()][i] = random.nextLong();
+            }
+        }
+
+        for (Player player : Player.values()) {
+            PLAYER_KEYS[player.ordinal()] = random.nextLong();
+        }
+
+        //The keys of the board sizes are drawn last, so that the keys of the squares and players stay the same
+        for (int i = 0; i < BOARD_SIZE_KEYS.length; i++) {
+            BOARD_SIZE_KEYS[i] = random.nextLong();
+        }
+    }
+
+    private PositionHash() {
+        //This class should not be instantiated
+    }
+
+    /**
+     * This method calculates the hash value of a GamePosition.
+     *
+     * @param gamePosition The GamePosition that should be hashed.
+     *
+     * @return The 64 bit hash value of the GamePosition.
+     */
+    public static long hash(GamePosition gamePosition) {
+        return hash(gamePosition.getBoard(), gamePosition.getCurrentPlayer());
+    }
+
+    /**
+     * This method calculates the hash value of a board where it is the turn of the given player.
+     *
+     * @param board  The board that should be hashed.
+     * @param player The player whose turn it is.
+     *
+     * @return The 64 bit hash value of the position.
+     *
+     * @throws IllegalArgumentException If the board has more squares than can be hashed.
+     */
+    public static long hash(Board board, Player player) {
+        int boardWidth = board.getBoardWidth();
+        int boardHeight = board.getBoardHeight();
+
+        if (boardWidth * boardHeight > MAX_SQUARES) {
+            throw new IllegalArgumentException("Board with " + (boardWidth * boardHeight) +
+                    " squares can not be hashed");
+        }
+
+        long hash = PLAYER_KEYS[player.ordinal()];
+
+        //The squares are numbered row by row (A1, B1, C1, ... A2, B2, ...)
+        for (int y = 0; y < boardHeight; y++) {
+            for (int x = 0; x < boardWidth; x++) {
+                SquareState squareState = board.getSquareState(x, y);
+                hash ^= SQUARE_KEYS[squareState.ordinal()][y * boardWidth + x];
+            }
+        }
+
+        return hash;
+    }
+
+    /**
+     * This method returns the largest number of squares a board can have so that it can be hashed.
+     *
+     * @return The largest number of squares.
+     */
+    static int getMaxSquares() {
+        return MAX_SQUARES;
+    }
+
+    /**
+     * This method returns the key a square contributes to the hash value.
+     *
+     * @param squareState The SquareState of the square.
+     * @param squareIndex The index of the square, the squares are numbered row by row.
+     *
+     * @return The key of the square.
+     */
+    static long getSquareKey(SquareState squareState, int squareIndex) {
+        return SQUARE_KEYS[squareState.ordinal()][squareIndex];
+    }
+
+    /**
+     * This method returns the key the player whose turn it is contributes to the hash value.
+     *
+     * @param player The player whose turn it is.
+     *
+     * @return The key of the player.
+     */
+    static long getPlayerKey(Player player) {
+        return PLAYER_KEYS[player.ordinal()];
+    }
+
+    /**
+     * This method returns the key the size of a square board contributes to the canonical keys of CanonicalPosition.
+     * The hash values of this class do not contain it, so the hash values stored in opening books stay valid.
+     *
+     * @param boardSize The size of the square board.
+     *
+     * @return The key of the board size.
+     */
+    static long getBoardSizeKey(int boardSize) {
+        return BOARD_SIZE_KEYS[boardSize];
+    }
+}
@@ -47,57 +47,106 @@ import java.util.List;
  * @version 1.0 - 22. May 2016
  */
 public class ReversiBoard implements Board {
-    private final static int BOARD_SIZE;
-
-    static {
-        //Load board size from configuration
-        ReversiGameConfiguration configuration = ReversiGameConfiguration.getInstance();
-        //Load a board size from the configuration, if no value is available use 8 as default size
-        String sBoardSize = configuration.getProperty(ReversiGameConfiguration.BOARD_SIZE, "8");
-        BOARD_SIZE = Integer.parseInt(sBoardSize);
-    }
-
-    //The squares of the board
-    private final Square[][] squares;
+    //The size of a new board, loaded once from the configuration
+    private final static int BOARD_SIZE = ReversiGameConfiguration.getInstance().getSnapshot().getBoardSize();
+
+    //The SquareStates indexed by their ordinal, which is the value stored for a square
+    private final static SquareState[] SQUARE_STATES = SquareState.values();
+    //The values of the SquareStates stored for a square
+    private final static byte EMPTY = (byte) SquareState.EMPTY.ordinal();
+    //The change in the x and y direction of the eight directions a move can flip pieces in
+    private final static int[] DIRECTIONS_X = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private final static int[] DIRECTIONS_Y = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    //The size of this board
+    private final int boardSize;
+    //The shared Squares of boards of this size, indexed by the square index (y * boardSize + x)
+    private final Square[] boardSquares;
+    //The SquareState of every square as the ordinal of the SquareState, indexed by the square index
+    private final byte[] squares;
 
     public ReversiBoard() {
-        //initialize the array
-        squares = new Square[BOARD_SIZE][BOARD_SIZE];
+        this(BOARD_SIZE);
 
-        //create all squares as empty squares
-        initializeBoard();
         //set the start position to the board
         setUpStartPosition();
     }
 
     /**
-     * This method is initializing the ReversiBoard so that every Square of the ReversiBoard contains at least an
-     * empty square.
+     * Constructor to create a ReversiBoard with a given arrangement of pieces. This is used when positions are loaded
+     * from outside of a running game (e.g. from a file of positions that should be analysed).
+     *
+     * @param squareStates The SquareStates of the board, indexed by [x][y].
+     *
+     * @throws IllegalArgumentException If the array is not square.
      */
-    private void initializeBoard() {
-        //iterates over the array and initializes each element with an empty square
-        for (int x = 0; x < squares.length; x++) {
-            for (int y = 0; y < squares[x].length; y++) {
-                //Create a new Square and assign it to the ReversiBoard
-                Square square = new Square(x, y, SquareState.EMPTY);
-                squares[x][y] = square;
+    public ReversiBoard(SquareState[][] squareStates) {
+        this(squareStates.length);
+
+        //set the given square states to the squares
+        for (int x = 0; x < boardSize; x++) {
+            if (squareStates[x].length != boardSize) {
+                throw new IllegalArgumentException("The board has to be a square, but column " + x + " has " +
+                        squareStates[x].length + " instead of " + boardSize + " squares");
+            }
+
+            for (int y = 0; y < boardSize; y++) {
+                //A null SquareState leaves the square empty
+                if (squareStates[x][y] != null) {
+                    squares[y * boardSize + x] = (byte) squareStates[x][y].ordinal();
+                }
             }
         }
     }
 
+    /**
+     * Constructor to create an empty ReversiBoard of a given size.
+     *
+     * @param boardSize The size of the board.
+     */
+    private ReversiBoard(int boardSize) {
+        //All squares of a new array are empty squares
+        this(boardSize, Square.getSquares(boardSize), new byte[boardSize * boardSize]);
+    }
+
+    /**
+     * Constructor to create a ReversiBoard from the states of its squares.
+     *
+     * @param boardSize    The size of the board.
+     * @param boardSquares The shared Squares of boards of this size.
+     * @param squares      The SquareStates of the squares, the array is owned by the new board.
+     */
+    private ReversiBoard(int boardSize, Square[] boardSquares, byte[] squares) {
+        this.boardSize = boardSize;
+        this.boardSquares = boardSquares;
+        this.squares = squares;
+    }
+
     /**
      * This method is setting up the start position of any reversi game.
      */
     private void setUpStartPosition() {
         //calculates the coordinates of the center of the board
-        int x = (BOARD_SIZE / 2) - 1;
-        int y = (BOARD_SIZE / 2) - 1;
+        int x = (boardSize / 2) - 1;
+        int y = (boardSize / 2) - 1;
 
         //set the four center squares of the board to the Reversi start position
-        squares[x][y].setSquareState(SquareState.WHITE);
-        squares[x][y + 1].setSquareState(SquareState.BLACK);
-        squares[x + 1][y].setSquareState(SquareState.BLACK);
-        squares[x + 1][y + 1].setSquareState(SquareState.WHITE);
+        setSquareState(x, y, SquareState.WHITE);
+        setSquareState(x, y + 1, SquareState.BLACK);
+        setSquareState(x + 1, y, SquareState.BLACK);
+        setSquareState(x + 1, y + 1, SquareState.WHITE);
+    }
+
+    /**
+     * This method changes the SquareState of a square. It may only be used while a board is created, because any
+     * ReversiBoard should be immutable.
+     *
+     * @param xPosition   The x-Position of the square.
+     * @param yPosition   The y-Position of the square.
+     * @param squareState The new SquareState of the square.
+     */
+    private void setSquareState(int xPosition, int yPosition, SquareState squareState) {
+        squares[yPosition * boardSize + xPosition] = (byte) squareState.ordinal();
     }
 
     /**
@@ -107,7 +156,7 @@ public class ReversiBoard implements Board {
      */
     @Override
     public int getBoardHeight() {
-        return BOARD_SIZE;
+        return boardSize;
     }
 
     /**
@@ -117,7 +166,7 @@ public class ReversiBoard implements Board {
      */
     @Override
     public int getBoardWidth() {
-        return BOARD_SIZE;
+        return boardSize;
     }
 
     /**
@@ -146,19 +195,15 @@ public class ReversiBoard implements Board {
      */
     @Override
     public int countPieces(Player player) {
-        //Get the square state of the player
-        SquareState squareState = player.getSquareState();
+        //Get the value of the square state of the player
+        byte squareState = (byte) player.getSquareState().ordinal();
 
         //count the pieces of the player by iterating over all elements
         int numberOfPieces = 0;
-        for (int x = 0; x < squares.length; x++) {
-            for (int y = 0; y < squares[x].length; y++) {
-                Square square = squares[x][y];
-
-                //if SquareState matches the SquareState of the player increase the numberOfPieces by 1
-                if (square.getSquareState() == squareState) {
-                    numberOfPieces = numberOfPieces + 1;
-                }
+        for (int i = 0; i < squares.length; i++) {
+            //if SquareState matches the SquareState of the player increase the numberOfPieces by 1
+            if (squares[i] == squareState) {
+                numberOfPieces = numberOfPieces + 1;
             }
         }
 
@@ -176,7 +221,12 @@ public class ReversiBoard implements Board {
      */
     @Override
     public SquareState getSquareState(int xPosition, int yPosition) {
-        return getSquare(xPosition, yPosition).getSquareState();
+        //Squares outside of the board do not exist
+        if (getSquare(xPosition, yPosition) == null) {
+            throw new IndexOutOfBoundsException("The square " + xPosition + "/" + yPosition + " is not on the board");
+        }
+
+        return SQUARE_STATES[squares[yPosition * boardSize + xPosition]];
     }
 
     /**
@@ -188,10 +238,16 @@ public class ReversiBoard implements Board {
      */
     @Override
     public boolean hasAnyLegalMoves(Player player) {
-        //gets all legal moves for a player and then checks if list is not empty
-        List<GameMove> legalMoves = getAllLegalMoves(player);
+        //Stop searching as soon as the first legal move is found
+        for (int x = 0; x < boardSize; x++) {
+            for (int y = 0; y < boardSize; y++) {
+                if (isLegalMove(x, y, player)) {
+                    return true;
+                }
+            }
+        }
 
-        return !(legalMoves.isEmpty());
+        return false;
     }
 
     /**
@@ -231,16 +287,13 @@ public class ReversiBoard implements Board {
             return false;
         }
 
-        //Get the square of the game move.
+        //Get the square of the game move, a square of a board of another size can not be a legal move.
         Square square = gameMove.getSquare();
-
-        //If square is not an empty square move is illegal.
-        if (!isEmptySquare(square)) {
+        if (square.getBoardSize() != boardSize) {
             return false;
         }
 
-        //checks if the move would encapsulate at least one piece of the opponent.
-        return encapsulatesOpponentsSquare(square, player);
+        return isLegalMove(square.getXPosition(), square.getYPosition(), player);
     }
 
     /**
@@ -254,21 +307,11 @@ public class ReversiBoard implements Board {
     public List<GameMove> getAllLegalMoves(Player player) {
         List<GameMove> legalMoveList = new ArrayList<>();
 
-        //Iterate over all squares to check if there is any legal move.
-        for (int x = 0; x < squares.length; x++) {
-            for (int y = 0; y < squares[x].length; y++) {
-                //The square of the board.
-                Square square = squares[x][y];
-
-                //Make sure only the empty squares are checked.
-                if (!isEmptySquare(square)) {
-                    continue;
-                }
-
-                //If the GameMove is legal add it to the list otherwise do not add the GameMove to the list.
-                GameMove gameMove = new GameMove(square);
-                if (isMoveLegal(gameMove, player)) {
-                    legalMoveList.add(gameMove);
+        //Get the GameMove of every legal move in the same order as getLegalMoves(Player, MoveList)
+        for (int x = 0; x < boardSize; x++) {
+            for (int y = 0; y < boardSize; y++) {
+                if (isLegalMove(x, y, player)) {
+                    legalMoveList.add(GameMove.valueOf(boardSquares[y * boardSize + x]));
                 }
             }
         }
@@ -277,261 +320,287 @@ public class ReversiBoard implements Board {
     }
 
     /**
-     * This method makes any move and returns a new GamePosition.
+     * This method fills a MoveList with all the legal moves of a player and the pieces they flip without creating any
+     * objects.
      *
-     * @param move The move that should be made.
-     * @param player The player whose move should be made
+     * @param player   The player whose legal moves should be returned.
+     * @param moveList The MoveList that should be filled, all moves in it before are removed.
      *
-     * @return A new GamePosition representing the new state of the game.
+     * @return The number of legal moves.
      */
     @Override
-    public GamePosition makeMove(GameMove move, Player player) {
-        //The next Board
-        ReversiBoard nextBoard = this;
-        //The next player whose turn it is.
-        Player nextPlayer = player;
-
-        //Check if move is valid
-        if (isMoveLegal(move, player)) {
-            //Create a new board because any ReversiBoard should be immutable.
-            nextBoard = new ReversiBoard();
-
-            //Set the SquareStates to the new board
-            for (int x = 0; x < nextBoard.squares.length; x++) {
-                for (int y = 0; y < nextBoard.squares[x].length; y++) {
-                    //Set the same square state to the new board.
-                    nextBoard.squares[x][y].setSquareState(squares[x][y].getSquareState());
-                }
-            }
+    public int getLegalMoves(Player player, MoveList moveList) {
+        moveList.clear();
 
-            //Get the Square of the GameMove and then the x and y Position of the square
-            Square square = move.getSquare();
-            int x = square.getXPosition();
-            int y = square.getYPosition();
+        byte ownSquareState = (byte) player.getSquareState().ordinal();
+        byte opponentSquareState = (byte) player.getOpponent().getSquareState().ordinal();
 
-            //Set the square to the square of the new player
-            nextBoard.squares[x][y].setSquareState(player.getSquareState());
-
-            //flip the disks
-            flipPieces(square, player, nextBoard);
+        //Iterate over all squares, a move is legal if it flips any pieces.
+        for (int x = 0; x < boardSize; x++) {
+            for (int y = 0; y < boardSize; y++) {
+                if (squares[y * boardSize + x] != EMPTY) {
+                    continue;
+                }
 
-            //change the player
-            nextPlayer = player.getOpponent();
-            boolean changePlayer = nextBoard.hasAnyLegalMoves(nextPlayer);
-            if (!changePlayer) {
-                nextPlayer = nextPlayer.getOpponent();
+                //No move can flip more than the squares of all eight directions
+                int[] flips = moveList.reserveFlips(DIRECTIONS_X.length * boardSize);
+                int numberOfFlips = collectFlips(x, y, ownSquareState, opponentSquareState, flips,
+                        moveList.getFlipSize());
+                if (numberOfFlips > 0) {
+                    moveList.add(y * boardSize + x, numberOfFlips);
+                }
             }
         }
 
-        return new GamePosition(nextBoard, nextPlayer);
+        return moveList.size();
     }
 
     /**
-     * This method returns a square at a given position.
+     * This method counts the legal moves of a player without creating any objects.
      *
-     * @param xPosition The x-Position of a square.
-     * @param yPosition The y-Position of a square.
+     * @param player The player whose legal moves should be counted.
      *
-     * @return The Square at a given position. null if no square is available at that position.
+     * @return The number of legal moves.
      */
     @Override
-    public Square getSquare(int xPosition, int yPosition) {
-        Square square = null;
-
-        try {
-            square = squares[xPosition][yPosition];
-        } catch (IndexOutOfBoundsException e) {
-            //Nothing that can be done here
+    public int countLegalMoves(Player player) {
+        int numberOfMoves = 0;
+
+        //Iterate over all squares and count the legal moves.
+        for (int x = 0; x < boardSize; x++) {
+            for (int y = 0; y < boardSize; y++) {
+                if (isLegalMove(x, y, player)) {
+                    numberOfMoves++;
+                }
+            }
         }
 
-        return square;
+        return numberOfMoves;
     }
 
     /**
-     * This method checks if an opponents square is encapsulated.
+     * This method makes any move and returns a new GamePosition. The flips are collected like for the moves of a
+     * MoveList, so every direction is only walked once, and then written to a copy of the board.
      *
-     * @param square The square that should encapsulate an opponents square.
-     * @param player The player whose turn it is.
+     * @param move The move that should be made.
+     * @param player The player whose move should be made
      *
-     * @return true if the square encapsulates an opponents square - false if not
+     * @return A new GamePosition representing the new state of the game.
      */
-    private boolean encapsulatesOpponentsSquare(Square square, Player player) {
-        //get the x and y position of the square
-        int xPosition = square.getXPosition();
-        int yPosition = square.getYPosition();
+    @Override
+    public GamePosition makeMove(GameMove move, Player player) {
+        //If game move or the square of the game move is null move can not be legal. Same for the player.
+        if (move == null || move.getSquare() == null || player == null) {
+            return new GamePosition(this, player);
+        }
 
-        boolean result = false;
+        //A square of a board of another size or a square that is not empty can not be a legal move.
+        Square square = move.getSquare();
+        if (square.getBoardSize() != boardSize || squares[square.getSquareIndex()] != EMPTY) {
+            return new GamePosition(this, player);
+        }
 
-        //This loop checks in all directions
-        //dx is  the change in x direction
-        for (int dx = -1; dx <= 1; dx++) {
-            //dy is the change in y direction
-            for (int dy = -1; dy <= 1; dy++) {
-                //if there is no change continue the loop
-                if (dx == 0 && dy == 0) {
-                    continue;
-                }
+        //Collect the flips, if no disk is flipped the move is not legal and the board does not change.
+        byte ownSquareState = (byte) player.getSquareState().ordinal();
+        byte opponentSquareState = (byte) player.getOpponent().getSquareState().ordinal();
+        int[] flips = new int[DIRECTIONS_X.length * boardSize];
+        int numberOfFlips = collectFlips(square.getXPosition(), square.getYPosition(), ownSquareState,
+                opponentSquareState, flips, 0);
+        if (numberOfFlips == 0) {
+            return new GamePosition(this, player);
+        }
 
-                //In one direction an opponent square has to be encapsulated.
-                result = result || encapsulatesOpponentSquareInDirection(xPosition, yPosition, dx, dy, player);
-            }
+        //Create a copy of the board because any ReversiBoard should be immutable.
+        byte[] nextSquares = squares.clone();
+
+        //Set the square and all flipped squares to the square of the player
+        nextSquares[square.getSquareIndex()] = ownSquareState;
+        for (int i = 0; i < numberOfFlips; i++) {
+            nextSquares[flips[i]] = ownSquareState;
         }
 
-        return result;
+        return createNextPosition(nextSquares, player);
     }
 
     /**
-     * This method flips all the pieces if an opponents square is encapsulated.
+     * This method makes a move of a MoveList that was filled by getLegalMoves(Player, MoveList) of this board for the
+     * same player. The flips of the move are known already, so they are just written to the new board.
      *
-     * @param square The square that encapsulates the opponents squares.
-     * @param player The player whose turn it is.
-     * @param reversiBoard The board where the pieces should be flipped
+     * @param moveList   The MoveList containing the move.
+     * @param moveNumber The position of the move in the MoveList.
+     * @param player     The player whose move should be made.
+     *
+     * @return A new GamePosition representing the new state of the game.
      */
-    private void flipPieces(Square square, Player player, ReversiBoard reversiBoard) {
-        //get the x and y position of the square
-        int xPosition = square.getXPosition();
-        int yPosition = square.getYPosition();
-
-        //This loop checks in all directions
-        //dx is the change in the x direction
-        for (int dx = -1; dx <= 1; dx++) {
-            //dy is the change in the y direction
-            for (int dy = -1; dy <= 1; dy++) {
-                //if there is no change continue the loop
-                if (dx == 0 && dy == 0) {
-                    continue;
-                }
+    @Override
+    public GamePosition makeMove(MoveList moveList, int moveNumber, Player player) {
+        int squareIndex = moveList.get(moveNumber);
+        int numberOfFlips = moveList.getNumberOfFlips(moveNumber);
 
-                //If an opponents square is encapsulated in this direction than flip the pieces in that direction
-                if (encapsulatesOpponentSquareInDirection(xPosition, yPosition, dx, dy, player)) {
-                    flipOpponentsPiecesInDirection(xPosition, yPosition, dx, dy, player, reversiBoard);
-                }
-            }
+        //A move whose flips are not known has to be checked like any other GameMove
+        if (numberOfFlips == MoveList.UNKNOWN_FLIPS) {
+            return makeMove(GameMove.valueOf(boardSquares[squareIndex]), player);
         }
+
+        //Create a copy of the board because any ReversiBoard should be immutable.
+        byte[] nextSquares = squares.clone();
+
+        //Set the square and all flipped squares to the square of the player
+        byte ownSquareState = (byte) player.getSquareState().ordinal();
+        nextSquares[squareIndex] = ownSquareState;
+        for (int i = 0; i < numberOfFlips; i++) {
+            nextSquares[moveList.getFlip(moveNumber, i)] = ownSquareState;
+        }
+
+        return createNextPosition(nextSquares, player);
     }
 
     /**
-     * This method checks if an opponents square encapsulates opponent squares at a given position.
+     * This method creates the GamePosition after a move was made. It is the turn of the opponent unless the opponent
+     * has no legal move.
      *
-     * @param xPosition The x-Position of the square.
-     * @param yPosition The y-Position of the square.
-     * @param dx        The change in the x direction.
-     * @param dy        The change in the y direction.
-     * @param player    The player whose turn it is.
-     * @return true if an opponents square is encapsulated in that direction.
+     * @param nextSquares The squares of the board after the move.
+     * @param player      The player who made the move.
+     *
+     * @return The GamePosition after the move.
      */
-    private boolean encapsulatesOpponentSquareInDirection(int xPosition, int yPosition, int dx, int dy, Player player) {
-        //result must be false in the beginning
-        boolean result = false;
-        //no opponent square can be encapsulated in the beginning
-        boolean opponentSquare = false;
-        //The current square
-        Square square;
-        //Iterate over all squares in that direction if an square is null end the loop
-        while ((square = getSquare(xPosition + dx, yPosition + dy)) != null) {
-            //If the square is empty end the loop because then no opponents square will be encapsulated
-            if (isEmptySquare(square)) {
-                break;
-            }
-            //If the square is an opponents square set opponents square true
-            if (isOpponentsSquare(square, player)) {
-                opponentSquare = true;
-                //if the square is then an own square result can only be true if an opponents square was found earlier.
-                //and the loop will be left here because after that square no further encapsulation is possible.
-            } else if (isOwnSquare(square, player)) {
-                if (opponentSquare) {
-                    result = true;
-                }
-
-                break;
-            }
-
-            //Change the xPosition and the yPosition so that the next square can be evaluated.
-            xPosition = xPosition + dx;
-            yPosition = yPosition + dy;
+    private GamePosition createNextPosition(byte[] nextSquares, Player player) {
+        ReversiBoard nextBoard = new ReversiBoard(boardSize, boardSquares, nextSquares);
+
+        //change the player
+        Player nextPlayer = player.getOpponent();
+        boolean changePlayer = nextBoard.hasAnyLegalMoves(nextPlayer);
+        if (!changePlayer) {
+            nextPlayer = nextPlayer.getOpponent();
         }
 
-        return result;
+        return new GamePosition(nextBoard, nextPlayer);
     }
 
     /**
-     * This method flips all the pieces in a given direction to the pieces of the given player. There won't be any
-     * check if this is legal because encapsulatesOpponentsSquareInDirection(int, int, int, int, Player) should be
-     * called first to check if that is legal.
+     * This method returns a square at a given position.
      *
-     * @param xPosition The x-Position of the square.
-     * @param yPosition The y-Position of the square.
-     * @param dx The change in the x direction.
-     * @param dy The change in the y direction.
-     * @param player The player whose turn it is.
-     * @param reversiBoard The board where the pieces should be flipped.
+     * @param xPosition The x-Position of a square.
+     * @param yPosition The y-Position of a square.
+     *
+     * @return The Square at a given position. null if no square is available at that position.
      */
-    private void flipOpponentsPiecesInDirection(int xPosition, int yPosition, int dx, int dy,
-                                                Player player, ReversiBoard reversiBoard) {
-        Square square;
-        //While the square states of the squares do not match the current player's square state change them to the
-        //current player's square state
-        while ((square = reversiBoard.getSquare(xPosition + dx, yPosition + dy)).getSquareState()
-                != player.getSquareState()) {
-            //Change the Square state to the own square state
-            square.setSquareState(player.getSquareState());
-
-            //Change the xPosition and the yPosition, so that the next square can be evaluated.
-            xPosition = xPosition + dx;
-            yPosition = yPosition + dy;
+    @Override
+    public Square getSquare(int xPosition, int yPosition) {
+        //Squares outside of the board do not exist, this is checked without exceptions because it happens very often
+        if (xPosition < 0 || xPosition >= boardSize || yPosition < 0 || yPosition >= boardSize) {
+            return null;
         }
+
+        return boardSquares[yPosition * boardSize + xPosition];
     }
 
     /**
-     * This method checks if an square is an empty square.
+     * This method checks if a move to a square is legal for a player.
      *
-     * @param square The square that should be checked.
+     * @param xPosition The x-Position of the square.
+     * @param yPosition The y-Position of the square.
+     * @param player    The player whose move should be checked.
      *
-     * @return true if the square is an empty square - false if the square is not an empty square.
+     * @return true if the square is empty and the move would encapsulate at least one piece of the opponent.
      */
-    private boolean isEmptySquare(Square square) {
-        //if square is null square can not be empty
-        if (square == null) {
+    private boolean isLegalMove(int xPosition, int yPosition, Player player) {
+        //If square is not an empty square move is illegal.
+        if (squares[yPosition * boardSize + xPosition] != EMPTY) {
             return false;
         }
 
-        return square.getSquareState() == SquareState.EMPTY;
+        byte ownSquareState = (byte) player.getSquareState().ordinal();
+        byte opponentSquareState = (byte) player.getOpponent().getSquareState().ordinal();
+
+        //In one direction an opponent square has to be encapsulated, then no other direction has to be checked.
+        for (int direction = 0; direction < DIRECTIONS_X.length; direction++) {
+            if (countFlipsInDirection(xPosition, yPosition, DIRECTIONS_X[direction], DIRECTIONS_Y[direction],
+                    ownSquareState, opponentSquareState) > 0) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
     /**
-     * This method checks if an square is an own square.
+     * This method counts the pieces of the opponent a move would flip in one direction. The pieces are only flipped if
+     * they are encapsulated by an own piece.
      *
-     * @param square The square that should be checked.
-     * @param player The current player from whose view it should be checked.
+     * @param xPosition           The x-Position of the square of the move.
+     * @param yPosition           The y-Position of the square of the move.
+     * @param dx                  The change in the x direction.
+     * @param dy                  The change in the y direction.
+     * @param ownSquareState      The value of the SquareState of the player whose turn it is.
+     * @param opponentSquareState The value of the SquareState of the opponent.
      *
-     * @return true if the square is an own square - false if the square is not an own square
+     * @return The number of pieces that would be flipped in that direction.
      */
-    private boolean isOwnSquare(Square square, Player player) {
-        //get the opponent and check if the square is an opponents square (i.e. check if it is an own square)
-        return isOpponentsSquare(square, player.getOpponent());
+    private int countFlipsInDirection(int xPosition, int yPosition, int dx, int dy,
+                                      byte ownSquareState, byte opponentSquareState) {
+        int x = xPosition + dx;
+        int y = yPosition + dy;
+        int numberOfFlips = 0;
+
+        //Walk over the pieces of the opponent in that direction
+        while (x >= 0 && x < boardSize && y >= 0 && y < boardSize
+                && squares[y * boardSize + x] == opponentSquareState) {
+            numberOfFlips++;
+            x = x + dx;
+            y = y + dy;
+        }
+
+        //The pieces are only encapsulated if the next square is an own square
+        if (x >= 0 && x < boardSize && y >= 0 && y < boardSize && squares[y * boardSize + x] == ownSquareState) {
+            return numberOfFlips;
+        }
+
+        return 0;
     }
 
     /**
-     * This method checks if a square is an opponents square.
+     * This method writes the square indices of all pieces a move would flip to an array.
      *
-     * @param square The square that should be checked.
-     * @param player The current player from whose view it should be checked.
+     * @param xPosition           The x-Position of the square of the move.
+     * @param yPosition           The y-Position of the square of the move.
+     * @param ownSquareState      The value of the SquareState of the player whose turn it is.
+     * @param opponentSquareState The value of the SquareState of the opponent.
+     * @param flips               The array the square indices are written to.
+     * @param offset              The position in the array where the first square index is written to.
      *
-     * @return true if the square is an opponents square - false if the square is not an opponents square.
+     * @return The number of flipped pieces, 0 if the move is not legal.
      */
-    private boolean isOpponentsSquare(Square square, Player player) {
-        //If square or player is null square can not be an opponents square
-        if (square == null || player == null) {
-            return false;
+    private int collectFlips(int xPosition, int yPosition, byte ownSquareState, byte opponentSquareState,
+                             int[] flips, int offset) {
+        int numberOfFlips = 0;
+
+        for (int direction = 0; direction < DIRECTIONS_X.length; direction++) {
+            int dx = DIRECTIONS_X[direction];
+            int dy = DIRECTIONS_Y[direction];
+            int x = xPosition + dx;
+            int y = yPosition + dy;
+            int numberOfFlipsInDirection = 0;
+
+            //Write the pieces of the opponent behind the flips of the other directions while walking over them
+            while (x >= 0 && x < boardSize && y >= 0 && y < boardSize
+                    && squares[y * boardSize + x] == opponentSquareState) {
+                flips[offset + numberOfFlips + numberOfFlipsInDirection++] = y * boardSize + x;
+                x = x + dx;
+                y = y + dy;
+            }
+
+            //The written pieces are only kept if they are encapsulated by an own piece, otherwise they are overwritten
+            if (x >= 0 && x < boardSize && y >= 0 && y < boardSize && squares[y * boardSize + x] == ownSquareState) {
+                numberOfFlips = numberOfFlips + numberOfFlipsInDirection;
+            }
         }
 
-        //Get the opponent and then check if the square state matches.
-        Player opponent = player.getOpponent();
-        return square.getSquareState() == opponent.getSquareState();
+        return numberOfFlips;
     }
 
     /**
-     * Checks if the board is equal. Any board can just be equal if the squares array is equal.
+     * Checks if the board is equal. Any board can just be equal if the size and the states of all squares are equal.
      *
      * @param o The object that should be checked for equality.
      *
@@ -548,20 +617,24 @@ public class ReversiBoard implements Board {
 
         ReversiBoard that = (ReversiBoard) o;
 
-        //Deep equals check is only true of Square.equals(square) returns true.
-        return Arrays.deepEquals(squares, that.squares);
-
+        return boardSize == that.boardSize && Arrays.equals(squares, that.squares);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return Arrays.hashCode(squares);
     }
 
     @Override
     public String toString() {
+        //Write the squares row by row like the TextPositionReader reads them
+        StringBuilder builder = new StringBuilder(squares.length);
+        for (byte squareState : squares) {
+            builder.append(squareState == EMPTY ? '-' : SQUARE_STATES[squareState] == SquareState.BLACK ? 'X' : 'O');
+        }
+
         return "ReversiBoard{" +
-                "squares=" + Arrays.toString(squares) +
+                "squares=" + builder +
                 '}';
     }
 }
\ No newline at end of file
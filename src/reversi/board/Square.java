@@ -30,57 +30,92 @@
  */
 package reversi.board;
 
-import reversi.game.ReversiGameConfiguration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * This class represents a square on the reversi board
  *
+ * Any Square is immutable and there is only one instance for every position on a board of a given size. The instances
+ * are obtained by valueOf(int, int, int), the state of a square is stored by the Board itself.
+ *
  * @author Sascha Lutzenberger
  * @version 1.0 - 22. May 2016
  */
 public final class Square {
-    //The configuration of a reversi game.
-    private static final ReversiGameConfiguration configuration = ReversiGameConfiguration.getInstance();
+    //The Squares of every board size, indexed by the square index (y * boardSize + x)
+    private static final ConcurrentMap<Integer, Square[]> SQUARES = new ConcurrentHashMap<>();
+
     //The x-position of the Square on the board
     private final int xPosition;
     //The y-position of the Square on the board
     private final int yPosition;
-    //The square state of the square
-    private SquareState squareState;
+    //The size of the board the Square belongs to
+    private final int boardSize;
+    //The only GameMove to this Square
+    private final GameMove gameMove;
 
     /**
      * Constructor to create a new Square.
      *
      * @param xPosition The x-position of the Square on the board
      * @param yPosition The y-position of the Square on the board
+     * @param boardSize The size of the board the Square belongs to
      */
-    Square(int xPosition, int yPosition) {
-        //Calls the other constructor assuming the square state is empty
-        this(xPosition, yPosition, SquareState.EMPTY);
+    private Square(int xPosition, int yPosition, int boardSize) {
+        this.xPosition = xPosition;
+        this.yPosition = yPosition;
+        this.boardSize = boardSize;
+        this.gameMove = new GameMove(this);
     }
 
     /**
-     * Constructor to create a new Square with a given SquareState.
+     * This method returns the Square at a given position of a board of a given size.
+     *
+     * @param xPosition The x-position of the Square on the board.
+     * @param yPosition The y-position of the Square on the board.
+     * @param boardSize The size of the board the Square belongs to.
      *
-     * @param xPosition   The x-position of the Square on the board.
-     * @param yPosition   The y-position of the Square on the board.
-     * @param squareState The SquareState of the square on the board.
+     * @return The Square at the given position.
+     *
+     * @throws IllegalArgumentException If the position is not on a board of the given size.
      */
-    Square(int xPosition, int yPosition, SquareState squareState) {
-        this.xPosition = xPosition;
-        this.yPosition = yPosition;
-        this.squareState = squareState;
+    public static Square valueOf(int xPosition, int yPosition, int boardSize) {
+        if (xPosition < 0 || xPosition >= boardSize || yPosition < 0 || yPosition >= boardSize) {
+            throw new IllegalArgumentException("The square " + xPosition + "/" + yPosition +
+                    " is not on a board of size " + boardSize);
+        }
+
+        return getSquares(boardSize)[yPosition * boardSize + xPosition];
     }
 
     /**
-     * This method returns the size of the board loaded from the configuration.
+     * This method returns all Squares of a board of a given size. The array is shared and must not be changed.
+     *
+     * @param boardSize The size of the board.
      *
-     * @return The board size.
+     * @return The Squares of the board indexed by the square index (y * boardSize + x).
      */
-    private static int getBoardSize() {
-        String sBoardSize = configuration.getProperty(ReversiGameConfiguration.BOARD_SIZE, "8");
+    static Square[] getSquares(int boardSize) {
+        Square[] squares = SQUARES.get(boardSize);
+
+        //Create the Squares the first time a board of that size is used
+        if (squares == null) {
+            squares = new Square[boardSize * boardSize];
+            for (int y = 0; y < boardSize; y++) {
+                for (int x = 0; x < boardSize; x++) {
+                    squares[y * boardSize + x] = new Square(x, y, boardSize);
+                }
+            }
+
+            //If another thread was faster its Squares are used, so that there is only one instance per position
+            Square[] existingSquares = SQUARES.putIfAbsent(boardSize, squares);
+            if (existingSquares != null) {
+                squares = existingSquares;
+            }
+        }
 
-        return Integer.parseInt(sBoardSize);
+        return squares;
     }
 
     /**
@@ -98,24 +133,12 @@ public final class Square {
     }
 
     /**
-     * This method returns the SquareState of the square.
+     * This method returns the GameMove to this square.
      *
-     * @return The SquareState of the square.
+     * @return The GameMove to this square.
      */
-    public SquareState getSquareState() {
-        return squareState;
-    }
-
-    /**
-     * This method allows it to modify the square state.
-     *
-     * @param squareState The SquareState to which the SquareState should be changed to.
-     */
-    void setSquareState(SquareState squareState) {
-        //If squareState exists set the square state to the new square state.
-        if (squareState != null) {
-            this.squareState = squareState;
-        }
+    GameMove getGameMove() {
+        return gameMove;
     }
 
     /**
@@ -124,9 +147,6 @@ public final class Square {
      * @return true if the square is a corner square - false if not.
      */
     public boolean isCornerSquare() {
-        //Get the size of the board
-        int boardSize = getBoardSize();
-
         //check if the square is on the right position ot be a corner square
         return (xPosition == 0 && yPosition == 0) ||
                 (xPosition == 0 && (yPosition + 1) == boardSize) ||
@@ -140,9 +160,6 @@ public final class Square {
      * @return true if the square is an edge square - false if not.
      */
     public boolean isEdgeSquare() {
-        //Get the size of the board
-        int boardSize = getBoardSize();
-
         //Check if the square is on the right position ot be an edge square
         return (xPosition == 0) || (yPosition == 0) || ((xPosition + 1) == boardSize) || ((yPosition + 1) == boardSize);
     }
@@ -165,9 +182,28 @@ public final class Square {
         return this.yPosition;
     }
 
+    /**
+     * This method returns the index of the square on the board (y * boardSize + x).
+     *
+     * @return The index of the square on the board.
+     */
+    public int getSquareIndex() {
+        return yPosition * boardSize + xPosition;
+    }
+
+    /**
+     * This method returns the size of the board the square belongs to.
+     *
+     * @return The size of the board.
+     */
+    public int getBoardSize() {
+        return boardSize;
+    }
+
     /**
      * Checks if a Square is equal. Any Square can just be equal if the x and y Position of a square and the
-     * state of a square  are equal
+     * size of the board are equal. Because there is only one instance for every position this is usually the same
+     * object.
      *
      * @param o The object that should be checked for equality.
      *
@@ -184,22 +220,12 @@ public final class Square {
 
         Square square = (Square) o;
 
-        if (xPosition != square.xPosition) {
-            return false;
-        }
-        if (yPosition != square.yPosition) {
-            return false;
-        }
-        return squareState == square.squareState;
-
+        return xPosition == square.xPosition && yPosition == square.yPosition && boardSize == square.boardSize;
     }
 
     @Override
     public int hashCode() {
-        int result = xPosition;
-        result = 31 * result + yPosition;
-        result = 31 * result + squareState.hashCode();
-        return result;
+        return getSquareIndex();
     }
 
     @Override
@@ -207,7 +233,6 @@ public final class Square {
         return "Square{" +
                 "xPosition=" + xPosition +
                 ", yPosition=" + yPosition +
-                ", squareState=" + squareState +
                 '}';
     }
 }
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.board;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An Enumeration containing the eight symmetries of a square board: the four rotations and the four reflections.
+ * Positions that can be transformed into each other by a symmetry are equally good for the player whose turn it is,
+ * and the best moves are transformed the same way.
+ *
+ * The squares of a board of any size are transformed with an index table per board size. The 64 squares of an 8x8
+ * board can also be stored in the bits of a long (bit y * 8 + x), which is transformed by a few bit operations.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 20. August 2016
+ */
+public enum Symmetry {
+    //The board is not changed
+    IDENTITY {
+        @Override
+        int transformX(int xPosition, int yPosition, int last) {
+            return xPosition;
+        }
+
+        @Override
+        int transformY(int xPosition, int yPosition, int last) {
+            return yPosition;
+        }
+
+        @Override
+        public long transform(long bitboard) {
+            return bitboard;
+        }
+    },
+    //The board is rotated by 90 degrees: A1 becomes H1
+    ROTATE_90 {
+        @Override
+        int transformX(int xPosition, int yPosition, int last) {
+            return last - yPosition;
+        }
+
+        @Override
+        int transformY(int xPosition, int yPosition, int last) {
+            return xPosition;
+        }
+
+        @Override
+        public long transform(long bitboard) {
+            return mirrorHorizontal(flipDiagonal(bitboard));
+        }
+    },
+    //The board is rotated by 180 degrees: A1 becomes H8
+    ROTATE_180 {
+        @Override
+        int transformX(int xPosition, int yPosition, int last) {
+            return last - xPosition;
+        }
+
+        @Override
+        int transformY(int xPosition, int yPosition, int last) {
+            return last - yPosition;
+        }
+
+        @Override
+        public long transform(long bitboard) {
+            return Long.reverse(bitboard);
+        }
+    },
+    //The board is rotated by 270 degrees: A1 becomes A8
+    ROTATE_270 {
+        @Override
+        int transformX(int xPosition, int yPosition, int last) {
+            return yPosition;
+        }
+
+        @Override
+        int transformY(int xPosition, int yPosition, int last) {
+            return last - xPosition;
+        }
+
+        @Override
+        public long transform(long bitboard) {
+            return Long.reverseBytes(flipDiagonal(bitboard));
+        }
+    },
+    //The columns are mirrored: A1 becomes H1 and A8 becomes H8
+    MIRROR_HORIZONTAL {
+        @Override
+        int transformX(int xPosition, int yPosition, int last) {
+            return last - xPosition;
+        }
+
+        @Override
+        int transformY(int xPosition, int yPosition, int last) {
+            return yPosition;
+        }
+
+        @Override
+        public long transform(long bitboard) {
+            return mirrorHorizontal(bitboard);
+        }
+    },
+    //The rows are mirrored: A1 becomes A8 and H1 becomes H8
+    FLIP_VERTICAL {
+        @Override
+        int transformX(int xPosition, int yPosition, int last) {
+            return xPosition;
+        }
+
+        @Override
+        int transformY(int xPosition, int yPosition, int last) {
+            return last - yPosition;
+        }
+
+        @Override
+        public long transform(long bitboard) {
+            return Long.reverseBytes(bitboard);
+        }
+    },
+    //The board is mirrored at the diagonal from A1 to H8: B1 becomes A2
+    FLIP_DIAGONAL {
+        @Override
+        int transformX(int xPosition, int yPosition, int last) {
+            return yPosition;
+        }
+
+        @Override
+        int transformY(int xPosition, int yPosition, int last) {
+            return xPosition;
+        }
+
+        @Override
+        public long transform(long bitboard) {
+            return flipDiagonal(bitboard);
+        }
+    },
+    //The board is mirrored at the diagonal from H1 to A8: A1 becomes H8 and G1 becomes H2
+    FLIP_ANTI_DIAGONAL {
+        @Override
+        int transformX(int xPosition, int yPosition, int last) {
+            return last - yPosition;
+        }
+
+        @Override
+        int transformY(int xPosition, int yPosition, int last) {
+            return last - xPosition;
+        }
+
+        @Override
+        public long transform(long bitboard) {
+            return Long.reverse(flipDiagonal(bitboard));
+        }
+    };
+
+    //The index tables of all board sizes that were used so far, indexed by [Symmetry.ordinal()][square index]
+    private static final ConcurrentMap<Integer, int[][]> INDEX_TABLES = new ConcurrentHashMap<>();
+
+    /**
+     * This method returns the x-Position of a transformed square.
+     *
+     * @param xPosition The x-Position of the square.
+     * @param yPosition The y-Position of the square.
+     * @param last      The last x- and y-Position of the board (board size - 1).
+     *
+     * @return The x-Position of the transformed square.
+     */
+    abstract int transformX(int xPosition, int yPosition, int last);
+
+    /**
+     * This method returns the y-Position of a transformed square.
+     *
+     * @param xPosition The x-Position of the square.
+     * @param yPosition The y-Position of the square.
+     * @param last      The last x- and y-Position of the board (board size - 1).
+     *
+     * @return The y-Position of the transformed square.
+     */
+    abstract int transformY(int xPosition, int yPosition, int last);
+
+    /**
+     * This method transforms the squares of an 8x8 board that are stored in the bits of a long, bit y * 8 + x is the
+     * square at x/y.
+     *
+     * @param bitboard The squares of the board.
+     *
+     * @return The transformed squares.
+     */
+    public abstract long transform(long bitboard);
+
+    /**
+     * This method returns the symmetry that reverses this symmetry.
+     *
+     * @return The inverse symmetry.
+     */
+    public Symmetry inverse() {
+        switch (this) {
+            case ROTATE_90:
+                return ROTATE_270;
+            case ROTATE_270:
+                return ROTATE_90;
+            default:
+                //All other symmetries reverse themselves
+                return this;
+        }
+    }
+
+    /**
+     * This method transforms the index of a square (y * boardSize + x).
+     *
+     * @param squareIndex The index of the square.
+     * @param boardSize   The size of the board.
+     *
+     * @return The index of the transformed square.
+     */
+    public int transformIndex(int squareIndex, int boardSize) {
+        return getIndexTable(boardSize)[squareIndex];
+    }
+
+    /**
+     * This method transforms a Square.
+     *
+     * @param square The Square that should be transformed.
+     *
+     * @return The transformed Square of a board of the same size.
+     */
+    public Square transform(Square square) {
+        int last = square.getBoardSize() - 1;
+        int xPosition = square.getXPosition();
+        int yPosition = square.getYPosition();
+
+        return Square.valueOf(transformX(xPosition, yPosition, last), transformY(xPosition, yPosition, last),
+                square.getBoardSize());
+    }
+
+    /**
+     * This method transforms a GameMove.
+     *
+     * @param gameMove The GameMove that should be transformed.
+     *
+     * @return The transformed GameMove, null if the GameMove is null.
+     */
+    public GameMove transform(GameMove gameMove) {
+        if (gameMove == null) {
+            return null;
+        }
+
+        return GameMove.valueOf(transform(gameMove.getSquare()));
+    }
+
+    /**
+     * This method returns the table of the transformed square indices of a board size. The array is shared and must
+     * not be changed.
+     *
+     * @param boardSize The size of the board.
+     *
+     * @return The transformed square index of every square index.
+     */
+    int[] getIndexTable(int boardSize) {
+        int[][] indexTables = INDEX_TABLES.get(boardSize);
+
+        //Create the tables of all symmetries the first time a board size is used
+        if (indexTables == null) {
+            int last = boardSize - 1;
+            indexTables = new int[values().length][boardSize * boardSize];
+
+            for (Symmetry symmetry : values()) {
+                for (int y = 0; y < boardSize; y++) {
+                    for (int x = 0; x < boardSize; x++) {
+                        indexTables[symmetry.ordinal()][y * boardSize + x] =
+                                symmetry.transformY(x, y, last) * boardSize + symmetry.transformX(x, y, last);
+                    }
+                }
+            }
+
+            //If another thread was faster its tables are used, both are equal anyway
+            int[][] existingTables = INDEX_TABLES.putIfAbsent(boardSize, indexTables);
+            if (existingTables != null) {
+                indexTables = existingTables;
+            }
+        }
+
+        return indexTables[ordinal()];
+    }
+
+    /**
+     * This method mirrors the columns of an 8x8 bitboard by swapping neighbouring bits, pairs and nibbles.
+     *
+     * @param bitboard The squares of the board.
+     *
+     * @return The mirrored squares.
+     */
+    private static long mirrorHorizontal(long bitboard) {
+        bitboard = ((bitboard >>> 1) & 0x5555555555555555L) | ((bitboard & 0x5555555555555555L) << 1);
+        bitboard = ((bitboard >>> 2) & 0x3333333333333333L) | ((bitboard & 0x3333333333333333L) << 2);
+        bitboard = ((bitboard >>> 4) & 0x0F0F0F0F0F0F0F0FL) | ((bitboard & 0x0F0F0F0F0F0F0F0FL) << 4);
+
+        return bitboard;
+    }
+
+    /**
+     * This method mirrors an 8x8 bitboard at the diagonal from A1 to H8 by swapping the 4x4, 2x2 and 1x1 blocks on
+     * both sides of the diagonal.
+     *
+     * @param bitboard The squares of the board.
+     *
+     * @return The mirrored squares.
+     */
+    private static long flipDiagonal(long bitboard) {
+        long t;
+
+        t = 0x0F0F0F0F00000000L & (bitboard ^ (bitboard << 28));
+        bitboard ^= t ^ (t >>> 28);
+        t = 0x3333000033330000L & (bitboard ^ (bitboard << 14));
+        bitboard ^= t ^ (t >>> 14);
+        t = 0x5500550055005500L & (bitboard ^ (bitboard << 7));
+        bitboard ^= t ^ (t >>> 7);
+
+        return bitboard;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.book;
+
+import reversi.board.GameMove;
+
+/**
+ * A BookMove is a move of the OpeningBook for one position. It contains the GameMove, the evaluation value of the move
+ * in the view of the player whose turn it is and how often the move was played or searched when the book was built.
+ *
+ * Any BookMove is immutable.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 20. August 2016
+ */
+public final class BookMove {
+    //The move in the orientation of the position it was looked up for
+    private final GameMove gameMove;
+    //The evaluation value of the move in the view of the player whose turn it is
+    private final int score;
+    //How often the move was played or searched when the book was built
+    private final int count;
+
+    /**
+     * Constructor of a BookMove.
+     *
+     * @param gameMove The GameMove.
+     * @param score    The evaluation value of the move.
+     * @param count    How often the move was played or searched.
+     */
+    BookMove(GameMove gameMove, int score, int count) {
+        this.gameMove = gameMove;
+        this.score = score;
+        this.count = count;
+    }
+
+    /**
+     * This method returns the GameMove in the orientation of the position it was looked up for.
+     *
+     * @return The GameMove.
+     */
+    public GameMove getGameMove() {
+        return gameMove;
+    }
+
+    /**
+     * This method returns the evaluation value of the move in the view of the player whose turn it is.
+     *
+     * @return The evaluation value.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * This method returns how often the move was played or searched when the book was built.
+     *
+     * @return The count of the move.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "BookMove{" +
+                "gameMove=" + gameMove +
+                ", score=" + score +
+                ", count=" + count +
+                '}';
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.book;
+
+import reversi.board.Board;
+import reversi.board.CanonicalPosition;
+import reversi.board.GameMove;
+import reversi.board.GamePosition;
+import reversi.board.Square;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * An OpeningBook contains the best known moves of positions at the beginning of a game, so the computer does not have
+ * to search them.
+ *
+ * The book file is memory-mapped and never loaded into the heap. It starts with a header followed by records of fixed
+ * size, all values are stored big-endian:
+ *
+ * Header (16 bytes): int MAGIC, int VERSION, int board size, int number of records
+ * Record (20 bytes): long canonical hash, int score, int count, short canonical move index, short reserved
+ *
+ * The hash is the hash value of the CanonicalPosition and the move is stored in canonical orientation, so all
+ * orientations of a position share their records. The records are sorted by hash and then by descending score, so the
+ * moves of a position are found by binary search. Book files are written by the OpeningBookWriter.
+ *
+ * An OpeningBook is immutable and can be used by any number of threads at the same time.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 20. August 2016
+ */
+public final class OpeningBook {
+    //The first int of every book file ("RBOK")
+    static final int MAGIC = 0x52424F4B;
+    //The version of the file format
+    static final int VERSION = 1;
+    //The size of the header and of each record in bytes
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 20;
+    //The offsets of the values inside a record
+    private static final int HASH_OFFSET = 0;
+    private static final int SCORE_OFFSET = 8;
+    private static final int COUNT_OFFSET = 12;
+    private static final int MOVE_OFFSET = 16;
+
+    //The mapped file, only absolute reads are used so the buffer can be shared by all threads
+    private final ByteBuffer buffer;
+    //The size of the board of all positions of the book
+    private final int boardSize;
+    //The number of records of the book
+    private final int numberOfRecords;
+
+    /**
+     * Constructor of an OpeningBook.
+     *
+     * @param buffer          The mapped book file.
+     * @param boardSize       The size of the board of all positions.
+     * @param numberOfRecords The number of records.
+     */
+    private OpeningBook(ByteBuffer buffer, int boardSize, int numberOfRecords) {
+        this.buffer = buffer;
+        this.boardSize = boardSize;
+        this.numberOfRecords = numberOfRecords;
+    }
+
+    /**
+     * This method maps a book file into memory.
+     *
+     * @param file The book file.
+     *
+     * @return The OpeningBook of the file.
+     *
+     * @throws IOException If the file can not be read or is not a valid book file.
+     */
+    public static OpeningBook open(File file) throws IOException {
+        //The mapping stays valid after the file is closed
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            FileChannel channel = randomAccessFile.getChannel();
+            long fileSize = channel.size();
+
+            if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+                throw new IOException(file + " is not a valid opening book: invalid size " + fileSize);
+            }
+
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not an opening book");
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException(file + ": unsupported opening book version " + buffer.getInt(4));
+            }
+
+            int boardSize = buffer.getInt(8);
+            int numberOfRecords = buffer.getInt(12);
+            if (numberOfRecords < 0 || fileSize != HEADER_SIZE + (long) numberOfRecords * RECORD_SIZE) {
+                throw new IOException(file + " is not a valid opening book: " + numberOfRecords +
+                        " records do not match the size " + fileSize);
+            }
+
+            return new OpeningBook(buffer, boardSize, numberOfRecords);
+        }
+    }
+
+    /**
+     * This method returns the size of the board of all positions of the book.
+     *
+     * @return The size of the board.
+     */
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * This method returns the number of records of the book, one record for every move of every position.
+     *
+     * @return The number of records.
+     */
+    public int size() {
+        return numberOfRecords;
+    }
+
+    /**
+     * This method returns all moves of the book for a GamePosition.
+     *
+     * @param gamePosition The GamePosition.
+     *
+     * @return The moves sorted by descending score, an empty list if the position is not in the book.
+     */
+    public List<BookMove> getMoves(GamePosition gamePosition) {
+        Board board = gamePosition.getBoard();
+        if (board.getBoardWidth() != boardSize || board.getBoardHeight() != boardSize) {
+            return Collections.emptyList();
+        }
+
+        CanonicalPosition canonicalPosition = CanonicalPosition.of(gamePosition);
+        long hash = canonicalPosition.getHash();
+
+        List<BookMove> bookMoves = new ArrayList<>();
+        for (int record = findFirstRecord(hash); record < numberOfRecords && getHash(record) == hash; record++) {
+            int offset = HEADER_SIZE + record * RECORD_SIZE;
+            int moveIndex = canonicalPosition.fromCanonicalIndex(buffer.getShort(offset + MOVE_OFFSET));
+            Square square = board.getSquare(moveIndex % boardSize, moveIndex / boardSize);
+
+            bookMoves.add(new BookMove(GameMove.valueOf(square), buffer.getInt(offset + SCORE_OFFSET),
+                    buffer.getInt(offset + COUNT_OFFSET)));
+        }
+
+        return bookMoves;
+    }
+
+    /**
+     * This method chooses one of the best legal book moves of a GamePosition. All moves whose score is at most
+     * scoreWindow worse than the best score can be chosen, moves with a higher count are chosen more often.
+     *
+     * @param gamePosition The GamePosition.
+     * @param scoreWindow  How much worse than the best move a move may be to be chosen, 0 to choose only the best.
+     * @param random       The random generator used to choose the move.
+     *
+     * @return The chosen BookMove or null if the book contains no legal move of the position.
+     */
+    public BookMove chooseMove(GamePosition gamePosition, int scoreWindow, Random random) {
+        //The moves are sorted by score, so the first legal move is the best one
+        List<BookMove> candidates = new ArrayList<>();
+        long totalCount = 0;
+        for (BookMove bookMove : getMoves(gamePosition)) {
+            if (!gamePosition.getBoard().isMoveLegal(bookMove.getGameMove(), gamePosition.getCurrentPlayer())) {
+                continue;
+            }
+            if (!candidates.isEmpty() && (long) candidates.get(0).getScore() - bookMove.getScore() > scoreWindow) {
+                break;
+            }
+
+            candidates.add(bookMove);
+            totalCount += Math.max(1, bookMove.getCount());
+        }
+
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        //Every candidate is chosen with a probability proportional to its count
+        long choice = (long) (random.nextDouble() * totalCount);
+        for (BookMove candidate : candidates) {
+            choice -= Math.max(1, candidate.getCount());
+            if (choice < 0) {
+                return candidate;
+            }
+        }
+
+        return candidates.get(candidates.size() - 1);
+    }
+
+    /**
+     * This method finds the first record whose hash is not smaller than the given hash by binary search.
+     *
+     * @param hash The hash that should be found.
+     *
+     * @return The number of the first record with a hash greater or equal than the given hash.
+     */
+    private int findFirstRecord(long hash) {
+        int low = 0;
+        int high = numberOfRecords;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (getHash(middle) < hash) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * This method returns the hash of a record.
+     *
+     * @param record The number of the record.
+     *
+     * @return The canonical hash of the record.
+     */
+    private long getHash(int record) {
+        return buffer.getLong(HEADER_SIZE + record * RECORD_SIZE + HASH_OFFSET);
+    }
+
+    @Override
+    public String toString() {
+        return "OpeningBook{" +
+                "boardSize=" + boardSize +
+                ", numberOfRecords=" + numberOfRecords +
+                '}';
+    }
+}
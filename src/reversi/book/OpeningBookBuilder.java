@@ -0,0 +1,851 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.book;
+
+import reversi.actor.AlphaBetaActor;
+import reversi.actor.SearchMonitor;
+import reversi.actor.SearchResult;
+import reversi.actor.TranspositionTable;
+import reversi.board.Board;
+import reversi.board.CanonicalPosition;
+import reversi.board.GameMove;
+import reversi.board.GamePosition;
+import reversi.board.MoveList;
+import reversi.board.ReversiBoard;
+import reversi.board.SquareState;
+import reversi.player.Player;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The OpeningBookBuilder grows a tree of opening positions with drop-out expansion and exports it as OpeningBook.
+ *
+ * Every position of the tree is evaluated by a deep search of an AlphaBetaActor. The values of expanded positions are
+ * the negamax values of their children. The leaf that is expanded next is the one with the lowest expansion cost: the
+ * sum of how much worse than the best move every move on the path to the leaf is plus a fixed cost per move. So the
+ * tree grows along the best lines first, but alternatives that are only slightly worse are expanded as well.
+ *
+ * The leaves are expanded in batches, one leaf per worker. The children of all leaves of a batch are searched in
+ * parallel, the tree itself is only changed by the thread that called build(). Positions are identified by their
+ * CanonicalPosition, so transpositions and symmetric positions share one node.
+ *
+ * After every batch the tree can be written to a checkpoint file, a build that was stopped can be resumed from the last
+ * checkpoint.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 20. August 2016
+ */
+public class OpeningBookBuilder {
+    //The first int of every checkpoint file ("RBBT")
+    private static final int CHECKPOINT_MAGIC = 0x52424254;
+    //The version of the checkpoint format
+    private static final int CHECKPOINT_VERSION = 1;
+    //The expansion cost of positions that can not be expanded
+    private static final long UNEXPANDABLE = Long.MAX_VALUE;
+    //The move index of a position whose search did not find a move
+    private static final int NO_MOVE = -1;
+
+    //The number of threads searching positions in parallel
+    private final int numberOfWorkers;
+    //The depth every position is searched with
+    private final int depth;
+    //The table shared by all workers, null if no table should be used
+    private final TranspositionTable transpositionTable;
+    //The stream where the progress is reported
+    private final PrintStream log;
+
+    //The number of moves after which positions are no longer expanded
+    private int maximalPlies = 20;
+    //The expansion cost of every move, in evaluation units
+    private long plyCost = 1000;
+    //The file the tree is written to, null if no checkpoints should be written
+    private File checkpointFile;
+    //The time in milliseconds between two checkpoints
+    private long checkpointInterval = 10 * 60 * 1000;
+
+    //All nodes of the tree in the order they were created, the first one is the root
+    private final List<BookNode> nodes = new ArrayList<>();
+    //All nodes of the tree mapped by the hash of their CanonicalPosition
+    private final Map<Long, BookNode> nodesByHash = new HashMap<>();
+    //The number of expanded positions
+    private long expansions = 0;
+
+    /**
+     * Constructor of the OpeningBookBuilder.
+     *
+     * @param root               The position the book starts with, usually the start position.
+     * @param numberOfWorkers    The number of threads searching positions in parallel.
+     * @param depth              The depth every position should be searched with.
+     * @param transpositionTable The table shared by all workers, null if no table should be used.
+     * @param log                The stream where the progress should be reported.
+     */
+    public OpeningBookBuilder(GamePosition root, int numberOfWorkers, int depth, TranspositionTable transpositionTable,
+                              PrintStream log) {
+        if (numberOfWorkers <= 0) {
+            throw new IllegalArgumentException("At least one worker is needed");
+        }
+
+        this.numberOfWorkers = numberOfWorkers;
+        this.depth = depth;
+        this.transpositionTable = transpositionTable;
+        this.log = log;
+
+        BookNode rootNode = getOrCreateNode(root.getBoard(), root.getCurrentPlayer(), 0);
+        rootNode.cost = computeCost(rootNode);
+    }
+
+    /**
+     * This method sets the number of moves after which positions are no longer expanded.
+     *
+     * @param maximalPlies The maximal number of moves of the book lines.
+     */
+    public void setMaximalPlies(int maximalPlies) {
+        this.maximalPlies = maximalPlies;
+        recomputeCosts();
+    }
+
+    /**
+     * This method sets the expansion cost of every move. The higher the cost the broader the tree grows, the lower the
+     * cost the deeper the best lines grow.
+     *
+     * @param plyCost The cost of a move in evaluation units.
+     */
+    public void setPlyCost(long plyCost) {
+        this.plyCost = plyCost;
+        recomputeCosts();
+    }
+
+    /**
+     * This method sets the file the tree is written to while it is built.
+     *
+     * @param checkpointFile     The checkpoint file, null if no checkpoints should be written.
+     * @param checkpointInterval The time in milliseconds between two checkpoints.
+     */
+    public void setCheckpoint(File checkpointFile, long checkpointInterval) {
+        this.checkpointFile = checkpointFile;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * This method returns the number of positions of the tree.
+     *
+     * @return The number of positions.
+     */
+    public int getNumberOfPositions() {
+        return nodes.size();
+    }
+
+    /**
+     * This method returns the number of positions that were expanded.
+     *
+     * @return The number of expanded positions.
+     */
+    public long getExpansions() {
+        return expansions;
+    }
+
+    /**
+     * This method expands positions until the given number of positions is expanded or no position can be expanded
+     * anymore. A checkpoint is written when the interval has passed and when the build is finished.
+     *
+     * @param maximalExpansions The number of expanded positions after which the build stops.
+     *
+     * @throws IOException          If a checkpoint could not be written.
+     * @throws InterruptedException If the build was interrupted, the last checkpoint contains the tree of the last
+     *                              finished batch.
+     */
+    public void build(long maximalExpansions) throws IOException, InterruptedException {
+        //Every worker thread gets its own actor, because the search state of an actor is not thread safe
+        final ThreadLocal<AlphaBetaActor> actors = new ThreadLocal<AlphaBetaActor>() {
+            @Override
+            protected AlphaBetaActor initialValue() {
+                AlphaBetaActor actor = new AlphaBetaActor();
+                actor.setTranspositionTable(transpositionTable);
+                //The searches of the analysis must not change the statistics of the engine
+                actor.setSearchMonitor(SearchMonitor.getAnalysisInstance());
+                return actor;
+            }
+        };
+
+        ExecutorService workers = Executors.newFixedThreadPool(numberOfWorkers);
+        long startTime = System.nanoTime();
+        long lastCheckpoint = System.currentTimeMillis();
+
+        try {
+            while (expansions < maximalExpansions) {
+                //Select one leaf per worker, a selected leaf can not be selected again until it is expanded
+                List<BookNode> leaves = new ArrayList<>();
+                while (leaves.size() < numberOfWorkers && expansions + leaves.size() < maximalExpansions) {
+                    BookNode leaf = selectLeaf();
+                    if (leaf == null) {
+                        break;
+                    }
+
+                    leaf.isPending = true;
+                    update(leaf);
+                    leaves.add(leaf);
+                }
+
+                if (leaves.isEmpty()) {
+                    break;
+                }
+
+                //Create the children of all leaves and search the new ones in parallel
+                List<BookNode> newNodes = new ArrayList<>();
+                for (BookNode leaf : leaves) {
+                    createChildren(leaf, newNodes);
+                }
+
+                List<Future<SearchResult>> searches = new ArrayList<>();
+                for (BookNode newNode : newNodes) {
+                    final GamePosition position = new GamePosition(newNode.board, newNode.player);
+                    searches.add(workers.submit(new Callable<SearchResult>() {
+                        @Override
+                        public SearchResult call() {
+                            return actors.get().searchPosition(position, depth);
+                        }
+                    }));
+                }
+
+                for (int i = 0; i < newNodes.size(); i++) {
+                    BookNode newNode = newNodes.get(i);
+                    SearchResult result = getResult(searches.get(i));
+                    GameMove gameMove = result.getGameMove();
+
+                    newNode.value = result.getEvaluationValue();
+                    newNode.searchMove = (gameMove == null) ? NO_MOVE : gameMove.getSquare().getSquareIndex();
+                    newNode.cost = computeCost(newNode);
+                }
+
+                //Now all children have values, so the leaves are expanded and their values are propagated
+                for (BookNode leaf : leaves) {
+                    leaf.isPending = false;
+                    leaf.isExpanded = true;
+                    update(leaf);
+                }
+                expansions += leaves.size();
+
+                if (checkpointFile != null && System.currentTimeMillis() - lastCheckpoint >= checkpointInterval) {
+                    lastCheckpoint = System.currentTimeMillis();
+                    writeCheckpoint(checkpointFile);
+                    reportProgress(startTime);
+                }
+            }
+        } catch (InterruptedException ie) {
+            workers.shutdownNow();
+            throw ie;
+        } finally {
+            workers.shutdown();
+        }
+
+        if (checkpointFile != null) {
+            writeCheckpoint(checkpointFile);
+        }
+        reportProgress(startTime);
+    }
+
+    /**
+     * This method waits for the search of a position.
+     *
+     * @param search The running search.
+     *
+     * @return The SearchResult of the search.
+     *
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    private static SearchResult getResult(Future<SearchResult> search) throws InterruptedException {
+        try {
+            return search.get();
+        } catch (ExecutionException ee) {
+            throw new IllegalStateException("A position of the book could not be searched", ee.getCause());
+        }
+    }
+
+    /**
+     * This method selects the leaf with the lowest expansion cost by following the cheapest child from the root.
+     *
+     * @return The selected leaf or null if no position can be expanded.
+     */
+    private BookNode selectLeaf() {
+        BookNode node = nodes.get(0);
+        if (node.cost == UNEXPANDABLE) {
+            return null;
+        }
+
+        //Every position on the path is counted, so the book knows how often a line was extended
+        while (node.isExpanded) {
+            node.count++;
+
+            BookNode bestChild = null;
+            long bestCost = UNEXPANDABLE;
+            for (int i = 0; i < node.children.length; i++) {
+                long cost = getCostThroughChild(node, i);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestChild = node.children[i];
+                }
+            }
+
+            node = bestChild;
+        }
+        node.count++;
+
+        return node;
+    }
+
+    /**
+     * This method creates the children of a leaf. Children that are already part of the tree are linked only.
+     *
+     * @param leaf     The leaf whose children should be created.
+     * @param newNodes The list the newly created children are added to.
+     */
+    private void createChildren(BookNode leaf, List<BookNode> newNodes) {
+        MoveList legalMoves = new MoveList(leaf.board.getBoardWidth() * leaf.board.getBoardHeight());
+        leaf.board.getLegalMoves(leaf.player, legalMoves);
+
+        leaf.childMoves = new int[legalMoves.size()];
+        leaf.children = new BookNode[legalMoves.size()];
+        for (int i = 0; i < legalMoves.size(); i++) {
+            GamePosition nextPosition = leaf.board.makeMove(legalMoves, i, leaf.player);
+            int numberOfNodes = nodes.size();
+            BookNode child = getOrCreateNode(nextPosition.getBoard(), nextPosition.getCurrentPlayer(), leaf.ply + 1);
+
+            if (nodes.size() > numberOfNodes) {
+                newNodes.add(child);
+            }
+
+            leaf.childMoves[i] = legalMoves.get(i);
+            leaf.children[i] = child;
+            child.parents.add(leaf);
+        }
+    }
+
+    /**
+     * This method returns the node of a position and creates it if the position is not part of the tree yet.
+     *
+     * @param board  The board of the position.
+     * @param player The player whose turn it is.
+     * @param ply    The number of moves from the root to the position.
+     *
+     * @return The node of the position.
+     */
+    private BookNode getOrCreateNode(Board board, Player player, int ply) {
+        long hash = CanonicalPosition.of(board, player).getHash();
+        BookNode node = nodesByHash.get(hash);
+
+        if (node == null) {
+            node = new BookNode(board, player, ply);
+            nodes.add(node);
+            nodesByHash.put(hash, node);
+        }
+
+        return node;
+    }
+
+    /**
+     * This method recalculates the value and the expansion cost of a node and of all nodes above it whose value or
+     * cost changes.
+     *
+     * @param start The node that has changed.
+     */
+    private void update(BookNode start) {
+        Deque<BookNode> changedNodes = new ArrayDeque<>();
+        changedNodes.add(start);
+
+        while (!changedNodes.isEmpty()) {
+            BookNode node = changedNodes.poll();
+            int oldValue = node.value;
+            long oldCost = node.cost;
+
+            if (node.isExpanded) {
+                node.value = computeValue(node);
+            }
+            node.cost = computeCost(node);
+
+            if (node == start || node.value != oldValue || node.cost != oldCost) {
+                changedNodes.addAll(node.parents);
+            }
+        }
+    }
+
+    /**
+     * This method calculates the negamax value of an expanded node.
+     *
+     * @param node The expanded node.
+     *
+     * @return The value of the best child in the view of the player of the node.
+     */
+    private static int computeValue(BookNode node) {
+        int value = Integer.MIN_VALUE;
+
+        for (int i = 0; i < node.children.length; i++) {
+            value = Math.max(value, getChildValue(node, i));
+        }
+
+        return value;
+    }
+
+    /**
+     * This method calculates the expansion cost of a node, the cost of the cheapest leaf below it.
+     *
+     * @param node The node.
+     *
+     * @return The expansion cost or UNEXPANDABLE if no leaf below the node can be expanded.
+     */
+    private long computeCost(BookNode node) {
+        if (node.isPending) {
+            return UNEXPANDABLE;
+        }
+
+        if (!node.isExpanded) {
+            boolean isExpandable = node.ply < maximalPlies && node.board.hasAnyPlayerAnyLegalMoves();
+            return isExpandable ? 0 : UNEXPANDABLE;
+        }
+
+        long cost = UNEXPANDABLE;
+        for (int i = 0; i < node.children.length; i++) {
+            cost = Math.min(cost, getCostThroughChild(node, i));
+        }
+
+        return cost;
+    }
+
+    /**
+     * This method calculates the expansion cost of the cheapest leaf below a child: the cost of the child plus how much
+     * worse than the best move the move to the child is plus the cost of the move.
+     *
+     * @param node       The expanded node.
+     * @param childIndex The index of the child.
+     *
+     * @return The expansion cost or UNEXPANDABLE if no leaf below the child can be expanded.
+     */
+    private long getCostThroughChild(BookNode node, int childIndex) {
+        BookNode child = node.children[childIndex];
+        if (child.cost == UNEXPANDABLE) {
+            return UNEXPANDABLE;
+        }
+
+        long deviation = (long) node.value - getChildValue(node, childIndex);
+        return child.cost + deviation + plyCost;
+    }
+
+    /**
+     * This method returns the value of a child in the view of the player of the node. If the opponent has to pass
+     * after the move, it is the turn of the same player in the child.
+     *
+     * @param node       The expanded node.
+     * @param childIndex The index of the child.
+     *
+     * @return The value of the child.
+     */
+    private static int getChildValue(BookNode node, int childIndex) {
+        BookNode child = node.children[childIndex];
+        if (child.player == node.player) {
+            return child.value;
+        }
+
+        //-Integer.MIN_VALUE does not exist
+        return (child.value == Integer.MIN_VALUE) ? Integer.MAX_VALUE : -child.value;
+    }
+
+    /**
+     * This method writes the tree as OpeningBook. The children of every expanded position are written with their
+     * negamax values, for every leaf the best move of its search is written.
+     *
+     * @param bookFile The book file, an existing file is overwritten.
+     *
+     * @return The number of records written.
+     *
+     * @throws IOException If the book could not be written.
+     */
+    public int exportBook(File bookFile) throws IOException {
+        OpeningBookWriter writer = new OpeningBookWriter(nodes.get(0).board.getBoardWidth());
+
+        for (BookNode node : nodes) {
+            GamePosition position = new GamePosition(node.board, node.player);
+
+            if (node.isExpanded) {
+                for (int i = 0; i < node.children.length; i++) {
+                    writer.add(position, getGameMove(node, node.childMoves[i]), getChildValue(node, i),
+                            (int) Math.min(Integer.MAX_VALUE, node.children[i].count + 1));
+                }
+            } else if (node.searchMove != NO_MOVE) {
+                writer.add(position, getGameMove(node, node.searchMove), node.value, 1);
+            }
+        }
+
+        return writer.write(bookFile);
+    }
+
+    /**
+     * This method returns the GameMove of a square index of a node.
+     *
+     * @param node        The node.
+     * @param squareIndex The square index of the move.
+     *
+     * @return The GameMove.
+     */
+    private static GameMove getGameMove(BookNode node, int squareIndex) {
+        int boardWidth = node.board.getBoardWidth();
+        return GameMove.valueOf(node.board.getSquare(squareIndex % boardWidth, squareIndex / boardWidth));
+    }
+
+    /**
+     * This method writes the tree into a checkpoint file. The file is written completely before it replaces the
+     * previous checkpoint, so a crash while writing does not destroy the previous checkpoint.
+     *
+     * Format: int CHECKPOINT_MAGIC, int CHECKPOINT_VERSION, int board size, int number of nodes, long expansions,
+     * then every node: squares (one byte per square), byte player, int ply, int value, short search move, long count,
+     * byte expanded, then the children of every expanded node: int number of children, every child: short move, int
+     * index of the child node.
+     *
+     * @param file The checkpoint file.
+     *
+     * @throws IOException If the checkpoint could not be written.
+     */
+    public void writeCheckpoint(File file) throws IOException {
+        File temporaryFile = new File(file.getPath() + ".tmp");
+        int boardSize = nodes.get(0).board.getBoardWidth();
+
+        //The index of every node, children are stored as index
+        Map<BookNode, Integer> indices = new HashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            indices.put(nodes.get(i), i);
+        }
+
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(temporaryFile)))) {
+            outputStream.writeInt(CHECKPOINT_MAGIC);
+            outputStream.writeInt(CHECKPOINT_VERSION);
+            outputStream.writeInt(boardSize);
+            outputStream.writeInt(nodes.size());
+            outputStream.writeLong(expansions);
+
+            for (BookNode node : nodes) {
+                for (int y = 0; y < boardSize; y++) {
+                    for (int x = 0; x < boardSize; x++) {
+                        outputStream.writeByte(node.board.getSquareState(x, y).ordinal());
+                    }
+                }
+                outputStream.writeByte(node.player.ordinal());
+                outputStream.writeInt(node.ply);
+                outputStream.writeInt(node.value);
+                outputStream.writeShort(node.searchMove);
+                outputStream.writeLong(node.count);
+                outputStream.writeBoolean(node.isExpanded);
+            }
+
+            for (BookNode node : nodes) {
+                if (node.isExpanded) {
+                    outputStream.writeInt(node.children.length);
+                    for (int i = 0; i < node.children.length; i++) {
+                        outputStream.writeShort(node.childMoves[i]);
+                        outputStream.writeInt(indices.get(node.children[i]));
+                    }
+                }
+            }
+        }
+
+        Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * This method reads the tree of a checkpoint file, so the build can be continued.
+     *
+     * @param file               The checkpoint file.
+     * @param numberOfWorkers    The number of threads searching positions in parallel.
+     * @param depth              The depth every position should be searched with.
+     * @param transpositionTable The table shared by all workers, null if no table should be used.
+     * @param log                The stream where the progress should be reported.
+     *
+     * @return The OpeningBookBuilder containing the tree of the checkpoint.
+     *
+     * @throws IOException If the file can not be read or is not a valid checkpoint.
+     */
+    public static OpeningBookBuilder readCheckpoint(File file, int numberOfWorkers, int depth,
+                                                    TranspositionTable transpositionTable, PrintStream log)
+            throws IOException {
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (inputStream.readInt() != CHECKPOINT_MAGIC || inputStream.readInt() != CHECKPOINT_VERSION) {
+                throw new IOException(file + " is not a checkpoint of an opening book");
+            }
+
+            int boardSize = inputStream.readInt();
+            int numberOfNodes = inputStream.readInt();
+            long expansions = inputStream.readLong();
+
+            SquareState[] squareStates = SquareState.values();
+            Player[] players = Player.values();
+            List<BookNode> nodes = new ArrayList<>(numberOfNodes);
+            for (int i = 0; i < numberOfNodes; i++) {
+                SquareState[][] board = new SquareState[boardSize][boardSize];
+                for (int y = 0; y < boardSize; y++) {
+                    for (int x = 0; x < boardSize; x++) {
+                        board[x][y] = squareStates[inputStream.readUnsignedByte()];
+                    }
+                }
+                Player player = players[inputStream.readUnsignedByte()];
+
+                BookNode node = new BookNode(new ReversiBoard(board), player, inputStream.readInt());
+                node.value = inputStream.readInt();
+                node.searchMove = inputStream.readShort();
+                node.count = inputStream.readLong();
+                node.isExpanded = inputStream.readBoolean();
+                nodes.add(node);
+            }
+
+            for (BookNode node : nodes) {
+                if (node.isExpanded) {
+                    int numberOfChildren = inputStream.readInt();
+                    node.childMoves = new int[numberOfChildren];
+                    node.children = new BookNode[numberOfChildren];
+
+                    for (int i = 0; i < numberOfChildren; i++) {
+                        node.childMoves[i] = inputStream.readShort();
+                        node.children[i] = nodes.get(inputStream.readInt());
+                        node.children[i].parents.add(node);
+                    }
+                }
+            }
+
+            OpeningBookBuilder builder = new OpeningBookBuilder(new GamePosition(nodes.get(0).board,
+                    nodes.get(0).player), numberOfWorkers, depth, transpositionTable, log);
+            builder.restore(nodes, expansions);
+
+            return builder;
+        } catch (EOFException | IndexOutOfBoundsException e) {
+            throw new IOException(file + " is not a complete checkpoint", e);
+        }
+    }
+
+    /**
+     * This method replaces the tree by the tree of a checkpoint.
+     *
+     * @param checkpointNodes The nodes of the checkpoint, the first one is the root.
+     * @param expansions      The number of expanded positions.
+     */
+    private void restore(List<BookNode> checkpointNodes, long expansions) {
+        nodes.clear();
+        nodesByHash.clear();
+        for (BookNode node : checkpointNodes) {
+            nodes.add(node);
+            nodesByHash.put(CanonicalPosition.of(node.board, node.player).getHash(), node);
+        }
+        this.expansions = expansions;
+
+        recomputeCosts();
+    }
+
+    /**
+     * This method calculates the expansion costs of all nodes of the tree.
+     */
+    private void recomputeCosts() {
+        //Every move adds a piece, so the children always have more pieces than their parents and are calculated first
+        List<BookNode> sortedNodes = new ArrayList<>(nodes);
+        Collections.sort(sortedNodes, new Comparator<BookNode>() {
+            @Override
+            public int compare(BookNode first, BookNode second) {
+                return Integer.compare(countPieces(second), countPieces(first));
+            }
+        });
+        for (BookNode node : sortedNodes) {
+            node.cost = computeCost(node);
+        }
+    }
+
+    /**
+     * This method counts the pieces of both players of a node.
+     *
+     * @param node The node.
+     *
+     * @return The number of pieces on the board.
+     */
+    private static int countPieces(BookNode node) {
+        return node.board.countPieces(Player.BLACK) + node.board.countPieces(Player.WHITE);
+    }
+
+    /**
+     * This method reports the size of the tree and the expanded positions per second.
+     *
+     * @param startTime The time in nanoseconds when the build was started.
+     */
+    private void reportProgress(long startTime) {
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        log.printf("%d positions, %d expanded, root value %d in %.1f s%n", nodes.size(), expansions,
+                nodes.get(0).value, seconds);
+    }
+
+    /**
+     * Starts building an opening book from the command line. If the checkpoint file exists the build is resumed.
+     *
+     * Usage: OpeningBookBuilder [-depth n] [-threads n] [-hash mb] [-plies n] [-plycost n] [-expansions n]
+     * [-interval s] checkpoint book
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int depth = 8;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hashSize = 64;
+        int maximalPlies = 20;
+        long plyCost = 1000;
+        long maximalExpansions = 1000;
+        long interval = 600;
+        String checkpoint = null;
+        String book = null;
+
+        //Parse the command line arguments
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-depth":
+                    depth = Integer.parseInt(args[++i]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-hash":
+                    hashSize = Integer.parseInt(args[++i]);
+                    break;
+                case "-plies":
+                    maximalPlies = Integer.parseInt(args[++i]);
+                    break;
+                case "-plycost":
+                    plyCost = Long.parseLong(args[++i]);
+                    break;
+                case "-expansions":
+                    maximalExpansions = Long.parseLong(args[++i]);
+                    break;
+                case "-interval":
+                    interval = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    if (checkpoint == null) {
+                        checkpoint = args[i];
+                    } else {
+                        book = args[i];
+                    }
+            }
+        }
+
+        if (book == null) {
+            System.err.println("Usage: OpeningBookBuilder [-depth n] [-threads n] [-hash mb] [-plies n] [-plycost n] " +
+                    "[-expansions n] [-interval s] checkpoint book");
+            return;
+        }
+
+        TranspositionTable transpositionTable = (hashSize > 0) ? new TranspositionTable(hashSize) : null;
+        File checkpointFile = new File(checkpoint);
+
+        OpeningBookBuilder builder;
+        if (checkpointFile.exists()) {
+            builder = readCheckpoint(checkpointFile, threads, depth, transpositionTable, System.err);
+            System.err.println("Resuming with " + builder.getNumberOfPositions() + " positions");
+        } else {
+            builder = new OpeningBookBuilder(new GamePosition(new ReversiBoard(), Player.BLACK), threads, depth,
+                    transpositionTable, System.err);
+        }
+
+        builder.setMaximalPlies(maximalPlies);
+        builder.setPlyCost(plyCost);
+        builder.setCheckpoint(checkpointFile, interval * 1000);
+        builder.build(maximalExpansions);
+
+        int records = builder.exportBook(new File(book));
+        System.err.println(records + " book moves written to " + book);
+    }
+
+    /**
+     * A BookNode is one position of the tree.
+     */
+    private static class BookNode {
+        //The position in the orientation it was reached first, the moves of the node belong to this orientation
+        final Board board;
+        final Player player;
+        //The number of moves from the root to the position when it was reached first
+        final int ply;
+        //The nodes that have this node as child
+        final List<BookNode> parents = new ArrayList<>(1);
+        //The value in the view of the player, the search value of a leaf or the negamax value of an expanded node
+        int value;
+        //The square index of the best move found by the search of the position
+        int searchMove = NO_MOVE;
+        //How often a leaf was selected below or at this node
+        long count;
+        //The cost of the cheapest leaf below this node that can be expanded
+        long cost;
+        //true if the children of the position are part of the tree
+        boolean isExpanded;
+        //true if the node was selected for expansion but its children are not searched yet
+        boolean isPending;
+        //The square indices of the moves leading to the children and the children, null if not expanded
+        int[] childMoves;
+        BookNode[] children;
+
+        /**
+         * Constructor of a BookNode.
+         *
+         * @param board  The board of the position.
+         * @param player The player whose turn it is.
+         * @param ply    The number of moves from the root to the position.
+         */
+        BookNode(Board board, Player player, int ply) {
+            this.board = board;
+            this.player = player;
+            this.ply = ply;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.book;
+
+import reversi.board.CanonicalPosition;
+import reversi.board.GameMove;
+import reversi.board.GamePosition;
+import reversi.board.Square;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The OpeningBookWriter collects the moves of positions and writes them as book file that can be opened by the
+ * OpeningBook.
+ *
+ * The records are collected in primitive arrays and sorted when the file is written. If a move of a position is added
+ * more than once the counts are added up and the score that was added last is used.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 20. August 2016
+ */
+public class OpeningBookWriter {
+    //The number of records that can be added before the arrays grow the first time
+    private static final int INITIAL_CAPACITY = 1024;
+
+    //The size of the board of all positions of the book
+    private final int boardSize;
+    //The values of all records that were added, in the order they were added
+    private long[] hashes = new long[INITIAL_CAPACITY];
+    private int[] scores = new int[INITIAL_CAPACITY];
+    private int[] counts = new int[INITIAL_CAPACITY];
+    private short[] moveIndices = new short[INITIAL_CAPACITY];
+    //The number of records that were added
+    private int size = 0;
+
+    /**
+     * Constructor of the OpeningBookWriter.
+     *
+     * @param boardSize The size of the board of all positions of the book.
+     */
+    public OpeningBookWriter(int boardSize) {
+        if (boardSize * boardSize > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("The squares of a board of size " + boardSize + " can not be stored");
+        }
+
+        this.boardSize = boardSize;
+    }
+
+    /**
+     * This method adds a move of a GamePosition.
+     *
+     * @param gamePosition The GamePosition.
+     * @param gameMove     The move of the player whose turn it is.
+     * @param score        The evaluation value of the move in the view of the player whose turn it is.
+     * @param count        How often the move was played or searched.
+     *
+     * @throws IllegalArgumentException If the board of the position does not have the size of the book.
+     */
+    public void add(GamePosition gamePosition, GameMove gameMove, int score, int count) {
+        if (gamePosition.getBoard().getBoardWidth() != boardSize) {
+            throw new IllegalArgumentException("The position does not have the board size " + boardSize);
+        }
+
+        CanonicalPosition canonicalPosition = CanonicalPosition.of(gamePosition);
+        Square square = gameMove.getSquare();
+
+        add(canonicalPosition.getHash(), canonicalPosition.toCanonicalIndex(square.getSquareIndex()), score, count);
+    }
+
+    /**
+     * This method adds a move of a position that is already in canonical orientation.
+     *
+     * @param canonicalHash  The hash value of the CanonicalPosition.
+     * @param canonicalIndex The square index of the move in canonical orientation.
+     * @param score          The evaluation value of the move in the view of the player whose turn it is.
+     * @param count          How often the move was played or searched.
+     */
+    public void add(long canonicalHash, int canonicalIndex, int score, int count) {
+        if (canonicalIndex < 0 || canonicalIndex >= boardSize * boardSize) {
+            throw new IllegalArgumentException("Invalid square index " + canonicalIndex);
+        }
+
+        if (size == hashes.length) {
+            int capacity = size * 2;
+            hashes = Arrays.copyOf(hashes, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            moveIndices = Arrays.copyOf(moveIndices, capacity);
+        }
+
+        hashes[size] = canonicalHash;
+        scores[size] = score;
+        counts[size] = count;
+        moveIndices[size] = (short) canonicalIndex;
+        size++;
+    }
+
+    /**
+     * This method returns the number of records that were added.
+     *
+     * @return The number of added records.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This method writes all added records into a book file.
+     *
+     * @param file The book file, an existing file is overwritten.
+     *
+     * @return The number of records written, moves that were added more than once are written once.
+     *
+     * @throws IOException If the file can not be written.
+     */
+    public int write(File file) throws IOException {
+        //Sort the records by hash and move, records of the same move stay in the order they were added
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer first, Integer second) {
+                if (hashes[first] != hashes[second]) {
+                    return hashes[first] < hashes[second] ? -1 : 1;
+                }
+                return Integer.compare(moveIndices[first], moveIndices[second]);
+            }
+        });
+
+        //Merge the moves that were added more than once, the record that was added last provides the score
+        List<Integer> records = new ArrayList<>();
+        int[] mergedCounts = new int[size];
+        for (int record : order) {
+            if (!records.isEmpty()) {
+                int previous = records.get(records.size() - 1);
+
+                if (hashes[previous] == hashes[record] && moveIndices[previous] == moveIndices[record]) {
+                    records.set(records.size() - 1, record);
+                    long count = (long) mergedCounts[previous] + counts[record];
+                    mergedCounts[record] = (int) Math.min(Integer.MAX_VALUE, count);
+                    continue;
+                }
+            }
+
+            records.add(record);
+            mergedCounts[record] = counts[record];
+        }
+
+        //The moves of a position are written by descending score
+        Collections.sort(records, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer first, Integer second) {
+                if (hashes[first] != hashes[second]) {
+                    return hashes[first] < hashes[second] ? -1 : 1;
+                }
+                return Integer.compare(scores[second], scores[first]);
+            }
+        });
+
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(file)))) {
+            outputStream.writeInt(OpeningBook.MAGIC);
+            outputStream.writeInt(OpeningBook.VERSION);
+            outputStream.writeInt(boardSize);
+            outputStream.writeInt(records.size());
+
+            for (int record : records) {
+                outputStream.writeLong(hashes[record]);
+                outputStream.writeInt(scores[record]);
+                outputStream.writeInt(mergedCounts[record]);
+                outputStream.writeShort(moveIndices[record]);
+                outputStream.writeShort(0);
+            }
+        }
+
+        return records.size();
+    }
+}
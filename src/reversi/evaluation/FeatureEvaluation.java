@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.evaluation;
+
+import reversi.board.Board;
+import reversi.board.GamePosition;
+import reversi.evaluation.features.BoardFeatures;
+import reversi.player.Player;
+
+/**
+ * This Evaluation combines the mobility, the potential mobility, the frontier pieces, the corners, the parity of the
+ * regions of empty squares and the difference of pieces. All features are evaluated in the view of the player whose
+ * turn it is:
+ * - more legal moves and more potential moves are better,
+ * - fewer frontier pieces are better, because they give the opponent moves,
+ * - corners are better, because they can never be flipped,
+ * - odd regions are better for the player who moves into them first, because that player can make the last move in
+ *   them.
+ *
+ * The features except the legal moves are computed by BoardFeatures in one pass over the board, so this Evaluation
+ * must only be used by one thread at the same time.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 19. August 2016
+ */
+public class FeatureEvaluation implements Evaluation {
+    //The weights of the features
+    private static final int WEIGHT_MOBILITY = 10;
+    private static final int WEIGHT_POTENTIAL_MOBILITY = 4;
+    private static final int WEIGHT_FRONTIER = 4;
+    private static final int WEIGHT_CORNER = 50;
+    private static final int WEIGHT_ODD_REGION = 3;
+    private static final int WEIGHT_DIFFERENCE = 1;
+
+    //The features of the evaluated board
+    private final BoardFeatures features = new BoardFeatures();
+
+    @Override
+    public int evaluateGame(GamePosition gamePosition) {
+        Board board = gamePosition.getBoard();
+        Player player = gamePosition.getCurrentPlayer();
+        Player opponent = player.getOpponent();
+
+        features.compute(board);
+
+        int mobility = board.countLegalMoves(player) - board.countLegalMoves(opponent);
+        int potentialMobility = features.getPotentialMobility(player) - features.getPotentialMobility(opponent);
+        int frontier = features.getFrontierDiscs(player) - features.getFrontierDiscs(opponent);
+        int corners = countCorners(board, player) - countCorners(board, opponent);
+        int difference = board.countDifference(player);
+        int parity = countParity(features.getOddRegions(), player);
+
+        return WEIGHT_MOBILITY * mobility
+                + WEIGHT_POTENTIAL_MOBILITY * potentialMobility
+                - WEIGHT_FRONTIER * frontier
+                + WEIGHT_CORNER * corners
+                + WEIGHT_ODD_REGION * parity
+                + WEIGHT_DIFFERENCE * difference;
+    }
+
+    /**
+     * This method rates the odd regions for a player. Without passes the player who moves into the regions first is
+     * the player whose turn it is by the number of empty squares: black moves first and the start position has an even
+     * number of empty squares. The sign only depends on the board, so the value for the opponent is the negated value.
+     *
+     * @param oddRegions The number of regions of empty squares with an odd number of squares.
+     * @param player     The player the regions are rated for.
+     *
+     * @return The number of odd regions if they are good for the player, the negated number otherwise.
+     */
+    private int countParity(int oddRegions, Player player) {
+        //The number of empty squares is odd exactly if the number of odd regions is odd
+        Player parityPlayer = (oddRegions % 2 == 0) ? Player.BLACK : Player.WHITE;
+
+        return (player == parityPlayer) ? oddRegions : -oddRegions;
+    }
+
+    /**
+     * This method counts the corners of a player.
+     *
+     * @param board  The board.
+     * @param player The player whose corners should be counted.
+     *
+     * @return The number of corners of the player.
+     */
+    private int countCorners(Board board, Player player) {
+        int lastX = board.getBoardWidth() - 1;
+        int lastY = board.getBoardHeight() - 1;
+
+        int corners = 0;
+        corners += (board.getSquareState(0, 0) == player.getSquareState()) ? 1 : 0;
+        corners += (board.getSquareState(lastX, 0) == player.getSquareState()) ? 1 : 0;
+        corners += (board.getSquareState(0, lastY) == player.getSquareState()) ? 1 : 0;
+        corners += (board.getSquareState(lastX, lastY) == player.getSquareState()) ? 1 : 0;
+
+        return corners;
+    }
+}
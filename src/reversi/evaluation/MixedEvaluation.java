@@ -54,7 +54,7 @@ public class MixedEvaluation implements Evaluation {
     @Override
     public int evaluateGame(GamePosition gamePosition) {
         int difference = gamePosition.getBoard().countDifference(gamePosition.getCurrentPlayer());
-        int mobility = gamePosition.getBoard().getAllLegalMoves(gamePosition.getCurrentPlayer()).size();
+        int mobility = gamePosition.getBoard().countLegalMoves(gamePosition.getCurrentPlayer());
         int corner = countCornerSquares(gamePosition.getBoard(), gamePosition.getCurrentPlayer());
         int edge = countEdgeSquares(gamePosition.getBoard(), gamePosition.getCurrentPlayer());
 
@@ -69,7 +69,7 @@ public class MixedEvaluation implements Evaluation {
                 Square square = board.getSquare(x, y);
 
                 if (square.isCornerSquare()) {
-                    if (square.getSquareState() == player.getSquareState()) {
+                    if (board.getSquareState(x, y) == player.getSquareState()) {
                         corners++;
                     }
                 }
@@ -87,7 +87,7 @@ public class MixedEvaluation implements Evaluation {
                 Square square = board.getSquare(x, y);
 
                 if (square.isEdgeSquare()) {
-                    if (square.getSquareState() == player.getSquareState()) {
+                    if (board.getSquareState(x, y) == player.getSquareState()) {
                         edges++;
                     }
                 }
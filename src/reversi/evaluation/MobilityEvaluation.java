@@ -44,6 +44,6 @@ public class MobilityEvaluation implements Evaluation {
     @Override
     public int evaluateGame(GamePosition gamePosition) {
         //The most possible moves
-        return gamePosition.getBoard().getAllLegalMoves(gamePosition.getCurrentPlayer()).size();
+        return gamePosition.getBoard().countLegalMoves(gamePosition.getCurrentPlayer());
     }
 }
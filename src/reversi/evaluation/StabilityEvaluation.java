@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.evaluation;
+
+import reversi.board.GamePosition;
+import reversi.evaluation.stability.StabilityAnalyser;
+import reversi.player.Player;
+
+/**
+ * This Evaluation evaluates the GamePosition based on the difference of stable pieces. A stable piece can not be
+ * flipped any more, so it will still belong to the player at the end of the game.
+ *
+ * The Evaluation reuses the arrays of its StabilityAnalyser, so it must only be used by one thread at the same time.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 18. August 2016
+ */
+public class StabilityEvaluation implements Evaluation {
+    //The analyser finding the stable pieces
+    private final StabilityAnalyser stabilityAnalyser = new StabilityAnalyser();
+
+    @Override
+    public int evaluateGame(GamePosition gamePosition) {
+        Player player = gamePosition.getCurrentPlayer();
+
+        //Find the stable pieces and return the difference between the two players
+        stabilityAnalyser.analyse(gamePosition.getBoard());
+        return stabilityAnalyser.countStableDiscs(player) - stabilityAnalyser.countStableDiscs(player.getOpponent());
+    }
+}
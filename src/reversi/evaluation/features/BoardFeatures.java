@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.evaluation.features;
+
+import reversi.board.Board;
+import reversi.board.SquareState;
+import reversi.player.Player;
+
+/**
+ * The BoardFeatures compute the features of a board that an Evaluation can combine:
+ * - the frontier pieces of both players (pieces next to an empty square),
+ * - the potential mobility of both players (empty squares next to a piece of the opponent) and
+ * - the regions of empty squares and whether the number of squares of a region is odd or even.
+ *
+ * Every row of the board is stored as a bit mask, so the neighbours of all squares of a row are found with a few
+ * shifts instead of looking at every square and its eight neighbours. Boards of up to 63 columns are supported.
+ *
+ * The BoardFeatures reuse their arrays for every board, so they must only be used by one thread at the same time.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 19. August 2016
+ */
+public final class BoardFeatures {
+    //The largest number of columns that fits into the bit mask of a row
+    public static final int MAX_BOARD_WIDTH = 63;
+
+    //The number of rows and columns of the arrays
+    private int boardWidth = 0;
+    private int boardHeight = 0;
+    //The bit mask with a bit for every column
+    private long rowMask;
+    //The pieces of both players and the empty squares of every row, bit x is the square in column x
+    private long[] blackPieces;
+    private long[] whitePieces;
+    private long[] emptySquares;
+    //The arrays for the computation of the neighbours and the regions
+    private long[] neighbours;
+    private long[] region;
+    private long[] remainingSquares;
+
+    //The computed features
+    private int blackFrontier;
+    private int whiteFrontier;
+    private int blackPotentialMobility;
+    private int whitePotentialMobility;
+    private int oddRegions;
+    private int evenRegions;
+
+    /**
+     * This method computes all features of a board. The features can be read until the next board is computed.
+     *
+     * @param board The board whose features should be computed.
+     *
+     * @throws IllegalArgumentException If the board is wider than MAX_BOARD_WIDTH.
+     */
+    public void compute(Board board) {
+        if (board.getBoardWidth() > MAX_BOARD_WIDTH) {
+            throw new IllegalArgumentException("Features can only be computed for boards with up to " +
+                    MAX_BOARD_WIDTH + " columns");
+        }
+        if (board.getBoardWidth() != boardWidth || board.getBoardHeight() != boardHeight) {
+            initialize(board.getBoardWidth(), board.getBoardHeight());
+        }
+
+        //Read the board into the bit masks of the rows
+        for (int y = 0; y < boardHeight; y++) {
+            long black = 0L;
+            long white = 0L;
+            for (int x = 0; x < boardWidth; x++) {
+                SquareState squareState = board.getSquareState(x, y);
+                if (squareState == SquareState.BLACK) {
+                    black |= 1L << x;
+                } else if (squareState == SquareState.WHITE) {
+                    white |= 1L << x;
+                }
+            }
+
+            blackPieces[y] = black;
+            whitePieces[y] = white;
+            emptySquares[y] = rowMask & ~(black | white);
+        }
+
+        //The pieces next to an empty square are the frontier pieces
+        findNeighbours(emptySquares, neighbours);
+        blackFrontier = countSquares(blackPieces, neighbours);
+        whiteFrontier = countSquares(whitePieces, neighbours);
+
+        //The empty squares next to a piece of the opponent could become moves later
+        findNeighbours(whitePieces, neighbours);
+        blackPotentialMobility = countSquares(emptySquares, neighbours);
+        findNeighbours(blackPieces, neighbours);
+        whitePotentialMobility = countSquares(emptySquares, neighbours);
+
+        findRegions();
+    }
+
+    /**
+     * This method returns the number of frontier pieces of a player, i.e. the pieces next to an empty square. They
+     * give the opponent the chance to flip them, so fewer frontier pieces are better.
+     *
+     * @param player The player.
+     *
+     * @return The number of frontier pieces.
+     */
+    public int getFrontierDiscs(Player player) {
+        return (player == Player.BLACK) ? blackFrontier : whiteFrontier;
+    }
+
+    /**
+     * This method returns the potential mobility of a player, i.e. the number of empty squares next to a piece of the
+     * opponent. The player might be able to move there later.
+     *
+     * @param player The player.
+     *
+     * @return The potential mobility.
+     */
+    public int getPotentialMobility(Player player) {
+        return (player == Player.BLACK) ? blackPotentialMobility : whitePotentialMobility;
+    }
+
+    /**
+     * This method returns the number of regions of empty squares with an odd number of squares. In the endgame the
+     * player whose turn it is can usually make the last move of an odd region.
+     *
+     * @return The number of odd regions.
+     */
+    public int getOddRegions() {
+        return oddRegions;
+    }
+
+    /**
+     * This method returns the number of regions of empty squares with an even number of squares.
+     *
+     * @return The number of even regions.
+     */
+    public int getEvenRegions() {
+        return evenRegions;
+    }
+
+    /**
+     * This method creates the arrays for a board size.
+     *
+     * @param boardWidth  The number of columns.
+     * @param boardHeight The number of rows.
+     */
+    private void initialize(int boardWidth, int boardHeight) {
+        this.boardWidth = boardWidth;
+        this.boardHeight = boardHeight;
+
+        rowMask = (1L << boardWidth) - 1;
+        blackPieces = new long[boardHeight];
+        whitePieces = new long[boardHeight];
+        emptySquares = new long[boardHeight];
+        neighbours = new long[boardHeight];
+        region = new long[boardHeight];
+        remainingSquares = new long[boardHeight];
+    }
+
+    /**
+     * This method finds all squares that are next to a square of a set of squares in any of the eight directions.
+     *
+     * @param squares    The bit masks of the rows of the set.
+     * @param neighbours The array the bit masks of the rows of the neighbours are written to.
+     */
+    private void findNeighbours(long[] squares, long[] neighbours) {
+        long previousRow = 0L;
+        long currentRow = spreadInRow(squares[0]);
+
+        for (int y = 0; y < boardHeight; y++) {
+            long nextRow = (y + 1 < boardHeight) ? spreadInRow(squares[y + 1]) : 0L;
+            neighbours[y] = (previousRow | currentRow | nextRow) & ~squares[y];
+
+            previousRow = currentRow;
+            currentRow = nextRow;
+        }
+    }
+
+    /**
+     * This method adds the left and the right neighbour to every square of a row.
+     *
+     * @param row The bit mask of the row.
+     *
+     * @return The bit mask of the squares and their neighbours in the row.
+     */
+    private long spreadInRow(long row) {
+        return (row | (row << 1) | (row >>> 1)) & rowMask;
+    }
+
+    /**
+     * This method counts the squares that are in both sets of squares.
+     *
+     * @param squares      The bit masks of the rows of the first set.
+     * @param otherSquares The bit masks of the rows of the second set.
+     *
+     * @return The number of squares in both sets.
+     */
+    private int countSquares(long[] squares, long[] otherSquares) {
+        int count = 0;
+        for (int y = 0; y < boardHeight; y++) {
+            count += Long.bitCount(squares[y] & otherSquares[y]);
+        }
+
+        return count;
+    }
+
+    /**
+     * This method finds the regions of empty squares and counts the odd and the even ones. Two empty squares belong to
+     * the same region if they are connected horizontally or vertically.
+     */
+    private void findRegions() {
+        oddRegions = 0;
+        evenRegions = 0;
+        System.arraycopy(emptySquares, 0, remainingSquares, 0, boardHeight);
+
+        for (int y = 0; y < boardHeight; y++) {
+            while (remainingSquares[y] != 0L) {
+                //Start a new region with the lowest remaining square of the row
+                for (int i = 0; i < boardHeight; i++) {
+                    region[i] = 0L;
+                }
+                region[y] = Long.lowestOneBit(remainingSquares[y]);
+
+                fillRegion();
+
+                //Count the squares of the region and remove them from the remaining squares
+                int size = 0;
+                for (int i = 0; i < boardHeight; i++) {
+                    size += Long.bitCount(region[i]);
+                    remainingSquares[i] &= ~region[i];
+                }
+
+                if (size % 2 == 1) {
+                    oddRegions++;
+                } else {
+                    evenRegions++;
+                }
+            }
+        }
+    }
+
+    /**
+     * This method grows the region until it contains all empty squares that are connected to it. All squares of a row
+     * grow at the same time.
+     */
+    private void fillRegion() {
+        boolean isGrowing = true;
+        while (isGrowing) {
+            isGrowing = false;
+
+            for (int y = 0; y < boardHeight; y++) {
+                long row = region[y];
+                long grown = row | (row << 1) | (row >>> 1);
+                if (y > 0) {
+                    grown |= region[y - 1];
+                }
+                if (y + 1 < boardHeight) {
+                    grown |= region[y + 1];
+                }
+                grown &= emptySquares[y];
+
+                if (grown != row) {
+                    region[y] = grown;
+                    isGrowing = true;
+                }
+            }
+        }
+    }
+}
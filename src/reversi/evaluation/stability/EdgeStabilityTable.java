@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.evaluation.stability;
+
+import reversi.board.SquareState;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The EdgeStabilityTable knows the stable pieces of every possible arrangement of pieces on an edge of the board.
+ *
+ * A piece on an edge can only be flipped along the edge, so whether it is stable only depends on the pieces of the
+ * edge. For every configuration the table stores the pieces that are not flipped by any sequence of pieces placed on
+ * the empty squares of the edge. Pieces can be placed on any empty square by any player, whether the move would be
+ * legal on the whole board is not known, so the stable pieces are a safe underestimation.
+ *
+ * A configuration is the number in base 3 whose digit i is the SquareState ordinal of the square i of the edge, so
+ * there are 3^length configurations. The tables are computed once for every length and shared.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 18. August 2016
+ */
+public final class EdgeStabilityTable {
+    //The longest edge a table can be computed for, the table of a longer edge would need too much memory
+    public static final int MAX_LENGTH = 12;
+
+    //The values of the SquareStates in a configuration
+    private static final int EMPTY = SquareState.EMPTY.ordinal();
+    private static final int BLACK = SquareState.BLACK.ordinal();
+    private static final int WHITE = SquareState.WHITE.ordinal();
+
+    //The tables of all lengths that were used so far
+    private static final ConcurrentMap<Integer, EdgeStabilityTable> TABLES = new ConcurrentHashMap<>();
+
+    //The number of squares of the edge
+    private final int length;
+    //The value of every square of the edge in a configuration: 3^i
+    private final int[] powersOfThree;
+    //The bit mask of the stable pieces of every configuration, bit i is set if the piece on square i is stable
+    private final int[] stableMasks;
+
+    /**
+     * Constructor of an EdgeStabilityTable. It computes the stable pieces of all configurations.
+     *
+     * @param length The number of squares of the edge.
+     */
+    private EdgeStabilityTable(int length) {
+        this.length = length;
+
+        powersOfThree = new int[length + 1];
+        powersOfThree[0] = 1;
+        for (int i = 1; i <= length; i++) {
+            powersOfThree[i] = powersOfThree[i - 1] * 3;
+        }
+
+        stableMasks = new int[powersOfThree[length]];
+
+        //Every placed piece fills an empty square, so a configuration only depends on configurations with more pieces.
+        //Computing them in the order of the number of empty squares means they are always known already.
+        int[] configurationsByEmptySquares = sortByEmptySquares();
+        for (int configuration : configurationsByEmptySquares) {
+            stableMasks[configuration] = computeStableMask(configuration);
+        }
+    }
+
+    /**
+     * This method returns the EdgeStabilityTable for edges of a given length. The table is computed the first time it
+     * is needed, which can take a moment for long edges.
+     *
+     * @param length The number of squares of the edge.
+     *
+     * @return The EdgeStabilityTable.
+     *
+     * @throws IllegalArgumentException If the length is less than 1 or more than MAX_LENGTH.
+     */
+    public static EdgeStabilityTable forLength(int length) {
+        if (length < 1 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Edge stability can only be computed for edges of 1 to " + MAX_LENGTH +
+                    " squares, not for " + length);
+        }
+
+        EdgeStabilityTable table = TABLES.get(length);
+
+        //If two threads compute the same table at the same time, both tables are equal and one of them is used
+        if (table == null) {
+            table = new EdgeStabilityTable(length);
+            EdgeStabilityTable existingTable = TABLES.putIfAbsent(length, table);
+            if (existingTable != null) {
+                table = existingTable;
+            }
+        }
+
+        return table;
+    }
+
+    /**
+     * This method returns the number of squares of the edge.
+     *
+     * @return The length of the edge.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * This method returns the value a square of the edge adds to the configuration for every step of its SquareState
+     * ordinal.
+     *
+     * @param i The number of the square on the edge.
+     *
+     * @return 3^i.
+     */
+    public int getPowerOfThree(int i) {
+        return powersOfThree[i];
+    }
+
+    /**
+     * This method returns the stable pieces of a configuration.
+     *
+     * @param configuration The configuration of the edge.
+     *
+     * @return A bit mask, bit i is set if the piece on square i of the edge is stable.
+     */
+    public int getStableMask(int configuration) {
+        return stableMasks[configuration];
+    }
+
+    /**
+     * This method returns all configurations ordered by the number of their empty squares, the full edges first.
+     *
+     * @return The ordered configurations.
+     */
+    private int[] sortByEmptySquares() {
+        int numberOfConfigurations = stableMasks.length;
+
+        //Count the configurations for every number of empty squares
+        int[] emptySquares = new int[numberOfConfigurations];
+        int[] starts = new int[length + 2];
+        for (int configuration = 0; configuration < numberOfConfigurations; configuration++) {
+            int empty = 0;
+            for (int i = 0; i < length; i++) {
+                if (getSquare(configuration, i) == EMPTY) {
+                    empty++;
+                }
+            }
+
+            emptySquares[configuration] = empty;
+            starts[empty + 1]++;
+        }
+        for (int i = 1; i < starts.length; i++) {
+            starts[i] += starts[i - 1];
+        }
+
+        //Put every configuration at the next free position of its number of empty squares
+        int[] sorted = new int[numberOfConfigurations];
+        for (int configuration = 0; configuration < numberOfConfigurations; configuration++) {
+            sorted[starts[emptySquares[configuration]]++] = configuration;
+        }
+
+        return sorted;
+    }
+
+    /**
+     * This method computes the stable pieces of a configuration. A piece is stable if it is neither flipped by placing
+     * a piece on any empty square nor in any of the configurations reached by that.
+     *
+     * @param configuration The configuration of the edge.
+     *
+     * @return The bit mask of the stable pieces.
+     */
+    private int computeStableMask(int configuration) {
+        //At first all pieces are assumed to be stable
+        int stableMask = 0;
+        for (int i = 0; i < length; i++) {
+            if (getSquare(configuration, i) != EMPTY) {
+                stableMask |= 1 << i;
+            }
+        }
+
+        //Every piece that can be flipped or that is not stable after any move is not stable
+        for (int i = 0; i < length && stableMask != 0; i++) {
+            if (getSquare(configuration, i) != EMPTY) {
+                continue;
+            }
+
+            stableMask &= getStableMaskAfterMove(configuration, i, BLACK);
+            stableMask &= getStableMaskAfterMove(configuration, i, WHITE);
+        }
+
+        return stableMask;
+    }
+
+    /**
+     * This method places a piece on an empty square of the edge and returns the pieces that stay stable. The pieces
+     * of the opponent that are encapsulated on the edge are flipped.
+     *
+     * @param configuration The configuration of the edge.
+     * @param square        The number of the empty square.
+     * @param piece         The SquareState ordinal of the placed piece.
+     *
+     * @return The bit mask of the pieces that are neither flipped nor unstable in the new configuration.
+     */
+    private int getStableMaskAfterMove(int configuration, int square, int piece) {
+        int opponentPiece = (piece == BLACK) ? WHITE : BLACK;
+        int nextConfiguration = configuration + piece * powersOfThree[square];
+        int flippedMask = 0;
+
+        //Flip the encapsulated pieces in both directions
+        for (int direction = -1; direction <= 1; direction += 2) {
+            int i = square + direction;
+            int directionMask = 0;
+
+            while (i >= 0 && i < length && getSquare(configuration, i) == opponentPiece) {
+                directionMask |= 1 << i;
+                i += direction;
+            }
+
+            if (directionMask != 0 && i >= 0 && i < length && getSquare(configuration, i) == piece) {
+                flippedMask |= directionMask;
+            }
+        }
+
+        //Change the flipped pieces to the placed piece
+        for (int i = 0; i < length; i++) {
+            if ((flippedMask & (1 << i)) != 0) {
+                nextConfiguration += (piece - opponentPiece) * powersOfThree[i];
+            }
+        }
+
+        return stableMasks[nextConfiguration] & ~flippedMask;
+    }
+
+    /**
+     * This method returns the SquareState ordinal of a square in a configuration.
+     *
+     * @param configuration The configuration of the edge.
+     * @param i             The number of the square.
+     *
+     * @return The SquareState ordinal.
+     */
+    private int getSquare(int configuration, int i) {
+        return (configuration / powersOfThree[i]) % 3;
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.evaluation.stability;
+
+import reversi.board.Board;
+import reversi.board.SquareState;
+import reversi.game.ReversiGameConfiguration;
+import reversi.player.Player;
+
+import java.util.Arrays;
+
+/**
+ * The StabilityAnalyser finds the stable pieces of a board. A stable piece can not be flipped any more until the end
+ * of the game.
+ *
+ * The pieces on the edges are looked up in the EdgeStabilityTable. Then a piece is stable if it can not be flipped in
+ * any of the four lines through it (horizontal, vertical and both diagonals). That is the case if the line is full or
+ * if a neighbour in the line is outside of the board or a stable piece of the same player. The last rule is repeated
+ * until no more stable pieces are found. The result is a safe underestimation of the stable pieces.
+ *
+ * A StabilityAnalyser reuses its arrays for every board, so it must only be used by one thread at the same time.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 18. August 2016
+ */
+public final class StabilityAnalyser {
+    //The value of an empty square
+    private static final byte EMPTY = (byte) SquareState.EMPTY.ordinal();
+
+    //The size of the board the arrays are created for
+    private int boardSize = 0;
+    //The table of the stable pieces on the edges
+    private EdgeStabilityTable edgeTable;
+    //The SquareState ordinal of every square of the last board, indexed by the square index (y * boardSize + x)
+    private byte[] squares;
+    //Whether the piece on a square is stable, indexed by the square index
+    private boolean[] stable;
+    //Whether the rows, columns, diagonals (x - y + boardSize - 1) and anti diagonals (x + y) are full
+    private boolean[] fullRows;
+    private boolean[] fullColumns;
+    private boolean[] fullDiagonals;
+    private boolean[] fullAntiDiagonals;
+
+    /**
+     * Constructor of a StabilityAnalyser. The EdgeStabilityTable of the configured board size is computed right away,
+     * so that the first analysis during a game does not have to wait for it.
+     */
+    public StabilityAnalyser() {
+        initialize(ReversiGameConfiguration.getInstance().getSnapshot().getBoardSize());
+    }
+
+    /**
+     * This method creates the arrays and the EdgeStabilityTable for a board size.
+     *
+     * @param boardSize The size of the board.
+     */
+    private void initialize(int boardSize) {
+        this.boardSize = boardSize;
+
+        edgeTable = EdgeStabilityTable.forLength(boardSize);
+        squares = new byte[boardSize * boardSize];
+        stable = new boolean[boardSize * boardSize];
+        fullRows = new boolean[boardSize];
+        fullColumns = new boolean[boardSize];
+        fullDiagonals = new boolean[2 * boardSize - 1];
+        fullAntiDiagonals = new boolean[2 * boardSize - 1];
+    }
+
+    /**
+     * This method finds the stable pieces of a board. The result can be read by isStable(int, int) and
+     * countStableDiscs(Player) until the next board is analysed.
+     *
+     * @param board The board that should be analysed, it has to be a square.
+     *
+     * @throws IllegalArgumentException If the board is not a square or too big for an EdgeStabilityTable.
+     */
+    public void analyse(Board board) {
+        if (board.getBoardWidth() != board.getBoardHeight()) {
+            throw new IllegalArgumentException("Stable pieces can only be found on a square board");
+        }
+        if (board.getBoardWidth() != boardSize) {
+            initialize(board.getBoardWidth());
+        }
+
+        //Read the board
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                squares[y * boardSize + x] = (byte) board.getSquareState(x, y).ordinal();
+            }
+        }
+        Arrays.fill(stable, false);
+
+        findFullLines();
+        findStableEdgePieces();
+
+        //Every new stable piece can make its neighbours stable, so repeat until nothing changes
+        boolean isChanged = true;
+        while (isChanged) {
+            isChanged = false;
+
+            for (int y = 0; y < boardSize; y++) {
+                for (int x = 0; x < boardSize; x++) {
+                    int squareIndex = y * boardSize + x;
+
+                    if (squares[squareIndex] != EMPTY && !stable[squareIndex] && isStableInAllLines(x, y)) {
+                        stable[squareIndex] = true;
+                        isChanged = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * This method checks if the piece on a square of the last analysed board is stable.
+     *
+     * @param xPosition The x-Position of the square.
+     * @param yPosition The y-Position of the square.
+     *
+     * @return true if there is a stable piece on the square.
+     */
+    public boolean isStable(int xPosition, int yPosition) {
+        return stable[yPosition * boardSize + xPosition];
+    }
+
+    /**
+     * This method counts the stable pieces of a player on the last analysed board.
+     *
+     * @param player The player whose stable pieces should be counted.
+     *
+     * @return The number of stable pieces.
+     */
+    public int countStableDiscs(Player player) {
+        byte squareState = (byte) player.getSquareState().ordinal();
+
+        int stableDiscs = 0;
+        for (int i = 0; i < squares.length; i++) {
+            if (stable[i] && squares[i] == squareState) {
+                stableDiscs++;
+            }
+        }
+
+        return stableDiscs;
+    }
+
+    /**
+     * This method returns the highest difference of pieces a player can reach until the end of the game on the last
+     * analysed board. The stable pieces of the opponent stay the opponent's pieces, all other squares could become
+     * pieces of the player.
+     *
+     * @param player The player whose difference should be bounded.
+     *
+     * @return The highest reachable difference of pieces in the view of the player.
+     */
+    public int getMaximalDifference(Player player) {
+        return squares.length - 2 * countStableDiscs(player.getOpponent());
+    }
+
+    /**
+     * This method finds all lines of the board that contain no empty square.
+     */
+    private void findFullLines() {
+        Arrays.fill(fullRows, true);
+        Arrays.fill(fullColumns, true);
+        Arrays.fill(fullDiagonals, true);
+        Arrays.fill(fullAntiDiagonals, true);
+
+        //Every empty square makes all four lines through it not full
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                if (squares[y * boardSize + x] == EMPTY) {
+                    fullRows[y] = false;
+                    fullColumns[x] = false;
+                    fullDiagonals[x - y + boardSize - 1] = false;
+                    fullAntiDiagonals[x + y] = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * This method marks the stable pieces of the four edges by looking them up in the EdgeStabilityTable.
+     */
+    private void findStableEdgePieces() {
+        int last = boardSize - 1;
+
+        //The top and the bottom row, the left and the right column
+        markStableEdgePieces(0, 0, 1, 0);
+        markStableEdgePieces(0, last, 1, 0);
+        markStableEdgePieces(0, 0, 0, 1);
+        markStableEdgePieces(last, 0, 0, 1);
+    }
+
+    /**
+     * This method marks the stable pieces of one edge.
+     *
+     * @param xStart The x-Position of the first square of the edge.
+     * @param yStart The y-Position of the first square of the edge.
+     * @param dx     The change in the x direction from one square of the edge to the next.
+     * @param dy     The change in the y direction from one square of the edge to the next.
+     */
+    private void markStableEdgePieces(int xStart, int yStart, int dx, int dy) {
+        //Compute the configuration of the edge
+        int configuration = 0;
+        for (int i = 0; i < boardSize; i++) {
+            configuration += squares[(yStart + i * dy) * boardSize + xStart + i * dx] * edgeTable.getPowerOfThree(i);
+        }
+
+        int stableMask = edgeTable.getStableMask(configuration);
+        for (int i = 0; i < boardSize; i++) {
+            if ((stableMask & (1 << i)) != 0) {
+                stable[(yStart + i * dy) * boardSize + xStart + i * dx] = true;
+            }
+        }
+    }
+
+    /**
+     * This method checks if a piece can not be flipped in any of the four lines through it.
+     *
+     * @param xPosition The x-Position of the piece.
+     * @param yPosition The y-Position of the piece.
+     *
+     * @return true if the piece is stable.
+     */
+    private boolean isStableInAllLines(int xPosition, int yPosition) {
+        return (fullRows[yPosition] || isStableInLine(xPosition, yPosition, 1, 0))
+                && (fullColumns[xPosition] || isStableInLine(xPosition, yPosition, 0, 1))
+                && (fullDiagonals[xPosition - yPosition + boardSize - 1] || isStableInLine(xPosition, yPosition, 1, 1))
+                && (fullAntiDiagonals[xPosition + yPosition] || isStableInLine(xPosition, yPosition, 1, -1));
+    }
+
+    /**
+     * This method checks if a piece can not be flipped in a line that is not full. That is the case if one of its
+     * neighbours in the line is outside of the board or a stable piece of the same player.
+     *
+     * @param xPosition The x-Position of the piece.
+     * @param yPosition The y-Position of the piece.
+     * @param dx        The change in the x direction of the line.
+     * @param dy        The change in the y direction of the line.
+     *
+     * @return true if the piece can not be flipped in this line.
+     */
+    private boolean isStableInLine(int xPosition, int yPosition, int dx, int dy) {
+        byte piece = squares[yPosition * boardSize + xPosition];
+
+        return isWallOrStablePiece(xPosition - dx, yPosition - dy, piece)
+                || isWallOrStablePiece(xPosition + dx, yPosition + dy, piece);
+    }
+
+    /**
+     * This method checks if a square is outside of the board or contains a stable piece of the given SquareState.
+     *
+     * @param xPosition The x-Position of the square.
+     * @param yPosition The y-Position of the square.
+     * @param piece     The SquareState ordinal of the piece.
+     *
+     * @return true if the square is outside of the board or a stable piece of the same player.
+     */
+    private boolean isWallOrStablePiece(int xPosition, int yPosition, byte piece) {
+        if (xPosition < 0 || xPosition >= boardSize || yPosition < 0 || yPosition >= boardSize) {
+            return true;
+        }
+
+        int squareIndex = yPosition * boardSize + xPosition;
+        return stable[squareIndex] && squares[squareIndex] == piece;
+    }
+}
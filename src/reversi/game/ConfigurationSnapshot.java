@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.game;
+
+import reversi.player.Player;
+
+/**
+ * A ConfigurationSnapshot contains typed values of all settings of the ReversiGameConfiguration at one point in time.
+ *
+ * Any ConfigurationSnapshot is immutable, so it can be read by any thread without locking. Whenever the configuration
+ * changes a new snapshot is published, code that runs often (like the search or the evaluation) should only read the
+ * values of a snapshot and never access the configuration file.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 06. August 2016
+ */
+public final class ConfigurationSnapshot {
+    //The default values of all settings
+    static final int DEFAULT_BOARD_SIZE = 8;
+    static final int DEFAULT_SEARCH_DEPTH = 5;
+    static final String DEFAULT_HUMAN_PLAYER_COLOR = "black";
+    static final String DEFAULT_PLAYER_WHITE_COLOR = "0xFFFF00";
+    static final String DEFAULT_PLAYER_BLACK_COLOR = "0xFF0000";
+    static final char DEFAULT_PLAYER_WHITE_CHAR = 'W';
+    static final char DEFAULT_PLAYER_BLACK_CHAR = 'B';
+    static final char DEFAULT_PLAYER_EMPTY_CHAR = '-';
+    static final String DEFAULT_BOOK_FILE = "";
+    static final int DEFAULT_BOOK_SCORE_WINDOW = 0;
+    static final boolean DEFAULT_PONDER = true;
+    static final int DEFAULT_CLOCK_BASE_TIME = 0;
+    static final int DEFAULT_CLOCK_INCREMENT = 0;
+
+    //The size of the board
+    private final int boardSize;
+    //The depth of the search algorithm
+    private final int searchDepth;
+    //The player that is played by the human
+    private final Player humanPlayer;
+    //The colors of the players as hex string (e.g. 0xFF0000)
+    private final String playerWhiteColor;
+    private final String playerBlackColor;
+    //The characters used to display the players on the console
+    private final char playerWhiteChar;
+    private final char playerBlackChar;
+    private final char playerEmptyChar;
+    //The opening book file of the computer, empty if no book is used
+    private final String bookFile;
+    //How much worse than the best book move a book move may be to be played
+    private final int bookScoreWindow;
+    //true if the computer searches while the human is thinking
+    private final boolean isPonderEnabled;
+    //The time every player starts with in seconds, 0 if the game is played without a clock
+    private final int clockBaseTime;
+    //The time that is added to the clock after every move in seconds
+    private final int clockIncrement;
+
+    /**
+     * Constructor of the ConfigurationSnapshot.
+     *
+     * @param boardSize        The size of the board.
+     * @param searchDepth      The depth of the search algorithm.
+     * @param humanPlayer      The player that is played by the human.
+     * @param playerWhiteColor The color of the white player as hex string.
+     * @param playerBlackColor The color of the black player as hex string.
+     * @param playerWhiteChar  The character of the white player.
+     * @param playerBlackChar  The character of the black player.
+     * @param playerEmptyChar  The character of an empty square.
+     * @param bookFile         The opening book file, empty if no book is used.
+     * @param bookScoreWindow  How much worse than the best book move a book move may be to be played.
+     * @param isPonderEnabled  true if the computer searches while the human is thinking.
+     * @param clockBaseTime    The time every player starts with in seconds, 0 if no clock is used.
+     * @param clockIncrement   The time that is added to the clock after every move in seconds.
+     */
+    ConfigurationSnapshot(int boardSize, int searchDepth, Player humanPlayer, String playerWhiteColor,
+                          String playerBlackColor, char playerWhiteChar, char playerBlackChar, char playerEmptyChar,
+                          String bookFile, int bookScoreWindow, boolean isPonderEnabled, int clockBaseTime,
+                          int clockIncrement) {
+        this.boardSize = boardSize;
+        this.searchDepth = searchDepth;
+        this.humanPlayer = humanPlayer;
+        this.playerWhiteColor = playerWhiteColor;
+        this.playerBlackColor = playerBlackColor;
+        this.playerWhiteChar = playerWhiteChar;
+        this.playerBlackChar = playerBlackChar;
+        this.playerEmptyChar = playerEmptyChar;
+        this.bookFile = bookFile;
+        this.bookScoreWindow = bookScoreWindow;
+        this.isPonderEnabled = isPonderEnabled;
+        this.clockBaseTime = clockBaseTime;
+        this.clockIncrement = clockIncrement;
+    }
+
+    /**
+     * This method returns the size of the board.
+     *
+     * @return The size of the board.
+     */
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * This method returns the depth of the search algorithm.
+     *
+     * @return The search depth.
+     */
+    public int getSearchDepth() {
+        return searchDepth;
+    }
+
+    /**
+     * This method returns the player that is played by the human.
+     *
+     * @return The human player.
+     */
+    public Player getHumanPlayer() {
+        return humanPlayer;
+    }
+
+    /**
+     * This method returns the color of the white player.
+     *
+     * @return The color as hex string (e.g. 0xFFFF00).
+     */
+    public String getPlayerWhiteColor() {
+        return playerWhiteColor;
+    }
+
+    /**
+     * This method returns the color of the black player.
+     *
+     * @return The color as hex string (e.g. 0xFF0000).
+     */
+    public String getPlayerBlackColor() {
+        return playerBlackColor;
+    }
+
+    /**
+     * This method returns the character used to display the white player.
+     *
+     * @return The character of the white player.
+     */
+    public char getPlayerWhiteChar() {
+        return playerWhiteChar;
+    }
+
+    /**
+     * This method returns the character used to display the black player.
+     *
+     * @return The character of the black player.
+     */
+    public char getPlayerBlackChar() {
+        return playerBlackChar;
+    }
+
+    /**
+     * This method returns the character used to display an empty square.
+     *
+     * @return The character of an empty square.
+     */
+    public char getPlayerEmptyChar() {
+        return playerEmptyChar;
+    }
+
+    /**
+     * This method returns the opening book file of the computer.
+     *
+     * @return The path of the book file, an empty String if no book is used.
+     */
+    public String getBookFile() {
+        return bookFile;
+    }
+
+    /**
+     * This method returns how much worse than the best book move a book move may be to be played. Within this window
+     * the moves are chosen randomly, so the computer does not always play the same opening.
+     *
+     * @return The score window, 0 if only the best book moves are played.
+     */
+    public int getBookScoreWindow() {
+        return bookScoreWindow;
+    }
+
+    /**
+     * This method returns if the computer searches the replies to its move while the human is thinking (pondering).
+     *
+     * @return true if pondering is enabled.
+     */
+    public boolean isPonderEnabled() {
+        return isPonderEnabled;
+    }
+
+    /**
+     * This method returns the time every player starts with. If a clock is used the computer searches as deep as its
+     * time allows and the search depth is not used.
+     *
+     * @return The base time in seconds, 0 if the game is played without a clock.
+     */
+    public int getClockBaseTime() {
+        return clockBaseTime;
+    }
+
+    /**
+     * This method returns the time that is added to the clock of a player after every move.
+     *
+     * @return The increment in seconds.
+     */
+    public int getClockIncrement() {
+        return clockIncrement;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigurationSnapshot{" +
+                "boardSize=" + boardSize +
+                ", searchDepth=" + searchDepth +
+                ", humanPlayer=" + humanPlayer +
+                ", playerWhiteColor='" + playerWhiteColor + '\'' +
+                ", playerBlackColor='" + playerBlackColor + '\'' +
+                ", playerWhiteChar=" + playerWhiteChar +
+                ", playerBlackChar=" + playerBlackChar +
+                ", playerEmptyChar=" + playerEmptyChar +
+                ", bookFile='" + bookFile + '\'' +
+                ", bookScoreWindow=" + bookScoreWindow +
+                ", isPonderEnabled=" + isPonderEnabled +
+                ", clockBaseTime=" + clockBaseTime +
+                ", clockIncrement=" + clockIncrement +
+                '}';
+    }
+}
@@ -31,12 +31,18 @@
 package reversi.game;
 
 import reversi.actor.Actor;
+import reversi.actor.ComputerActor;
+import reversi.actor.HumanActor;
+import reversi.actor.SearchResult;
 import reversi.board.Board;
 import reversi.board.GameMove;
 import reversi.board.GamePosition;
+import reversi.monitoring.EngineEvents;
 import reversi.player.ActorsPair;
 import reversi.player.Player;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Observable;
 
 /**
@@ -50,6 +56,10 @@ public abstract class Game extends Observable {
     private final ActorsPair ACTORS_PAIR;
     //The GameThread
     private GameThread gameThread;
+    //The clock of the game, null if the game is played without a clock.
+    private volatile GameClock gameClock;
+    //The lock that guards the history of the game, it is held while the history is changed or copied.
+    private final Object historyLock = new Object();
 
     /**
      * Constructor for Game.
@@ -120,8 +130,19 @@ public abstract class Game extends Observable {
         //refresh the actors
         ACTORS_PAIR.refreshAllActors();
 
+        //Create the clock of the new game, because the configured times could have been changed
+        ConfigurationSnapshot snapshot = ReversiGameConfiguration.getInstance().getSnapshot();
+        gameClock = (snapshot.getClockBaseTime() > 0) ? new GameClock(snapshot.getClockBaseTime() * 1000L,
+                snapshot.getClockIncrement() * 1000L) : null;
+        ACTORS_PAIR.setGameClock(gameClock);
+
         //Call the method on start new game so that subclasses are able to handle start game stuff.
-        onStartNewGame();
+        synchronized (historyLock) {
+            onStartNewGame();
+        }
+
+        EngineEvents.gameStarted(getGamePosition().getBoard().getBoardWidth(),
+                ACTORS_PAIR.getActor(Player.BLACK).getName(), ACTORS_PAIR.getActor(Player.WHITE).getName());
     }
 
     /**
@@ -132,11 +153,70 @@ public abstract class Game extends Observable {
         interruptGameAndWaitForFinish();
 
         //Call the method onTakeBackMove() so that subclasses are able to handle take back stuff.
-        onTakeBackMove();
+        synchronized (historyLock) {
+            onTakeBackMove();
+        }
         //call play again that the game is resumed
         play();
     }
 
+    /**
+     * This method has to be called if the game should be continued from an earlier position. All moves made after
+     * that position are removed.
+     *
+     * @param moveNumber The number of moves made before the position the game should continue from.
+     */
+    public final void jumpToMove(int moveNumber) {
+        //Wait for the current game to interrupt.
+        interruptGameAndWaitForFinish();
+
+        //Call the method onJumpToMove(int) so that subclasses are able to restore the position.
+        synchronized (historyLock) {
+            onJumpToMove(moveNumber);
+        }
+        //call play again that the game is resumed
+        play();
+    }
+
+    /**
+     * This method returns the clock of the game.
+     *
+     * @return The GameClock or null if the game is played without a clock.
+     */
+    public final GameClock getGameClock() {
+        return gameClock;
+    }
+
+    /**
+     * This method checks if one of the players has lost on time. The game is over then.
+     *
+     * @return true if the time of a player is used up - false if not or if the game is played without a clock.
+     */
+    public final boolean hasAnyPlayerLostOnTime() {
+        GameClock clock = gameClock;
+
+        //The time of the player whose clock is running is only checked when the move is made
+        return clock != null && clock.getRunningPlayer() == null &&
+                (clock.isTimeUsedUp(Player.BLACK) || clock.isTimeUsedUp(Player.WHITE));
+    }
+
+    /**
+     * This method copies the start position and all moves of the game. The copy is made under the lock of the
+     * history, so it can be taken from any thread while the game thread is making moves.
+     *
+     * @return The GameRecord containing the start position and the moves made so far.
+     */
+    public final GameRecord getGameRecord() {
+        synchronized (historyLock) {
+            List<GameMove> gameMoves = new ArrayList<>();
+            for (int i = 0; i < getNumberOfMoves(); i++) {
+                gameMoves.add(getGameMove(i));
+            }
+
+            return new GameRecord(getGamePosition(0), gameMoves);
+        }
+    }
+
     /**
      * This method returns the current game position.
      *
@@ -144,12 +224,36 @@ public abstract class Game extends Observable {
      */
     public abstract GamePosition getGamePosition();
 
+    /**
+     * This method returns a position of the history of the game.
+     *
+     * @param moveNumber The number of moves made before the position.
+     * @return The GamePosition after the given number of moves.
+     */
+    public abstract GamePosition getGamePosition(int moveNumber);
+
+    /**
+     * This method returns a move of the history of the game.
+     *
+     * @param moveNumber The number of the move starting at 0.
+     * @return The GameMove made in the position with the given move number.
+     */
+    public abstract GameMove getGameMove(int moveNumber);
+
+    /**
+     * This method returns the number of moves made in the game so far.
+     *
+     * @return The number of moves.
+     */
+    public abstract int getNumberOfMoves();
+
     /**
      * This method sets the game position to a new game position done in a subclass
      *
+     * @param gameMove     The GameMove that leads to the new GamePosition.
      * @param gamePosition The new GamePosition of the game.
      */
-    protected abstract void setGamePosition(GamePosition gamePosition);
+    protected abstract void setGamePosition(GameMove gameMove, GamePosition gamePosition);
 
     /**
      * This method has to be implemented by all subclasses to handle stuff that should be done when the game starts.
@@ -162,6 +266,13 @@ public abstract class Game extends Observable {
      */
     protected abstract void onTakeBackMove();
 
+    /**
+     * This method has to be implemented by all subclasses to restore an earlier position of the game.
+     *
+     * @param moveNumber The number of moves made before the position that should be restored.
+     */
+    protected abstract void onJumpToMove(int moveNumber);
+
     /**
      * This method has to be called if the game has changed and the Observers should be notified.
      */
@@ -192,6 +303,12 @@ public abstract class Game extends Observable {
         }
 
         //Get the move of the actor.
+        int moveNumber = getNumberOfMoves();
+        Object moveEvent = EngineEvents.moveRequested(actor.getName(), currentPlayer, moveNumber);
+        GameClock clock = gameClock;
+        if (clock != null) {
+            clock.start(currentPlayer);
+        }
         GameMove move = actor.getStrategy().move(getGamePosition());
 
         //If gameThread is interrupted now end the method again
@@ -199,10 +316,36 @@ public abstract class Game extends Observable {
             return;
         }
 
+        //Computer actors also report how deep they searched, the unfinished last iteration does not count
+        int depthReached = 0;
+        long nodes = 0;
+        if (actor instanceof ComputerActor) {
+            SearchResult searchResult = ((ComputerActor) actor).getLastSearchResult();
+            if (searchResult != null) {
+                depthReached = searchResult.getDepth();
+                nodes = searchResult.getStatistics().getNodes();
+            }
+        }
+        EngineEvents.moveCompleted(moveEvent, actor.getName(), currentPlayer, moveNumber, move, depthReached, nodes);
+
         //make the move if the move is valid
         if (getGamePosition().getBoard().isMoveLegal(move, currentPlayer)) {
+            //A move that was made too late is not played, the player has lost on time
+            if (clock != null && !clock.press()) {
+                return;
+            }
+
             GamePosition newGamePosition = getGamePosition().getBoard().makeMove(move, currentPlayer);
-            setGamePosition(newGamePosition);
+            synchronized (historyLock) {
+                setGamePosition(move, newGamePosition);
+            }
+
+            //While the human is thinking the computer can already search the replies
+            if (actor instanceof ComputerActor &&
+                    ACTORS_PAIR.getActor(newGamePosition.getCurrentPlayer()) instanceof HumanActor &&
+                    newGamePosition.getBoard().hasAnyPlayerAnyLegalMoves()) {
+                ((ComputerActor) actor).startPondering(newGamePosition);
+            }
         }
     }
 
@@ -221,6 +364,15 @@ public abstract class Game extends Observable {
                 ie.printStackTrace();
             }
         }
+
+        //The time of an interrupted move does not count
+        GameClock clock = gameClock;
+        if (clock != null) {
+            clock.pause();
+        }
+
+        //The position the actors were pondering on is not reached anymore
+        ACTORS_PAIR.stopPonderingAllActors();
     }
 
     /**
@@ -229,30 +381,16 @@ public abstract class Game extends Observable {
      * @return The player that represents the human player.
      */
     Player determineHumanPlayer() {
-        //The human player
-        Player humanPlayer;
-
-        //Get the configuration
-        ReversiGameConfiguration config = ReversiGameConfiguration.getInstance();
-        //Get the color that the human player wants to play
-        String humanColor = config.getProperty(ReversiGameConfiguration.HUMAN_PLAYER_COLOR, "black");
-
-        //Set the human player to the right color
-        if (humanColor.toLowerCase().contains("black")) {
-            humanPlayer = Player.BLACK;
-        } else {
-            humanPlayer = Player.WHITE;
-        }
-
-        return humanPlayer;
+        //Get the color that the human player wants to play from the current configuration
+        return ReversiGameConfiguration.getInstance().getSnapshot().getHumanPlayer();
     }
 
     //This class is responsible for making the moves without in another thread.
     private class GameThread extends Thread {
         @Override
         public void run() {
-            //if the game is not interrupted or the game has legal moves
-            while (!isInterrupted() && hasGameAnyLegalMoves()) {
+            //if the game is not interrupted or the game has legal moves and no player has lost on time
+            while (!isInterrupted() && hasGameAnyLegalMoves() && !hasAnyPlayerLostOnTime()) {
                 //notify the observers that something has changed
                 gameHasChanged();
 
@@ -270,6 +408,9 @@ public abstract class Game extends Observable {
 
             //Display the update only if the thread was not interrupted
             if (!isInterrupted()) {
+                EngineEvents.gameEnded(getNumberOfMoves(), getNumberOfPieces(Player.BLACK),
+                        getNumberOfPieces(Player.WHITE));
+
                 //Notify the observers again
                 gameHasChanged();
             }
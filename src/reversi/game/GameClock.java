@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.game;
+
+import reversi.player.Player;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The GameClock measures the thinking time of both players like a chess clock. Every player starts with the base
+ * time, the clock of the player whose turn it is runs and after every move the increment is added to the clock of the
+ * player who moved. A player whose time is used up has lost on time.
+ *
+ * The clock is used by the thread of the game and read by the user interfaces and the ComputerActors, so all methods
+ * are synchronized.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public class GameClock {
+    //The time every player starts with in milliseconds
+    private final long baseTime;
+    //The time that is added after every move in milliseconds
+    private final long increment;
+    //The time left on the clocks of the players in milliseconds, without the running time of the current move
+    private final Map<Player, Long> remainingTimes = new EnumMap<>(Player.class);
+    //The player whose clock is running, null if no clock is running
+    private Player runningPlayer;
+    //The time in nanoseconds when the running clock was started
+    private long startTime;
+
+    /**
+     * Constructor of the GameClock, both clocks are set to the base time and stopped.
+     *
+     * @param baseTime  The time every player starts with in milliseconds.
+     * @param increment The time that is added after every move in milliseconds.
+     */
+    public GameClock(long baseTime, long increment) {
+        if (baseTime <= 0 || increment < 0) {
+            throw new IllegalArgumentException("The base time has to be positive and the increment can not be " +
+                    "negative");
+        }
+
+        this.baseTime = baseTime;
+        this.increment = increment;
+
+        reset();
+    }
+
+    /**
+     * This method stops the clocks and sets both of them to the base time.
+     */
+    public synchronized void reset() {
+        runningPlayer = null;
+        remainingTimes.put(Player.BLACK, baseTime);
+        remainingTimes.put(Player.WHITE, baseTime);
+    }
+
+    /**
+     * This method starts the clock of a player. A clock that is still running is paused first.
+     *
+     * @param player The player whose turn it is.
+     */
+    public synchronized void start(Player player) {
+        pause();
+
+        runningPlayer = player;
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * This method stops the running clock after a move was made and adds the increment, but only if the player has
+     * made the move in time.
+     *
+     * @return true if the move was made in time - false if the time of the player is used up.
+     */
+    public synchronized boolean press() {
+        if (runningPlayer == null) {
+            return true;
+        }
+
+        Player player = runningPlayer;
+        pause();
+
+        if (remainingTimes.get(player) <= 0) {
+            return false;
+        }
+
+        remainingTimes.put(player, remainingTimes.get(player) + increment);
+        return true;
+    }
+
+    /**
+     * This method stops the running clock without adding the increment, e.g. if the game is interrupted.
+     */
+    public synchronized void pause() {
+        if (runningPlayer == null) {
+            return;
+        }
+
+        long elapsedTime = (System.nanoTime() - startTime) / 1000000L;
+        remainingTimes.put(runningPlayer, remainingTimes.get(runningPlayer) - elapsedTime);
+        runningPlayer = null;
+    }
+
+    /**
+     * This method returns the time left on the clock of a player, including the running time of the current move.
+     *
+     * @param player The player.
+     *
+     * @return The remaining time in milliseconds, it is negative or 0 if the time is used up.
+     */
+    public synchronized long getRemainingTime(Player player) {
+        long remainingTime = remainingTimes.get(player);
+
+        if (player == runningPlayer) {
+            remainingTime -= (System.nanoTime() - startTime) / 1000000L;
+        }
+
+        return remainingTime;
+    }
+
+    /**
+     * This method checks if the time of a player is used up.
+     *
+     * @param player The player.
+     *
+     * @return true if the player has no time left - false if not.
+     */
+    public boolean isTimeUsedUp(Player player) {
+        return getRemainingTime(player) <= 0;
+    }
+
+    /**
+     * This method returns the player whose clock is running.
+     *
+     * @return The player or null if no clock is running.
+     */
+    public synchronized Player getRunningPlayer() {
+        return runningPlayer;
+    }
+
+    /**
+     * This method returns the time every player starts with.
+     *
+     * @return The base time in milliseconds.
+     */
+    public long getBaseTime() {
+        return baseTime;
+    }
+
+    /**
+     * This method returns the time that is added after every move.
+     *
+     * @return The increment in milliseconds.
+     */
+    public long getIncrement() {
+        return increment;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "GameClock{" +
+                "baseTime=" + baseTime +
+                ", increment=" + increment +
+                ", remainingTimes=" + remainingTimes +
+                ", runningPlayer=" + runningPlayer +
+                '}';
+    }
+}
@@ -37,11 +37,26 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This class handles the configuration writing stuff.
  * <p>
+ * Changes are applied to the properties in memory immediately. Writing them to the configuration file is done by a
+ * background thread, several changes that happen before the thread gets to run are written with one single write.
+ * The file is written to a temporary file first which is then renamed, so the configuration file is never left
+ * half written.
+ * <p>
  * ALL IMPLEMENTING CLASSES HAVE TO FOLLOW THE SINGLETON DESIGN PATTERN BECAUSE THERE SHOULD ONLY BE ONE INSTANCE
  * OF SUBCLASSES IN THE ENTIRE PROGRAM.
  *
@@ -55,6 +70,11 @@ public abstract class GameConfiguration {
     //The name of the config file
     private final String CONFIGURATION_FILE_NAME;
 
+    //The thread that writes the configuration file
+    private final ExecutorService writer;
+    //Flag if a write of the configuration file is already waiting to be executed
+    private final AtomicBoolean isWritePending = new AtomicBoolean(false);
+
     /**
      * Constructor for the GameConfiguration
      *
@@ -67,6 +87,22 @@ public abstract class GameConfiguration {
         //set the name of the configuration file
         this.CONFIGURATION_FILE_NAME = configurationFileName;
 
+        //The writer thread must not keep the program alive, pending changes are written by the shutdown hook
+        writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "ConfigurationWriter");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread("ConfigurationShutdown") {
+            @Override
+            public void run() {
+                flush();
+            }
+        });
+
         //load all the properties from the config file to the properties
         loadPropertiesFromConfigurationFile();
     }
@@ -97,35 +133,82 @@ public abstract class GameConfiguration {
             }
         } else {
             //Create the config file
-            storePropertiesToConfigurationFile();
+            scheduleStore();
+        }
+    }
+
+    /**
+     * This method schedules a write of the configuration file. If a write is already waiting to be executed nothing
+     * is scheduled, because the waiting write will contain all changes made until it runs.
+     */
+    private void scheduleStore() {
+        if (isWritePending.compareAndSet(false, true)) {
+            writer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    //Reset the flag before copying, so a change made during the write schedules another one
+                    isWritePending.set(false);
+                    storePropertiesToConfigurationFile();
+                }
+            });
         }
     }
 
     /**
-     * This method is responsible for storing the configuration to the config file.
+     * This method blocks until all changes made so far have been written to the configuration file.
+     */
+    public final void flush() {
+        try {
+            //The writer executes its tasks in order, so once this task is done all earlier writes are done too
+            writer.submit(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }).get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ee) {
+            ee.printStackTrace();
+        }
+    }
+
+    /**
+     * This method is responsible for storing the configuration to the config file. The properties are written to a
+     * temporary file which replaces the configuration file afterwards.
      */
     private void storePropertiesToConfigurationFile() {
+        //Copy the properties so that changes are not blocked while the file is written
+        Properties propertiesToStore = new Properties();
+        synchronized (configurationProperties) {
+            propertiesToStore.putAll(configurationProperties);
+        }
+
         //File where the configuration should be stored
-        File configurationFile = new File(CONFIGURATION_FILE_NAME);
+        File configurationFile = new File(CONFIGURATION_FILE_NAME).getAbsoluteFile();
+        //File the configuration is written to first
+        File temporaryFile = new File(configurationFile.getPath() + ".tmp");
 
         try {
-            //If file does not exist create new file
-            if (!configurationFile.exists()) {
-                configurationFile.createNewFile();
+            //Create an FileOutputStream so that the configuration can be written to the file.
+            OutputStream configurationFileOutputStream = new FileOutputStream(temporaryFile);
+
+            try {
+                //Write the config to the file with a comment.
+                propertiesToStore.store(configurationFileOutputStream, "GameConfiguration");
+            } finally {
+                //Close all streams so that no resource leak occurs.
+                configurationFileOutputStream.close();
             }
 
-            //Create an FileOutputStream so that the configuration can be written to the file.
-            OutputStream configurationFileOutputStream = new FileOutputStream(configurationFile);
-
-            //Write the config to the file with a comment.
-            configurationProperties.store(configurationFileOutputStream, "GameConfiguration");
-            //Close all streams so that no resource leak occurs.
-            configurationFileOutputStream.close();
-        } catch (FileNotFoundException fnfe) {
-            //Print error to console if file is not found
-            fnfe.printStackTrace();
+            //Replace the configuration file with the completely written file
+            try {
+                Files.move(temporaryFile.toPath(), configurationFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException amnse) {
+                Files.move(temporaryFile.toPath(), configurationFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
         } catch (IOException ioe) {
-            //Print error to the console if another InputOutputException occurs
+            //Print error to the console if an InputOutputException occurs
             ioe.printStackTrace();
         }
     }
@@ -139,25 +222,137 @@ public abstract class GameConfiguration {
      * @return The value of the key stored in the properties.
      */
     public final String getProperty(String key, String defaultValue) {
-        //If properties does not have any value associated with the key store the key and value in the properties
-        if (!configurationProperties.containsKey(key)) {
-            setProperty(key, defaultValue);
+        String value;
+        boolean isDefaultAdded = false;
+
+        synchronized (configurationProperties) {
+            value = configurationProperties.getProperty(key);
+
+            //If properties does not have any value associated with the key store the key and value in the properties
+            if (value == null) {
+                configurationProperties.setProperty(key, defaultValue);
+                value = defaultValue;
+                isDefaultAdded = true;
+            }
+        }
+
+        //The default value is written in the background, the caller does not have to wait for it
+        if (isDefaultAdded) {
+            scheduleStore();
         }
 
         //Return the (now or previously) stored value
-        return configurationProperties.getProperty(key, defaultValue);
+        return value;
     }
 
     /**
      * This method will add/change the value at the given key.
      *
+     * To change several values at once use a Transaction, so that they are applied and written together.
+     *
      * @param key The name of the value that should be stored.
      * @param newValue The new value that should be stored in the properties file.
      */
     public final void setProperty(String key, String newValue) {
-        //Set the value in the properties
-        configurationProperties.setProperty(key, newValue);
+        beginTransaction().setProperty(key, newValue).commit();
+    }
+
+    /**
+     * This method starts a new Transaction to change several values of the configuration at once.
+     *
+     * @return A new Transaction of this configuration.
+     */
+    public final Transaction beginTransaction() {
+        return new Transaction();
+    }
+
+    /**
+     * This method applies all changes of a Transaction to the properties and schedules the write of the file.
+     *
+     * @param changes The changed values of the Transaction.
+     */
+    private void applyChanges(Map<String, String> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        synchronized (configurationProperties) {
+            //Set all the values in the properties
+            for (Map.Entry<String, String> change : changes.entrySet()) {
+                configurationProperties.setProperty(change.getKey(), change.getValue());
+            }
+        }
+
         //Store the changed properties in the configuration file.
-        storePropertiesToConfigurationFile();
+        scheduleStore();
+
+        //Let the subclass know that the configuration has changed
+        onConfigurationChanged();
+    }
+
+    /**
+     * This method returns the stored value of a key without storing the default value if the key does not exist.
+     *
+     * @param key          The name of the value that should be returned.
+     * @param defaultValue The value that should be returned if the value does not exist.
+     * @return The value of the key stored in the properties or the default value.
+     */
+    protected final String readProperty(String key, String defaultValue) {
+        return configurationProperties.getProperty(key, defaultValue);
+    }
+
+    /**
+     * This method is called whenever a value of the configuration has changed. Subclasses can override this method to
+     * react on changes.
+     */
+    protected void onConfigurationChanged() {
+    }
+
+    /**
+     * A Transaction collects several changes of the configuration. The changes are applied all at once when the
+     * Transaction is committed, so that other threads never see only a part of the changes and the configuration file
+     * is written once.
+     *
+     * A Transaction should only be used by one thread.
+     */
+    public final class Transaction {
+        //The changed values in the order they were set
+        private final Map<String, String> changes = new LinkedHashMap<>();
+        //Flag if the Transaction was already committed
+        private boolean isCommitted = false;
+
+        /**
+         * Constructor of a Transaction, only the GameConfiguration creates Transactions.
+         */
+        private Transaction() {
+        }
+
+        /**
+         * This method will add/change the value at the given key when the Transaction is committed.
+         *
+         * @param key      The name of the value that should be stored.
+         * @param newValue The new value that should be stored.
+         * @return This Transaction so that calls can be chained.
+         */
+        public Transaction setProperty(String key, String newValue) {
+            if (isCommitted) {
+                throw new IllegalStateException("The transaction has already been committed");
+            }
+
+            changes.put(key, newValue);
+            return this;
+        }
+
+        /**
+         * This method applies all the changes of the Transaction to the configuration.
+         */
+        public void commit() {
+            if (isCommitted) {
+                throw new IllegalStateException("The transaction has already been committed");
+            }
+
+            isCommitted = true;
+            applyChanges(changes);
+        }
     }
 }
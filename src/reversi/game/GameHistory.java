@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.game;
+
+import reversi.board.Board;
+import reversi.board.GameMove;
+import reversi.board.GamePosition;
+import reversi.board.PositionHash;
+import reversi.board.ReversiBoard;
+import reversi.board.Square;
+import reversi.board.SquareState;
+import reversi.player.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * This class stores the history of a game as a compact list of moves.
+ *
+ * Every move is stored as one byte (the index of its square, numbered row by row) together with one bit for the player
+ * whose turn it is after the move. Every SNAPSHOT_INTERVAL moves the whole board is stored as a snapshot with one byte
+ * per square, so any position of the game can be restored by replaying at most SNAPSHOT_INTERVAL - 1 moves from the
+ * nearest snapshot. The hash values of all positions are indexed, so it can be checked in constant time whether a
+ * position is already part of the history.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 04. August 2016
+ */
+class GameHistory {
+    //The number of moves between two snapshots of the board
+    private static final int SNAPSHOT_INTERVAL = 16;
+    //The number of buckets of the position index, has to be a power of two
+    private static final int NUMBER_OF_BUCKETS = 64;
+    //The marker for the end of a bucket chain
+    private static final int NO_POSITION = -1;
+
+    //The snapshots of the board, snapshot i belongs to position i * SNAPSHOT_INTERVAL
+    private final List<Snapshot> snapshots = new ArrayList<>();
+    //The first position of every bucket chain of the position index
+    private final int[] buckets = new int[NUMBER_OF_BUCKETS];
+    //The square indices of the moves, move i leads from position i to position i + 1
+    private byte[] moves = new byte[64];
+    //The hash values of the positions
+    private long[] hashes = new long[65];
+    //The next position in the same bucket chain of the position index
+    private int[] nextInBucket = new int[65];
+    //The bit i is set if it is the turn of the white player in position i
+    private final BitSet whiteToMove = new BitSet();
+    //The width of the board, needed to convert between moves and square indices
+    private int boardWidth;
+    //The number of moves stored in the history
+    private int numberOfMoves;
+
+    /**
+     * This method clears the history and sets the position the game starts with.
+     *
+     * @param startPosition The first position of the game.
+     */
+    void reset(GamePosition startPosition) {
+        boardWidth = startPosition.getBoard().getBoardWidth();
+        numberOfMoves = 0;
+
+        snapshots.clear();
+        whiteToMove.clear();
+        Arrays.fill(buckets, NO_POSITION);
+
+        addPosition(0, startPosition);
+    }
+
+    /**
+     * This method adds a move and the position that is reached by it to the end of the history.
+     *
+     * @param gameMove     The move that was made.
+     * @param gamePosition The position after the move.
+     */
+    void addMove(GameMove gameMove, GamePosition gamePosition) {
+        //Grow the arrays if necessary
+        if (numberOfMoves == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+            hashes = Arrays.copyOf(hashes, moves.length + 1);
+            nextInBucket = Arrays.copyOf(nextInBucket, moves.length + 1);
+        }
+
+        Square square = gameMove.getSquare();
+        moves[numberOfMoves] = (byte) (square.getYPosition() * boardWidth + square.getXPosition());
+        numberOfMoves++;
+
+        addPosition(numberOfMoves, gamePosition);
+    }
+
+    /**
+     * This method checks if a position is part of the history.
+     *
+     * @param gamePosition The position that should be checked.
+     *
+     * @return true if the position is part of the history - false if not.
+     */
+    boolean contains(GamePosition gamePosition) {
+        return indexOf(gamePosition) != NO_POSITION;
+    }
+
+    /**
+     * This method returns the number of moves stored in the history.
+     *
+     * @return The number of moves.
+     */
+    int getNumberOfMoves() {
+        return numberOfMoves;
+    }
+
+    /**
+     * This method returns the player whose turn it is in a position of the history.
+     *
+     * @param moveNumber The number of moves made before the position.
+     *
+     * @return The player whose turn it is.
+     */
+    Player getCurrentPlayer(int moveNumber) {
+        checkMoveNumber(moveNumber);
+
+        return whiteToMove.get(moveNumber) ? Player.WHITE : Player.BLACK;
+    }
+
+    /**
+     * This method returns a move of the history.
+     *
+     * @param moveNumber The number of the move starting at 0.
+     *
+     * @return The move made in the position with the given move number.
+     */
+    GameMove getGameMove(int moveNumber) {
+        if (moveNumber < 0 || moveNumber >= numberOfMoves) {
+            throw new IndexOutOfBoundsException("Move " + moveNumber + " of " + numberOfMoves);
+        }
+
+        int squareIndex = moves[moveNumber] & 0xFF;
+        Board board = getGamePosition(moveNumber).getBoard();
+
+        return GameMove.valueOf(board.getSquare(squareIndex % boardWidth, squareIndex / boardWidth));
+    }
+
+    /**
+     * This method restores a position of the history by replaying the moves since the nearest snapshot.
+     *
+     * @param moveNumber The number of moves made before the position.
+     *
+     * @return The position after the given number of moves.
+     */
+    GamePosition getGamePosition(int moveNumber) {
+        checkMoveNumber(moveNumber);
+
+        //Start at the nearest snapshot
+        int snapshotIndex = moveNumber / SNAPSHOT_INTERVAL;
+        GamePosition gamePosition = snapshots.get(snapshotIndex).restore();
+
+        //Replay the moves made after the snapshot
+        for (int i = snapshotIndex * SNAPSHOT_INTERVAL; i < moveNumber; i++) {
+            Board board = gamePosition.getBoard();
+            int squareIndex = moves[i] & 0xFF;
+            Square square = board.getSquare(squareIndex % boardWidth, squareIndex / boardWidth);
+
+            gamePosition = board.makeMove(GameMove.valueOf(square), gamePosition.getCurrentPlayer());
+        }
+
+        return gamePosition;
+    }
+
+    /**
+     * This method removes all moves after the given move number from the history.
+     *
+     * @param moveNumber The number of moves that should be kept.
+     */
+    void truncate(int moveNumber) {
+        checkMoveNumber(moveNumber);
+
+        //The positions are removed in reverse order, so every position is the first element of its bucket chain
+        for (int i = numberOfMoves; i > moveNumber; i--) {
+            buckets[getBucket(hashes[i])] = nextInBucket[i];
+        }
+
+        //Remove all snapshots of removed positions
+        int numberOfSnapshots = moveNumber / SNAPSHOT_INTERVAL + 1;
+        while (snapshots.size() > numberOfSnapshots) {
+            snapshots.remove(snapshots.size() - 1);
+        }
+
+        whiteToMove.clear(moveNumber + 1, numberOfMoves + 1);
+        numberOfMoves = moveNumber;
+    }
+
+    /**
+     * This method stores a position in the position index and creates a snapshot if necessary.
+     *
+     * @param moveNumber   The number of moves made before the position.
+     * @param gamePosition The position that should be stored.
+     */
+    private void addPosition(int moveNumber, GamePosition gamePosition) {
+        long hash = PositionHash.hash(gamePosition);
+        int bucket = getBucket(hash);
+
+        //Add the position at the beginning of its bucket chain
+        hashes[moveNumber] = hash;
+        nextInBucket[moveNumber] = buckets[bucket];
+        buckets[bucket] = moveNumber;
+
+        whiteToMove.set(moveNumber, gamePosition.getCurrentPlayer() == Player.WHITE);
+
+        if (moveNumber % SNAPSHOT_INTERVAL == 0) {
+            snapshots.add(new Snapshot(gamePosition));
+        }
+    }
+
+    /**
+     * This method searches a position in the position index.
+     *
+     * @param gamePosition The position that should be searched.
+     *
+     * @return The move number of the position or NO_POSITION if the position is not part of the history.
+     */
+    private int indexOf(GamePosition gamePosition) {
+        long hash = PositionHash.hash(gamePosition);
+
+        for (int i = buckets[getBucket(hash)]; i != NO_POSITION; i = nextInBucket[i]) {
+            if (hashes[i] == hash) {
+                return i;
+            }
+        }
+
+        return NO_POSITION;
+    }
+
+    /**
+     * This method calculates the bucket of the position index for a hash value.
+     *
+     * @param hash The hash value of a position.
+     *
+     * @return The bucket of the hash value.
+     */
+    private int getBucket(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & (NUMBER_OF_BUCKETS - 1);
+    }
+
+    /**
+     * This method checks if a position with the given move number is part of the history.
+     *
+     * @param moveNumber The number of moves made before the position.
+     */
+    private void checkMoveNumber(int moveNumber) {
+        if (moveNumber < 0 || moveNumber > numberOfMoves) {
+            throw new IndexOutOfBoundsException("Position " + moveNumber + " of " + numberOfMoves);
+        }
+    }
+
+    /**
+     * A Snapshot stores a whole position with one byte per square.
+     */
+    private static class Snapshot {
+        //The ordinals of the SquareStates of all squares, numbered row by row
+        private final byte[] squareStates;
+        //The width of the board
+        private final int boardWidth;
+        //The player whose turn it is
+        private final Player currentPlayer;
+
+        /**
+         * Constructor of a Snapshot.
+         *
+         * @param gamePosition The position that should be stored.
+         */
+        Snapshot(GamePosition gamePosition) {
+            Board board = gamePosition.getBoard();
+            boardWidth = board.getBoardWidth();
+            currentPlayer = gamePosition.getCurrentPlayer();
+
+            squareStates = new byte[boardWidth * board.getBoardHeight()];
+            for (int i = 0; i < squareStates.length; i++) {
+                squareStates[i] = (byte) board.getSquareState(i % boardWidth, i / boardWidth).ordinal();
+            }
+        }
+
+        /**
+         * This method restores the stored position.
+         *
+         * @return A new GamePosition equal to the stored position.
+         */
+        GamePosition restore() {
+            SquareState[] values = SquareState.values();
+            SquareState[][] states = new SquareState[boardWidth][squareStates.length / boardWidth];
+
+            for (int i = 0; i < squareStates.length; i++) {
+                states[i % boardWidth][i / boardWidth] = values[squareStates[i]];
+            }
+
+            return new GamePosition(new ReversiBoard(states), currentPlayer);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package reversi.game;
+
+import reversi.board.GameMove;
+import reversi.board.GamePosition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A GameRecord is a copy of the start position and the moves of a game at one point in time.
+ *
+ * The record is immutable, so it can be used by any thread while the game itself goes on.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public final class GameRecord {
+    //The position the game started with
+    private final GamePosition startPosition;
+    //The moves made in the game, move i was made in the position after i moves
+    private final List<GameMove> gameMoves;
+
+    /**
+     * The constructor of a GameRecord.
+     *
+     * @param startPosition The position the game started with.
+     * @param gameMoves     The moves made in the game.
+     */
+    GameRecord(GamePosition startPosition, List<GameMove> gameMoves) {
+        this.startPosition = startPosition;
+        this.gameMoves = Collections.unmodifiableList(new ArrayList<>(gameMoves));
+    }
+
+    /**
+     * This method returns the position the game started with.
+     *
+     * @return The start position.
+     */
+    public GamePosition getStartPosition() {
+        return startPosition;
+    }
+
+    /**
+     * This method returns the moves made in the game.
+     *
+     * @return The unmodifiable list of moves.
+     */
+    public List<GameMove> getGameMoves() {
+        return gameMoves;
+    }
+
+    @Override
+    public String toString() {
+        return "GameRecord{" +
+                "startPosition=" + startPosition +
+                ", gameMoves=" + gameMoves +
+                '}';
+    }
+}
@@ -30,23 +30,21 @@
  */
 package reversi.game;
 
+import reversi.board.GameMove;
 import reversi.board.GamePosition;
 import reversi.board.ReversiBoard;
 import reversi.player.ActorsPair;
 import reversi.player.Player;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * This is the concrete implementation of a ReversiGame
  *
  * @author Sascha Lutzenberger
- * @version 1.0 - 12. June 2016
+ * @version 1.1 - 04. August 2016
  */
 public class ReversiGame extends Game {
-    //The list containing all game positions
-    private final List<GamePosition> gamePositionList;
+    //The history containing all moves of the game
+    private final GameHistory gameHistory;
     //The current game position
     private GamePosition currentGamePosition;
     //The humanPlayer field
@@ -60,8 +58,8 @@ public class ReversiGame extends Game {
     public ReversiGame(ActorsPair actorsPair) {
         super(actorsPair);
 
-        //Create empty game position list.
-        gamePositionList = new ArrayList<>();
+        //Create empty game history.
+        gameHistory = new GameHistory();
 
         startNewGame();
     }
@@ -76,17 +74,50 @@ public class ReversiGame extends Game {
         return currentGamePosition;
     }
 
+    /**
+     * This method returns a position of the history of the game.
+     *
+     * @param moveNumber The number of moves made before the position.
+     * @return The GamePosition after the given number of moves.
+     */
+    @Override
+    public GamePosition getGamePosition(int moveNumber) {
+        return gameHistory.getGamePosition(moveNumber);
+    }
+
+    /**
+     * This method returns a move of the history of the game.
+     *
+     * @param moveNumber The number of the move starting at 0.
+     * @return The GameMove made in the position with the given move number.
+     */
+    @Override
+    public GameMove getGameMove(int moveNumber) {
+        return gameHistory.getGameMove(moveNumber);
+    }
+
+    /**
+     * This method returns the number of moves made in the game so far.
+     *
+     * @return The number of moves.
+     */
+    @Override
+    public int getNumberOfMoves() {
+        return gameHistory.getNumberOfMoves();
+    }
+
     /**
      * This method sets the game position to a new game position done in a subclass
      *
+     * @param gameMove     The GameMove that leads to the new GamePosition.
      * @param gamePosition The new GamePosition of the game.
      */
     @Override
-    protected void setGamePosition(GamePosition gamePosition) {
-        //get the new game position and add it to the list of game positions if it is not already added
+    protected void setGamePosition(GameMove gameMove, GamePosition gamePosition) {
+        //get the new game position and add the move to the history if the position is not already part of it
         this.currentGamePosition = gamePosition;
-        if (!gamePositionList.contains(gamePosition)) {
-            this.gamePositionList.add(gamePosition);
+        if (!gameHistory.contains(gamePosition)) {
+            this.gameHistory.addMove(gameMove, gamePosition);
         }
     }
 
@@ -97,14 +128,13 @@ public class ReversiGame extends Game {
     public void onStartNewGame() {
         //Create a new reversi board
         ReversiBoard reversiBoard = new ReversiBoard();
-        //clear the list so that all previous game positions will be deleted
-        gamePositionList.clear();
 
         //Set the human player
         humanPlayer = determineHumanPlayer();
 
-        //create a new GamePosition and set it as current gamePosition
-        setGamePosition(new GamePosition(reversiBoard, Player.BLACK));
+        //create a new GamePosition, set it as current gamePosition and clear all previous moves of the history
+        currentGamePosition = new GamePosition(reversiBoard, Player.BLACK);
+        gameHistory.reset(currentGamePosition);
     }
 
     /**
@@ -114,25 +144,35 @@ public class ReversiGame extends Game {
      */
     @Override
     public void onTakeBackMove() {
+        int moveNumber = gameHistory.getNumberOfMoves();
+
         //Move can only be taken back if at least two moves have been made
-        if (this.gamePositionList.size() > 2) {
+        if (moveNumber > 1) {
             //Take multiple computer moves back
-            while (gamePositionList.get(gamePositionList.size() - 2).getCurrentPlayer() != humanPlayer) {
+            while (moveNumber > 1 && gameHistory.getCurrentPlayer(moveNumber - 1) != humanPlayer) {
                 //Remove computer move
-                gamePositionList.remove(gamePositionList.size() - 1);
+                moveNumber--;
             }
 
             //Remove the last human move
-            this.gamePositionList.remove(gamePositionList.size() - 1); //own move
-
-            //Get the position before the last human move has been made.
-            GamePosition currentGamePosition = this.gamePositionList.get(gamePositionList.size() - 1);
+            moveNumber--;
 
-            //Set the GamePosition as current game position
-            setGamePosition(currentGamePosition);
+            //Set the position before the last human move has been made as current game position
+            onJumpToMove(moveNumber);
         }
     }
 
+    /**
+     * This method restores an earlier position of the game and removes all moves made after that position.
+     *
+     * @param moveNumber The number of moves made before the position that should be restored.
+     */
+    @Override
+    protected void onJumpToMove(int moveNumber) {
+        currentGamePosition = gameHistory.getGamePosition(moveNumber);
+        gameHistory.truncate(moveNumber);
+    }
+
     @Override
     public String toString() {
         return "ReversiGame{" +
@@ -30,11 +30,20 @@
  */
 package reversi.game;
 
+import reversi.monitoring.EngineEvents;
+import reversi.player.Player;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
  * This is the configuration for a ReversiGame.
  *
+ * All values of the configuration are available as a typed and immutable ConfigurationSnapshot. Whenever the
+ * configuration changes a new snapshot is published and all registered ConfigurationListeners are notified.
+ *
  * @author Sascha Lutzenberger
- * @version 1.0 - 21. May 2016
+ * @version 1.1 - 06. August 2016
  */
 public class ReversiGameConfiguration extends GameConfiguration {
     //All the keys that exist in the ReversiGameConfiguration
@@ -46,9 +55,16 @@ public class ReversiGameConfiguration extends GameConfiguration {
     public static final String PLAYER_BLACK_CHAR = "player.black.char";
     public static final String PLAYER_EMPTY_CHAR = "player.empty.char";
     public static final String ALGORITHM_SEARCH_DEPTH = "algorithm.search.depth";
+    public static final String BOOK_FILE = "book.file";
+    public static final String BOOK_SCORE_WINDOW = "book.score.window";
+    public static final String PONDER = "computer.ponder";
+    public static final String CLOCK_BASE_TIME = "clock.base.time";
+    public static final String CLOCK_INCREMENT = "clock.increment";
 
-    //Singleton design pattern should be applied here
-    private static ReversiGameConfiguration singleton;
+    //The listeners that are notified when the configuration changes
+    private final List<ConfigurationListener> listeners = new CopyOnWriteArrayList<>();
+    //The snapshot of the current values of the configuration
+    private volatile ConfigurationSnapshot snapshot;
 
     /**
      * Constructor that creates the Configuration.
@@ -56,6 +72,9 @@ public class ReversiGameConfiguration extends GameConfiguration {
     private ReversiGameConfiguration() {
         //The file name of the properties file
         super("reversi_game.properties");
+
+        //Create the first snapshot of the loaded values
+        snapshot = createSnapshot();
     }
 
     /**
@@ -64,12 +83,151 @@ public class ReversiGameConfiguration extends GameConfiguration {
      * @return Returns the only instance of the configuration
      */
     public static ReversiGameConfiguration getInstance() {
-        //If there is no instance created create an instance
-        if (singleton == null) {
-            singleton = new ReversiGameConfiguration();
+        //The instance is created by the class loader the first time the holder is accessed, this is thread safe
+        return SingletonHolder.SINGLETON;
+    }
+
+    /**
+     * This method returns the snapshot of the current values of the configuration. Reading the snapshot does not need
+     * any locking.
+     *
+     * @return The current ConfigurationSnapshot.
+     */
+    public ConfigurationSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * This method registers a listener that is notified whenever the configuration changes.
+     *
+     * @param listener The listener that should be notified.
+     */
+    public void addConfigurationListener(ConfigurationListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * This method removes a registered listener.
+     *
+     * @param listener The listener that should no longer be notified.
+     */
+    public void removeConfigurationListener(ConfigurationListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * This method publishes a new snapshot and notifies all listeners whenever the configuration has changed.
+     */
+    @Override
+    protected void onConfigurationChanged() {
+        ConfigurationSnapshot newSnapshot;
+        synchronized (this) {
+            newSnapshot = createSnapshot();
+            snapshot = newSnapshot;
+        }
+
+        EngineEvents.configurationReloaded(newSnapshot.getBoardSize(), newSnapshot.getSearchDepth(),
+                newSnapshot.getHumanPlayer());
+
+        for (ConfigurationListener listener : listeners) {
+            listener.configurationChanged(newSnapshot);
         }
+    }
+
+    /**
+     * This method creates a snapshot of the currently stored values. Invalid values are replaced by the default values.
+     *
+     * @return A new ConfigurationSnapshot.
+     */
+    private ConfigurationSnapshot createSnapshot() {
+        int boardSize = readInt(BOARD_SIZE, ConfigurationSnapshot.DEFAULT_BOARD_SIZE);
+        int searchDepth = readInt(ALGORITHM_SEARCH_DEPTH, ConfigurationSnapshot.DEFAULT_SEARCH_DEPTH);
+
+        String humanColor = readProperty(HUMAN_PLAYER_COLOR, ConfigurationSnapshot.DEFAULT_HUMAN_PLAYER_COLOR);
+        Player humanPlayer = humanColor.toLowerCase().contains("black") ? Player.BLACK : Player.WHITE;
+
+        String whiteColor = readProperty(PLAYER_WHITE_COLOR, ConfigurationSnapshot.DEFAULT_PLAYER_WHITE_COLOR);
+        String blackColor = readProperty(PLAYER_BLACK_COLOR, ConfigurationSnapshot.DEFAULT_PLAYER_BLACK_COLOR);
 
-        //Return the instance of the ReversiGameConfiguration.
-        return singleton;
+        char whiteChar = readChar(PLAYER_WHITE_CHAR, ConfigurationSnapshot.DEFAULT_PLAYER_WHITE_CHAR);
+        char blackChar = readChar(PLAYER_BLACK_CHAR, ConfigurationSnapshot.DEFAULT_PLAYER_BLACK_CHAR);
+        char emptyChar = readChar(PLAYER_EMPTY_CHAR, ConfigurationSnapshot.DEFAULT_PLAYER_EMPTY_CHAR);
+
+        String bookFile = readProperty(BOOK_FILE, ConfigurationSnapshot.DEFAULT_BOOK_FILE).trim();
+        int bookScoreWindow = Math.max(0, readInt(BOOK_SCORE_WINDOW, ConfigurationSnapshot.DEFAULT_BOOK_SCORE_WINDOW));
+
+        boolean isPonderEnabled = readBoolean(PONDER, ConfigurationSnapshot.DEFAULT_PONDER);
+
+        int clockBaseTime = Math.max(0, readInt(CLOCK_BASE_TIME, ConfigurationSnapshot.DEFAULT_CLOCK_BASE_TIME));
+        int clockIncrement = Math.max(0, readInt(CLOCK_INCREMENT, ConfigurationSnapshot.DEFAULT_CLOCK_INCREMENT));
+
+        return new ConfigurationSnapshot(boardSize, searchDepth, humanPlayer, whiteColor, blackColor, whiteChar,
+                blackChar, emptyChar, bookFile, bookScoreWindow, isPonderEnabled, clockBaseTime, clockIncrement);
+    }
+
+    /**
+     * This method reads an int value from the configuration.
+     *
+     * @param key          The key of the value.
+     * @param defaultValue The value that is used if there is no valid value stored.
+     * @return The stored value or the default value.
+     */
+    private int readInt(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(readProperty(key, Integer.toString(defaultValue)).trim());
+        } catch (NumberFormatException nfe) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * This method reads a boolean value from the configuration.
+     *
+     * @param key          The key of the value.
+     * @param defaultValue The value that is used if there is no valid value stored.
+     * @return The stored value or the default value.
+     */
+    private boolean readBoolean(String key, boolean defaultValue) {
+        String value = readProperty(key, Boolean.toString(defaultValue)).trim();
+
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        } else if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+
+        return defaultValue;
+    }
+
+    /**
+     * This method reads a char value from the configuration.
+     *
+     * @param key          The key of the value.
+     * @param defaultValue The value that is used if there is no valid value stored.
+     * @return The stored value or the default value.
+     */
+    private char readChar(String key, char defaultValue) {
+        String value = readProperty(key, "");
+
+        return value.isEmpty() ? defaultValue : value.charAt(0);
+    }
+
+    /**
+     * The interface that has to be implemented by any class that should be notified when the configuration changes.
+     */
+    public interface ConfigurationListener {
+        /**
+         * This method is called after the configuration has changed.
+         *
+         * @param snapshot The snapshot containing the new values of the configuration.
+         */
+        void configurationChanged(ConfigurationSnapshot snapshot);
+    }
+
+    /**
+     * This class holds the only instance of the configuration, it is initialized on first access.
+     */
+    private static class SingletonHolder {
+        private static final ReversiGameConfiguration SINGLETON = new ReversiGameConfiguration();
     }
 }
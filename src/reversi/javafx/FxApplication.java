@@ -31,9 +31,9 @@
 
 package reversi.javafx;
 
-import reversi.actor.Actor;
 import reversi.actor.AlphaBetaActor;
 import reversi.actor.HumanActor;
+import reversi.actor.TranspositionTable;
 import reversi.game.ReversiGame;
 import reversi.player.ActorsPair;
 
@@ -47,13 +47,18 @@ import javafx.stage.Stage;
  * @version 1.0 - 23. July 2016
  */
 public class FxApplication extends Application {
+    //The size of the transposition table of the computer in megabytes
+    private static final int TRANSPOSITION_TABLE_SIZE = 16;
+
     public static void main(String[] args) {
         Application.launch(FxApplication.class, args);
     }
 
     @Override
     public void start(Stage primaryStage) {
-        Actor actor = new AlphaBetaActor();
+        AlphaBetaActor actor = new AlphaBetaActor();
+        //The table keeps what the computer searched while the human was thinking
+        actor.setTranspositionTable(new TranspositionTable(TRANSPOSITION_TABLE_SIZE));
         HumanActor humanActor = new HumanActor();
 
         ActorsPair actorsPair = new ActorsPair(actor, humanActor);
@@ -47,8 +47,6 @@ import java.util.ResourceBundle;
  * @version 1.0 - 23. July 2016
  */
 class FxGamePreferences {
-    private FxGamePreferencesController controller;
-
     FxGamePreferences() {
         //create new application modal window
         Stage window = new Stage();
@@ -67,7 +65,7 @@ class FxGamePreferences {
             parent = fxmlLoader.load();
 
             //get the controller of the view
-            controller = fxmlLoader.getController();
+            FxGamePreferencesController controller = fxmlLoader.getController();
             //set the window
             controller.initWindow(window);
 
@@ -87,13 +85,4 @@ class FxGamePreferences {
         //wait until the window is closed
         window.showAndWait();
     }
-
-    /**
-     * This method is used to check if an configuration was changed by this application dialog.
-     *
-     * @return true if config was changed - false if not
-     */
-    boolean hasConfigurationChanged() {
-        return controller.hasConfigurationChanged();
-    }
 }
\ No newline at end of file
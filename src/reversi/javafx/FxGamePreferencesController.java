@@ -31,6 +31,7 @@
 
 package reversi.javafx;
 
+import reversi.game.GameConfiguration;
 import reversi.game.ReversiGameConfiguration;
 
 import javafx.beans.value.ChangeListener;
@@ -50,7 +51,6 @@ import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.ResourceBundle;
-import java.util.Set;
 
 /**
  * This class handles all the user input of the GamePreferences.fxml view.
@@ -93,9 +93,6 @@ public class FxGamePreferencesController implements Initializable {
     //The game configuration
     private ReversiGameConfiguration configuration = ReversiGameConfiguration.getInstance();
 
-    //boolean if config has changed
-    private boolean hasConfigurationChanged = false;
-
     //the window on which the dialog is displayed
     private Stage window;
 
@@ -188,15 +185,6 @@ public class FxGamePreferencesController implements Initializable {
         this.window = window;
     }
 
-    /**
-     * This method is used that it can be distinguished that a setting was changed
-     *
-     * @return true if the configuration has changed - false if the configuration has not changed
-     */
-    boolean hasConfigurationChanged() {
-        return hasConfigurationChanged;
-    }
-
     /**
      * This method is used for converting an javafx.scene.paint.Color to the corresponding hex value used in the
      * configuration
@@ -271,14 +259,15 @@ public class FxGamePreferencesController implements Initializable {
      * This method is used to store all the configurations in the reversi game config file
      */
     private void saveChangesToReversiGameConfiguration() {
-        hasConfigurationChanged = true;
-
-        //get all the set keys of the preference map
-        Set<String> keys = preferenceMap.keySet();
+        //Collect all changes so that they are applied and stored at once
+        GameConfiguration.Transaction transaction = configuration.beginTransaction();
 
         //for each key set set the value to the reversi game config
-        for (String key : keys) {
-            configuration.setProperty(key, preferenceMap.get(key));
+        for (Map.Entry<String, String> preference : preferenceMap.entrySet()) {
+            transaction.setProperty(preference.getKey(), preference.getValue());
         }
+
+        //The views are notified by the configuration
+        transaction.commit();
     }
 }
@@ -32,11 +32,17 @@
 package reversi.javafx;
 
 import reversi.actor.HumanActor;
+import reversi.actor.TranspositionTable;
+import reversi.analysis.GameAnalyser;
+import reversi.analysis.GameReview;
+import reversi.analysis.MoveAnalysis;
+import reversi.analysis.MultiPvAnalyser;
 import reversi.board.Board;
 import reversi.board.GameMove;
 import reversi.board.GamePosition;
 import reversi.board.Square;
 import reversi.board.SquareState;
+import reversi.game.ConfigurationSnapshot;
 import reversi.game.Game;
 import reversi.game.ReversiGameConfiguration;
 import reversi.game.ThreadEvent;
@@ -51,13 +57,19 @@ import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckMenuItem;
 import javafx.scene.control.Label;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.Tooltip;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
 import javafx.scene.shape.Circle;
+import javafx.scene.text.Font;
+import javafx.stage.Stage;
 import javafx.util.Duration;
 
 import java.net.URL;
@@ -73,6 +85,12 @@ import java.util.ResourceBundle;
  * @version 1.0 - 21. July 2016
  */
 public class FxGameViewController implements Initializable, Observer, HumanActor.HumanActable {
+    //The size of the transposition tables of the analyses in megabytes
+    private static final int ANALYSIS_TABLE_SIZE = 16;
+
+    @FXML
+    private CheckMenuItem menuItemHints;
+
     @FXML
     private GridPane boardPane;
 
@@ -101,6 +119,9 @@ public class FxGameViewController implements Initializable, Observer, HumanActor
 
     private String userInput;
 
+    //The analyser computing the scores of the legal moves, created when the hints are shown the first time
+    private MultiPvAnalyser hintAnalyser;
+
     private ThreadEvent resultsReady = new ThreadEvent();
     private EventHandler<MouseEvent> userInputsMove = new EventHandler<MouseEvent>() {
         @Override
@@ -130,6 +151,23 @@ public class FxGameViewController implements Initializable, Observer, HumanActor
         this.gameModel = gameModel;
         gameModel.addObserver(this);
 
+        //Apply the new colors of the players whenever the configuration changes. A new board size is used for the
+        //next start of the program, because the size of all boards is fixed while the program runs
+        configuration.addConfigurationListener(new ReversiGameConfiguration.ConfigurationListener() {
+            @Override
+            public void configurationChanged(ConfigurationSnapshot snapshot) {
+                Platform.runLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        initializePlayerIcons();
+
+                        updateBoard();
+                        updateCurrentPlayer();
+                    }
+                });
+            }
+        });
+
         disableInput();
     }
 
@@ -137,7 +175,7 @@ public class FxGameViewController implements Initializable, Observer, HumanActor
         int boardSize;
 
         if (gameModel == null) {
-            boardSize = Integer.parseInt(configuration.getProperty(ReversiGameConfiguration.BOARD_SIZE, "8"));
+            boardSize = configuration.getSnapshot().getBoardSize();
         } else {
             boardSize = gameModel.getGamePosition().getBoard().getBoardWidth();
         }
@@ -163,8 +201,9 @@ public class FxGameViewController implements Initializable, Observer, HumanActor
 
     private void initializePlayerIcons() {
         //Load the string values of the colors of the players
-        String colorBlack = configuration.getProperty(ReversiGameConfiguration.PLAYER_BLACK_COLOR, "0xFF0000");
-        String colorWhite = configuration.getProperty(ReversiGameConfiguration.PLAYER_WHITE_COLOR, "0xFFFF00");
+        ConfigurationSnapshot snapshot = configuration.getSnapshot();
+        String colorBlack = snapshot.getPlayerBlackColor();
+        String colorWhite = snapshot.getPlayerWhiteColor();
 
         Color blackColor = Color.valueOf(colorBlack);
         Color whiteColor = Color.valueOf(colorWhite);
@@ -220,15 +259,61 @@ public class FxGameViewController implements Initializable, Observer, HumanActor
 
     @FXML
     private void showSettingsClicked(ActionEvent event) {
-        FxGamePreferences preferences = new FxGamePreferences();
-        if (preferences.hasConfigurationChanged()) {
-            initializePlayerIcons();
+        //The changes are applied by the configuration listener
+        new FxGamePreferences();
+    }
 
-            updateBoard();
-            updateCurrentPlayer();
+    @FXML
+    private void showHintsClicked(ActionEvent event) {
+        //The hints are only shown while the human has to move
+        if (menuItemHints.isSelected() && isInputEnabled()) {
+            showHints();
+        } else {
+            hideHints();
         }
     }
 
+    @FXML
+    private void analyseGameClicked(ActionEvent event) {
+        Thread analysisThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                int depth = configuration.getSnapshot().getSearchDepth();
+                GameAnalyser analyser = new GameAnalyser(Runtime.getRuntime().availableProcessors(), depth,
+                        GameAnalyser.DEFAULT_BLUNDER_THRESHOLD, new TranspositionTable(ANALYSIS_TABLE_SIZE));
+
+                final GameReview gameReview;
+                try {
+                    gameReview = analyser.analyse(gameModel);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+
+                Platform.runLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        showGameReview(gameReview);
+                    }
+                });
+            }
+        }, "GameAnalyser");
+
+        //The analysis must not keep the application alive
+        analysisThread.setDaemon(true);
+        analysisThread.start();
+    }
+
+    private void showGameReview(GameReview gameReview) {
+        TextArea report = new TextArea(gameReview.getReport());
+        report.setFont(Font.font("Monospaced", 12));
+        report.setEditable(false);
+
+        Stage window = new Stage();
+        window.setTitle(resources.getString("ui.analysis.title"));
+        window.setScene(new Scene(report, 600, 400));
+        window.show();
+    }
+
     @Override
     public void update(Observable observable, Object arg) {
         //updates the board
@@ -248,8 +333,7 @@ public class FxGameViewController implements Initializable, Observer, HumanActor
                 for (int x = 0; x < board.getBoardWidth(); x++) {
                     for (int y = 0; y < board.getBoardHeight(); y++) {
                         //get the square state from the board
-                        Square square = board.getSquare(x, y);
-                        SquareState state = square.getSquareState();
+                        SquareState state = board.getSquareState(x, y);
 
                         //add the corresponding icon to the square
                         if (state == SquareState.WHITE) {
@@ -307,6 +391,9 @@ public class FxGameViewController implements Initializable, Observer, HumanActor
         Platform.runLater(new Runnable() {
             @Override
             public void run() {
+                //The hints are only shown while the human has to move
+                hideHints();
+
                 for (int x = 0; x < squares.length; x++) {
                     for (int y = 0; y < squares[x].length; y++) {
                         if (!squares[x][y].isDisabled()) {
@@ -336,10 +423,87 @@ public class FxGameViewController implements Initializable, Observer, HumanActor
                     //enable the square
                     squares[xPos][yPos].setDisable(false);
                 }
+
+                if (menuItemHints.isSelected()) {
+                    showHints();
+                }
             }
         });
     }
 
+    /**
+     * This method starts the analysis of the current position and shows the score of every legal move on its square
+     * as soon as it is known. The scores are updated while the analysis searches deeper. The method has to be called
+     * by the JavaFX application thread, the analysis runs in the background.
+     */
+    private void showHints() {
+        int depth = configuration.getSnapshot().getSearchDepth();
+
+        getHintAnalyser().startAnalysis(gameModel.getGamePosition(), depth, new MultiPvAnalyser.AnalysisListener() {
+            @Override
+            public void analysisUpdated(final GamePosition gamePosition, final List<MoveAnalysis> analyses) {
+                Platform.runLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        //Results of a position that is not shown anymore are ignored
+                        if (!menuItemHints.isSelected() || !gamePosition.equals(gameModel.getGamePosition())) {
+                            return;
+                        }
+
+                        for (MoveAnalysis analysis : analyses) {
+                            Square square = analysis.getGameMove().getSquare();
+                            ButtonCircle button = squares[square.getXPosition()][square.getYPosition()];
+
+                            //A disabled square means the human has already moved
+                            if (!button.isDisabled()) {
+                                button.setText(analysis.getScoreText());
+                                button.setTooltip(new Tooltip(analysis.getPrincipalVariationText()));
+                            }
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * This method stops the analysis and removes the scores from the squares. The method has to be called by the
+     * JavaFX application thread.
+     */
+    private void hideHints() {
+        if (hintAnalyser != null) {
+            hintAnalyser.stopAnalysis();
+        }
+
+        for (int x = 0; x < squares.length; x++) {
+            for (int y = 0; y < squares[x].length; y++) {
+                squares[x][y].setText(null);
+                squares[x][y].setTooltip(null);
+            }
+        }
+    }
+
+    private MultiPvAnalyser getHintAnalyser() {
+        if (hintAnalyser == null) {
+            hintAnalyser = new MultiPvAnalyser(Runtime.getRuntime().availableProcessors(),
+                    new TranspositionTable(ANALYSIS_TABLE_SIZE));
+        }
+
+        return hintAnalyser;
+    }
+
+    private boolean isInputEnabled() {
+        for (int x = 0; x < squares.length; x++) {
+            for (int y = 0; y < squares[x].length; y++) {
+                if (!squares[x][y].isDisabled()) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
     /**
      * This method is implemented so that the controller can act as HumanActable
      *
@@ -391,7 +555,7 @@ public class FxGameViewController implements Initializable, Observer, HumanActor
         //Get the square from the board and create a game move
         Square square = gameModel.getGamePosition().getBoard().getSquare(xPos, yPos);
 
-        return new GameMove(square);
+        return GameMove.valueOf(square);
     }
 
     private class ButtonCircle extends Button {
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package reversi.monitoring;
+
+import reversi.board.GameMove;
+import reversi.player.Player;
+
+/**
+ * This class emits the JDK Flight Recorder events of the game and the search, so that slow moves of the engine can be
+ * lined up with garbage collection and CPU events in a recording.
+ *
+ * The events are defined at runtime by EventDefinition, so the project does not need a JDK with JDK Flight Recorder
+ * to compile. The events are only created when the running JVM supports JDK Flight Recorder and the event is enabled
+ * in the current recording, otherwise every method returns immediately.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 10. August 2016
+ */
+public final class EngineEvents {
+    //The events of the game
+    private static final EventDefinition GAME_STARTED = EventDefinition.builder("reversi.GameStarted",
+            "Game Started", "Game", "A new game was started")
+            .addField(int.class, "boardSize", "Board Size")
+            .addField(String.class, "blackActor", "Black Actor")
+            .addField(String.class, "whiteActor", "White Actor")
+            .build();
+    private static final EventDefinition GAME_ENDED = EventDefinition.builder("reversi.GameEnded",
+            "Game Ended", "Game", "A game has ended")
+            .addField(int.class, "numberOfMoves", "Number Of Moves")
+            .addField(int.class, "blackPieces", "Black Pieces")
+            .addField(int.class, "whitePieces", "White Pieces")
+            .build();
+    private static final EventDefinition MOVE_REQUESTED = EventDefinition.builder("reversi.MoveRequested",
+            "Move Requested", "Game", "The game asked an actor for its next move")
+            .addField(String.class, "actor", "Actor")
+            .addField(String.class, "player", "Player")
+            .addField(int.class, "moveNumber", "Move Number")
+            .build();
+    private static final EventDefinition MOVE_COMPLETED = EventDefinition.builder("reversi.MoveCompleted",
+            "Move Completed", "Game", "An actor has made its move")
+            .addField(String.class, "actor", "Actor")
+            .addField(String.class, "player", "Player")
+            .addField(int.class, "moveNumber", "Move Number")
+            .addField(String.class, "move", "Move")
+            .addField(int.class, "depthReached", "Depth Reached")
+            .addField(long.class, "nodes", "Nodes")
+            .build();
+
+    //The events of the search
+    private static final EventDefinition SEARCH_ITERATION = EventDefinition.builder("reversi.SearchIteration",
+            "Search Iteration", "Search", "A search iteration of a computer actor has completed")
+            .addField(String.class, "actor", "Actor")
+            .addField(int.class, "depth", "Depth")
+            .addField(String.class, "bestMove", "Best Move")
+            .addField(int.class, "evaluationValue", "Evaluation Value")
+            .addField(long.class, "nodes", "Nodes")
+            .addField(long.class, "nodesPerSecond", "Nodes Per Second")
+            .addField(double.class, "firstMoveCutoffRatio", "First Move Cutoff Ratio")
+            .build();
+    private static final EventDefinition TRANSPOSITION_TABLE = EventDefinition.builder("reversi.TranspositionTable",
+            "Transposition Table", "Search", "Usage of the transposition table during a search")
+            .addField(String.class, "actor", "Actor")
+            .addField(long.class, "probes", "Probes")
+            .addField(long.class, "hits", "Hits")
+            .addField(double.class, "hitRatio", "Hit Ratio")
+            .build();
+
+    //The events of the configuration
+    private static final EventDefinition CONFIGURATION_RELOAD = EventDefinition.builder(
+            "reversi.ConfigurationReload", "Configuration Reload", "Configuration", "The configuration has changed")
+            .addField(int.class, "boardSize", "Board Size")
+            .addField(int.class, "searchDepth", "Search Depth")
+            .addField(String.class, "humanPlayer", "Human Player")
+            .build();
+
+    /**
+     * There should be no instance of this class.
+     */
+    private EngineEvents() {
+    }
+
+    /**
+     * This method emits the event that a new game was started.
+     *
+     * @param boardSize   The size of the board.
+     * @param blackActor  The name of the Actor playing black.
+     * @param whiteActor  The name of the Actor playing white.
+     */
+    public static void gameStarted(int boardSize, String blackActor, String whiteActor) {
+        GAME_STARTED.commit(boardSize, blackActor, whiteActor);
+    }
+
+    /**
+     * This method emits the event that a game has ended.
+     *
+     * @param numberOfMoves The number of moves made in the game.
+     * @param blackPieces   The number of pieces of the black player.
+     * @param whitePieces   The number of pieces of the white player.
+     */
+    public static void gameEnded(int numberOfMoves, int blackPieces, int whitePieces) {
+        GAME_ENDED.commit(numberOfMoves, blackPieces, whitePieces);
+    }
+
+    /**
+     * This method emits the event that an Actor was asked for its move and starts the time measurement of the move.
+     *
+     * @param actor      The name of the Actor that has to move.
+     * @param player     The player whose turn it is.
+     * @param moveNumber The number of the move starting at 0.
+     *
+     * @return The started move event that has to be passed to moveCompleted, null if no event is recorded.
+     */
+    public static Object moveRequested(String actor, Player player, int moveNumber) {
+        MOVE_REQUESTED.commit(actor, player.name(), moveNumber);
+
+        return MOVE_COMPLETED.begin();
+    }
+
+    /**
+     * This method emits the event that an Actor has made its move.
+     *
+     * @param moveEvent    The event returned by moveRequested.
+     * @param actor        The name of the Actor that made the move.
+     * @param player       The player who made the move.
+     * @param moveNumber   The number of the move starting at 0.
+     * @param gameMove     The move that was made.
+     * @param depthReached The depth of the last finished search iteration, 0 if the Actor does not search.
+     * @param nodes        The number of searched nodes, 0 if the Actor does not search.
+     */
+    public static void moveCompleted(Object moveEvent, String actor, Player player, int moveNumber,
+                                     GameMove gameMove, int depthReached, long nodes) {
+        if (moveEvent == null) {
+            return;
+        }
+
+        MOVE_COMPLETED.end(moveEvent, actor, player.name(), moveNumber, getMoveName(gameMove), depthReached, nodes);
+    }
+
+    /**
+     * This method starts the time measurement of a search iteration.
+     *
+     * @return The started iteration event that has to be passed to searchIterationCompleted, null if no event is
+     * recorded.
+     */
+    public static Object searchIterationStarted() {
+        return SEARCH_ITERATION.begin();
+    }
+
+    /**
+     * This method emits the event that a search iteration is completed.
+     *
+     * @param iterationEvent       The event returned by searchIterationStarted.
+     * @param actor                The name of the ComputerActor that searched.
+     * @param depth                The depth of the iteration.
+     * @param bestMove             The best move found by the iteration.
+     * @param evaluationValue      The evaluation value of the best move.
+     * @param nodes                The number of searched nodes.
+     * @param nodesPerSecond       The number of searched nodes per second.
+     * @param firstMoveCutoffRatio The ratio of beta cutoffs caused by the first searched move.
+     */
+    public static void searchIterationCompleted(Object iterationEvent, String actor, int depth, GameMove bestMove,
+                                                int evaluationValue, long nodes, long nodesPerSecond,
+                                                double firstMoveCutoffRatio) {
+        if (iterationEvent == null) {
+            return;
+        }
+
+        SEARCH_ITERATION.end(iterationEvent, actor, depth, getMoveName(bestMove), evaluationValue, nodes,
+                nodesPerSecond, firstMoveCutoffRatio);
+    }
+
+    /**
+     * This method emits the usage of the transposition table during one search.
+     *
+     * @param actor  The name of the ComputerActor that searched.
+     * @param probes The number of lookups in the transposition table.
+     * @param hits   The number of lookups that found an entry.
+     */
+    public static void transpositionTableUsed(String actor, long probes, long hits) {
+        TRANSPOSITION_TABLE.commit(actor, probes, hits, (probes == 0) ? 0.0 : (double) hits / probes);
+    }
+
+    /**
+     * This method emits the event that the configuration has changed.
+     *
+     * @param boardSize   The configured board size.
+     * @param searchDepth The configured search depth.
+     * @param humanPlayer The player the human plays.
+     */
+    public static void configurationReloaded(int boardSize, int searchDepth, Player humanPlayer) {
+        CONFIGURATION_RELOAD.commit(boardSize, searchDepth, humanPlayer.name());
+    }
+
+    /**
+     * This method returns the name of the square of a GameMove.
+     *
+     * @param gameMove The GameMove.
+     *
+     * @return The name of the square, "-" if there is no GameMove.
+     */
+    private static String getMoveName(GameMove gameMove) {
+        return (gameMove == null) ? "-" : gameMove.getSquare().getSquareName();
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package reversi.monitoring;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An EventDefinition describes one JDK Flight Recorder event of the engine.
+ *
+ * The event class is created at runtime with jdk.jfr.EventFactory and every call to JDK Flight Recorder is made by
+ * reflection, so the project compiles with the language level and the JDK of the project. On a JVM without JDK Flight
+ * Recorder (before Java 11) the definition is not available and all methods do nothing.
+ *
+ * The values of an event are given in the order the fields were added to the Builder.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+final class EventDefinition {
+    //The definition of every event, if JDK Flight Recorder is not available
+    private static final EventDefinition NOT_AVAILABLE = new EventDefinition(null);
+
+    //The reflected classes, constructors and methods of JDK Flight Recorder, all null if it is not available
+    private static final Constructor<?> ANNOTATION_ELEMENT;
+    private static final Constructor<?> VALUE_DESCRIPTOR;
+    private static final Method CREATE_FACTORY;
+    private static final Method NEW_EVENT;
+    private static final Method IS_ENABLED;
+    private static final Method BEGIN;
+    private static final Method END;
+    private static final Method SHOULD_COMMIT;
+    private static final Method SET;
+    private static final Method COMMIT;
+    private static final Class<? extends Annotation> NAME;
+    private static final Class<? extends Annotation> LABEL;
+    private static final Class<? extends Annotation> CATEGORY;
+    private static final Class<? extends Annotation> DESCRIPTION;
+    private static final Class<? extends Annotation> STACK_TRACE;
+
+    static {
+        Constructor<?> annotationElement = null;
+        Constructor<?> valueDescriptor = null;
+        Method createFactory = null;
+        Method newEvent = null;
+        Method isEnabled = null;
+        Method begin = null;
+        Method end = null;
+        Method shouldCommit = null;
+        Method set = null;
+        Method commit = null;
+        Class<? extends Annotation> name = null;
+        Class<? extends Annotation> label = null;
+        Class<? extends Annotation> category = null;
+        Class<? extends Annotation> description = null;
+        Class<? extends Annotation> stackTrace = null;
+
+        try {
+            Class<?> eventClass = Class.forName("jdk.jfr.Event");
+            Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+
+            annotationElement = Class.forName("jdk.jfr.AnnotationElement").getConstructor(Class.class, Object.class);
+            valueDescriptor = Class.forName("jdk.jfr.ValueDescriptor").getConstructor(Class.class, String.class,
+                    List.class);
+            createFactory = factoryClass.getMethod("create", List.class, List.class);
+            newEvent = factoryClass.getMethod("newEvent");
+            isEnabled = eventClass.getMethod("isEnabled");
+            begin = eventClass.getMethod("begin");
+            end = eventClass.getMethod("end");
+            shouldCommit = eventClass.getMethod("shouldCommit");
+            set = eventClass.getMethod("set", int.class, Object.class);
+            commit = eventClass.getMethod("commit");
+            name = loadAnnotation("jdk.jfr.Name");
+            label = loadAnnotation("jdk.jfr.Label");
+            category = loadAnnotation("jdk.jfr.Category");
+            description = loadAnnotation("jdk.jfr.Description");
+            stackTrace = loadAnnotation("jdk.jfr.StackTrace");
+        } catch (ReflectiveOperationException roe) {
+            //The JVM does not support JDK Flight Recorder events, no event is recorded
+            createFactory = null;
+        }
+
+        ANNOTATION_ELEMENT = annotationElement;
+        VALUE_DESCRIPTOR = valueDescriptor;
+        CREATE_FACTORY = createFactory;
+        NEW_EVENT = newEvent;
+        IS_ENABLED = isEnabled;
+        BEGIN = begin;
+        END = end;
+        SHOULD_COMMIT = shouldCommit;
+        SET = set;
+        COMMIT = commit;
+        NAME = name;
+        LABEL = label;
+        CATEGORY = category;
+        DESCRIPTION = description;
+        STACK_TRACE = stackTrace;
+    }
+
+    //The jdk.jfr.EventFactory creating the events, null if JDK Flight Recorder is not available
+    private final Object eventFactory;
+
+    /**
+     * Constructor of an EventDefinition.
+     *
+     * @param eventFactory The jdk.jfr.EventFactory creating the events, null if JDK Flight Recorder is not available.
+     */
+    private EventDefinition(Object eventFactory) {
+        this.eventFactory = eventFactory;
+    }
+
+    /**
+     * This method starts the definition of an event. All events belong to the category "Reversi" and do not record
+     * stack traces.
+     *
+     * @param name        The name of the event.
+     * @param label       The label of the event.
+     * @param category    The sub category of the event below "Reversi".
+     * @param description The description of the event.
+     *
+     * @return The Builder the fields of the event are added to.
+     */
+    static Builder builder(String name, String label, String category, String description) {
+        return new Builder(name, label, category, description);
+    }
+
+    /**
+     * This method creates an event and starts its time measurement.
+     *
+     * @return The started event that has to be passed to end(Object, Object...), null if the event is not recorded.
+     */
+    Object begin() {
+        if (eventFactory == null) {
+            return null;
+        }
+
+        Object event = invoke(NEW_EVENT, eventFactory);
+        if (!(Boolean) invoke(IS_ENABLED, event)) {
+            return null;
+        }
+
+        invoke(BEGIN, event);
+        return event;
+    }
+
+    /**
+     * This method ends the time measurement of a started event and commits it with the given values.
+     *
+     * @param event  The event returned by begin(), nothing is done if it is null.
+     * @param values The values of the fields.
+     */
+    void end(Object event, Object... values) {
+        if (event == null) {
+            return;
+        }
+
+        invoke(END, event);
+        if ((Boolean) invoke(SHOULD_COMMIT, event)) {
+            setValues(event, values);
+            invoke(COMMIT, event);
+        }
+    }
+
+    /**
+     * This method commits an event without a duration.
+     *
+     * @param values The values of the fields.
+     */
+    void commit(Object... values) {
+        if (eventFactory == null) {
+            return;
+        }
+
+        Object event = invoke(NEW_EVENT, eventFactory);
+        if ((Boolean) invoke(IS_ENABLED, event)) {
+            setValues(event, values);
+            invoke(COMMIT, event);
+        }
+    }
+
+    /**
+     * This method sets the values of the fields of an event.
+     *
+     * @param event  The event.
+     * @param values The values of the fields.
+     */
+    private void setValues(Object event, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            invoke(SET, event, i, values[i]);
+        }
+    }
+
+    /**
+     * This method loads an annotation of JDK Flight Recorder.
+     *
+     * @param className The name of the annotation class.
+     *
+     * @return The annotation class.
+     *
+     * @throws ClassNotFoundException If the annotation does not exist.
+     */
+    private static Class<? extends Annotation> loadAnnotation(String className) throws ClassNotFoundException {
+        return Class.forName(className).asSubclass(Annotation.class);
+    }
+
+    /**
+     * This method creates a jdk.jfr.AnnotationElement.
+     *
+     * @param annotation The annotation class.
+     * @param value      The value of the annotation.
+     *
+     * @return The AnnotationElement.
+     */
+    private static Object createAnnotation(Class<? extends Annotation> annotation, Object value) {
+        try {
+            return ANNOTATION_ELEMENT.newInstance(annotation, value);
+        } catch (ReflectiveOperationException roe) {
+            throw new IllegalStateException("Annotation " + annotation.getName() + " can not be created", roe);
+        }
+    }
+
+    /**
+     * This method calls a method of JDK Flight Recorder. Exceptions thrown by the method are thrown again unchanged.
+     *
+     * @param method    The method.
+     * @param target    The object the method is called on, null for static methods.
+     * @param arguments The arguments of the method.
+     *
+     * @return The result of the method.
+     */
+    private static Object invoke(Method method, Object target, Object... arguments) {
+        try {
+            return method.invoke(target, arguments);
+        } catch (IllegalAccessException iae) {
+            throw new IllegalStateException("Method " + method.getName() + " can not be called", iae);
+        } catch (InvocationTargetException ite) {
+            Throwable cause = ite.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Method " + method.getName() + " has failed", cause);
+        }
+    }
+
+    /**
+     * The Builder collects the fields of an event and creates its EventDefinition.
+     */
+    static final class Builder {
+        //The annotations of the event
+        private final List<Object> eventAnnotations = new ArrayList<>();
+        //The fields of the event as jdk.jfr.ValueDescriptor
+        private final List<Object> fields = new ArrayList<>();
+
+        /**
+         * Constructor of a Builder.
+         *
+         * @param name        The name of the event.
+         * @param label       The label of the event.
+         * @param category    The sub category of the event below "Reversi".
+         * @param description The description of the event.
+         */
+        private Builder(String name, String label, String category, String description) {
+            if (CREATE_FACTORY != null) {
+                eventAnnotations.add(createAnnotation(NAME, name));
+                eventAnnotations.add(createAnnotation(LABEL, label));
+                eventAnnotations.add(createAnnotation(CATEGORY, new String[]{"Reversi", category}));
+                eventAnnotations.add(createAnnotation(DESCRIPTION, description));
+                eventAnnotations.add(createAnnotation(STACK_TRACE, false));
+            }
+        }
+
+        /**
+         * This method adds a field to the event.
+         *
+         * @param type  The type of the field, a primitive type or String.
+         * @param name  The name of the field.
+         * @param label The label of the field.
+         *
+         * @return This Builder.
+         */
+        Builder addField(Class<?> type, String name, String label) {
+            if (CREATE_FACTORY != null) {
+                try {
+                    fields.add(VALUE_DESCRIPTOR.newInstance(type, name,
+                            Arrays.asList(createAnnotation(LABEL, label))));
+                } catch (ReflectiveOperationException roe) {
+                    throw new IllegalStateException("Field " + name + " can not be created", roe);
+                }
+            }
+
+            return this;
+        }
+
+        /**
+         * This method creates the EventDefinition and registers the event with JDK Flight Recorder.
+         *
+         * @return The EventDefinition, which does nothing if JDK Flight Recorder is not available.
+         */
+        EventDefinition build() {
+            if (CREATE_FACTORY == null) {
+                return NOT_AVAILABLE;
+            }
+
+            return new EventDefinition(invoke(CREATE_FACTORY, null, eventAnnotations, fields));
+        }
+    }
+}
@@ -32,6 +32,7 @@ package reversi.player;
 
 import reversi.actor.Actor;
 import reversi.actor.HumanActor;
+import reversi.game.GameClock;
 
 import java.util.EnumMap;
 import java.util.Map;
@@ -97,6 +98,26 @@ public class ActorsPair {
         }
     }
 
+    /**
+     * This method tells all actors the clock of the game.
+     *
+     * @param gameClock The GameClock of the game, null if the game is played without a clock.
+     */
+    public void setGameClock(GameClock gameClock) {
+        for (Actor actor : actors.values()) {
+            actor.setGameClock(gameClock);
+        }
+    }
+
+    /**
+     * This method stops all actors that are thinking while it is not their turn.
+     */
+    public void stopPonderingAllActors() {
+        for (Actor actor : actors.values()) {
+            actor.stopPondering();
+        }
+    }
+
     /**
      * This method sets an actor to a given player.
      *
@@ -33,9 +33,9 @@ package reversi.ui;
 import reversi.board.Board;
 import reversi.board.GameMove;
 import reversi.board.GamePosition;
-import reversi.board.Square;
 import reversi.board.SquareState;
 import reversi.game.Game;
+import reversi.game.ConfigurationSnapshot;
 import reversi.game.ReversiGameConfiguration;
 import reversi.player.Player;
 
@@ -65,10 +65,10 @@ public class ConsoleGameView extends GameView {
     public ConsoleGameView(Game gameModel) {
         super(gameModel);
 
-        ReversiGameConfiguration configuration = ReversiGameConfiguration.getInstance();
-        WHITE_PLAYER = configuration.getProperty(ReversiGameConfiguration.PLAYER_WHITE_CHAR, "W").charAt(0);
-        BLACK_PLAYER = configuration.getProperty(ReversiGameConfiguration.PLAYER_BLACK_CHAR, "B").charAt(0);
-        EMPTY_PLAYER = configuration.getProperty(ReversiGameConfiguration.PLAYER_EMPTY_CHAR, "-").charAt(0);
+        ConfigurationSnapshot snapshot = ReversiGameConfiguration.getInstance().getSnapshot();
+        WHITE_PLAYER = snapshot.getPlayerWhiteChar();
+        BLACK_PLAYER = snapshot.getPlayerBlackChar();
+        EMPTY_PLAYER = snapshot.getPlayerEmptyChar();
 
         //Start an input thread, only purpose of this input thread is to ask for the user input all the time...
         inputThread();
@@ -228,14 +228,14 @@ public class ConsoleGameView extends GameView {
         for (int y = 0; y < boardWidth; y++) {
             System.out.print(y + 1 + "|");
             for (int x = 0; x < boardHeight; x++) {
-                //Get the square
-                Square square = board.getSquare(x, y);
+                //Get the state of the square
+                SquareState state = board.getSquareState(x, y);
 
                 //only non empty squares will be printed.
                 char s = EMPTY_PLAYER;
-                if (square.getSquareState() == SquareState.BLACK) {
+                if (state == SquareState.BLACK) {
                     s = BLACK_PLAYER;
-                } else if (square.getSquareState() == SquareState.WHITE) {
+                } else if (state == SquareState.WHITE) {
                     s = WHITE_PLAYER;
                 }
 
@@ -75,6 +75,6 @@ public class GraphicalGameController extends GameController {
 
         //Get the square from the board and create a game move
         Square square = gameModel.getGamePosition().getBoard().getSquare(xPos, yPos);
-        return new GameMove(square);
+        return GameMove.valueOf(square);
     }
 }
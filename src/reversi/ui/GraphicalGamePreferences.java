@@ -30,6 +30,7 @@
  */
 package reversi.ui;
 
+import reversi.game.GameConfiguration;
 import reversi.game.ReversiGameConfiguration;
 
 import javax.swing.BorderFactory;
@@ -66,7 +67,6 @@ import java.awt.event.FocusListener;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.ResourceBundle;
-import java.util.Set;
 
 /**
  * This class is used for changing the ReversiGameConfiguration in the User Interface
@@ -103,9 +103,6 @@ class GraphicalGamePreferences {
     private Icon ICON_PLAYER_WHITE;
     private Icon ICON_PLAYER_BLACK;
 
-    //boolean flag used to check if the configuration has changed.
-    private boolean hasConfigurationChanged = false;
-
     //the map containing all preferences of this preference dialog
     private Map<String, String> preferenceMap;
 
@@ -155,15 +152,6 @@ class GraphicalGamePreferences {
         preferencesDialog.setVisible(true);
     }
 
-    /**
-     * This method is used to check if the configuration has changed.
-     *
-     * @return true if the configuration has changed - false if the configuration has not changed
-     */
-    boolean hasConfigurationChanged() {
-        return hasConfigurationChanged;
-    }
-
     /**
      * This method is used to initialize the preferences map that holds all the preferences
      * that can be set in this window
@@ -448,16 +436,16 @@ class GraphicalGamePreferences {
      * This method is used to store the changed preferences to the game config
      */
     private void saveChangesToReversiGameConfiguration() {
-        //Get all the set keys of the preference map
-        Set<String> keys = preferenceMap.keySet();
+        //Collect all changes so that they are applied and stored at once
+        GameConfiguration.Transaction transaction = configuration.beginTransaction();
 
         //for each key set the value to the reversi game configuration
-        for (String key : keys) {
-            changeReversiGameConfiguration(key, preferenceMap.get(key));
+        for (Map.Entry<String, String> preference : preferenceMap.entrySet()) {
+            transaction.setProperty(preference.getKey(), preference.getValue());
         }
 
-        //set the flag that the config has changed
-        hasConfigurationChanged = true;
+        //The views are notified by the configuration
+        transaction.commit();
     }
 
     /**
@@ -520,20 +508,6 @@ class GraphicalGamePreferences {
         return configuration.getProperty(key, defaultValue);
     }
 
-    /**
-     * This method is used to refresh the ReversiGameConfiguration
-     *
-     * @param key      The key of the value that should be changed.
-     * @param newValue The new value that should be assigned to the configuration.
-     */
-    private void changeReversiGameConfiguration(String key, String newValue) {
-        //set the new value to the configuration
-        configuration.setProperty(key, newValue);
-
-        //the configuration has changed
-        hasConfigurationChanged = true;
-    }
-
     private static class ColorTracker implements ActionListener {
         //The ColorChooser where the color will be selected
         private final JColorChooser chooser;
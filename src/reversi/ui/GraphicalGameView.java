@@ -30,12 +30,18 @@
  */
 package reversi.ui;
 
+import reversi.actor.TranspositionTable;
+import reversi.analysis.GameAnalyser;
+import reversi.analysis.GameReview;
+import reversi.analysis.MoveAnalysis;
+import reversi.analysis.MultiPvAnalyser;
 import reversi.board.Board;
 import reversi.board.GameMove;
 import reversi.board.GamePosition;
 import reversi.board.Square;
 import reversi.board.SquareState;
 import reversi.game.Game;
+import reversi.game.ConfigurationSnapshot;
 import reversi.game.ReversiGameConfiguration;
 import reversi.player.Player;
 
@@ -43,12 +49,16 @@ import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
 import javax.swing.Icon;
 import javax.swing.JButton;
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
 import javax.swing.WindowConstants;
@@ -58,10 +68,12 @@ import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
+import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.GridLayout;
+import java.awt.Insets;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
@@ -75,6 +87,8 @@ import java.util.Observable;
  * @version 1.0 - 17. May 2016
  */
 public class GraphicalGameView extends GameView {
+    //The size of the transposition tables of the analyses in megabytes
+    private static final int ANALYSIS_TABLE_SIZE = 16;
     //The frame where the board will be displayed
     private final JFrame frame;
     //The Squares of the GUI
@@ -101,6 +115,10 @@ public class GraphicalGameView extends GameView {
     private JLabel labelBlackPlayerDisks;
     //The input of the user
     private String userInput;
+    //The analyser computing the scores of the legal moves, created when the hints are shown the first time
+    private MultiPvAnalyser hintAnalyser;
+    //true if the scores of the legal moves should be shown on the squares
+    private boolean isShowingHints = false;
     /**
      * The action which should be performed when a square button is clicked
      */
@@ -157,8 +175,14 @@ public class GraphicalGameView extends GameView {
         JMenu menuFile = new JMenu(RES.getString("ui.menu.bar.file"));
         //create settings menu item
         JMenuItem menuItemSettings = new JMenuItem(RES.getString("ui.menu.bar.file.settings"));
+        //create the hints menu item
+        final JCheckBoxMenuItem menuItemHints = new JCheckBoxMenuItem(RES.getString("ui.menu.bar.file.hints"));
+        //create the analyse game menu item
+        JMenuItem menuItemAnalyse = new JMenuItem(RES.getString("ui.menu.bar.file.analyse"));
         //Add to file menu
         menuFile.add(menuItemSettings);
+        menuFile.add(menuItemHints);
+        menuFile.add(menuItemAnalyse);
         //Add to menu bar
         menuBar.add(menuFile);
 
@@ -166,20 +190,34 @@ public class GraphicalGameView extends GameView {
         menuItemSettings.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                //open a new preference window
-                GraphicalGamePreferences preferences = new GraphicalGamePreferences(frame);
-                //if preferences have changed please update the ui as well
-                if (preferences.hasConfigurationChanged()) {
-                    //update the icons
-                    updatePlayerIcons();
-                    //update the current game information panel as well
-                    updateGameInformation();
-                    //update the board so that the new icons are applied
-                    updateBoard();
+                //open a new preference window, the changes are applied by the configuration listener
+                new GraphicalGamePreferences(frame);
+            }
+        });
+
+        //show or hide the scores of the legal moves
+        menuItemHints.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                isShowingHints = menuItemHints.isSelected();
+
+                //The hints are only shown while the human has to move
+                if (isShowingHints && isInputEnabled()) {
+                    showHints();
+                } else {
+                    hideHints();
                 }
             }
         });
 
+        //review all moves of the game
+        menuItemAnalyse.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                analyseGame();
+            }
+        });
+
         frame.setJMenuBar(menuBar);
 
         //Add the components to the window
@@ -189,6 +227,26 @@ public class GraphicalGameView extends GameView {
 
         //Set the content pane
         frame.setContentPane(root);
+
+        //Apply the new colors of the players whenever the configuration changes. A new board size is used for the
+        //next start of the program, because the size of all boards is fixed while the program runs
+        ReversiGameConfiguration.getInstance().addConfigurationListener(
+                new ReversiGameConfiguration.ConfigurationListener() {
+                    @Override
+                    public void configurationChanged(ConfigurationSnapshot snapshot) {
+                        SwingUtilities.invokeLater(new Runnable() {
+                            @Override
+                            public void run() {
+                                //update the icons
+                                updatePlayerIcons();
+                                //update the current game information panel as well
+                                updateGameInformation();
+                                //update the board so that the new icons are applied
+                                updateBoard();
+                            }
+                        });
+                    }
+                });
     }
 
     /**
@@ -258,6 +316,8 @@ public class GraphicalGameView extends GameView {
                 JButton button = squares[x - 1][y - 1];
                 //set the preferred size and add the action listener on each button
                 button.setPreferredSize(DIMENSION);
+                //the whole square is needed for the text of the hints
+                button.setMargin(new Insets(0, 0, 0, 0));
                 button.addActionListener(userInputsMove);
                 //set the button disabled so that it can not be clicked
                 button.setEnabled(false);
@@ -496,10 +556,138 @@ public class GraphicalGameView extends GameView {
                     //Enable the square
                     squares[xPos][yPos].setEnabled(true);
                 }
+
+                if (isShowingHints) {
+                    showHints();
+                }
             }
         });
     }
 
+    /**
+     * This method starts the analysis of the current position and shows the score of every legal move on its square
+     * as soon as it is known. The scores are updated while the analysis searches deeper. The method has to be called
+     * by the event dispatch thread, the analysis runs in the background.
+     */
+    private void showHints() {
+        int depth = ReversiGameConfiguration.getInstance().getSnapshot().getSearchDepth();
+
+        getHintAnalyser().startAnalysis(gameModel.getGamePosition(), depth, new MultiPvAnalyser.AnalysisListener() {
+            @Override
+            public void analysisUpdated(final GamePosition gamePosition, final List<MoveAnalysis> analyses) {
+                SwingUtilities.invokeLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        //Results of a position that is not shown anymore are ignored
+                        if (!isShowingHints || !gamePosition.equals(gameModel.getGamePosition())) {
+                            return;
+                        }
+
+                        for (MoveAnalysis analysis : analyses) {
+                            Square square = analysis.getGameMove().getSquare();
+                            JButton button = squares[square.getXPosition()][square.getYPosition()];
+
+                            //A disabled square means the human has already moved
+                            if (button.isEnabled()) {
+                                button.setText(analysis.getScoreText());
+                                button.setToolTipText(analysis.getPrincipalVariationText());
+                            }
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * This method stops the analysis and removes the scores from the squares. The method has to be called by the event
+     * dispatch thread.
+     */
+    private void hideHints() {
+        if (hintAnalyser != null) {
+            hintAnalyser.stopAnalysis();
+        }
+
+        for (int x = 0; x < BOARD_WIDTH; x++) {
+            for (int y = 0; y < BOARD_HEIGHT; y++) {
+                squares[x][y].setText(null);
+                squares[x][y].setToolTipText(null);
+            }
+        }
+    }
+
+    /**
+     * This method reviews all moves of the game in the background and shows the report in a dialog as soon as the
+     * analysis is finished.
+     */
+    private void analyseGame() {
+        Thread analysisThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                int depth = ReversiGameConfiguration.getInstance().getSnapshot().getSearchDepth();
+                GameAnalyser analyser = new GameAnalyser(Runtime.getRuntime().availableProcessors(), depth,
+                        GameAnalyser.DEFAULT_BLUNDER_THRESHOLD, new TranspositionTable(ANALYSIS_TABLE_SIZE));
+
+                final GameReview gameReview;
+                try {
+                    gameReview = analyser.analyse(gameModel);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+
+                SwingUtilities.invokeLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        JTextArea report = new JTextArea(gameReview.getReport());
+                        report.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+                        report.setEditable(false);
+
+                        JScrollPane scrollPane = new JScrollPane(report);
+                        scrollPane.setPreferredSize(new Dimension(600, 400));
+
+                        JOptionPane.showMessageDialog(frame, scrollPane, RES.getString("ui.analysis.title"),
+                                JOptionPane.PLAIN_MESSAGE);
+                    }
+                });
+            }
+        }, "GameAnalyser");
+
+        //The analysis must not keep the application alive
+        analysisThread.setDaemon(true);
+        analysisThread.start();
+    }
+
+    /**
+     * This method returns the analyser of the hints.
+     *
+     * @return The MultiPvAnalyser.
+     */
+    private MultiPvAnalyser getHintAnalyser() {
+        if (hintAnalyser == null) {
+            hintAnalyser = new MultiPvAnalyser(Runtime.getRuntime().availableProcessors(),
+                    new TranspositionTable(ANALYSIS_TABLE_SIZE));
+        }
+
+        return hintAnalyser;
+    }
+
+    /**
+     * This method checks if the human can make a move at the moment.
+     *
+     * @return true if any square is enabled.
+     */
+    private boolean isInputEnabled() {
+        for (int x = 0; x < BOARD_WIDTH; x++) {
+            for (int y = 0; y < BOARD_HEIGHT; y++) {
+                if (squares[x][y].isEnabled()) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
     /**
      * This method is called when the observed object has changed.
      *
@@ -530,9 +718,8 @@ public class GraphicalGameView extends GameView {
                         //remove all icons from the square
                         squares[x][y].setIcon(null);
 
-                        //get the square from the board
-                        Square square = board.getSquare(x, y);
-                        SquareState state = square.getSquareState();
+                        //get the square state from the board
+                        SquareState state = board.getSquareState(x, y);
 
                         //Add the corresponding icon to the square
                         if (state == SquareState.WHITE) {
@@ -584,6 +771,9 @@ public class GraphicalGameView extends GameView {
         SwingUtilities.invokeLater(new Runnable() {
             @Override
             public void run() {
+                //The hints are only shown while the human has to move
+                hideHints();
+
                 //Iterates over all squares and sets disables all enabled squares.
                 for (int x = 0; x < BOARD_WIDTH; x++) {
                     for (int y = 0; y < BOARD_HEIGHT; y++) {
@@ -598,12 +788,12 @@ public class GraphicalGameView extends GameView {
     }
 
     private void updatePlayerIcons() {
-        //Get the configuration to load the color of the players pieces
-        ReversiGameConfiguration configuration = ReversiGameConfiguration.getInstance();
+        //Get the current configuration to load the color of the players pieces
+        ConfigurationSnapshot snapshot = ReversiGameConfiguration.getInstance().getSnapshot();
 
         //Load the string values of the colors of the players
-        String colorBlack = configuration.getProperty(ReversiGameConfiguration.PLAYER_BLACK_COLOR, "0xFF0000");
-        String colorWhite = configuration.getProperty(ReversiGameConfiguration.PLAYER_WHITE_COLOR, "0xFFFF00");
+        String colorBlack = snapshot.getPlayerBlackColor();
+        String colorWhite = snapshot.getPlayerWhiteColor();
 
         //Decode the color values from the hexadecimal input
         ICON_BLACK_PLAYER = new PlayerIcon(Color.decode(colorBlack), DIMENSION.height);
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package reversi.actor;
+
+import org.junit.Test;
+import reversi.board.Board;
+import reversi.board.GameMove;
+import reversi.board.GamePosition;
+import reversi.board.ReversiBoard;
+import reversi.evaluation.CountDifferenceEvaluation;
+import reversi.evaluation.Evaluation;
+import reversi.evaluation.MixedEvaluation;
+import reversi.player.Player;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The AlphaBetaActorTest compares the values of the searching actors with a plain negamax search. The positions are
+ * taken from random games with a fixed seed, late enough in the game that a player has to pass in some of the searched
+ * trees. The iterative deepening with aspiration windows is compared with a single search with the full window, and
+ * the stability cutoff with a search without it.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public class AlphaBetaActorTest {
+    //The depth of all searches
+    private static final int DEPTH = 4;
+    //The number of random games the positions are taken from
+    private static final int GAMES = 100;
+    //The seed of the random games
+    private static final long SEED = 20160821L;
+
+    //The evaluation used by the actors and the negamax search
+    private final Evaluation evaluation = new MixedEvaluation();
+
+    //The number of passes the negamax search has seen
+    private int passes;
+
+    /**
+     * This method tests the alpha beta search with and without a transposition table and the minimax search.
+     */
+    @Test
+    public void testSearchValuesMatchNegamax() {
+        MiniMaxActor miniMaxActor = new MiniMaxActor();
+        AlphaBetaActor alphaBetaActor = new AlphaBetaActor();
+        AlphaBetaActor tableActor = new AlphaBetaActor();
+        tableActor.setTranspositionTable(new TranspositionTable(1));
+
+        Random random = new Random(SEED);
+        for (int game = 0; game < GAMES; game++) {
+            GamePosition gamePosition = createPosition(random, 40 + random.nextInt(20));
+            if (!gamePosition.getBoard().hasAnyPlayerAnyLegalMoves()) {
+                continue;
+            }
+
+            int expected = negamax(gamePosition.getBoard(), gamePosition.getCurrentPlayer(), DEPTH);
+
+            assertEquals("MiniMaxActor, game " + game, expected,
+                    miniMaxActor.searchPosition(gamePosition, DEPTH).getEvaluationValue());
+            assertEquals("AlphaBetaActor, game " + game, expected,
+                    alphaBetaActor.searchPosition(gamePosition, DEPTH).getEvaluationValue());
+            assertEquals("AlphaBetaActor with table, game " + game, expected,
+                    tableActor.searchPosition(gamePosition, DEPTH).getEvaluationValue());
+        }
+
+        //Otherwise the test would not cover the position after a pass
+        assertTrue("No pass in the searched trees", passes > 0);
+    }
+
+    /**
+     * This method tests the iterative deepening with aspiration windows against a single search with the full window
+     * at the same depth. The evaluation jumps by more than the aspiration window between two iterations in many of the
+     * positions, so the searches that fail low and fail high are tested as well.
+     */
+    @Test
+    public void testAspirationSearchMatchesFullWindow() {
+        AlphaBetaActor fullWindowActor = new AlphaBetaActor();
+        AlphaBetaActor aspirationActor = new AlphaBetaActor();
+        AlphaBetaActor tableActor = new AlphaBetaActor();
+        tableActor.setTranspositionTable(new TranspositionTable(1));
+
+        long failLows = 0;
+        long failHighs = 0;
+        Random random = new Random(SEED);
+        for (int game = 0; game < GAMES; game++) {
+            GamePosition gamePosition = createPosition(random, 10 + random.nextInt(40));
+            if (!gamePosition.getBoard().hasAnyPlayerAnyLegalMoves()) {
+                continue;
+            }
+
+            //A single search of the given depth has no guess from an earlier iteration and uses the full window
+            SearchResult expected = fullWindowActor.searchPosition(gamePosition, DEPTH);
+            SearchResult result = aspirationActor.searchPosition(gamePosition,
+                    new SearchLimits(DEPTH, SearchLimits.UNLIMITED, SearchLimits.UNLIMITED));
+            SearchResult tableResult = tableActor.searchPosition(gamePosition,
+                    new SearchLimits(DEPTH, SearchLimits.UNLIMITED, SearchLimits.UNLIMITED));
+
+            assertEquals("Depth, game " + game, DEPTH, result.getDepth());
+            assertEquals("Value, game " + game, expected.getEvaluationValue(), result.getEvaluationValue());
+            assertEquals("Move, game " + game, expected.getGameMove(), result.getGameMove());
+
+            //The best move of the table is searched first, so another move with the same value can be chosen
+            assertEquals("Value with table, game " + game, expected.getEvaluationValue(),
+                    tableResult.getEvaluationValue());
+            assertEquals("Value of the move with table, game " + game, expected.getEvaluationValue(),
+                    getMoveValue(gamePosition, tableResult.getGameMove(), DEPTH));
+
+            failLows += result.getStatistics().getAspirationFailLows();
+            failHighs += result.getStatistics().getAspirationFailHighs();
+        }
+
+        //Otherwise the test would not cover the searches with a widened window
+        assertTrue("No search failed low", failLows > 0);
+        assertTrue("No search failed high", failHighs > 0);
+    }
+
+    /**
+     * This method tests that the stability cutoff does not change the values of a search with the
+     * CountDifferenceEvaluation, and that it is not used with the MixedEvaluation of the other actors.
+     */
+    @Test
+    public void testStabilityCutoff() {
+        AlphaBetaActor countActor = new AlphaBetaActor(new CountDifferenceEvaluation());
+        AlphaBetaActor countCutoffActor = new AlphaBetaActor(new CountDifferenceEvaluation());
+        countCutoffActor.setStabilityCutoff(true);
+        AlphaBetaActor mixedCutoffActor = new AlphaBetaActor();
+        mixedCutoffActor.setStabilityCutoff(true);
+
+        long cutoffs = 0;
+        Random random = new Random(SEED);
+        for (int game = 0; game < GAMES; game++) {
+            GamePosition gamePosition = createPosition(random, 40 + random.nextInt(20));
+            if (!gamePosition.getBoard().hasAnyPlayerAnyLegalMoves()) {
+                continue;
+            }
+
+            SearchResult countResult = countCutoffActor.searchPosition(gamePosition, DEPTH);
+            assertEquals("CountDifferenceEvaluation, game " + game,
+                    countActor.searchPosition(gamePosition, DEPTH).getEvaluationValue(),
+                    countResult.getEvaluationValue());
+            cutoffs += countResult.getStatistics().getStabilityCutoffs();
+
+            SearchResult mixedResult = mixedCutoffActor.searchPosition(gamePosition, DEPTH);
+            assertEquals("MixedEvaluation, game " + game,
+                    negamax(gamePosition.getBoard(), gamePosition.getCurrentPlayer(), DEPTH),
+                    mixedResult.getEvaluationValue());
+            assertEquals("Stability cutoff with MixedEvaluation, game " + game, 0,
+                    mixedResult.getStatistics().getStabilityCutoffs());
+        }
+
+        //Otherwise the test would not cover the cutoff
+        assertTrue("No stability cutoff", cutoffs > 0);
+    }
+
+    /**
+     * This method calculates the value of a move with a plain negamax search.
+     *
+     * @param gamePosition The position the move is made in.
+     * @param move         The move.
+     * @param depth        The depth of the search including the move.
+     *
+     * @return The value of the move for the player whose turn it is.
+     */
+    private int getMoveValue(GamePosition gamePosition, GameMove move, int depth) {
+        Player player = gamePosition.getCurrentPlayer();
+        GamePosition nextPosition = gamePosition.getBoard().makeMove(move, player);
+        int value = negamax(nextPosition.getBoard(), nextPosition.getCurrentPlayer(), depth - 1);
+
+        return (nextPosition.getCurrentPlayer() == player) ? value : -value;
+    }
+
+    /**
+     * This method plays random moves from the start position.
+     *
+     * @param random The random number generator choosing the moves.
+     * @param moves  The number of moves.
+     *
+     * @return The position after the moves, the game may be over.
+     */
+    private GamePosition createPosition(Random random, int moves) {
+        Board board = new ReversiBoard();
+        Player player = Player.BLACK;
+
+        for (int i = 0; i < moves && board.hasAnyPlayerAnyLegalMoves(); i++) {
+            List<GameMove> legalMoves = board.getAllLegalMoves(player);
+            GamePosition nextPosition = board.makeMove(legalMoves.get(random.nextInt(legalMoves.size())), player);
+            board = nextPosition.getBoard();
+            player = nextPosition.getCurrentPlayer();
+        }
+
+        return new GamePosition(board, player);
+    }
+
+    /**
+     * This method searches a position with plain negamax. If the opponent has to pass after a move, the same player
+     * moves again, so the value of that position is not negated.
+     *
+     * @param board  The board.
+     * @param player The player whose turn it is.
+     * @param depth  The remaining depth.
+     *
+     * @return The value of the position for the player.
+     */
+    private int negamax(Board board, Player player, int depth) {
+        if (depth == 0 || !board.hasAnyPlayerAnyLegalMoves()) {
+            return evaluation.evaluateGame(new GamePosition(board, player));
+        }
+
+        int bestValue = Integer.MIN_VALUE;
+        for (GameMove move : board.getAllLegalMoves(player)) {
+            GamePosition nextPosition = board.makeMove(move, player);
+            int value = negamax(nextPosition.getBoard(), nextPosition.getCurrentPlayer(), depth - 1);
+            if (nextPosition.getCurrentPlayer() == player) {
+                passes++;
+            } else {
+                value = -value;
+            }
+            bestValue = Math.max(bestValue, value);
+        }
+
+        return bestValue;
+    }
+}
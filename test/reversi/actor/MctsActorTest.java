@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package reversi.actor;
+
+import org.junit.Test;
+import reversi.analysis.TextPositionReader;
+import reversi.benchmark.PositionCorpus;
+import reversi.board.Board;
+import reversi.board.GameMove;
+import reversi.board.GamePosition;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The MctsActorTest checks that the Monte Carlo Tree Search keeps its budget and the limits of a search, that it only
+ * plays legal moves, finds a winning move and can be searched by several threads.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public class MctsActorTest {
+    //The seed of the playouts
+    private static final long SEED = 20160821L;
+    //The memory limit of the trees, small enough that the tree of a long search is full
+    private static final long MEMORY_LIMIT = 256 * 1024;
+    //Positions in which only the move to A1 wins, all other moves lose against the best play
+    private static final String[] WINNING_CORNER_POSITIONS = {
+            "-OOOX-XXXXXXXXXOXXOOXXOOOOXXXXOOOOOXXXO-OOOXXXOOXOOOXXO-XXOXXOOO X",
+            "-OOOOOXXXXXXOOOXXXOOOOOXXXOXOXXXXXOOOX-XXXOXOXXX-OXXXXX-OX-XXXXX O"
+    };
+
+    /**
+     * This method tests that the search stops when the playout budget is used.
+     */
+    @Test
+    public void testPlayoutBudget() {
+        MctsActor actor = createActor(4);
+        actor.setBudget(700, 0);
+
+        SearchResult result = actor.searchPosition(PositionCorpus.getPositions(8, PositionCorpus.OPENING).get(0), 1);
+
+        assertEquals(700, result.getStatistics().getNodes());
+    }
+
+    /**
+     * This method tests that the search stops when the time budget is used.
+     */
+    @Test
+    public void testTimeBudget() {
+        MctsActor actor = createActor(2);
+        actor.setBudget(0, 100);
+
+        long startTime = System.currentTimeMillis();
+        SearchResult result = actor.searchPosition(PositionCorpus.getPositions(8, PositionCorpus.OPENING).get(0), 1);
+        long time = System.currentTimeMillis() - startTime;
+
+        assertTrue("time " + time, time < 2000);
+        assertTrue(result.getStatistics().getNodes() > 0);
+    }
+
+    /**
+     * This method tests that the chosen move is legal in the positions of all board sizes and phases.
+     */
+    @Test
+    public void testMoveIsLegal() {
+        MctsActor actor = createActor(2);
+        actor.setBudget(200, 0);
+
+        String[] phases = {PositionCorpus.OPENING, PositionCorpus.MIDGAME, PositionCorpus.ENDGAME};
+        for (int boardSize : PositionCorpus.BOARD_SIZES) {
+            for (String phase : phases) {
+                for (GamePosition gamePosition : PositionCorpus.getPositions(boardSize, phase)) {
+                    assertLegal(gamePosition, actor.searchPosition(gamePosition, 1).getGameMove());
+                }
+            }
+        }
+    }
+
+    /**
+     * This method tests that the only winning move is found.
+     *
+     * @throws IOException If a position can not be read.
+     */
+    @Test
+    public void testWinningMoveIsFound() throws IOException {
+        for (String position : WINNING_CORNER_POSITIONS) {
+            GamePosition gamePosition = new TextPositionReader(new StringReader(position)).readPosition();
+
+            for (int numberOfThreads = 1; numberOfThreads <= 4; numberOfThreads *= 2) {
+                MctsActor actor = createActor(numberOfThreads);
+                actor.setSeed(SEED);
+                actor.setBudget(1000, 0);
+
+                GameMove gameMove = actor.searchPosition(gamePosition, 1).getGameMove();
+                assertEquals(position, "A1", gameMove.getSquare().getSquareName());
+            }
+        }
+    }
+
+    /**
+     * This method plays a whole game with many threads sharing one tree. The tree is full during the searches and is
+     * reused and pruned between the moves, no thread may fail and every move has to be legal.
+     */
+    @Test
+    public void testSeveralThreadsShareTheTree() {
+        MctsActor actor = createActor(8);
+        actor.setBudget(3000, 0);
+
+        GamePosition gamePosition = PositionCorpus.getStartPosition(8);
+        while (gamePosition.getBoard().hasAnyPlayerAnyLegalMoves()) {
+            SearchResult result = actor.searchPosition(gamePosition, 1);
+            assertLegal(gamePosition, result.getGameMove());
+
+            gamePosition = gamePosition.getBoard().makeMove(result.getGameMove(), gamePosition.getCurrentPlayer());
+        }
+    }
+
+    /**
+     * This method tests that the node limit stops the search and that a search with a seed and one thread finds the
+     * same move every time.
+     */
+    @Test
+    public void testNodeLimitIsReproducible() {
+        GamePosition gamePosition = PositionCorpus.getPositions(8, PositionCorpus.MIDGAME).get(0);
+        SearchResult first = searchWithSeed(gamePosition, 2000);
+        SearchResult second = searchWithSeed(gamePosition, 2000);
+
+        assertEquals(2000, first.getStatistics().getNodes());
+        assertEquals(first.getGameMove(), second.getGameMove());
+        assertEquals(first.getEvaluationValue(), second.getEvaluationValue());
+
+        //The depth is the deepest ply of the tree, not the maximal depth of the limits
+        assertTrue("depth " + first.getDepth(), first.getDepth() > 0 && first.getDepth() < 30);
+        assertEquals(first.getDepth(), second.getDepth());
+    }
+
+    /**
+     * This method tests that the node limit also stops the helper threads.
+     */
+    @Test
+    public void testNodeLimitWithSeveralThreads() {
+        GamePosition gamePosition = PositionCorpus.getPositions(8, PositionCorpus.MIDGAME).get(1);
+        MctsActor actor = createActor(4);
+
+        SearchResult result = actor.searchPosition(gamePosition, new SearchLimits(30, 3000, SearchLimits.UNLIMITED));
+
+        assertEquals(3000, result.getStatistics().getNodes());
+    }
+
+    /**
+     * This method creates an actor with a small tree.
+     *
+     * @param numberOfThreads The number of threads searching the tree.
+     *
+     * @return The MctsActor.
+     */
+    private static MctsActor createActor(int numberOfThreads) {
+        MctsActor actor = new MctsActor();
+        actor.setNumberOfThreads(numberOfThreads);
+        actor.setMemoryLimit(MEMORY_LIMIT);
+
+        return actor;
+    }
+
+    /**
+     * This method checks that a move is one of the legal moves of a position.
+     *
+     * @param gamePosition The position.
+     * @param gameMove     The move.
+     */
+    private static void assertLegal(GamePosition gamePosition, GameMove gameMove) {
+        Board board = gamePosition.getBoard();
+        List<GameMove> legalMoves = board.getAllLegalMoves(gamePosition.getCurrentPlayer());
+
+        assertTrue("Illegal move " + gameMove + " in\n" + board, legalMoves.contains(gameMove));
+    }
+
+    /**
+     * This method searches a position with a new actor using one thread and a seed.
+     *
+     * @param gamePosition The position.
+     * @param nodes        The node limit of the search.
+     *
+     * @return The SearchResult.
+     */
+    private static SearchResult searchWithSeed(GamePosition gamePosition, long nodes) {
+        MctsActor actor = createActor(1);
+        actor.setSeed(SEED);
+
+        return actor.searchPosition(gamePosition, new SearchLimits(30, nodes, SearchLimits.UNLIMITED));
+    }
+}
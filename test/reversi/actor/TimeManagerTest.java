@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package reversi.actor;
+
+import org.junit.Test;
+import reversi.board.GameMove;
+import reversi.board.Square;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The TimeManagerTest checks the time limits of a move and when the next iteration of a search is started.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public class TimeManagerTest {
+    //The remaining times in milliseconds the limits are checked with
+    private static final long[] REMAINING_TIMES = {-500, 0, 50, 100, 101, 1000, 60000, 3600000};
+    //The increments in milliseconds the limits are checked with
+    private static final long[] INCREMENTS = {0, 10, 1000, 30000};
+    //The time in milliseconds that passes between the iterations of the stability test
+    private static final long ITERATION_TIME = 250;
+
+    /**
+     * This method tests that the soft limit never exceeds the hard limit and that the hard limit never uses more than
+     * half of the time that is left after the safety margin.
+     */
+    @Test
+    public void testLimitsStayWithinTheRemainingTime() {
+        for (long remainingTime : REMAINING_TIMES) {
+            for (long increment : INCREMENTS) {
+                for (int emptySquares = 0; emptySquares <= 64; emptySquares++) {
+                    TimeManager timeManager = new TimeManager(remainingTime, increment, emptySquares);
+                    long availableTime = Math.max(0, remainingTime - TimeManager.SAFETY_MARGIN);
+                    String message = timeManager + " for " + remainingTime + "/" + increment + "/" + emptySquares;
+
+                    assertTrue(message, timeManager.getSoftTime() >= 1);
+                    assertTrue(message, timeManager.getSoftTime() <= timeManager.getHardTime());
+                    assertTrue(message, timeManager.getHardTime() <= Math.max(1, availableTime / 2));
+                }
+            }
+        }
+    }
+
+    /**
+     * This method tests the limits of a move in the middle of the game.
+     */
+    @Test
+    public void testLimitsOfAMove() {
+        //8000 ms are available for 20 moves
+        TimeManager timeManager = new TimeManager(8000 + TimeManager.SAFETY_MARGIN, 0, 40);
+
+        assertEquals(400, timeManager.getSoftTime());
+        assertEquals(1600, timeManager.getHardTime());
+    }
+
+    /**
+     * This method tests that a high increment is not spent if the remaining time is low.
+     */
+    @Test
+    public void testIncrementIsNotSpentWithLowTime() {
+        //1000 ms are available for 10 moves, the increment may only double the time of the move
+        TimeManager timeManager = new TimeManager(1000 + TimeManager.SAFETY_MARGIN, 5000, 20);
+
+        assertEquals(200, timeManager.getSoftTime());
+        assertEquals(500, timeManager.getHardTime());
+    }
+
+    /**
+     * This method tests that an unstable search starts iterations that a stable search does not start.
+     */
+    @Test
+    public void testUnstableSearchUsesMoreTime() throws InterruptedException {
+        //The soft limit is 400 ms, the hard limit 1600 ms
+        TimeManager stableManager = new TimeManager(8000 + TimeManager.SAFETY_MARGIN, 0, 40);
+        TimeManager unstableManager = new TimeManager(8000 + TimeManager.SAFETY_MARGIN, 0, 40);
+
+        SearchNode firstNode = new SearchNode(GameMove.valueOf(Square.valueOf(2, 3, 8)), 500);
+        SearchNode changedNode = new SearchNode(GameMove.valueOf(Square.valueOf(5, 4, 8)), -1000);
+        assertTrue(stableManager.shouldStartNextIteration(firstNode));
+        assertTrue(unstableManager.shouldStartNextIteration(firstNode));
+
+        Thread.sleep(ITERATION_TIME);
+
+        //The stable search has used more than half of the soft limit
+        assertFalse(stableManager.shouldStartNextIteration(firstNode));
+        //The best move has changed and the score has dropped, so the search may use twice the soft limit
+        assertTrue(unstableManager.shouldStartNextIteration(changedNode));
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package reversi.analysis;
+
+import org.junit.Test;
+import reversi.actor.AlphaBetaActor;
+import reversi.actor.SearchResult;
+import reversi.board.Board;
+import reversi.board.GameMove;
+import reversi.board.GamePosition;
+import reversi.board.ReversiBoard;
+import reversi.board.SquareState;
+import reversi.player.Player;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The BatchAnalyserTest analyses positions from memory with several workers. It checks that the results are written in
+ * the order of the input and that a failing worker neither blocks the positions behind it nor the reader.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public class BatchAnalyserTest {
+    //The depth of all searches
+    private static final int DEPTH = 3;
+    //The number of workers
+    private static final int WORKERS = 4;
+    //The number of positions, more than the workers can have in flight, so the reader has to wait for the output
+    private static final int POSITIONS = 600;
+    //The seed of the random games the positions are taken from
+    private static final long SEED = 20160802L;
+    //The time in milliseconds an analysis may take before it counts as deadlocked
+    private static final long TIMEOUT = 60000;
+
+    /**
+     * This method tests that the results are written in the order of the input and equal a search of every position.
+     */
+    @Test
+    public void testOutputKeepsInputOrder() throws Exception {
+        List<GamePosition> gamePositions = createPositions();
+
+        StringBuilder input = new StringBuilder("# Random positions\n");
+        for (GamePosition gamePosition : gamePositions) {
+            input.append(toText(gamePosition)).append('\n');
+        }
+
+        StringWriter output = new StringWriter();
+        BatchAnalyser analyser = new BatchAnalyser(WORKERS, DEPTH, null, createLog());
+        long analysed = analyser.analyse(new TextPositionReader(new StringReader(input.toString())), output);
+
+        assertEquals(POSITIONS, analysed);
+        String[] lines = output.toString().split(System.lineSeparator());
+        assertEquals(POSITIONS, lines.length);
+
+        AlphaBetaActor actor = new AlphaBetaActor();
+        for (int i = 0; i < POSITIONS; i++) {
+            SearchResult result = actor.searchPosition(gamePositions.get(i), DEPTH);
+            GameMove gameMove = result.getGameMove();
+            String expected = (i + 1) + " " + ((gameMove == null) ? "-" : gameMove.getSquare().getSquareName()) + " "
+                    + result.getEvaluationValue() + " " + result.getDepth();
+
+            assertEquals("Line " + (i + 1), expected, lines[i]);
+        }
+    }
+
+    /**
+     * This method tests that a position failing with a RuntimeException is written as error and the analysis goes on.
+     */
+    @Test
+    public void testFailingPositionIsWrittenAsError() throws Exception {
+        StringWriter output = new StringWriter();
+        Throwable failure = analyseWithFailure(new IllegalStateException("Broken board"), output);
+
+        assertEquals("Unexpected failure", null, failure);
+        String[] lines = output.toString().split(System.lineSeparator());
+        assertEquals(POSITIONS, lines.length);
+        for (int i = 0; i < POSITIONS; i++) {
+            assertTrue("Line " + (i + 1) + ": " + lines[i], lines[i].startsWith((i + 1) + " "));
+        }
+        assertTrue(lines[2], lines[2].startsWith("3 error"));
+    }
+
+    /**
+     * This method tests that a worker failing with an Error stops the analysis without a deadlock and that the Error
+     * is thrown to the caller.
+     */
+    @Test
+    public void testFailingWorkerDoesNotDeadlock() throws Exception {
+        StringWriter output = new StringWriter();
+        Throwable failure = analyseWithFailure(new StackOverflowError("Broken board"), output);
+
+        assertTrue("Error not thrown: " + failure, failure instanceof StackOverflowError);
+        assertFalse("Result of the failed position written", output.toString().contains("3 error"));
+    }
+
+    /**
+     * This method analyses the start position many times, the third position has a board that throws the given
+     * Throwable. The analysis runs in its own thread, so a deadlock makes the test fail instead of hang.
+     *
+     * @param throwable The Throwable thrown by the board of the third position.
+     * @param output    The writer the results are written to.
+     *
+     * @return The Throwable thrown by the analysis, null if it returned normally.
+     */
+    private Throwable analyseWithFailure(final Throwable throwable, final StringWriter output) throws Exception {
+        final Board failingBoard = (Board) Proxy.newProxyInstance(Board.class.getClassLoader(),
+                new Class<?>[]{Board.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        throw throwable;
+                    }
+                });
+
+        final PositionReader reader = new PositionReader() {
+            private int readPositions = 0;
+
+            @Override
+            public GamePosition readPosition() {
+                if (readPositions == POSITIONS) {
+                    return null;
+                }
+
+                readPositions++;
+                return new GamePosition((readPositions == 3) ? failingBoard : new ReversiBoard(), Player.BLACK);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread analysis = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    new BatchAnalyser(WORKERS, DEPTH, null, createLog()).analyse(reader, output);
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            }
+        });
+        analysis.start();
+        analysis.join(TIMEOUT);
+
+        if (analysis.isAlive()) {
+            analysis.interrupt();
+            fail("The analysis is deadlocked");
+        }
+
+        return failure.get();
+    }
+
+    /**
+     * This method creates the positions of random games with a fixed seed.
+     *
+     * @return The positions, the game is not over in any of them.
+     */
+    private List<GamePosition> createPositions() {
+        List<GamePosition> gamePositions = new ArrayList<>();
+        Random random = new Random(SEED);
+
+        while (gamePositions.size() < POSITIONS) {
+            Board board = new ReversiBoard();
+            Player player = Player.BLACK;
+            int moves = random.nextInt(50);
+
+            for (int i = 0; i < moves && board.hasAnyPlayerAnyLegalMoves(); i++) {
+                List<GameMove> legalMoves = board.getAllLegalMoves(player);
+                GamePosition nextPosition = board.makeMove(legalMoves.get(random.nextInt(legalMoves.size())), player);
+                board = nextPosition.getBoard();
+                player = nextPosition.getCurrentPlayer();
+            }
+
+            if (board.hasAnyPlayerAnyLegalMoves()) {
+                gamePositions.add(new GamePosition(board, player));
+            }
+        }
+
+        return gamePositions;
+    }
+
+    /**
+     * This method converts a GamePosition into a line of the format of the TextPositionReader.
+     *
+     * @param gamePosition The GamePosition.
+     *
+     * @return The line.
+     */
+    private String toText(GamePosition gamePosition) {
+        Board board = gamePosition.getBoard();
+        StringBuilder line = new StringBuilder();
+
+        for (int y = 0; y < board.getBoardHeight(); y++) {
+            for (int x = 0; x < board.getBoardWidth(); x++) {
+                SquareState squareState = board.getSquareState(x, y);
+                line.append((squareState == SquareState.BLACK) ? 'X' : (squareState == SquareState.WHITE) ? 'O' : '-');
+            }
+        }
+
+        return line.append(' ').append((gamePosition.getCurrentPlayer() == Player.BLACK) ? 'X' : 'O').toString();
+    }
+
+    /**
+     * This method creates the stream the progress is reported to, the progress is not checked.
+     *
+     * @return The stream.
+     */
+    private PrintStream createLog() {
+        return new PrintStream(new ByteArrayOutputStream());
+    }
+}
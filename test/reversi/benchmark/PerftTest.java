@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package reversi.benchmark;
+
+import org.junit.Test;
+import reversi.board.GamePosition;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The PerftTest checks the move generation of the ReversiBoard against the known numbers of positions of the 8x8
+ * board.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public class PerftTest {
+    //The known numbers of positions after 0 to 6 moves from the start position of the 8x8 board
+    private static final long[] KNOWN_COUNTS = {1, 4, 12, 56, 244, 1396, 8200};
+
+    /**
+     * This method tests the counts of the single threaded perft without a table.
+     */
+    @Test
+    public void testPerft() {
+        Perft perft = new Perft(0);
+        GamePosition start = PositionCorpus.getStartPosition(8);
+
+        for (int depth = 0; depth < KNOWN_COUNTS.length; depth++) {
+            assertEquals("depth " + depth, KNOWN_COUNTS[depth], perft.perft(start, depth));
+        }
+    }
+
+    /**
+     * This method tests the counts of the parallel perft with a table, so that the canonical keys and the tasks are
+     * checked as well.
+     */
+    @Test
+    public void testParallelPerftWithTable() {
+        Perft perft = new Perft(1);
+        GamePosition start = PositionCorpus.getStartPosition(8);
+        ForkJoinPool pool = new ForkJoinPool(2);
+
+        try {
+            for (int depth = 0; depth < KNOWN_COUNTS.length; depth++) {
+                assertEquals("depth " + depth, KNOWN_COUNTS[depth], perft.perft(start, depth, pool));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
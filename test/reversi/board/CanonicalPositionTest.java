@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package reversi.board;
+
+import org.junit.Test;
+import reversi.player.Player;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The CanonicalPositionTest checks that the canonical keys of positions on boards of different sizes differ, so a
+ * transposition table can be shared while the board size is changed.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public class CanonicalPositionTest {
+    /**
+     * This method tests that the same squares on boards of different sizes have different keys.
+     */
+    @Test
+    public void testKeysDependOnTheBoardSize() {
+        for (int boardSize = 4; boardSize <= 10; boardSize += 2) {
+            Board smallerBoard = createBoard(boardSize);
+            Board largerBoard = createBoard(boardSize + 2);
+
+            long smallerKey = CanonicalPosition.keyOf(smallerBoard, Player.BLACK);
+            long largerKey = CanonicalPosition.keyOf(largerBoard, Player.BLACK);
+
+            assertTrue("Same key for the sizes " + boardSize + " and " + (boardSize + 2),
+                    CanonicalPosition.getKeyHash(smallerKey) != CanonicalPosition.getKeyHash(largerKey));
+        }
+    }
+
+    /**
+     * This method tests that the hash values stored in opening books do not depend on the canonical keys.
+     */
+    @Test
+    public void testHashIsTheHashOfPositionHash() {
+        Board board = createBoard(8);
+
+        assertEquals(PositionHash.hash(board, Player.WHITE), CanonicalPosition.of(board, Player.WHITE).getHash());
+    }
+
+    /**
+     * This method creates an empty board with a black piece on the first square, which is the canonical orientation.
+     *
+     * @param boardSize The size of the board.
+     *
+     * @return The board.
+     */
+    private Board createBoard(int boardSize) {
+        SquareState[][] squareStates = new SquareState[boardSize][boardSize];
+        for (SquareState[] column : squareStates) {
+            Arrays.fill(column, SquareState.EMPTY);
+        }
+        squareStates[0][0] = SquareState.BLACK;
+
+        return new ReversiBoard(squareStates);
+    }
+}
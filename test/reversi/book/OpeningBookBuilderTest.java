@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package reversi.book;
+
+import org.junit.Test;
+import reversi.benchmark.PositionCorpus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The OpeningBookBuilderTest checks that a build that is resumed from a checkpoint creates the same tree and the same
+ * book as a build that was not stopped.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public class OpeningBookBuilderTest {
+    //The depth of the searches, small so the test is fast
+    private static final int DEPTH = 2;
+    //The number of workers, the searches without transposition table do not depend on the order of the workers
+    private static final int WORKERS = 2;
+    //The number of expansions of the whole build
+    private static final long EXPANSIONS = 40;
+    //The number of expansions after which the build is stopped, a multiple of the workers so no batch is split
+    private static final long CHECKPOINT_EXPANSIONS = 16;
+    //The number of moves after which positions are no longer expanded
+    private static final int MAXIMAL_PLIES = 6;
+
+    /**
+     * This method tests that a build resumed from a checkpoint writes the same checkpoint and the same book as a build
+     * that expanded all positions at once.
+     */
+    @Test
+    public void testResumedBuildMatchesUninterruptedBuild() throws IOException, InterruptedException {
+        File checkpoint = File.createTempFile("checkpoint", ".bin");
+        File resumedCheckpoint = File.createTempFile("checkpoint", ".bin");
+        File book = File.createTempFile("book", ".bin");
+        File resumedBook = File.createTempFile("book", ".bin");
+        try {
+            OpeningBookBuilder builder = createBuilder();
+            builder.build(EXPANSIONS);
+            builder.writeCheckpoint(checkpoint);
+            int records = builder.exportBook(book);
+
+            OpeningBookBuilder stoppedBuilder = createBuilder();
+            stoppedBuilder.setCheckpoint(resumedCheckpoint, Long.MAX_VALUE);
+            stoppedBuilder.build(CHECKPOINT_EXPANSIONS);
+            assertEquals(CHECKPOINT_EXPANSIONS, stoppedBuilder.getExpansions());
+
+            OpeningBookBuilder resumedBuilder = OpeningBookBuilder.readCheckpoint(resumedCheckpoint, WORKERS, DEPTH,
+                    null, createLog());
+            resumedBuilder.setMaximalPlies(MAXIMAL_PLIES);
+            assertEquals(stoppedBuilder.getNumberOfPositions(), resumedBuilder.getNumberOfPositions());
+            assertEquals(CHECKPOINT_EXPANSIONS, resumedBuilder.getExpansions());
+
+            resumedBuilder.build(EXPANSIONS);
+            resumedBuilder.writeCheckpoint(resumedCheckpoint);
+
+            assertEquals(builder.getNumberOfPositions(), resumedBuilder.getNumberOfPositions());
+            assertEquals(builder.getExpansions(), resumedBuilder.getExpansions());
+            assertEquals(records, resumedBuilder.exportBook(resumedBook));
+            assertTrue("Different checkpoints", Arrays.equals(Files.readAllBytes(checkpoint.toPath()),
+                    Files.readAllBytes(resumedCheckpoint.toPath())));
+            assertTrue("Different books", Arrays.equals(Files.readAllBytes(book.toPath()),
+                    Files.readAllBytes(resumedBook.toPath())));
+            assertFalse("Temporary file left", new File(resumedCheckpoint.getPath() + ".tmp").exists());
+        } finally {
+            checkpoint.delete();
+            resumedCheckpoint.delete();
+            book.delete();
+            resumedBook.delete();
+        }
+    }
+
+    /**
+     * This method tests that a truncated checkpoint is rejected.
+     */
+    @Test
+    public void testTruncatedCheckpointIsRejected() throws IOException, InterruptedException {
+        File checkpoint = File.createTempFile("checkpoint", ".bin");
+        try {
+            OpeningBookBuilder builder = createBuilder();
+            builder.build(WORKERS);
+            builder.writeCheckpoint(checkpoint);
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(checkpoint, "rw")) {
+                randomAccessFile.setLength(randomAccessFile.length() - 1);
+            }
+
+            try {
+                OpeningBookBuilder.readCheckpoint(checkpoint, WORKERS, DEPTH, null, createLog());
+                fail("A truncated checkpoint was read");
+            } catch (IOException expected) {
+                //The last child of the tree is missing
+            }
+        } finally {
+            checkpoint.delete();
+        }
+    }
+
+    /**
+     * This method creates a builder starting with the start position and without transposition table, so every
+     * search has the same result.
+     *
+     * @return The builder.
+     */
+    private OpeningBookBuilder createBuilder() {
+        OpeningBookBuilder builder = new OpeningBookBuilder(PositionCorpus.getStartPosition(8), WORKERS, DEPTH, null,
+                createLog());
+        builder.setMaximalPlies(MAXIMAL_PLIES);
+
+        return builder;
+    }
+
+    /**
+     * This method creates a stream that discards the progress of a build.
+     *
+     * @return The stream.
+     */
+    private PrintStream createLog() {
+        return new PrintStream(new ByteArrayOutputStream());
+    }
+}
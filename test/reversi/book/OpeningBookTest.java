@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package reversi.book;
+
+import org.junit.Test;
+import reversi.benchmark.PositionCorpus;
+import reversi.board.Board;
+import reversi.board.CanonicalPosition;
+import reversi.board.GameMove;
+import reversi.board.GamePosition;
+import reversi.board.ReversiBoard;
+import reversi.board.Square;
+import reversi.board.SquareState;
+import reversi.board.Symmetry;
+import reversi.player.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The OpeningBookTest writes books of random positions with the OpeningBookWriter and checks that the OpeningBook
+ * returns the same moves for the positions and for all their symmetric positions.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public class OpeningBookTest {
+    //The seed of the random generator, so every run tests the same positions
+    private static final long SEED = 41;
+    //The size of the board of the books
+    private static final int BOARD_SIZE = 8;
+    //The number of different positions written into the book
+    private static final int POSITIONS = 300;
+
+    /**
+     * This method tests that every move written for a position is read back in the orientation of the position and
+     * of all its symmetric positions, sorted by descending score.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<GamePosition> positions = createPositions();
+        OpeningBookWriter writer = new OpeningBookWriter(BOARD_SIZE);
+        int records = 0;
+        for (GamePosition position : positions) {
+            for (GameMove gameMove : position.getBoard().getAllLegalMoves(position.getCurrentPlayer())) {
+                writer.add(position, gameMove, getScore(position, gameMove), getCount(position));
+                records++;
+            }
+        }
+
+        File file = File.createTempFile("book", ".bin");
+        try {
+            assertEquals(records, writer.write(file));
+
+            OpeningBook book = OpeningBook.open(file);
+            assertEquals(BOARD_SIZE, book.getBoardSize());
+            assertEquals(records, book.size());
+
+            for (GamePosition position : positions) {
+                for (Symmetry symmetry : Symmetry.values()) {
+                    checkMoves(transform(position, symmetry), book.getMoves(transform(position, symmetry)));
+                }
+            }
+
+            //The start position with white to move is never reached, so it was not written
+            GamePosition start = PositionCorpus.getStartPosition(BOARD_SIZE);
+            GamePosition unknownPosition = new GamePosition(start.getBoard(), Player.WHITE);
+            assertFalse(isWritten(positions, unknownPosition));
+            assertEquals(0, book.getMoves(unknownPosition).size());
+            assertEquals(0, book.getMoves(PositionCorpus.getStartPosition(BOARD_SIZE - 2)).size());
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * This method tests that a move that is added more than once is written once with the sum of the counts and the
+     * score that was added last.
+     */
+    @Test
+    public void testDuplicateMovesAreMerged() throws IOException {
+        GamePosition position = PositionCorpus.getStartPosition(BOARD_SIZE);
+        GameMove gameMove = position.getBoard().getAllLegalMoves(position.getCurrentPlayer()).get(0);
+
+        OpeningBookWriter writer = new OpeningBookWriter(BOARD_SIZE);
+        writer.add(position, gameMove, 10, 3);
+        writer.add(position, gameMove, -5, 4);
+
+        File file = File.createTempFile("book", ".bin");
+        try {
+            assertEquals(1, writer.write(file));
+
+            List<BookMove> bookMoves = OpeningBook.open(file).getMoves(position);
+            assertEquals(1, bookMoves.size());
+            assertEquals(gameMove, bookMoves.get(0).getGameMove());
+            assertEquals(-5, bookMoves.get(0).getScore());
+            assertEquals(7, bookMoves.get(0).getCount());
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * This method tests that a truncated book file is rejected.
+     */
+    @Test
+    public void testTruncatedFileIsRejected() throws IOException {
+        GamePosition position = PositionCorpus.getStartPosition(BOARD_SIZE);
+        OpeningBookWriter writer = new OpeningBookWriter(BOARD_SIZE);
+        for (GameMove gameMove : position.getBoard().getAllLegalMoves(position.getCurrentPlayer())) {
+            writer.add(position, gameMove, 0, 1);
+        }
+
+        File file = File.createTempFile("book", ".bin");
+        try {
+            writer.write(file);
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+                randomAccessFile.setLength(randomAccessFile.length() - 1);
+            }
+
+            try {
+                OpeningBook.open(file);
+                fail("A truncated book was opened");
+            } catch (IOException expected) {
+                //The size of the file does not match the number of records
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * This method checks that the moves of the book are exactly the legal moves of a position with their scores and
+     * counts, sorted by descending score.
+     *
+     * @param position  The position.
+     * @param bookMoves The moves of the book for the position.
+     */
+    private void checkMoves(GamePosition position, List<BookMove> bookMoves) {
+        Board board = position.getBoard();
+        List<GameMove> legalMoves = board.getAllLegalMoves(position.getCurrentPlayer());
+        assertEquals("Moves of " + position, legalMoves.size(), bookMoves.size());
+
+        Set<GameMove> foundMoves = new HashSet<>();
+        for (int i = 0; i < bookMoves.size(); i++) {
+            BookMove bookMove = bookMoves.get(i);
+
+            assertTrue("Illegal book move " + bookMove, legalMoves.contains(bookMove.getGameMove()));
+            assertTrue("Book move found twice " + bookMove, foundMoves.add(bookMove.getGameMove()));
+            assertEquals(getScore(position, bookMove.getGameMove()), bookMove.getScore());
+            assertEquals(getCount(position), bookMove.getCount());
+            if (i > 0) {
+                assertTrue("Book moves not sorted", bookMoves.get(i - 1).getScore() >= bookMove.getScore());
+            }
+        }
+    }
+
+    /**
+     * This method plays random games and collects positions until the number of different positions is reached. A
+     * position that is symmetric to a collected position is not collected again.
+     *
+     * @return The positions.
+     */
+    private List<GamePosition> createPositions() {
+        Random random = new Random(SEED);
+        List<GamePosition> positions = new ArrayList<>();
+        Set<CanonicalPosition> canonicalPositions = new HashSet<>();
+
+        GamePosition position = PositionCorpus.getStartPosition(BOARD_SIZE);
+        while (positions.size() < POSITIONS) {
+            List<GameMove> legalMoves = position.getBoard().getAllLegalMoves(position.getCurrentPlayer());
+            if (legalMoves.isEmpty()) {
+                position = PositionCorpus.getStartPosition(BOARD_SIZE);
+                continue;
+            }
+
+            if (canonicalPositions.add(CanonicalPosition.of(position))) {
+                positions.add(position);
+            }
+
+            GameMove gameMove = legalMoves.get(random.nextInt(legalMoves.size()));
+            position = position.getBoard().makeMove(gameMove, position.getCurrentPlayer());
+        }
+
+        return positions;
+    }
+
+    /**
+     * This method checks if a position or one of its symmetric positions is in a list of positions.
+     *
+     * @param positions The positions.
+     * @param position  The position.
+     *
+     * @return true if the position is in the list.
+     */
+    private boolean isWritten(List<GamePosition> positions, GamePosition position) {
+        CanonicalPosition canonicalPosition = CanonicalPosition.of(position);
+        for (GamePosition writtenPosition : positions) {
+            if (CanonicalPosition.of(writtenPosition).equals(canonicalPosition)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * This method returns the score written for a move. It is the number of pieces of the player after the move, so
+     * it is the same for the move in all symmetric positions and for symmetric moves of a symmetric position.
+     *
+     * @param position The position.
+     * @param gameMove The move.
+     *
+     * @return The score of the move.
+     */
+    private int getScore(GamePosition position, GameMove gameMove) {
+        Player player = position.getCurrentPlayer();
+
+        return position.getBoard().makeMove(gameMove, player).getBoard().countPieces(player);
+    }
+
+    /**
+     * This method returns the count written for all moves of a position, the number of pieces on the board.
+     *
+     * @param position The position.
+     *
+     * @return The count of the moves.
+     */
+    private int getCount(GamePosition position) {
+        Board board = position.getBoard();
+
+        return board.countPieces(Player.BLACK) + board.countPieces(Player.WHITE);
+    }
+
+    /**
+     * This method transforms a position by a symmetry.
+     *
+     * @param position The position.
+     * @param symmetry The symmetry.
+     *
+     * @return The transformed position with the same player to move.
+     */
+    private GamePosition transform(GamePosition position, Symmetry symmetry) {
+        Board board = position.getBoard();
+        SquareState[][] squareStates = new SquareState[BOARD_SIZE][BOARD_SIZE];
+        for (int x = 0; x < BOARD_SIZE; x++) {
+            for (int y = 0; y < BOARD_SIZE; y++) {
+                Square square = symmetry.transform(Square.valueOf(x, y, BOARD_SIZE));
+                squareStates[square.getXPosition()][square.getYPosition()] = board.getSquareState(x, y);
+            }
+        }
+
+        return new GamePosition(new ReversiBoard(squareStates), position.getCurrentPlayer());
+    }
+}
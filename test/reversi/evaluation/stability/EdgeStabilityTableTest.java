@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package reversi.evaluation.stability;
+
+import org.junit.Test;
+import reversi.board.SquareState;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The EdgeStabilityTableTest compares the stable pieces of short edges with a search of all configurations that can
+ * be reached by placing pieces, and checks on edges of the usual length that random sequences of placed pieces never
+ * flip a stable piece.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public class EdgeStabilityTableTest {
+    //The longest edge whose configurations are all searched
+    private static final int MAX_SEARCHED_LENGTH = 6;
+    //The length of the edges of the random sequences
+    private static final int RANDOM_LENGTH = 8;
+    //The number of random sequences
+    private static final int SEQUENCES = 20000;
+    //The seed of the random sequences
+    private static final long SEED = 20160818L;
+
+    //The values of the SquareStates in a configuration
+    private static final int EMPTY = SquareState.EMPTY.ordinal();
+    private static final int BLACK = SquareState.BLACK.ordinal();
+    private static final int WHITE = SquareState.WHITE.ordinal();
+
+    /**
+     * This method tests that exactly the pieces are stable that are not flipped in any reachable configuration.
+     */
+    @Test
+    public void testStableMasksMatchReachableConfigurations() {
+        for (int length = 1; length <= MAX_SEARCHED_LENGTH; length++) {
+            EdgeStabilityTable table = EdgeStabilityTable.forLength(length);
+            int[] squares = new int[length];
+
+            for (int configuration = 0; configuration < table.getPowerOfThree(length); configuration++) {
+                decode(configuration, squares);
+
+                int expected = getOccupiedMask(squares) & ~findFlippablePieces(squares);
+                assertEquals("Length " + length + ", configuration " + configuration, expected,
+                        table.getStableMask(configuration));
+            }
+        }
+    }
+
+    /**
+     * This method tests that random sequences of placed pieces never flip a stable piece.
+     */
+    @Test
+    public void testStablePiecesAreNeverFlipped() {
+        EdgeStabilityTable table = EdgeStabilityTable.forLength(RANDOM_LENGTH);
+        Random random = new Random(SEED);
+        int[] squares = new int[RANDOM_LENGTH];
+        long stablePieces = 0;
+
+        for (int sequence = 0; sequence < SEQUENCES; sequence++) {
+            int configuration = random.nextInt(table.getPowerOfThree(RANDOM_LENGTH));
+            decode(configuration, squares);
+
+            int stableMask = table.getStableMask(configuration);
+            int[] stableSquares = squares.clone();
+            stablePieces += Integer.bitCount(stableMask);
+
+            //Fill the empty squares in random order with random pieces
+            int emptyMask = ~getOccupiedMask(squares) & ((1 << RANDOM_LENGTH) - 1);
+            while (emptyMask != 0) {
+                int square;
+                do {
+                    square = random.nextInt(RANDOM_LENGTH);
+                } while ((emptyMask & (1 << square)) == 0);
+
+                place(squares, square, random.nextBoolean() ? BLACK : WHITE);
+                emptyMask &= ~(1 << square);
+
+                for (int i = 0; i < RANDOM_LENGTH; i++) {
+                    if ((stableMask & (1 << i)) != 0 && squares[i] != stableSquares[i]) {
+                        fail("Stable piece " + i + " of configuration " + configuration + " was flipped");
+                    }
+                }
+            }
+        }
+
+        //Otherwise the test would not check anything
+        assertTrue("No stable pieces found", stablePieces > 0);
+    }
+
+    /**
+     * This method tests that the table can not be created for edges that are too short or too long.
+     */
+    @Test
+    public void testInvalidLengths() {
+        for (int length : new int[]{0, EdgeStabilityTable.MAX_LENGTH + 1}) {
+            try {
+                EdgeStabilityTable.forLength(length);
+                fail("Table created for length " + length);
+            } catch (IllegalArgumentException e) {
+                //Expected
+            }
+        }
+    }
+
+    /**
+     * This method searches all configurations that can be reached by placing pieces and collects the pieces of the
+     * start configuration that are flipped by any placed piece.
+     *
+     * @param startSquares The squares of the start configuration.
+     *
+     * @return The bit mask of the pieces that can be flipped.
+     */
+    private int findFlippablePieces(int[] startSquares) {
+        int flippableMask = 0;
+        Set<String> visited = new HashSet<>();
+        Deque<int[]> configurations = new ArrayDeque<>();
+        configurations.add(startSquares.clone());
+
+        while (!configurations.isEmpty()) {
+            int[] squares = configurations.poll();
+            if (!visited.add(Arrays.toString(squares))) {
+                continue;
+            }
+
+            for (int square = 0; square < squares.length; square++) {
+                if (squares[square] != EMPTY) {
+                    continue;
+                }
+
+                for (int piece : new int[]{BLACK, WHITE}) {
+                    int[] nextSquares = squares.clone();
+                    flippableMask |= place(nextSquares, square, piece);
+                    configurations.add(nextSquares);
+                }
+            }
+        }
+
+        //Only the pieces of the start configuration count, the placed pieces were empty squares before
+        return flippableMask & getOccupiedMask(startSquares);
+    }
+
+    /**
+     * This method places a piece on an empty square and flips the encapsulated pieces of the opponent.
+     *
+     * @param squares The squares of the edge, they are changed.
+     * @param square  The number of the empty square.
+     * @param piece   The SquareState ordinal of the placed piece.
+     *
+     * @return The bit mask of the flipped pieces.
+     */
+    private int place(int[] squares, int square, int piece) {
+        int opponentPiece = (piece == BLACK) ? WHITE : BLACK;
+        int flippedMask = 0;
+        squares[square] = piece;
+
+        for (int direction = -1; direction <= 1; direction += 2) {
+            int i = square + direction;
+            while (i >= 0 && i < squares.length && squares[i] == opponentPiece) {
+                i += direction;
+            }
+
+            //The pieces between the placed piece and an own piece are flipped
+            if (i >= 0 && i < squares.length && squares[i] == piece) {
+                for (int j = square + direction; j != i; j += direction) {
+                    squares[j] = piece;
+                    flippedMask |= 1 << j;
+                }
+            }
+        }
+
+        return flippedMask;
+    }
+
+    /**
+     * This method converts a configuration into the SquareState ordinals of its squares.
+     *
+     * @param configuration The configuration.
+     * @param squares       The array the ordinals are written to.
+     */
+    private void decode(int configuration, int[] squares) {
+        for (int i = 0; i < squares.length; i++) {
+            squares[i] = configuration % 3;
+            configuration /= 3;
+        }
+    }
+
+    /**
+     * This method returns the squares that are not empty.
+     *
+     * @param squares The squares of the edge.
+     *
+     * @return The bit mask of the occupied squares.
+     */
+    private int getOccupiedMask(int[] squares) {
+        int occupiedMask = 0;
+        for (int i = 0; i < squares.length; i++) {
+            if (squares[i] != EMPTY) {
+                occupiedMask |= 1 << i;
+            }
+        }
+
+        return occupiedMask;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package reversi.evaluation.stability;
+
+import org.junit.Test;
+import reversi.board.Board;
+import reversi.board.GameMove;
+import reversi.board.GamePosition;
+import reversi.board.ReversiBoard;
+import reversi.board.SquareState;
+import reversi.player.Player;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The StabilityAnalyserTest plays random games with a fixed seed and checks after every move that no piece that was
+ * found to be stable has been flipped, and that the final difference of pieces never exceeds the maximal difference.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public class StabilityAnalyserTest {
+    //The number of random games
+    private static final int GAMES = 200;
+    //The seed of the random games
+    private static final long SEED = 20160818L;
+
+    /**
+     * This method tests that stable pieces keep their color until the end of the game.
+     */
+    @Test
+    public void testStablePiecesAreNeverFlipped() {
+        StabilityAnalyser stabilityAnalyser = new StabilityAnalyser();
+        Random random = new Random(SEED);
+        long stablePieces = 0;
+
+        for (int game = 0; game < GAMES; game++) {
+            Board board = new ReversiBoard();
+            Player player = Player.BLACK;
+            int boardSize = board.getBoardWidth();
+
+            //The color every square had when its piece was found to be stable, null if it was never stable
+            SquareState[] stableStates = new SquareState[boardSize * boardSize];
+
+            while (true) {
+                stabilityAnalyser.analyse(board);
+
+                for (int y = 0; y < boardSize; y++) {
+                    for (int x = 0; x < boardSize; x++) {
+                        SquareState stableState = stableStates[y * boardSize + x];
+                        if (stableState != null) {
+                            assertEquals("Flipped stable piece at " + x + "," + y + ", game " + game, stableState,
+                                    board.getSquareState(x, y));
+                            assertTrue("Stable piece not found again at " + x + "," + y + ", game " + game,
+                                    stabilityAnalyser.isStable(x, y));
+                        } else if (stabilityAnalyser.isStable(x, y)) {
+                            assertTrue("Empty square is stable", board.getSquareState(x, y) != SquareState.EMPTY);
+                            stableStates[y * boardSize + x] = board.getSquareState(x, y);
+                            stablePieces++;
+                        }
+                    }
+                }
+
+                if (!board.hasAnyPlayerAnyLegalMoves()) {
+                    break;
+                }
+
+                GamePosition nextPosition = makeRandomMove(random, board, player);
+                board = nextPosition.getBoard();
+                player = nextPosition.getCurrentPlayer();
+            }
+        }
+
+        //Otherwise the test would not check anything
+        assertTrue("No stable pieces found", stablePieces > 0);
+    }
+
+    /**
+     * This method tests that the maximal difference of pieces of a position is never exceeded at the end of the game.
+     */
+    @Test
+    public void testMaximalDifferenceIsNeverExceeded() {
+        StabilityAnalyser stabilityAnalyser = new StabilityAnalyser();
+        Random random = new Random(SEED);
+
+        for (int game = 0; game < GAMES; game++) {
+            Board board = new ReversiBoard();
+            Player player = Player.BLACK;
+            int[] maximalBlackDifferences = new int[128];
+            int[] maximalWhiteDifferences = new int[128];
+            int positions = 0;
+
+            while (true) {
+                stabilityAnalyser.analyse(board);
+                maximalBlackDifferences[positions] = stabilityAnalyser.getMaximalDifference(Player.BLACK);
+                maximalWhiteDifferences[positions] = stabilityAnalyser.getMaximalDifference(Player.WHITE);
+                positions++;
+
+                if (!board.hasAnyPlayerAnyLegalMoves()) {
+                    break;
+                }
+
+                GamePosition nextPosition = makeRandomMove(random, board, player);
+                board = nextPosition.getBoard();
+                player = nextPosition.getCurrentPlayer();
+            }
+
+            for (int i = 0; i < positions; i++) {
+                assertTrue("Black difference exceeded, game " + game + ", position " + i,
+                        board.countDifference(Player.BLACK) <= maximalBlackDifferences[i]);
+                assertTrue("White difference exceeded, game " + game + ", position " + i,
+                        board.countDifference(Player.WHITE) <= maximalWhiteDifferences[i]);
+            }
+        }
+    }
+
+    /**
+     * This method makes a random legal move. The position after the move is the turn of the opponent, unless the
+     * opponent has to pass.
+     *
+     * @param random The random number generator choosing the move.
+     * @param board  The board, the game must not be over.
+     * @param player The player whose turn it is.
+     *
+     * @return The position after the move.
+     */
+    private GamePosition makeRandomMove(Random random, Board board, Player player) {
+        List<GameMove> legalMoves = board.getAllLegalMoves(player);
+
+        return board.makeMove(legalMoves.get(random.nextInt(legalMoves.size())), player);
+    }
+}
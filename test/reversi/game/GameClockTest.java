@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package reversi.game;
+
+import org.junit.Test;
+import reversi.player.Player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The GameClockTest checks that only the running clock loses time and that the increment is only added to a player
+ * who has moved in time.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public class GameClockTest {
+    //The base time in milliseconds of the clocks
+    private static final long BASE_TIME = 60000;
+    //The increment in milliseconds of the clocks
+    private static final long INCREMENT = 2000;
+    //The time in milliseconds a clock runs in the tests
+    private static final long MOVE_TIME = 50;
+
+    /**
+     * This method tests that a new clock is stopped and both players have the base time.
+     */
+    @Test
+    public void testNewClock() {
+        GameClock clock = new GameClock(BASE_TIME, INCREMENT);
+
+        assertEquals(null, clock.getRunningPlayer());
+        assertEquals(BASE_TIME, clock.getRemainingTime(Player.BLACK));
+        assertEquals(BASE_TIME, clock.getRemainingTime(Player.WHITE));
+        assertEquals(BASE_TIME, clock.getBaseTime());
+        assertEquals(INCREMENT, clock.getIncrement());
+    }
+
+    /**
+     * This method tests that the running time is subtracted only from the player whose clock runs and that the
+     * increment is added after the move.
+     */
+    @Test
+    public void testPressAddsTheIncrement() throws InterruptedException {
+        GameClock clock = new GameClock(BASE_TIME, INCREMENT);
+        clock.start(Player.BLACK);
+        assertEquals(Player.BLACK, clock.getRunningPlayer());
+
+        Thread.sleep(MOVE_TIME);
+        //The running time is part of the remaining time
+        assertTrue(clock.getRemainingTime(Player.BLACK) <= BASE_TIME - MOVE_TIME);
+
+        assertTrue(clock.press());
+        assertEquals(null, clock.getRunningPlayer());
+
+        long remainingTime = clock.getRemainingTime(Player.BLACK);
+        assertTrue("Remaining time " + remainingTime, remainingTime <= BASE_TIME + INCREMENT - MOVE_TIME);
+        assertTrue("Remaining time " + remainingTime, remainingTime > BASE_TIME);
+        assertEquals(BASE_TIME, clock.getRemainingTime(Player.WHITE));
+
+        //A stopped clock does not lose time
+        Thread.sleep(MOVE_TIME);
+        assertEquals(remainingTime, clock.getRemainingTime(Player.BLACK));
+    }
+
+    /**
+     * This method tests that neither pausing nor starting the other clock adds the increment.
+     */
+    @Test
+    public void testPauseDoesNotAddTheIncrement() throws InterruptedException {
+        GameClock clock = new GameClock(BASE_TIME, INCREMENT);
+        clock.start(Player.BLACK);
+        Thread.sleep(MOVE_TIME);
+        clock.pause();
+        assertTrue(clock.getRemainingTime(Player.BLACK) <= BASE_TIME - MOVE_TIME);
+
+        clock.start(Player.WHITE);
+        Thread.sleep(MOVE_TIME);
+        clock.start(Player.BLACK);
+        assertEquals(Player.BLACK, clock.getRunningPlayer());
+        assertTrue(clock.getRemainingTime(Player.WHITE) <= BASE_TIME - MOVE_TIME);
+
+        //A press without running clock does nothing
+        clock.pause();
+        long remainingTime = clock.getRemainingTime(Player.BLACK);
+        assertTrue(clock.press());
+        assertEquals(remainingTime, clock.getRemainingTime(Player.BLACK));
+    }
+
+    /**
+     * This method tests that a player whose time is used up does not get the increment.
+     */
+    @Test
+    public void testTimeUsedUp() throws InterruptedException {
+        GameClock clock = new GameClock(1, INCREMENT);
+        clock.start(Player.WHITE);
+        Thread.sleep(MOVE_TIME);
+
+        assertTrue(clock.isTimeUsedUp(Player.WHITE));
+        assertFalse(clock.isTimeUsedUp(Player.BLACK));
+        assertFalse(clock.press());
+        assertTrue(clock.getRemainingTime(Player.WHITE) <= 0);
+
+        clock.reset();
+        assertEquals(1, clock.getRemainingTime(Player.WHITE));
+        assertEquals(null, clock.getRunningPlayer());
+    }
+
+    /**
+     * This method tests that invalid times are rejected.
+     */
+    @Test
+    public void testInvalidTimes() {
+        try {
+            new GameClock(0, INCREMENT);
+            fail("A clock without base time was created");
+        } catch (IllegalArgumentException expected) {
+            //The base time has to be positive
+        }
+
+        try {
+            new GameClock(BASE_TIME, -1);
+            fail("A clock with a negative increment was created");
+        } catch (IllegalArgumentException expected) {
+            //The increment can not be negative
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package reversi.game;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The GameConfigurationTest writes configurations to temporary files. It checks that flush() waits for all changes,
+ * that the file is always complete while it is rewritten and that pending changes are written when the JVM exits.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public class GameConfigurationTest {
+    //The number of keys of the configuration that is rewritten while it is read
+    private static final int KEYS = 200;
+    //The number of times the file is read while it is rewritten
+    private static final int READS = 200;
+    //The time in seconds the JVM writing the configuration may take
+    private static final long PROCESS_TIMEOUT = 60;
+
+    /**
+     * This method tests that all changes are in the file after flush() and that the file can be loaded again.
+     */
+    @Test
+    public void testFlushWritesAllChanges() throws IOException {
+        File file = createTemporaryFile();
+        try {
+            GameConfiguration configuration = new TestConfiguration(file);
+            configuration.setProperty("first", "1");
+            configuration.beginTransaction().setProperty("second", "2").setProperty("third", "3").commit();
+            configuration.setProperty("first", "4");
+            configuration.flush();
+
+            Properties properties = load(file);
+            assertEquals("4", properties.getProperty("first"));
+            assertEquals("2", properties.getProperty("second"));
+            assertEquals("3", properties.getProperty("third"));
+            assertFalse("Temporary file left", new File(file.getPath() + ".tmp").exists());
+
+            //A new configuration reads the written values
+            assertEquals("2", new TestConfiguration(file).getProperty("second", "default"));
+        } finally {
+            delete(file);
+        }
+    }
+
+    /**
+     * This method tests that a default value is written to the file without an explicit change.
+     */
+    @Test
+    public void testDefaultValueIsWritten() throws IOException {
+        File file = createTemporaryFile();
+        try {
+            GameConfiguration configuration = new TestConfiguration(file);
+            assertEquals("default", configuration.getProperty("missing", "default"));
+            configuration.flush();
+
+            assertEquals("default", load(file).getProperty("missing"));
+        } finally {
+            delete(file);
+        }
+    }
+
+    /**
+     * This method tests that a reader never sees a half written file while the configuration is changed many times.
+     */
+    @Test
+    public void testFileIsNeverHalfWritten() throws Exception {
+        File file = createTemporaryFile();
+        try {
+            final GameConfiguration configuration = new TestConfiguration(file);
+            GameConfiguration.Transaction transaction = configuration.beginTransaction();
+            for (int i = 0; i < KEYS; i++) {
+                transaction.setProperty("key" + i, "value");
+            }
+            transaction.commit();
+            configuration.flush();
+
+            final AtomicBoolean isFinished = new AtomicBoolean(false);
+            final AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread changer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; !isFinished.get(); i++) {
+                            configuration.setProperty("key" + (i % KEYS), "value" + i);
+                        }
+                    } catch (Throwable t) {
+                        failure.set(t);
+                    }
+                }
+            });
+            changer.start();
+
+            try {
+                for (int i = 0; i < READS; i++) {
+                    assertEquals("Keys in read " + i, KEYS, load(file).size());
+                }
+            } finally {
+                isFinished.set(true);
+                changer.join();
+            }
+
+            assertEquals(null, failure.get());
+            configuration.flush();
+        } finally {
+            delete(file);
+        }
+    }
+
+    /**
+     * This method tests that a change that is still pending when the JVM exits is written by the shutdown hook.
+     */
+    @Test
+    public void testPendingChangesAreWrittenOnExit() throws Exception {
+        File file = createTemporaryFile();
+        try {
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    GameConfigurationTest.class.getName(), file.getPath()).inheritIO().start();
+
+            //Process.waitFor(long, TimeUnit) does not exist in Java 7
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(PROCESS_TIMEOUT);
+            while (isAlive(process)) {
+                assertTrue("The process did not exit", System.nanoTime() < deadline);
+                Thread.sleep(10);
+            }
+
+            assertEquals(0, process.exitValue());
+            assertEquals("written", load(file).getProperty("exit"));
+        } finally {
+            delete(file);
+        }
+    }
+
+    /**
+     * This method changes the configuration of the given file and exits without flushing. It is started in its own
+     * JVM by testPendingChangesAreWrittenOnExit().
+     *
+     * @param args The path of the configuration file.
+     */
+    public static void main(String[] args) {
+        new TestConfiguration(new File(args[0])).setProperty("exit", "written");
+    }
+
+    /**
+     * This method checks if a process is still running.
+     *
+     * @param process The process.
+     *
+     * @return true if the process has not exited yet.
+     */
+    private static boolean isAlive(Process process) {
+        try {
+            process.exitValue();
+            return false;
+        } catch (IllegalThreadStateException itse) {
+            return true;
+        }
+    }
+
+    /**
+     * This method creates the name of a configuration file that does not exist yet.
+     *
+     * @return The file.
+     */
+    private static File createTemporaryFile() throws IOException {
+        File file = File.createTempFile("configuration", ".properties");
+        assertTrue(file.delete());
+        return file;
+    }
+
+    /**
+     * This method loads a configuration file.
+     *
+     * @param file The file.
+     *
+     * @return The properties of the file.
+     */
+    private static Properties load(File file) throws IOException {
+        Properties properties = new Properties();
+        InputStream inputStream = new FileInputStream(file);
+        try {
+            properties.load(inputStream);
+        } finally {
+            inputStream.close();
+        }
+
+        return properties;
+    }
+
+    /**
+     * This method deletes a configuration file and its temporary file.
+     *
+     * @param file The file.
+     */
+    private static void delete(File file) {
+        file.delete();
+        new File(file.getPath() + ".tmp").delete();
+    }
+
+    /**
+     * The TestConfiguration is a GameConfiguration stored in the given file.
+     */
+    private static class TestConfiguration extends GameConfiguration {
+        /**
+         * Constructor of a TestConfiguration.
+         *
+         * @param file The configuration file.
+         */
+        TestConfiguration(File file) {
+            super(file.getPath());
+        }
+    }
+}
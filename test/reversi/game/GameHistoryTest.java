@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package reversi.game;
+
+import org.junit.Test;
+import reversi.actor.HumanActor;
+import reversi.board.Board;
+import reversi.board.GameMove;
+import reversi.board.GamePosition;
+import reversi.board.ReversiBoard;
+import reversi.player.ActorsPair;
+import reversi.player.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The GameHistoryTest plays random games with a fixed seed and checks that the GameHistory restores every position and
+ * move, across the snapshots and after truncating. It also checks taking back moves in a ReversiGame.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public class GameHistoryTest {
+    //The number of random games
+    private static final int GAMES = 50;
+    //The seed of the random games
+    private static final long SEED = 20160804L;
+
+    /**
+     * This method tests that every position and move of a game is restored from the history.
+     */
+    @Test
+    public void testPositionsAreRestored() {
+        Random random = new Random(SEED);
+        int passes = 0;
+
+        for (int game = 0; game < GAMES; game++) {
+            List<GamePosition> gamePositions = new ArrayList<>();
+            List<GameMove> gameMoves = new ArrayList<>();
+            playRandomGame(random, gamePositions, gameMoves);
+
+            GameHistory gameHistory = createHistory(gamePositions, gameMoves);
+            assertHistory(gameHistory, gamePositions, gameMoves, gameMoves.size());
+
+            //After a pass the same player moves again
+            for (int i = 1; i < gamePositions.size(); i++) {
+                if (gamePositions.get(i).getCurrentPlayer() == gamePositions.get(i - 1).getCurrentPlayer()) {
+                    passes++;
+                }
+            }
+        }
+
+        //Otherwise the test would not cover the player of the positions after a pass
+        assertTrue("No pass in the games", passes > 0);
+    }
+
+    /**
+     * This method tests truncating the history before, on and after a snapshot and adding the moves again.
+     */
+    @Test
+    public void testTruncate() {
+        Random random = new Random(SEED);
+        List<GamePosition> gamePositions = new ArrayList<>();
+        List<GameMove> gameMoves = new ArrayList<>();
+        playRandomGame(random, gamePositions, gameMoves);
+
+        for (int moveNumber : new int[]{0, 1, 15, 16, 17, 31, 32, 33, gameMoves.size()}) {
+            GameHistory gameHistory = createHistory(gamePositions, gameMoves);
+            gameHistory.truncate(moveNumber);
+
+            assertHistory(gameHistory, gamePositions, gameMoves, moveNumber);
+            for (int i = moveNumber + 1; i < gamePositions.size(); i++) {
+                assertFalse("Removed position " + i + " found", gameHistory.contains(gamePositions.get(i)));
+            }
+
+            //The history can go on after the truncated position
+            for (int i = moveNumber; i < gameMoves.size(); i++) {
+                gameHistory.addMove(gameMoves.get(i), gamePositions.get(i + 1));
+            }
+            assertHistory(gameHistory, gamePositions, gameMoves, gameMoves.size());
+        }
+    }
+
+    /**
+     * This method tests that taking back a move removes the last human move and all computer moves after it.
+     */
+    @Test
+    public void testTakeBackMove() {
+        ReversiGame reversiGame = new ReversiGame(new ActorsPair(new HumanActor(), new HumanActor()));
+        Player humanPlayer = reversiGame.determineHumanPlayer();
+
+        Random random = new Random(SEED);
+        List<GamePosition> gamePositions = new ArrayList<>();
+        List<GameMove> gameMoves = new ArrayList<>();
+        playRandomGame(random, gamePositions, gameMoves);
+        for (int i = 0; i < gameMoves.size(); i++) {
+            reversiGame.setGamePosition(gameMoves.get(i), gamePositions.get(i + 1));
+        }
+
+        //Take back moves until the start of the game
+        int moveNumber = gameMoves.size();
+        while (moveNumber > 1) {
+            reversiGame.onTakeBackMove();
+
+            //The last removed move was made by the human player, all moves after it by the computer
+            int expectedMoveNumber = moveNumber;
+            while (expectedMoveNumber > 1 &&
+                    gamePositions.get(expectedMoveNumber - 1).getCurrentPlayer() != humanPlayer) {
+                expectedMoveNumber--;
+            }
+            expectedMoveNumber--;
+
+            assertEquals("Take back from move " + moveNumber, expectedMoveNumber, reversiGame.getNumberOfMoves());
+            assertEquals(gamePositions.get(expectedMoveNumber), reversiGame.getGamePosition());
+            moveNumber = expectedMoveNumber;
+        }
+
+        //A single move can not be taken back
+        reversiGame.onTakeBackMove();
+        assertEquals(moveNumber, reversiGame.getNumberOfMoves());
+    }
+
+    /**
+     * This method tests that a game can be continued from an earlier position.
+     */
+    @Test
+    public void testJumpToMove() {
+        ReversiGame reversiGame = new ReversiGame(new ActorsPair(new HumanActor(), new HumanActor()));
+
+        Random random = new Random(SEED);
+        List<GamePosition> gamePositions = new ArrayList<>();
+        List<GameMove> gameMoves = new ArrayList<>();
+        playRandomGame(random, gamePositions, gameMoves);
+        for (int i = 0; i < gameMoves.size(); i++) {
+            reversiGame.setGamePosition(gameMoves.get(i), gamePositions.get(i + 1));
+        }
+
+        reversiGame.onJumpToMove(20);
+
+        assertEquals(20, reversiGame.getNumberOfMoves());
+        assertEquals(gamePositions.get(20), reversiGame.getGamePosition());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(gamePositions.get(i), reversiGame.getGamePosition(i));
+            assertEquals(gameMoves.get(i), reversiGame.getGameMove(i));
+        }
+
+        //The game record starts at the start position and contains the moves before the position
+        GameRecord gameRecord = reversiGame.getGameRecord();
+        assertEquals(gamePositions.get(0), gameRecord.getStartPosition());
+        assertEquals(gameMoves.subList(0, 20), gameRecord.getGameMoves());
+    }
+
+    /**
+     * This method plays a random game from the start position to its end.
+     *
+     * @param random        The random number generator choosing the moves.
+     * @param gamePositions The list the positions of the game are added to, starting with the start position.
+     * @param gameMoves     The list the moves of the game are added to.
+     */
+    private void playRandomGame(Random random, List<GamePosition> gamePositions, List<GameMove> gameMoves) {
+        GamePosition gamePosition = new GamePosition(new ReversiBoard(), Player.BLACK);
+        gamePositions.add(gamePosition);
+
+        while (gamePosition.getBoard().hasAnyPlayerAnyLegalMoves()) {
+            Board board = gamePosition.getBoard();
+            List<GameMove> legalMoves = board.getAllLegalMoves(gamePosition.getCurrentPlayer());
+            GameMove gameMove = legalMoves.get(random.nextInt(legalMoves.size()));
+
+            gamePosition = board.makeMove(gameMove, gamePosition.getCurrentPlayer());
+            gamePositions.add(gamePosition);
+            gameMoves.add(gameMove);
+        }
+    }
+
+    /**
+     * This method creates a history containing all moves of a game.
+     *
+     * @param gamePositions The positions of the game.
+     * @param gameMoves     The moves of the game.
+     *
+     * @return The GameHistory.
+     */
+    private GameHistory createHistory(List<GamePosition> gamePositions, List<GameMove> gameMoves) {
+        GameHistory gameHistory = new GameHistory();
+        gameHistory.reset(gamePositions.get(0));
+        for (int i = 0; i < gameMoves.size(); i++) {
+            gameHistory.addMove(gameMoves.get(i), gamePositions.get(i + 1));
+        }
+
+        return gameHistory;
+    }
+
+    /**
+     * This method checks that a history contains the first moves of a game.
+     *
+     * @param gameHistory   The GameHistory.
+     * @param gamePositions The positions of the game.
+     * @param gameMoves     The moves of the game.
+     * @param numberOfMoves The number of moves the history should contain.
+     */
+    private void assertHistory(GameHistory gameHistory, List<GamePosition> gamePositions, List<GameMove> gameMoves,
+                               int numberOfMoves) {
+        assertEquals(numberOfMoves, gameHistory.getNumberOfMoves());
+
+        for (int i = 0; i <= numberOfMoves; i++) {
+            GamePosition gamePosition = gamePositions.get(i);
+
+            assertEquals("Position " + i, gamePosition, gameHistory.getGamePosition(i));
+            assertEquals("Player " + i, gamePosition.getCurrentPlayer(), gameHistory.getCurrentPlayer(i));
+            assertTrue("Position " + i + " not found", gameHistory.contains(gamePosition));
+            if (i < numberOfMoves) {
+                assertEquals("Move " + i, gameMoves.get(i), gameHistory.getGameMove(i));
+            }
+        }
+    }
+}
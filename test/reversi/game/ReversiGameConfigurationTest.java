@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2016. Sascha Lutzenberger. All rights reserved.
+ *
+ * This file is part of the project "Reversi_Reference_Implementation"
+ *
+ * Redistribution and use in source and binary forms, without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - The author of this source code has given you the permission to use this
+ *   source code.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ * - The code is not used in commercial projects, except you got the permission
+ *   for using the code in any commercial projects from the author.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package reversi.game;
+
+import org.junit.Test;
+import reversi.player.Player;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The ReversiGameConfigurationTest changes the configuration and checks the published snapshots and the notified
+ * listeners. Every test restores the values it has changed.
+ *
+ * @author Sascha Lutzenberger
+ * @version 1.0 - 21. August 2016
+ */
+public class ReversiGameConfigurationTest {
+    //The keys that are changed by the tests
+    private static final String[] CHANGED_KEYS = {ReversiGameConfiguration.BOARD_SIZE,
+            ReversiGameConfiguration.ALGORITHM_SEARCH_DEPTH, ReversiGameConfiguration.HUMAN_PLAYER_COLOR,
+            ReversiGameConfiguration.BOOK_SCORE_WINDOW};
+    //The default values of the changed keys, a key that was not stored before is restored with its default value
+    private static final String[] DEFAULT_VALUES = {Integer.toString(ConfigurationSnapshot.DEFAULT_BOARD_SIZE),
+            Integer.toString(ConfigurationSnapshot.DEFAULT_SEARCH_DEPTH),
+            ConfigurationSnapshot.DEFAULT_HUMAN_PLAYER_COLOR,
+            Integer.toString(ConfigurationSnapshot.DEFAULT_BOOK_SCORE_WINDOW)};
+
+    //The configuration of the game
+    private final ReversiGameConfiguration configuration = ReversiGameConfiguration.getInstance();
+
+    /**
+     * This method tests that a Transaction publishes one snapshot containing all of its changes.
+     */
+    @Test
+    public void testTransactionPublishesOneSnapshot() {
+        String[] originalValues = readValues();
+        RecordingListener listener = new RecordingListener();
+        configuration.addConfigurationListener(listener);
+
+        try {
+            ConfigurationSnapshot oldSnapshot = configuration.getSnapshot();
+            Player otherPlayer = oldSnapshot.getHumanPlayer().getOpponent();
+            int otherBoardSize = (oldSnapshot.getBoardSize() == 6) ? 10 : 6;
+
+            configuration.beginTransaction()
+                    .setProperty(ReversiGameConfiguration.BOARD_SIZE, Integer.toString(otherBoardSize))
+                    .setProperty(ReversiGameConfiguration.ALGORITHM_SEARCH_DEPTH, "3")
+                    .setProperty(ReversiGameConfiguration.HUMAN_PLAYER_COLOR, otherPlayer.name().toLowerCase())
+                    .commit();
+
+            ConfigurationSnapshot snapshot = configuration.getSnapshot();
+            assertEquals(otherBoardSize, snapshot.getBoardSize());
+            assertEquals(3, snapshot.getSearchDepth());
+            assertEquals(otherPlayer, snapshot.getHumanPlayer());
+
+            //The listener gets the new snapshot once, the old snapshot keeps its values
+            assertEquals(1, listener.snapshots.size());
+            assertTrue(listener.snapshots.get(0) == snapshot);
+            assertEquals(otherPlayer.getOpponent(), oldSnapshot.getHumanPlayer());
+        } finally {
+            configuration.removeConfigurationListener(listener);
+            restoreValues(originalValues);
+        }
+    }
+
+    /**
+     * This method tests that invalid values are replaced by their default values.
+     */
+    @Test
+    public void testInvalidValuesUseDefaults() {
+        String[] originalValues = readValues();
+
+        try {
+            configuration.beginTransaction()
+                    .setProperty(ReversiGameConfiguration.ALGORITHM_SEARCH_DEPTH, "deep")
+                    .setProperty(ReversiGameConfiguration.BOOK_SCORE_WINDOW, "-5")
+                    .commit();
+
+            ConfigurationSnapshot snapshot = configuration.getSnapshot();
+            assertEquals(ConfigurationSnapshot.DEFAULT_SEARCH_DEPTH, snapshot.getSearchDepth());
+            assertEquals(0, snapshot.getBookScoreWindow());
+        } finally {
+            restoreValues(originalValues);
+        }
+    }
+
+    /**
+     * This method tests that a removed listener is not notified any more.
+     */
+    @Test
+    public void testRemovedListenerIsNotNotified() {
+        String[] originalValues = readValues();
+        RecordingListener listener = new RecordingListener();
+
+        try {
+            configuration.addConfigurationListener(listener);
+            configuration.setProperty(ReversiGameConfiguration.ALGORITHM_SEARCH_DEPTH, "2");
+            configuration.removeConfigurationListener(listener);
+            configuration.setProperty(ReversiGameConfiguration.ALGORITHM_SEARCH_DEPTH, "4");
+
+            assertEquals(1, listener.snapshots.size());
+            assertEquals(2, listener.snapshots.get(0).getSearchDepth());
+            assertEquals(4, configuration.getSnapshot().getSearchDepth());
+        } finally {
+            configuration.removeConfigurationListener(listener);
+            restoreValues(originalValues);
+        }
+    }
+
+    /**
+     * This method reads the values of all keys that are changed by the tests.
+     *
+     * @return The values in the order of CHANGED_KEYS.
+     */
+    private String[] readValues() {
+        String[] values = new String[CHANGED_KEYS.length];
+        for (int i = 0; i < CHANGED_KEYS.length; i++) {
+            values[i] = configuration.readProperty(CHANGED_KEYS[i], DEFAULT_VALUES[i]);
+        }
+
+        return values;
+    }
+
+    /**
+     * This method restores the values of all keys that are changed by the tests.
+     *
+     * @param values The values returned by readValues().
+     */
+    private void restoreValues(String[] values) {
+        GameConfiguration.Transaction transaction = configuration.beginTransaction();
+        for (int i = 0; i < CHANGED_KEYS.length; i++) {
+            transaction.setProperty(CHANGED_KEYS[i], values[i]);
+        }
+        transaction.commit();
+        configuration.flush();
+    }
+
+    /**
+     * The RecordingListener stores every snapshot it is notified with.
+     */
+    private static class RecordingListener implements ReversiGameConfiguration.ConfigurationListener {
+        //The snapshots in the order of the notifications
+        private final List<ConfigurationSnapshot> snapshots = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void configurationChanged(ConfigurationSnapshot snapshot) {
+            snapshots.add(snapshot);
+        }
+    }
+}